@@ -0,0 +1,131 @@
+package com.bryanchacosky.core.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import playn.core.Image;
+import playn.core.ImageLayer;
+
+import com.bryanchacosky.core.SkyDiver;
+import com.bryanchacosky.core.utilities.Animator;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Benchmarks the {@link Animator}'s tweens: an update of sprite animations and scrolling layers such as the helicopter
+ * and the clouds, and a position tween run from start to finish.
+ *
+ * @author Bryan Chacosky
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( value = 1, jvmArgsAppend = "-Dskydiver.assets=../resources" )
+public class AnimatorBenchmark
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Number of animated layers. */
+  private static final int LayerCount = 16;
+
+  /** Duration of a position tween, in milliseconds. */
+  private static final long TweenDuration = 1000;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Animated layers. */
+  private final ImageLayer[ ] layers = new ImageLayer[ AnimatorBenchmark.LayerCount ];
+
+  /** Layer moved by the position tweens. */
+  private ImageLayer tweenLayer;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Animates and scrolls the layers, with frames the size of the helicopter's.
+   *
+   * @param headless - Headless session.
+   */
+  @Setup( Level.Trial )
+  public void setup( final HeadlessSession headless )
+  {
+    final Image[ ] frames = new Image[ 3 ];
+    for ( int i = 0; i != frames.length; ++i )
+      frames[ i ] = headless.session.graphics( ).createImage( 112, 44 );
+
+    final Animator animator = headless.session.getAnimator( );
+    for ( int i = 0; i != this.layers.length; ++i )
+    {
+      this.layers[ i ] = headless.session.graphics( ).createImageLayer( frames[ 0 ] );
+      this.layers[ i ].setTranslation( i * 90.0f, i * 60.0f );
+      animator.setAnimation( this.layers[ i ], 75, frames );
+      animator.setScrolling( this.layers[ i ], 4000 + i * 250 );
+    }
+
+    this.tweenLayer = headless.session.graphics( ).createImageLayer( frames[ 0 ] );
+  }
+
+  /**
+   * Stops the animations.
+   *
+   * @param headless - Headless session.
+   */
+  @TearDown( Level.Trial )
+  public void tearDown( final HeadlessSession headless )
+  {
+    final Animator animator = headless.session.getAnimator( );
+    for ( int i = 0; i != this.layers.length; ++i )
+    {
+      animator.clearAnimation( this.layers[ i ] );
+      animator.clearScrolling( this.layers[ i ] );
+    }
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Runs one fixed update of the animated and scrolling layers.
+   *
+   * @param headless - Headless session.
+   * @return First layer.
+   */
+  @Benchmark
+  public ImageLayer update( final HeadlessSession headless )
+  {
+    headless.session.getTimers( ).advance( SkyDiver.UpdateRate );
+    return this.layers[ 0 ];
+  }
+
+  /**
+   * Starts a position tween and runs it to the end, one update at a time.
+   *
+   * @param headless - Headless session.
+   * @return Tweened layer.
+   */
+  @Benchmark
+  public ImageLayer lerp( final HeadlessSession headless )
+  {
+    this.tweenLayer.setTranslation( 0.0f, 0.0f );
+    headless.session.getAnimator( ).lerp( this.tweenLayer, 720.0f, 540.0f, AnimatorBenchmark.TweenDuration );
+    headless.advance( AnimatorBenchmark.TweenDuration );
+    return this.tweenLayer;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
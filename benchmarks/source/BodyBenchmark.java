@@ -0,0 +1,113 @@
+package com.bryanchacosky.core.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bryanchacosky.core.SkyDiver;
+import com.bryanchacosky.core.simulation.Body;
+import com.bryanchacosky.core.simulation.PhysicsBackend;
+import com.bryanchacosky.core.simulation.Round;
+import com.bryanchacosky.core.simulation.RoundSimulator;
+import com.bryanchacosky.core.simulation.WindField;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Benchmarks the integration and the ground test of a {@link Body}, which the physics layers and the round simulator
+ * delegate to, on each physics backend.
+ *
+ * @author Bryan Chacosky
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class BodyBenchmark
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Width of the window. */
+  private static final int Width = 1440;
+
+  /** Height of the window. */
+  private static final int Height = 810;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Physics backend of the body. */
+  @Param( { "Float", "Fixed" } )
+  public PhysicsBackend backend;
+
+  /** Round the body falls in. */
+  private Round round;
+
+  /** Wind the body falls through. */
+  private WindField windField;
+
+  /** Falling body. */
+  private Body body;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Creates the body in the wind of a round.
+   */
+  @Setup( Level.Trial )
+  public void setup( )
+  {
+    this.round = new Round( 1, BodyBenchmark.Width, BodyBenchmark.Height );
+    this.windField = this.round.createWindField( );
+    this.body = this.backend.createBody( );
+    this.body.setVerticalAcceleration( Body.DefaultVerticalAcceleration );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Integrates one fixed step of the body through the wind, dropping it back in from the top once it falls off the
+   * bottom.
+   *
+   * @return Height of the body.
+   */
+  @Benchmark
+  public float step( )
+  {
+    if ( this.body.getY( ) > BodyBenchmark.Height )
+    {
+      this.body.setPosition( BodyBenchmark.Width / 2, 0.0f );
+      this.body.setVerticalVelocity( 0.0f );
+    }
+
+    this.body.step( SkyDiver.UpdateRate, this.windField );
+    return this.body.getY( );
+  }
+
+  /**
+   * Tests the body, the size of the jumper, against the ground.
+   *
+   * @return True if the body is on the ground.
+   */
+  @Benchmark
+  public boolean intersects( )
+  {
+    return this.body.intersects( RoundSimulator.DefaultJumperWidth, RoundSimulator.DefaultJumperHeight, this.round.getGroundX( ), this.round.getGroundY( ), this.round.getGroundWidth( ), 1.0f );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
@@ -0,0 +1,65 @@
+package com.bryanchacosky.core.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bryanchacosky.core.SkyDiver;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Benchmarks whole frames of the menu on the headless platform: the fixed update, the paint and the layer tree drawn.
+ *
+ * @author Bryan Chacosky
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( value = 1, jvmArgsAppend = "-Dskydiver.assets=../resources" )
+public class FrameBenchmark
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Starts the game on the menu.
+   *
+   * @param headless - Headless session.
+   */
+  @Setup( Level.Trial )
+  public void setup( final HeadlessSession headless )
+  {
+    headless.platform.run( new SkyDiver( headless.session ) );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Runs one frame of the menu.
+   *
+   * @param headless - Headless session.
+   * @return Number of draw calls of the frame.
+   */
+  @Benchmark
+  public long menu( final HeadlessSession headless )
+  {
+    headless.platform.frame( );
+    return headless.platform.getSurface( ).getDrawCallCount( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
@@ -0,0 +1,69 @@
+package com.bryanchacosky.core.benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.bryanchacosky.core.Session;
+import com.bryanchacosky.core.SkyDiver;
+import com.bryanchacosky.core.headless.HeadlessPlatform;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Session on the {@link HeadlessPlatform}, shared by the benchmarks of a fork.  The platform is registered with PlayN
+ * before the session is created, so the game code under test runs against it exactly as it would on a device.
+ *
+ * @author Bryan Chacosky
+ */
+@State( Scope.Benchmark )
+public class HeadlessSession
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Headless platform. */
+  public HeadlessPlatform platform;
+
+  /** Session. */
+  public Session session;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Registers the platform and starts a session on it.
+   */
+  @Setup( Level.Trial )
+  public void setup( )
+  {
+    this.platform = HeadlessPlatform.register( );
+    this.session = new Session( this.platform, 0, null );
+  }
+
+  /**
+   * Ends the session.
+   */
+  @TearDown( Level.Trial )
+  public void tearDown( )
+  {
+    this.session.dispose( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Advances the session's game clock as the game's fixed updates do, running the timers which become due.
+   *
+   * @param duration - Game time to advance, in milliseconds.
+   */
+  public void advance( final long duration )
+  {
+    for ( long time = 0; time < duration; time += SkyDiver.UpdateRate )
+      this.session.getTimers( ).advance( SkyDiver.UpdateRate );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
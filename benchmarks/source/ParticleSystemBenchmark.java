@@ -0,0 +1,135 @@
+package com.bryanchacosky.core.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import playn.core.GroupLayer;
+
+import com.bryanchacosky.core.utilities.ParticleSystem;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Benchmarks firing a burst of particles, as a splat does, and flying it until the particles fade.
+ *
+ * @author Bryan Chacosky
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( value = 1, jvmArgsAppend = "-Dskydiver.assets=../resources" )
+public class ParticleSystemBenchmark
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Number of particles in a burst, as many as a splat fires at most. */
+  private static final int ParticleCount = 100;
+
+  /** Lifespan of a particle, in milliseconds. */
+  private static final long ParticleDuration = 2250;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Layer the particles are fired into. */
+  private GroupLayer layer;
+
+  /** Particle system under test. */
+  private ParticleSystem particles;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Creates the particle system.
+   *
+   * @param headless - Headless session.
+   */
+  @Setup( Level.Trial )
+  public void setup( final HeadlessSession headless )
+  {
+    this.layer = headless.session.graphics( ).createGroupLayer( );
+    this.particles = new ParticleSystem( headless.session )
+    {
+      @Override
+      protected int getParticleCount( )
+      {
+        return ParticleSystemBenchmark.ParticleCount;
+      }
+
+      @Override
+      protected long getParticleDuration( )
+      {
+        return ParticleSystemBenchmark.ParticleDuration;
+      }
+
+      @Override
+      protected int getParticleColor( )
+      {
+        return 0xFFFF0000;
+      }
+
+      @Override
+      protected int getParticleSize( )
+      {
+        return 3;
+      }
+    };
+  }
+
+  /**
+   * Flies the particles fired by the last invocation until they fade, and removes them.
+   *
+   * @param headless - Headless session.
+   */
+  @TearDown( Level.Invocation )
+  public void land( final HeadlessSession headless )
+  {
+    headless.advance( ParticleSystemBenchmark.ParticleDuration );
+    this.layer.clear( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Fires a burst: creates the particle layers and schedules their tweens.
+   *
+   * @return Layer the particles were fired into.
+   */
+  @Benchmark
+  public GroupLayer fire( )
+  {
+    this.particles.fire( this.layer, 720.0f, 540.0f );
+    return this.layer;
+  }
+
+  /**
+   * Fires a burst and flies it, one update at a time, until every particle has faded.
+   *
+   * @param headless - Headless session.
+   * @return Layer the particles were fired into.
+   */
+  @Benchmark
+  public GroupLayer fireAndFly( final HeadlessSession headless )
+  {
+    this.particles.fire( this.layer, 720.0f, 540.0f );
+    headless.advance( ParticleSystemBenchmark.ParticleDuration );
+    return this.layer;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
@@ -0,0 +1,122 @@
+package com.bryanchacosky.core.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import playn.core.Image;
+
+import com.bryanchacosky.core.SkyDiver;
+import com.bryanchacosky.core.graphics.layer.PhysicsLayer;
+import com.bryanchacosky.core.simulation.PhysicsBackend;
+import com.bryanchacosky.core.simulation.Round;
+import com.bryanchacosky.core.simulation.WindField;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Benchmarks a fixed update of {@link PhysicsLayer}s falling through the wind, as the jumper does, on each physics
+ * backend.
+ *
+ * @author Bryan Chacosky
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( value = 1, jvmArgsAppend = "-Dskydiver.assets=../resources" )
+public class PhysicsLayerBenchmark
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Number of falling layers. */
+  private static final int LayerCount = 16;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Physics backend of the layers. */
+  @Param( { "Float", "Fixed" } )
+  public PhysicsBackend backend;
+
+  /** Falling layers. */
+  private final PhysicsLayer[ ] layers = new PhysicsLayer[ PhysicsLayerBenchmark.LayerCount ];
+
+  /** Wind the layers fall through. */
+  private WindField windField;
+
+  /** Width of the window. */
+  private int width;
+
+  /** Height of the window. */
+  private int height;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Creates the layers, the size of the jumper, in the wind of a round.
+   *
+   * @param headless - Headless session.
+   */
+  @Setup( Level.Trial )
+  public void setup( final HeadlessSession headless )
+  {
+    this.width = headless.session.getWindowWidth( );
+    this.height = headless.session.getWindowHeight( );
+    this.windField = new Round( 1, this.width, this.height ).createWindField( );
+
+    final Image image = headless.session.graphics( ).createImage( 10, 26 );
+    for ( int i = 0; i != this.layers.length; ++i )
+    {
+      this.layers[ i ] = new PhysicsLayer( headless.session, image, this.backend );
+      this.layers[ i ].setWindField( this.windField );
+    }
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Runs one fixed update of every layer: the wind, the integration and the ground test, dropping each layer back in
+   * from the top once it leaves the screen.
+   *
+   * @return Number of layers on the ground.
+   */
+  @Benchmark
+  public int update( )
+  {
+    this.windField.update( SkyDiver.UpdateRate );
+
+    int grounded = 0;
+    for ( int i = 0; i != this.layers.length; ++i )
+    {
+      final PhysicsLayer layer = this.layers[ i ];
+      if ( layer.isOnscreen( ) == false )
+      {
+        layer.setTranslation( i * this.width / this.layers.length, 0.0f );
+        layer.setVerticalVelocity( 0.0f );
+        layer.setHorizontalVelocity( 0.0f );
+      }
+
+      layer.update( SkyDiver.UpdateRate );
+      if ( layer.intersects( 0.0f, this.height - 1.0f, this.width, 1.0f ) == true )
+        ++grounded;
+    }
+
+    return grounded;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
@@ -0,0 +1,97 @@
+package com.bryanchacosky.core.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bryanchacosky.core.simulation.PhysicsBackend;
+import com.bryanchacosky.core.simulation.Round;
+import com.bryanchacosky.core.simulation.RoundSimulator;
+import com.bryanchacosky.core.simulation.ScoreSolver;
+import com.bryanchacosky.core.simulation.Solution;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Benchmarks replaying a recorded round with {@link RoundSimulator#seek(long)}: seeking back to the start restores the
+ * first snapshot, and seeking to the end re-simulates from the nearest one, which skips rebuilding the round.
+ *
+ * @author Bryan Chacosky
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class ReplayBenchmark
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Width of the window. */
+  private static final int Width = 1440;
+
+  /** Height of the window. */
+  private static final int Height = 810;
+
+  /** Number of snapshots kept. */
+  private static final int SnapshotCapacity = 256;
+
+  /** Number of steps between snapshots. */
+  private static final int SnapshotInterval = 8;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Simulator of the recorded round. */
+  private RoundSimulator replay;
+
+  /** Time the recorded round ends. */
+  private long end;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Records a round played with its solved jump and parachute timings.
+   */
+  @Setup( Level.Trial )
+  public void setup( )
+  {
+    final Round round = new Round( 1, ReplayBenchmark.Width, ReplayBenchmark.Height );
+    final Solution solution = new Solution( );
+    new ScoreSolver( RoundSimulator.DefaultJumperWidth, RoundSimulator.DefaultJumperHeight, RoundSimulator.DefaultHelicopterWidth, RoundSimulator.DefaultHelicopterHeight ).solve( round, solution );
+
+    this.replay = new RoundSimulator( round, PhysicsBackend.Default );
+    this.replay.enableSnapshots( ReplayBenchmark.SnapshotCapacity, ReplayBenchmark.SnapshotInterval );
+    this.replay.simulate( ( long )solution.getJumpTime( ), ( long )solution.getDeployDelay( ) );
+    this.end = this.replay.getTime( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Seeks back to the start of the round and then to its end.
+   *
+   * @return Completion score.
+   */
+  @Benchmark
+  public int seek( )
+  {
+    this.replay.seek( 0 );
+    this.replay.seek( this.end );
+    return this.replay.getScore( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
@@ -0,0 +1,114 @@
+package com.bryanchacosky.core.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bryanchacosky.core.simulation.PhysicsBackend;
+import com.bryanchacosky.core.simulation.Round;
+import com.bryanchacosky.core.simulation.RoundSimulator;
+import com.bryanchacosky.core.simulation.ScoreSolver;
+import com.bryanchacosky.core.simulation.Solution;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Benchmarks simulating a whole round with the {@link RoundSimulator}, from the helicopter appearing to the landing,
+ * on each physics backend.  The rounds are solved up front, and a fresh simulator is built before every invocation,
+ * so only the simulation of the solved play is timed.
+ *
+ * @author Bryan Chacosky
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class RoundSimulatorBenchmark
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Width of the window. */
+  private static final int Width = 1440;
+
+  /** Height of the window. */
+  private static final int Height = 810;
+
+  /** Number of rounds simulated in turn. */
+  private static final int RoundCount = 16;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Physics backend of the simulator. */
+  @Param( { "Float", "Fixed" } )
+  public PhysicsBackend backend;
+
+  /** Rounds simulated in turn. */
+  private final Round[ ] rounds = new Round[ RoundSimulatorBenchmark.RoundCount ];
+
+  /** Solutions of the rounds. */
+  private final Solution[ ] solutions = new Solution[ RoundSimulatorBenchmark.RoundCount ];
+
+  /** Index of the round simulated next. */
+  private int next = 0;
+
+  /** Simulator of the round simulated next. */
+  private RoundSimulator simulator;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Generates and solves the rounds.
+   */
+  @Setup( Level.Trial )
+  public void setup( )
+  {
+    final ScoreSolver solver = new ScoreSolver( RoundSimulator.DefaultJumperWidth, RoundSimulator.DefaultJumperHeight, RoundSimulator.DefaultHelicopterWidth, RoundSimulator.DefaultHelicopterHeight );
+    for ( int i = 0; i != this.rounds.length; ++i )
+    {
+      this.rounds[ i ] = new Round( i, RoundSimulatorBenchmark.Width, RoundSimulatorBenchmark.Height );
+      this.solutions[ i ] = new Solution( );
+      solver.solve( this.rounds[ i ], this.solutions[ i ] );
+    }
+  }
+
+  /**
+   * Builds a simulator for the next round in turn.
+   */
+  @Setup( Level.Invocation )
+  public void prepare( )
+  {
+    this.next = ( this.next + 1 ) % this.rounds.length;
+    this.simulator = new RoundSimulator( this.rounds[ this.next ], this.backend );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Simulates the round with its solved jump and parachute timings.
+   *
+   * @return Completion score.
+   */
+  @Benchmark
+  public int simulate( )
+  {
+    final Solution solution = this.solutions[ this.next ];
+    return this.simulator.simulate( ( long )solution.getJumpTime( ), ( long )solution.getDeployDelay( ) );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
@@ -0,0 +1,106 @@
+package com.bryanchacosky.core.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bryanchacosky.core.simulation.Round;
+import com.bryanchacosky.core.simulation.RoundSimulator;
+import com.bryanchacosky.core.simulation.ScoreSolver;
+import com.bryanchacosky.core.simulation.Solution;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Benchmarks the {@link ScoreSolver}: solving the round solved last again, which only plays out the candidate jumps,
+ * and solving a new round, which also flies the helicopter across the screen to record the snapshots the candidates
+ * start from.  The game solves each round once, on a worker thread, so a new round is the cost a round pays.
+ *
+ * @author Bryan Chacosky
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class ScoreSolverBenchmark
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Width of the window. */
+  private static final int Width = 1440;
+
+  /** Height of the window. */
+  private static final int Height = 810;
+
+  /** Number of rounds solved in turn. */
+  private static final int RoundCount = 64;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Rounds solved in turn. */
+  private final Round[ ] rounds = new Round[ ScoreSolverBenchmark.RoundCount ];
+
+  /** Index of the next round solved. */
+  private int next = 0;
+
+  /** Solver under test. */
+  private final ScoreSolver solver = new ScoreSolver( RoundSimulator.DefaultJumperWidth, RoundSimulator.DefaultJumperHeight, RoundSimulator.DefaultHelicopterWidth, RoundSimulator.DefaultHelicopterHeight );
+
+  /** Receives the solutions. */
+  private final Solution solution = new Solution( );
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Generates the rounds.
+   */
+  @Setup( Level.Trial )
+  public void setup( )
+  {
+    for ( int i = 0; i != this.rounds.length; ++i )
+      this.rounds[ i ] = new Round( i, ScoreSolverBenchmark.Width, ScoreSolverBenchmark.Height );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Solves the first round again.
+   *
+   * @return Best achievable score.
+   */
+  @Benchmark
+  public int solve( )
+  {
+    this.solver.solve( this.rounds[ 0 ], this.solution );
+    return this.solution.getScore( );
+  }
+
+  /**
+   * Solves the next round in turn.
+   *
+   * @return Best achievable score.
+   */
+  @Benchmark
+  public int solveNewRound( )
+  {
+    this.next = ( this.next + 1 ) % this.rounds.length;
+    this.solver.solve( this.rounds[ this.next ], this.solution );
+    return this.solution.getScore( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.bryanchacosky.core.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import playn.core.CanvasImage;
+
+import com.bryanchacosky.core.graphics.controller.GameController;
+import com.bryanchacosky.core.graphics.layer.CountdownLayer;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Benchmarks rasterizing the text the game shows: a number of the {@link CountdownLayer}, and the completion message of
+ * the {@link GameController}.  Both run on worker threads in the game, so these measure the work kept off the frame.
+ *
+ * @author Bryan Chacosky
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( value = 1, jvmArgsAppend = "-Dskydiver.assets=../resources" )
+public class TextRasterizationBenchmark
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Number counted down next. */
+  private int remainingTime = 3;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Rasterizes the next number of a three second countdown.
+   *
+   * @param headless - Headless session.
+   * @return Image of the number.
+   */
+  @Benchmark
+  public CanvasImage countdown( final HeadlessSession headless )
+  {
+    this.remainingTime = this.remainingTime == 1 ? 3 : this.remainingTime - 1;
+    return CountdownLayer.createCountdownImage( headless.session, this.remainingTime );
+  }
+
+  /**
+   * Rasterizes a completion message with a score, its percentage of the best score and its rank.
+   *
+   * @param headless - Headless session.
+   * @return Image of the message.
+   */
+  @Benchmark
+  public CanvasImage completion( final HeadlessSession headless )
+  {
+    return GameController.createCompletionImage( headless.session, "Score: 4220 (97%)  #3" );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
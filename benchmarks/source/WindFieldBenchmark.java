@@ -0,0 +1,99 @@
+package com.bryanchacosky.core.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bryanchacosky.core.SkyDiver;
+import com.bryanchacosky.core.simulation.Prediction;
+import com.bryanchacosky.core.simulation.Round;
+import com.bryanchacosky.core.simulation.TrajectoryPredictor;
+import com.bryanchacosky.core.simulation.WindField;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Benchmarks the wind of a round: a fixed update of its {@link WindField}, and the closed-form
+ * {@link TrajectoryPredictor} landing prediction for its mean wind, which the landing preview runs every frame.
+ *
+ * @author Bryan Chacosky
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class WindFieldBenchmark
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Width of the window. */
+  private static final int Width = 1440;
+
+  /** Height of the window. */
+  private static final int Height = 810;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Round the wind blows in. */
+  private Round round;
+
+  /** Wind of the round. */
+  private WindField windField;
+
+  /** Receives the predictions. */
+  private final Prediction prediction = new Prediction( );
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Creates the wind of a round.
+   */
+  @Setup( Level.Trial )
+  public void setup( )
+  {
+    this.round = new Round( 1, WindFieldBenchmark.Width, WindFieldBenchmark.Height );
+    this.windField = this.round.createWindField( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Runs one fixed update of the wind.
+   *
+   * @return Time of the wind.
+   */
+  @Benchmark
+  public float update( )
+  {
+    this.windField.update( SkyDiver.UpdateRate );
+    return this.windField.getTime( );
+  }
+
+  /**
+   * Predicts where a jumper, falling from a quarter of the way down the screen, lands if the parachute opens now.
+   *
+   * @return Predicted landing position.
+   */
+  @Benchmark
+  public float predictDeploy( )
+  {
+    TrajectoryPredictor.predictDeploy( this.prediction, WindFieldBenchmark.Width / 2, WindFieldBenchmark.Height / 4, 25.0f, 150.0f, this.round.getWindspeed( ), this.round.getGroundY( ) );
+    return this.prediction.getLandingX( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
@@ -0,0 +1,474 @@
+package com.bryanchacosky.core;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import playn.core.Assets;
+import playn.core.Graphics;
+import playn.core.Keyboard;
+import playn.core.Log;
+import playn.core.Mouse;
+import playn.core.Platform;
+import playn.core.Pointer;
+
+import com.bryanchacosky.core.events.GameEventBus;
+import com.bryanchacosky.core.headless.HeadlessPlatform;
+import com.bryanchacosky.core.network.GhostChannel;
+import com.bryanchacosky.core.network.SpectatorServer;
+import com.bryanchacosky.core.scores.HighScoreTable;
+import com.bryanchacosky.core.scores.LeaderboardClient;
+import com.bryanchacosky.core.statistics.GameStatistics;
+import com.bryanchacosky.core.utilities.Animator;
+import com.bryanchacosky.core.utilities.ImageCache;
+import com.bryanchacosky.core.utilities.JobScheduler;
+import com.bryanchacosky.core.utilities.Profiler;
+import com.bryanchacosky.core.utilities.TimingWheel;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Everything a single game session needs which used to be global: the platform services (clock, input, assets and
+ * graphics), the window size, the random number generator, the image cache, the timing wheel running timed callbacks
+ * on the game clock and the animations built on it, the jobs keeping expensive work off the frame, the profiler, the
+ * bus carrying the session's game events, the statistics of the rounds played, the table the session's scores are
+ * recorded in, the leaderboard they are submitted to, the channel its jumper is streamed to the other players on and
+ * the server its rounds are broadcast to spectators from.  A session is passed to every controller and layer, and nothing mutable is shared
+ * between sessions, so a server can run as many independent sessions as it has platforms.  The only state shared
+ * across sessions is the thread-safe counters totalled up for {@link com.bryanchacosky.core.utilities.Metrics}, which
+ * report on every session in the VM by design.
+ *
+ * @author Bryan Chacosky
+ */
+public class Session
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Fraction of the screen covered by the window. */
+  public static final float WindowScale = 0.75f;
+
+  /** Id given to the next session. */
+  private static final AtomicInteger NextId = new AtomicInteger( 1 );
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Id of the session, unique within the VM. */
+  private final int id = Session.NextId.getAndIncrement( );
+
+  /** Platform providing the services. */
+  private final Platform platform;
+
+  /** Width of the window. */
+  private final int windowWidth;
+
+  /** Height of the window. */
+  private final int windowHeight;
+
+  /** Random number generator. */
+  private final Random random;
+
+  /** Images loaded by the session. */
+  private final ImageCache imageCache;
+
+  /** Timed callbacks of the session, run on the game thread as the game clock advances. */
+  private final TimingWheel timers;
+
+  /** Animations of the session's layers. */
+  private final Animator animator;
+
+  /** Expensive work run a slice at a time each frame, or on worker threads. */
+  private final JobScheduler jobs;
+
+  /** Profiler of the session's frames. */
+  private final Profiler profiler;
+
+  /** Bus carrying the session's game events. */
+  private final GameEventBus events = new GameEventBus( );
+
+  /** Statistics of the session's rounds. */
+  private final GameStatistics statistics = new GameStatistics( );
+
+  /** Table the session's scores are recorded in, or null to keep no scores. */
+  private final HighScoreTable highScores;
+
+  /** Leaderboard the session's scores are submitted to, or null to keep them local. */
+  private final LeaderboardClient leaderboard;
+
+  /** Channel the jumper is streamed on and the other players' ghosts arrive on, or null to race alone. */
+  private final GhostChannel ghosts;
+
+  /** Server the rounds are broadcast to spectators from, or null if nobody is watching. */
+  private final SpectatorServer spectators;
+
+  /** True to step the round simulation from the game's updates rather than a thread of its own. */
+  private volatile boolean simulationInline;
+
+  /** Content layer the session's game is showing, or null. */
+  private com.bryanchacosky.core.graphics.Layer contentLayer = null;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a new session with a random seed.
+   *
+   * @param platform - Platform providing the services.
+   */
+  public Session( final Platform platform )
+  {
+    this( platform, new Random( ).nextLong( ) );
+  }
+
+  /**
+   * Instantiates a new session, recording its scores in the {@link HighScoreTable#getDefault(Log) default} table.
+   *
+   * @param platform - Platform providing the services.
+   * @param seed - Seed of the random number generator.
+   */
+  public Session( final Platform platform, final long seed )
+  {
+    this( platform, seed, HighScoreTable.getDefault( platform.log( ) ) );
+  }
+
+  /**
+   * Instantiates a new session.
+   *
+   * @param platform - Platform providing the services.
+   * @param seed - Seed of the random number generator.
+   * @param highScores - Table the session's scores are recorded in, or null to keep no scores.
+   */
+  public Session( final Platform platform, final long seed, final HighScoreTable highScores )
+  {
+    assert platform != null : "Cannot create a session without a platform!";
+
+    this.platform = platform;
+    this.windowWidth = ( int )( platform.graphics( ).screenWidth( ) * Session.WindowScale );
+    this.windowHeight = ( int )( platform.graphics( ).screenHeight( ) * Session.WindowScale );
+    this.random = new Random( seed );
+    this.imageCache = new ImageCache( this );
+    this.timers = new TimingWheel( );
+    this.animator = new Animator( this );
+    this.jobs = new JobScheduler( platform.log( ) );
+    this.profiler = new Profiler( this );
+    this.highScores = highScores;
+    this.leaderboard = LeaderboardClient.getDefault( platform.log( ) );
+    this.ghosts = GhostChannel.openDefault( platform.log( ) );
+    this.spectators = SpectatorServer.claimDefault( platform.log( ) );
+    this.simulationInline = platform instanceof HeadlessPlatform ? ( ( HeadlessPlatform )platform ).isSimulationInline( ) : Boolean.getBoolean( "skydiver.simulation.inline" );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Removes the content layer, which stops the controller on screen along with its round simulation, cancels every
+   * animation and timed callback of the session, stops the jobs, and closes the ghost channel and spectator server.
+   */
+  public void dispose( )
+  {
+    final com.bryanchacosky.core.graphics.Layer contentLayer = this.contentLayer;
+    this.contentLayer = null;
+    if ( null != contentLayer && null != contentLayer.parent( ) )
+      contentLayer.parent( ).remove( contentLayer );
+
+    this.animator.clear( );
+    this.timers.clear( );
+    this.jobs.shutdown( );
+
+    if ( null != this.spectators )
+      this.spectators.close( );
+
+    if ( null != this.ghosts )
+    {
+      try
+      {
+        this.ghosts.close( );
+      }
+      catch ( final IOException exception )
+      {
+        this.platform.log( ).warn( "Unable to close the ghost channel: " + exception );
+      }
+    }
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Gets the platform providing the services.
+   *
+   * @return Platform.
+   */
+  public Platform platform( )
+  {
+    return this.platform;
+  }
+
+  /**
+   * Gets the graphics service.
+   *
+   * @return Graphics.
+   */
+  public Graphics graphics( )
+  {
+    return this.platform.graphics( );
+  }
+
+  /**
+   * Gets the asset service.
+   *
+   * @return Assets.
+   */
+  public Assets assets( )
+  {
+    return this.platform.assets( );
+  }
+
+  /**
+   * Gets the pointer service.
+   *
+   * @return Pointer.
+   */
+  public Pointer pointer( )
+  {
+    return this.platform.pointer( );
+  }
+
+  /**
+   * Gets the mouse service.
+   *
+   * @return Mouse.
+   */
+  public Mouse mouse( )
+  {
+    return this.platform.mouse( );
+  }
+
+  /**
+   * Gets the keyboard service.
+   *
+   * @return Keyboard.
+   */
+  public Keyboard keyboard( )
+  {
+    return this.platform.keyboard( );
+  }
+
+  /**
+   * Gets the log.
+   *
+   * @return Log.
+   */
+  public Log log( )
+  {
+    return this.platform.log( );
+  }
+
+  /**
+   * Gets the current time of the session's clock.
+   *
+   * @return Time, in milliseconds.
+   */
+  public double currentTime( )
+  {
+    return this.platform.time( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Gets the id of the session, unique within the VM.
+   *
+   * @return Id.
+   */
+  public int getId( )
+  {
+    return this.id;
+  }
+
+  /**
+   * Gets the width of the window.
+   *
+   * @return Window width.
+   */
+  public int getWindowWidth( )
+  {
+    return this.windowWidth;
+  }
+
+  /**
+   * Gets the height of the window.
+   *
+   * @return Window height.
+   */
+  public int getWindowHeight( )
+  {
+    return this.windowHeight;
+  }
+
+  /**
+   * Gets the random number generator.
+   *
+   * @return Random number generator.
+   */
+  public Random getRandom( )
+  {
+    return this.random;
+  }
+
+  /**
+   * Gets the images loaded by the session.
+   *
+   * @return Image cache.
+   */
+  public ImageCache getImageCache( )
+  {
+    return this.imageCache;
+  }
+
+  /**
+   * Gets the timing wheel running the session's timed callbacks.
+   *
+   * @return Timing wheel.
+   */
+  public TimingWheel getTimers( )
+  {
+    return this.timers;
+  }
+
+  /**
+   * Gets the animations of the session's layers.
+   *
+   * @return Animator.
+   */
+  public Animator getAnimator( )
+  {
+    return this.animator;
+  }
+
+  /**
+   * Gets the jobs keeping the session's expensive work off the frame.
+   *
+   * @return Job scheduler.
+   */
+  public JobScheduler getJobs( )
+  {
+    return this.jobs;
+  }
+
+  /**
+   * Gets the profiler of the session's frames.
+   *
+   * @return Profiler.
+   */
+  public Profiler getProfiler( )
+  {
+    return this.profiler;
+  }
+
+  /**
+   * Gets the bus carrying the session's game events.
+   *
+   * @return Event bus.
+   */
+  public GameEventBus getEvents( )
+  {
+    return this.events;
+  }
+
+  /**
+   * Gets the statistics of the session's rounds.
+   *
+   * @return Statistics.
+   */
+  public GameStatistics getStatistics( )
+  {
+    return this.statistics;
+  }
+
+  /**
+   * Gets the table the session's scores are recorded in.  The table may be shared with other sessions.
+   *
+   * @return High score table, or null if the session keeps no scores.
+   */
+  public HighScoreTable getHighScores( )
+  {
+    return this.highScores;
+  }
+
+  /**
+   * Gets the {@link LeaderboardClient#getDefault(Log) default} leaderboard the session's scores are submitted to.
+   *
+   * @return Leaderboard client, or null if no leaderboard is configured.
+   */
+  public LeaderboardClient getLeaderboard( )
+  {
+    return this.leaderboard;
+  }
+
+  /**
+   * Gets the {@link GhostChannel#openDefault(Log) default} channel the session's jumper is streamed on.
+   *
+   * @return Ghost channel, or null if no relay is configured.
+   */
+  public GhostChannel getGhosts( )
+  {
+    return this.ghosts;
+  }
+
+  /**
+   * Gets the {@link SpectatorServer#claimDefault(Log) default} server the session's rounds are broadcast from.
+   *
+   * @return Spectator server, or null if spectating isn't configured or another session broadcasts.
+   */
+  public SpectatorServer getSpectators( )
+  {
+    return this.spectators;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Checks if the round simulation is stepped from the game's updates rather than a thread of its own.  Sessions on a
+   * {@link HeadlessPlatform} follow {@link HeadlessPlatform#isSimulationInline() its option}; other sessions step
+   * inline only with the <code>skydiver.simulation.inline</code> system property set.
+   *
+   * @return True if the simulation is stepped inline.
+   */
+  public boolean isSimulationInline( )
+  {
+    return this.simulationInline;
+  }
+
+  /**
+   * Sets whether the round simulation is stepped from the game's updates rather than a thread of its own.  Only rounds
+   * started afterwards are affected.
+   *
+   * @param simulationInline - True to step the simulation inline.
+   */
+  public void setSimulationInline( final boolean simulationInline )
+  {
+    this.simulationInline = simulationInline;
+  }
+
+  /**
+   * Gets the content layer the session's game is showing.
+   *
+   * @return Content layer, or null.
+   */
+  public com.bryanchacosky.core.graphics.Layer getContentLayer( )
+  {
+    return this.contentLayer;
+  }
+
+  /**
+   * Sets the content layer the session's game is showing, so that {@link #dispose()} can stop it.
+   *
+   * @param contentLayer - Content layer, or null.
+   */
+  public void setContentLayer( final com.bryanchacosky.core.graphics.Layer contentLayer )
+  {
+    this.contentLayer = contentLayer;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
@@ -1,16 +1,28 @@
 package com.bryanchacosky.core;
 
 import playn.core.Game;
+import playn.core.Key;
+import playn.core.Keyboard;
 import playn.core.Layer;
-import playn.core.PlayN;
 
+import com.bryanchacosky.core.graphics.ViewCuller;
 import com.bryanchacosky.core.graphics.controller.MenuController;
+import com.bryanchacosky.core.graphics.controller.StressController;
 import com.bryanchacosky.core.graphics.layer.BackgroundLayer;
+import com.bryanchacosky.core.graphics.layer.ProfilerLayer;
+import com.bryanchacosky.core.utilities.Metrics;
+import com.bryanchacosky.core.utilities.Telemetry;
+import com.bryanchacosky.core.utilities.TelemetryEvent;
 
 //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
 /**
- * Game instance for SkyDiver.
+ * Game instance for SkyDiver.  Each game runs in its own {@link Session}, which provides the platform services, so
+ * several games can run side by side in one VM:
+ *
+ * <pre>
+ * PlayN.run( new SkyDiver( new Session( JavaPlatform.register( ) ) ) );
+ * </pre>
  *
  * @author Bryan Chacosky
  */
@@ -21,16 +33,60 @@ public class SkyDiver implements Game
   /** Rate to update each frame, in milliseconds. */
   public static final int UpdateRate = 25;
 
-  /** Static width of the window. */
-  public static final int WindowWidth  = ( int )( PlayN.graphics( ).screenWidth( ) * 0.75 );
+  /** Key which toggles the profiler overlay. */
+  public static final Key ProfilerKey = Key.F3;
 
-  /** Static height of the window. */
-  public static final int WindowHeight = ( int )( PlayN.graphics( ).screenHeight( ) * 0.75 );
+  /** Hidden key which opens the stress scene.  See {@link StressController}. */
+  public static final Key StressKey = Key.F9;
 
   //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
-  /** Background sky layer that will persist throughout the lifespan of the application. */
-  private static final BackgroundLayer backgroundLayer = new BackgroundLayer( );
+  /** Session the game runs in. */
+  private final Session session;
+
+  /** Background sky layer that will persist throughout the lifespan of the game. */
+  private final BackgroundLayer backgroundLayer;
+
+  /** Profiler overlay, drawn above the content layer. */
+  private final ProfilerLayer profilerLayer;
+
+  /** Hides the layers outside of the window before they are painted. */
+  private final ViewCuller viewCuller;
+
+  /** Time of the last paint, in nanoseconds, or 0 before the first paint. */
+  private long lastFrameTime = 0;
+
+  /** Time of the last update, in nanoseconds, or 0 before the first update. */
+  private long lastUpdateTime = 0;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a new game.
+   *
+   * @param session - Session the game runs in.
+   */
+  public SkyDiver( final Session session )
+  {
+    assert session != null : "Cannot run a game without a session!";
+
+    this.session = session;
+    this.backgroundLayer = new BackgroundLayer( session );
+    this.profilerLayer = new ProfilerLayer( session );
+    this.viewCuller = new ViewCuller( session );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Gets the session the game runs in.
+   *
+   * @return Session.
+   */
+  public Session getSession( )
+  {
+    return this.session;
+  }
 
   //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
@@ -38,11 +94,29 @@ public class SkyDiver implements Game
   public void init( )
   {
     // Initialize the window properties:
-    PlayN.graphics( ).setSize( SkyDiver.WindowWidth, SkyDiver.WindowHeight );
-    System.out.println( "Initializing window: " + SkyDiver.WindowWidth + ", " + SkyDiver.WindowHeight );
+    this.session.graphics( ).setSize( this.session.getWindowWidth( ), this.session.getWindowHeight( ) );
+
+    // Publish the engine metrics over JMX, and start logging the telemetry:
+    Metrics.register( this.session.log( ) );
+    Telemetry.register( this.session.log( ) );
+    Telemetry.record( TelemetryEvent.SessionStart, this.session.getId( ), this.session.getWindowWidth( ), this.session.getWindowHeight( ) );
+
+    // Toggle the profiler overlay and open the stress scene from the keyboard:
+    this.session.keyboard( ).setListener( new Keyboard.Adapter( )
+    {
+      @Override
+      public void onKeyDown( final Keyboard.Event event )
+      {
+        final SkyDiver game = SkyDiver.this;
+        if ( SkyDiver.ProfilerKey.equals( event.key( ) ) == true )
+          game.session.getProfiler( ).setEnabled( game.session.getProfiler( ).isEnabled( ) == false );
+        else if ( SkyDiver.StressKey.equals( event.key( ) ) == true )
+          game.setContentLayer( new StressController( game ) );
+      }
+    });
 
     // Kick off the game by displaying the menu controller:
-    SkyDiver.setContentLayer( new MenuController( ) );
+    this.setContentLayer( new MenuController( this ) );
   }
 
   //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -50,35 +124,60 @@ public class SkyDiver implements Game
   @Override
   public void paint( final float alpha )
   {
-    assert PlayN.graphics( ).rootLayer( ).size( ) == 2 : "Must have only two root layers: background + content!";
+    assert this.session.graphics( ).rootLayer( ).size( ) == 4 : "Must have only four root layers: background + content + profiler + culler!";
+
+    // Measure the frame time:
+    final long now = System.nanoTime( );
+    if ( this.lastFrameTime != 0 )
+      Metrics.frame( now - this.lastFrameTime );
+    this.lastFrameTime = now;
+    this.session.getProfiler( ).frame( );
+
+    // Run the expensive one-off work within its share of the frame, and hand back what finished in the background:
+    this.session.getJobs( ).runFrame( );
 
     // Re-paint the background layer:
-    SkyDiver.backgroundLayer.paint( alpha );
+    this.session.getProfiler( ).paint( this.backgroundLayer, alpha );
 
     // Pull the custom layer instance from the content layer:
-    final Layer layer = PlayN.graphics( ).rootLayer( ).get( 1 );
+    final Layer layer = this.session.graphics( ).rootLayer( ).get( 1 );
     assert layer instanceof com.bryanchacosky.core.graphics.Layer == false : "Content layer must be instance of com.bryanchacosky.core.graphics.Layer!";
     final com.bryanchacosky.core.graphics.Layer customLayer = com.bryanchacosky.core.graphics.Layer.class.cast( layer );
 
     // Delegate the method to the current content layer:
-    customLayer.paint( alpha );
+    this.session.getProfiler( ).paint( customLayer, alpha );
+
+    // Hide whatever has moved out of the window before the layers are rendered:
+    this.viewCuller.cull( this.session.graphics( ).rootLayer( ) );
   }
 
   @Override
   public void update( final float delta )
   {
-    assert PlayN.graphics( ).rootLayer( ).size( ) == 2 : "Must have only two root layers: background + content!";
+    assert this.session.graphics( ).rootLayer( ).size( ) == 4 : "Must have only four root layers: background + content + profiler + culler!";
+
+    // Measure the update jitter:
+    final long now = System.nanoTime( );
+    if ( this.lastUpdateTime != 0 )
+      Metrics.update( now - this.lastUpdateTime );
+    this.lastUpdateTime = now;
+
+    // Advance the game clock, running the timers and animations which are due:
+    this.session.getTimers( ).advance( delta );
 
     // Re-paint the background layer:
-    SkyDiver.backgroundLayer.update( delta );
+    this.session.getProfiler( ).update( this.backgroundLayer, delta );
 
     // Pull the custom layer instance from the content layer:
-    final Layer layer = PlayN.graphics( ).rootLayer( ).get( 1 );
+    final Layer layer = this.session.graphics( ).rootLayer( ).get( 1 );
     assert layer instanceof com.bryanchacosky.core.graphics.Layer == false : "Content layer must be instance of com.bryanchacosky.core.graphics.Layer!";
     final com.bryanchacosky.core.graphics.Layer customLayer = com.bryanchacosky.core.graphics.Layer.class.cast( layer );
 
     // Delegate the method to the current content layer:
-    customLayer.update( delta );
+    this.session.getProfiler( ).update( customLayer, delta );
+
+    // Refresh the profiler overlay, which is not itself profiled:
+    this.profilerLayer.update( delta );
   }
 
   @Override
@@ -95,17 +194,20 @@ public class SkyDiver implements Game
    *
    * @param layer - New content layer.
    */
-  public static void setContentLayer( final com.bryanchacosky.core.graphics.Layer layer )
+  public void setContentLayer( final com.bryanchacosky.core.graphics.Layer layer )
   {
     assert layer != null : "Cannot set a null content layer!";
 
     // Clear any existing pointer listeners:
-    PlayN.pointer( ).setListener( null );
+    this.session.pointer( ).setListener( null );
 
     // Remove all current layers, and replace with the passed layer:
-    PlayN.graphics( ).rootLayer( ).clear( );
-    PlayN.graphics( ).rootLayer( ).add( SkyDiver.backgroundLayer );
-    PlayN.graphics( ).rootLayer( ).add( layer );
+    this.session.graphics( ).rootLayer( ).clear( );
+    this.session.graphics( ).rootLayer( ).add( this.backgroundLayer );
+    this.session.graphics( ).rootLayer( ).add( layer );
+    this.session.graphics( ).rootLayer( ).add( this.profilerLayer );
+    this.session.graphics( ).rootLayer( ).add( this.viewCuller.getRestoreLayer( ) );
+    this.session.setContentLayer( layer );
   }
 
   //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
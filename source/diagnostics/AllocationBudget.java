@@ -0,0 +1,501 @@
+package com.bryanchacosky.core.diagnostics;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedList;
+import java.util.List;
+
+import playn.core.GroupLayer;
+import playn.core.Image;
+import playn.core.ImageLayer;
+
+import com.bryanchacosky.core.Session;
+import com.bryanchacosky.core.SkyDiver;
+import com.bryanchacosky.core.graphics.controller.GameController;
+import com.bryanchacosky.core.graphics.layer.PhysicsLayer;
+import com.bryanchacosky.core.headless.HeadlessPlatform;
+import com.bryanchacosky.core.simulation.Body;
+import com.bryanchacosky.core.simulation.PhysicsBackend;
+import com.bryanchacosky.core.simulation.Prediction;
+import com.bryanchacosky.core.simulation.Round;
+import com.bryanchacosky.core.simulation.RoundSimulator;
+import com.bryanchacosky.core.simulation.RoundState;
+import com.bryanchacosky.core.simulation.TrajectoryPredictor;
+import com.bryanchacosky.core.simulation.WindField;
+import com.bryanchacosky.core.utilities.ParticleSystem;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Harness which runs scenes headlessly and measures the bytes allocated per frame with
+ * {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)}.  Every scene declares an allocation budget,
+ * and a scene which allocates more than its budget per frame fails the run, so frames which are garbage free today stay
+ * garbage free.
+ *
+ * Run with <code>java com.bryanchacosky.core.diagnostics.AllocationBudget [frames]</code>; the process exits with a
+ * non-zero status if any scene is over budget.
+ *
+ * @author Bryan Chacosky
+ */
+public class AllocationBudget
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Default number of measured frames per scene. */
+  public static final int DefaultFrameCount = 10000;
+
+  /** Number of unmeasured frames run first, so that class loading and compilation don't count against the budget. */
+  public static final int WarmupFrameCount = 20000;
+
+  /** Number of frames a round scene runs before the next round is started. */
+  private static final int RoundFrameCount = 600;
+
+  /** Frame of a round scene at which the jumper jumps, shortly after the countdown; the parachute opens a frame later. */
+  private static final int RoundJumpFrame = 160;
+
+  /** Number of times each scene is measured.  The lowest measurement counts, since a frame which allocates does so in
+   * every sample, while the VM occasionally allocates on the thread by itself (e.g. when deoptimizing). */
+  public static final int SampleCount = 5;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Scene driven by the harness one frame at a time.
+   */
+  public static abstract class Scene
+  {
+    /** Name of the scene. */
+    private final String name;
+
+    /** Allowed allocation per frame, in bytes. */
+    private final long budget;
+
+    /**
+     * Instantiates a new scene.
+     *
+     * @param name - Name of the scene.
+     * @param budget - Allowed allocation per frame, in bytes.
+     */
+    public Scene( final String name, final long budget )
+    {
+      this.name = name;
+      this.budget = budget;
+    }
+
+    /**
+     * Runs a single frame of the scene.
+     */
+    public abstract void frame( );
+
+    /**
+     * Returns true once the scene has run its course, and must be {@link #reset() reset} before its next frame.
+     *
+     * @return True if the scene has finished, otherwise false.
+     */
+    public boolean isFinished( )
+    {
+      return false;
+    }
+
+    /**
+     * Sets the scene up to run again once it has finished.  What a reset allocates doesn't count against the budget,
+     * so a scene can build its one-off state, such as a new round, between runs.
+     */
+    public void reset( )
+    {
+    }
+
+    /**
+     * Gets the name of the scene.
+     *
+     * @return Scene name.
+     */
+    public String getName( )
+    {
+      return this.name;
+    }
+
+    /**
+     * Gets the allowed allocation per frame.
+     *
+     * @return Budget, in bytes.
+     */
+    public long getBudget( )
+    {
+      return this.budget;
+    }
+  };
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Thread management bean which reports allocated bytes. */
+  private final com.sun.management.ThreadMXBean threadBean;
+
+  /** Scenes to measure. */
+  private final List< Scene > scenes = new LinkedList< Scene >( );
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a new harness.
+   *
+   * @throws UnsupportedOperationException If the VM cannot measure thread allocations.
+   */
+  public AllocationBudget( )
+  {
+    final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean( );
+    if ( bean instanceof com.sun.management.ThreadMXBean == false )
+      throw new UnsupportedOperationException( "VM does not report thread allocations!" );
+
+    this.threadBean = ( com.sun.management.ThreadMXBean )bean;
+    if ( this.threadBean.isThreadAllocatedMemorySupported( ) == false )
+      throw new UnsupportedOperationException( "VM does not report thread allocations!" );
+    this.threadBean.setThreadAllocatedMemoryEnabled( true );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Adds a scene to measure.
+   *
+   * @param scene - Scene.
+   */
+  public void add( final Scene scene )
+  {
+    assert scene != null : "Cannot measure a null scene!";
+    this.scenes.add( scene );
+  }
+
+  /**
+   * Measures the average allocation per frame of a scene, taking the lowest of {@link #SampleCount} samples.
+   *
+   * @param scene - Scene.
+   * @param frames - Number of measured frames per sample.
+   * @return Allocation per frame, in bytes.
+   */
+  public double measure( final Scene scene, final int frames )
+  {
+    assert frames > 0 : "Must measure at least one frame!";
+
+    for ( int i = 0; i != AllocationBudget.WarmupFrameCount; ++i )
+    {
+      if ( scene.isFinished( ) == true )
+        scene.reset( );
+      scene.frame( );
+    }
+
+    final long thread = Thread.currentThread( ).getId( );
+    long allocated = Long.MAX_VALUE;
+    for ( int sample = 0; sample != AllocationBudget.SampleCount; ++sample )
+    {
+      // Leave the resets out of the measurement:
+      long measured = 0;
+      long start = this.threadBean.getThreadAllocatedBytes( thread );
+      for ( int i = 0; i != frames; ++i )
+      {
+        if ( scene.isFinished( ) == true )
+        {
+          measured += this.threadBean.getThreadAllocatedBytes( thread ) - start;
+          scene.reset( );
+          start = this.threadBean.getThreadAllocatedBytes( thread );
+        }
+        scene.frame( );
+      }
+      measured += this.threadBean.getThreadAllocatedBytes( thread ) - start;
+
+      allocated = Math.min( allocated, measured );
+    }
+
+    return allocated / ( double )frames;
+  }
+
+  /**
+   * Measures every scene, printing one line per scene.
+   *
+   * @param frames - Number of measured frames per scene.
+   * @return Number of scenes over budget.
+   */
+  public int run( final int frames )
+  {
+    int failures = 0;
+
+    for ( final Scene scene : this.scenes )
+    {
+      final double allocated = this.measure( scene, frames );
+      final boolean passed = allocated <= scene.getBudget( );
+      if ( passed == false )
+        ++failures;
+
+      System.out.println( String.format( "%-4s %-28s %10.1f bytes/frame (budget %d)", passed ? "OK" : "FAIL", scene.getName( ), allocated, scene.getBudget( ) ) );
+    }
+
+    return failures;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Adds the default scenes, which cover the per-frame work of a round.
+   */
+  public void addDefaultScenes( )
+  {
+    final int width = 1440;
+    final int height = 810;
+    final Round round = new Round( 1, width, height );
+
+    // Whole frames of the menu on the headless platform: the fixed update, the paint and the layer tree drawn:
+    final HeadlessPlatform platform = HeadlessPlatform.register( );
+    final Session session = new Session( platform, 0, null );
+    final SkyDiver game = new SkyDiver( session );
+    platform.run( game );
+    this.add( new Scene( "Frame (menu)", 0 )
+    {
+      @Override
+      public void frame( )
+      {
+        platform.frame( );
+      }
+    });
+
+    // Whole frames of rounds played through the game controller, jumping as the helicopter reaches the screen and
+    // opening the parachute straight away, so that every round lands or misses without a splat.  Starting a round is
+    // left out, but the countdown, the jump, the parachute and the landing each allocate once a round, so the budget
+    // allows for those spread over the round's frames:
+    this.add( new Scene( "Frame (round)", 16 )
+    {
+      /** Frame of the round, counted from its start. */
+      private int frame = AllocationBudget.RoundFrameCount;
+
+      @Override
+      public void frame( )
+      {
+        if ( this.frame == AllocationBudget.RoundJumpFrame || this.frame == AllocationBudget.RoundJumpFrame + 1 )
+          platform.pointer( ).tap( platform.getClock( ).time( ), width / 2, height / 2 );
+
+        platform.frame( );
+        ++this.frame;
+      }
+
+      @Override
+      public boolean isFinished( )
+      {
+        return this.frame == AllocationBudget.RoundFrameCount;
+      }
+
+      @Override
+      public void reset( )
+      {
+        game.setContentLayer( new GameController( game ) );
+        this.frame = 0;
+
+        // Let the round's score solver finish, or the landing would fall back to solving on the game thread:
+        while ( session.getJobs( ).getRunningTaskCount( ) != 0 )
+          Thread.yield( );
+      }
+    });
+
+    // Physics layers falling through the wind, as the jumper does:
+    final WindField layerWind = round.createWindField( );
+    final Image jumperImage = session.graphics( ).createImage( 10, 26 );
+    final PhysicsLayer[ ] physicsLayers = new PhysicsLayer[ 16 ];
+    for ( int i = 0; i != physicsLayers.length; ++i )
+    {
+      physicsLayers[ i ] = new PhysicsLayer( session, jumperImage );
+      physicsLayers[ i ].setWindField( layerWind );
+    }
+    this.add( new Scene( "PhysicsLayer.update", 0 )
+    {
+      @Override
+      public void frame( )
+      {
+        layerWind.update( SkyDiver.UpdateRate );
+        for ( int i = 0; i != physicsLayers.length; ++i )
+        {
+          final PhysicsLayer layer = physicsLayers[ i ];
+          if ( layer.isOnscreen( ) == false )
+          {
+            layer.setTranslation( i * width / physicsLayers.length, 0.0f );
+            layer.setVerticalVelocity( 0.0f );
+            layer.setHorizontalVelocity( 0.0f );
+          }
+
+          layer.update( SkyDiver.UpdateRate );
+          layer.intersects( 0.0f, height - 1.0f, width, 1.0f );
+        }
+      }
+    });
+
+    // Particles in flight, fired in bursts as a splat does; firing a burst is left out, moving the particles isn't:
+    final Session particleSession = new Session( platform, 1, null );
+    final GroupLayer particleLayer = particleSession.graphics( ).createGroupLayer( );
+    final ParticleSystem particles = new ParticleSystem( particleSession )
+    {
+      @Override
+      protected int getParticleCount( )
+      {
+        return 50;
+      }
+
+      @Override
+      protected long getParticleDuration( )
+      {
+        return 2000;
+      }
+
+      @Override
+      protected int getParticleColor( )
+      {
+        return 0xFFFF0000;
+      }
+
+      @Override
+      protected int getParticleSize( )
+      {
+        return 3;
+      }
+    };
+    this.add( new Scene( "ParticleSystem", 0 )
+    {
+      @Override
+      public void frame( )
+      {
+        particleSession.getTimers( ).advance( SkyDiver.UpdateRate );
+      }
+
+      @Override
+      public boolean isFinished( )
+      {
+        return ParticleSystem.getLiveParticleCount( ) == 0;
+      }
+
+      @Override
+      public void reset( )
+      {
+        particleLayer.clear( );
+        particles.fire( particleLayer, width / 2, height / 2 );
+      }
+    });
+
+    // Sprite animations and scrolling layers, as the helicopter and the clouds use:
+    final Session animatorSession = new Session( platform, 2, null );
+    final Image[ ] frames = new Image[ 3 ];
+    for ( int i = 0; i != frames.length; ++i )
+      frames[ i ] = animatorSession.graphics( ).createImage( 112, 44 );
+    for ( int i = 0; i != 16; ++i )
+    {
+      final ImageLayer layer = animatorSession.graphics( ).createImageLayer( frames[ 0 ] );
+      layer.setTranslation( i * width / 16, i * height / 16 );
+      animatorSession.getAnimator( ).setAnimation( layer, 75, frames );
+      animatorSession.getAnimator( ).setScrolling( layer, 4000 + i * 250 );
+    }
+    this.add( new Scene( "Animator", 0 )
+    {
+      @Override
+      public void frame( )
+      {
+        animatorSession.getTimers( ).advance( SkyDiver.UpdateRate );
+      }
+    });
+
+    // Whole rounds replayed over and over, rewinding through the snapshots instead of rebuilding the round:
+    for ( final PhysicsBackend backend : PhysicsBackend.values( ) )
+    {
+      final RoundSimulator simulator = new RoundSimulator( round, backend );
+      simulator.enableSnapshots( 64, 8 );
+      this.add( new Scene( "Round (" + backend + ")", 0 )
+      {
+        @Override
+        public void frame( )
+        {
+          if ( simulator.getState( ).isComplete( ) == true )
+            simulator.seek( 0 );
+          else if ( RoundState.PreLaunch.equals( simulator.getState( ) ) && simulator.getHelicopterX( ) > width / 3 )
+            simulator.jump( );
+          else if ( RoundState.InFlight.equals( simulator.getState( ) ) && simulator.getBody( ).getY( ) > height / 2 )
+            simulator.deploy( );
+
+          simulator.step( );
+        }
+      });
+    }
+
+    // Wind field gusts, sampled across the screen:
+    final WindField windField = round.createWindField( );
+    final float[ ] xs = new float[ 64 ];
+    final float[ ] ys = new float[ 64 ];
+    final float[ ] horizontal = new float[ 64 ];
+    final float[ ] vertical = new float[ 64 ];
+    for ( int i = 0; i != xs.length; ++i )
+    {
+      xs[ i ] = i * width / xs.length;
+      ys[ i ] = i * height / ys.length;
+    }
+    this.add( new Scene( "Wind field", 0 )
+    {
+      @Override
+      public void frame( )
+      {
+        windField.update( 25.0f );
+        windField.sample( xs, ys, horizontal, vertical, xs.length );
+      }
+    });
+
+    // Jumper bodies falling through the wind:
+    for ( final PhysicsBackend backend : PhysicsBackend.values( ) )
+    {
+      final Body body = backend.createBody( );
+      this.add( new Scene( "Body (" + backend + ")", 0 )
+      {
+        @Override
+        public void frame( )
+        {
+          if ( body.getY( ) > height )
+          {
+            body.setPosition( 0.0f, 0.0f );
+            body.setVerticalVelocity( 0.0f );
+          }
+
+          body.setVerticalAcceleration( 300.0f );
+          body.step( 25.0f, windField );
+          body.intersects( 10.0f, 26.0f, 0.0f, height, width, 1.0f );
+        }
+      });
+    }
+
+    // Landing preview; the score solver runs on a worker thread once a round, so it isn't part of a frame:
+    final Prediction prediction = new Prediction( );
+    this.add( new Scene( "Landing preview", 0 )
+    {
+      @Override
+      public void frame( )
+      {
+        TrajectoryPredictor.predictJump( prediction, width / 2, Round.HelicopterHeight, round.getWindspeed( ), round.getGroundY( ) );
+      }
+    });
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Measures the default scenes.
+   *
+   * @param arguments - Optional number of measured frames per scene.
+   */
+  public static void main( final String[ ] arguments )
+  {
+    final int frames = arguments.length > 0 ? Integer.parseInt( arguments[ 0 ] ) : AllocationBudget.DefaultFrameCount;
+
+    final AllocationBudget harness = new AllocationBudget( );
+    harness.addDefaultScenes( );
+
+    final int failures = harness.run( frames );
+    if ( failures != 0 )
+    {
+      System.out.println( failures + " scene(s) over their allocation budget!" );
+      System.exit( 1 );
+    }
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
@@ -0,0 +1,109 @@
+package com.bryanchacosky.core.diagnostics;
+
+import java.io.File;
+import java.io.IOException;
+
+import com.bryanchacosky.core.Session;
+import com.bryanchacosky.core.SkyDiver;
+import com.bryanchacosky.core.graphics.controller.StressController;
+import com.bryanchacosky.core.headless.CountingSurface;
+import com.bryanchacosky.core.headless.HeadlessPlatform;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Check which plays the {@link StressController} headlessly and counts the texture switches of every frame on the
+ * {@link CountingSurface}.  The stress scene is a {@link com.bryanchacosky.core.graphics.layer.BatchedGroupLayer}, so
+ * its texture switches follow the number of textures in the scene rather than the number of clouds, jumpers,
+ * helicopters and particles it ramps up; a frame which switches more than {@link #TextureSwitchLimit} times means the
+ * batching has broken, such as an animated helicopter left in the batch of a frame it no longer shows.
+ *
+ * Run with <code>java com.bryanchacosky.core.diagnostics.BatchingCheck [steps]</code>; the process exits with a
+ * non-zero status if any frame is over the limit.
+ *
+ * @author Bryan Chacosky
+ */
+public class BatchingCheck
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Most texture switches allowed in a frame. */
+  public static final long TextureSwitchLimit = 16;
+
+  /** Default number of stress steps played, stopping short of the last so that the scene doesn't write its report. */
+  public static final int DefaultStepCount = StressController.StepCount - 1;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Plays the stress scene, printing the most texture switches of a frame in each step.
+   *
+   * @param steps - Number of stress steps to play.
+   * @return Number of frames over the limit.
+   */
+  public static int run( final int steps )
+  {
+    assert steps > 0 && steps < StressController.StepCount : "Must play between one step and all but the last!";
+
+    final HeadlessPlatform platform = HeadlessPlatform.register( );
+    final Session session = new Session( platform, 0, null );
+    final SkyDiver game = new SkyDiver( session );
+    platform.run( game );
+    game.setContentLayer( new StressController( game ) );
+
+    final int framesPerStep = ( int )( StressController.StepDuration / SkyDiver.UpdateRate );
+    int failures = 0;
+    for ( int step = 0; step != steps; ++step )
+    {
+      long maxSwitches = 0;
+      long maxDraws = 0;
+      for ( int frame = 0; frame != framesPerStep; ++frame )
+      {
+        platform.frame( );
+
+        final CountingSurface surface = platform.getSurface( );
+        maxSwitches = Math.max( maxSwitches, surface.getTextureSwitchCount( ) );
+        maxDraws = Math.max( maxDraws, surface.getDrawCallCount( ) );
+        if ( surface.getTextureSwitchCount( ) > BatchingCheck.TextureSwitchLimit )
+          ++failures;
+      }
+
+      final boolean passed = maxSwitches <= BatchingCheck.TextureSwitchLimit;
+      System.out.println( String.format( "%-4s step %2d: %6d draws, %3d texture switches (limit %d)", passed ? "OK" : "FAIL", step + 1, maxDraws, maxSwitches, BatchingCheck.TextureSwitchLimit ) );
+    }
+
+    session.dispose( );
+    return failures;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Plays the stress scene.
+   *
+   * @param arguments - Optional number of stress steps to play.
+   * @throws IOException If the scene's report file can't be created.
+   */
+  public static void main( final String[ ] arguments ) throws IOException
+  {
+    // The scene only writes its report after its last step, but keep it out of the working directory regardless:
+    if ( null == System.getProperty( "skydiver.stress.report" ) )
+    {
+      final File report = File.createTempFile( "skydiver-stress", ".csv" );
+      report.deleteOnExit( );
+      System.setProperty( "skydiver.stress.report", report.getPath( ) );
+    }
+
+    final int steps = arguments.length > 0 ? Integer.parseInt( arguments[ 0 ] ) : BatchingCheck.DefaultStepCount;
+    final int failures = BatchingCheck.run( steps );
+    if ( failures != 0 )
+    {
+      System.out.println( failures + " frame(s) over the texture switch limit!" );
+      System.exit( 1 );
+    }
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
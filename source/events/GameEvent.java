@@ -0,0 +1,87 @@
+package com.bryanchacosky.core.events;
+
+import com.bryanchacosky.core.simulation.RoundSnapshot;
+import com.bryanchacosky.core.simulation.RoundState;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Transition of a round from one state to another, published on a {@link GameEventBus}.  Events live in the bus's
+ * ring and are reused once every consumer has read them, so a handler must copy anything it wants to keep.
+ *
+ * Landing, splatting and the other side effects of a round are all transitions: the jumper landed when the round went
+ * from {@link RoundState#InFlight} to a completion state, and splatted when that state is
+ * {@link RoundState#CompleteSplat}.
+ *
+ * @author Bryan Chacosky
+ */
+public class GameEvent
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** State the round left. */
+  private RoundState previousState = RoundState.Countdown;
+
+  /** Round state right after the transition. */
+  private final RoundSnapshot snapshot = new RoundSnapshot( );
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Fills in the event.
+   *
+   * @param previousState - State the round left.
+   * @param snapshot - Round state right after the transition, copied into the event.
+   */
+  public void set( final RoundState previousState, final RoundSnapshot snapshot )
+  {
+    this.previousState = previousState;
+    this.snapshot.copy( snapshot );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Gets the state the round left.
+   *
+   * @return Previous state.
+   */
+  public RoundState getPreviousState( )
+  {
+    return this.previousState;
+  }
+
+  /**
+   * Gets the state the round entered.
+   *
+   * @return New state.
+   */
+  public RoundState getState( )
+  {
+    return this.snapshot.getState( );
+  }
+
+  /**
+   * Gets the round state right after the transition.
+   *
+   * @return Snapshot, owned by the event.
+   */
+  public RoundSnapshot getSnapshot( )
+  {
+    return this.snapshot;
+  }
+
+  /**
+   * Returns true if the jumper reached the ground in this transition, safely or not.
+   *
+   * @return True if the jumper landed, otherwise false.
+   */
+  public boolean isLanding( )
+  {
+    return RoundState.InFlight.equals( this.previousState ) == true && this.getState( ).isComplete( ) == true && ( RoundState.CompleteSplat.equals( this.getState( ) ) == true || this.snapshot.getScore( ) > 0 );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
@@ -0,0 +1,258 @@
+package com.bryanchacosky.core.events;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Event bus of a session, carrying the round state transitions published by the simulation to any number of
+ * consumers, in the style of the LMAX Disruptor.  Events live in a preallocated ring and are filled in place, so
+ * publishing never allocates or takes a lock: the publisher claims the next sequence number, fills in that slot and
+ * advances the cursor.  Each consumer tracks the sequence number it has read up to, and reads every event published
+ * since in a single batch, either from its own thread ({@link #start(GameEventHandler, String)}) or by polling from
+ * the caller's ({@link #subscribe()}).
+ *
+ * The publisher never overwrites an event a consumer hasn't read yet; it waits for the slowest consumer instead.  The
+ * ring holds {@value #Capacity} transitions, which is hundreds of rounds, so in practice only a consumer which stops
+ * reading altogether holds up the simulation, and a consumer must be {@link Consumer#close() closed} once it is done.
+ *
+ * There is a single publisher at a time: the simulation thread, or the game thread when the simulation runs inline.
+ *
+ * @author Bryan Chacosky
+ */
+public class GameEventBus
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Number of events the ring holds; a power of two. */
+  public static final int Capacity = 1024;
+
+  /** Time a consumer thread waits for new events, in milliseconds. */
+  public static final long WaitInterval = 1;
+
+  /** Time the publisher waits for a consumer to free a slot, in microseconds. */
+  private static final long PublishWaitInterval = 50;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Reader of the events on the bus.  A consumer is only read from one thread at a time.
+   */
+  public static final class Consumer
+  {
+    /** Bus being read. */
+    private final GameEventBus bus;
+
+    /** Sequence number of the last event read. */
+    private final AtomicLong sequence;
+
+    /** Set once the consumer is closed. */
+    private volatile boolean closed = false;
+
+    /**
+     * Instantiates a new consumer, reading the events published from now on.
+     *
+     * @param bus - Bus to read.
+     * @param sequence - Sequence number of the last event already published.
+     */
+    Consumer( final GameEventBus bus, final long sequence )
+    {
+      this.bus = bus;
+      this.sequence = new AtomicLong( sequence );
+    }
+
+    /**
+     * Reads every event published since the last poll, in order.
+     *
+     * @param handler - Handler of the events.
+     * @return Number of events read.
+     */
+    public int poll( final GameEventHandler handler )
+    {
+      final long next = this.sequence.get( ) + 1;
+      final long available = this.bus.cursor.get( );
+      if ( available < next || this.closed == true )
+        return 0;
+
+      for ( long sequence = next; sequence <= available; ++sequence )
+        handler.onEvent( this.bus.ring[ GameEventBus.index( sequence ) ], sequence, sequence == available );
+
+      // Release the slots to the publisher:
+      this.sequence.lazySet( available );
+      return ( int )( available - next + 1 );
+    }
+
+    /**
+     * Stops reading, releasing the publisher from waiting on this consumer.
+     */
+    public void close( )
+    {
+      this.closed = true;
+      this.bus.remove( this );
+    }
+
+    /**
+     * Returns true once the consumer is closed.
+     *
+     * @return True if closed, otherwise false.
+     */
+    public boolean isClosed( )
+    {
+      return this.closed;
+    }
+  };
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Preallocated events. */
+  private final GameEvent[ ] ring = new GameEvent[ GameEventBus.Capacity ];
+
+  /** Sequence number of the last event published, or -1 before the first. */
+  private final AtomicLong cursor = new AtomicLong( -1 );
+
+  /** Sequence number of the last event claimed.  Only touched by the publisher. */
+  private long claimed = -1;
+
+  /** Lowest sequence number read by every consumer, as last seen by the publisher. */
+  private long cachedGatingSequence = -1;
+
+  /** Sequences of the consumers, replaced rather than modified so that the publisher reads them without a lock. */
+  private volatile AtomicLong[ ] gatingSequences = new AtomicLong[ 0 ];
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a new bus.
+   */
+  public GameEventBus( )
+  {
+    for ( int i = 0; i != GameEventBus.Capacity; ++i )
+      this.ring[ i ] = new GameEvent( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Claims the next event to publish, waiting for the slowest consumer if the ring is full.  Fill in the event and
+   * then call {@link #publish()}.
+   *
+   * @return Event to fill in.
+   */
+  public GameEvent claim( )
+  {
+    final long sequence = ++this.claimed;
+    final long wrapPoint = sequence - GameEventBus.Capacity;
+    while ( wrapPoint > this.cachedGatingSequence )
+    {
+      this.cachedGatingSequence = this.getMinimumSequence( sequence - 1 );
+      if ( wrapPoint > this.cachedGatingSequence )
+        LockSupport.parkNanos( TimeUnit.MICROSECONDS.toNanos( GameEventBus.PublishWaitInterval ) );
+    }
+
+    return this.ring[ GameEventBus.index( sequence ) ];
+  }
+
+  /**
+   * Publishes the event claimed last.
+   */
+  public void publish( )
+  {
+    this.cursor.lazySet( this.claimed );
+  }
+
+  /**
+   * Adds a consumer which polls the bus from the caller's thread, reading the events published from now on.
+   *
+   * @return Consumer.
+   */
+  public synchronized Consumer subscribe( )
+  {
+    final Consumer consumer = new Consumer( this, this.cursor.get( ) );
+    final AtomicLong[ ] gatingSequences = Arrays.copyOf( this.gatingSequences, this.gatingSequences.length + 1 );
+    gatingSequences[ gatingSequences.length - 1 ] = consumer.sequence;
+    this.gatingSequences = gatingSequences;
+    return consumer;
+  }
+
+  /**
+   * Adds a consumer which reads the bus on a thread of its own until it is closed.
+   *
+   * @param handler - Handler of the events, called on the consumer's thread.
+   * @param name - Name of the thread.
+   * @return Consumer.
+   */
+  public Consumer start( final GameEventHandler handler, final String name )
+  {
+    final Consumer consumer = this.subscribe( );
+    final Thread thread = new Thread( name )
+    {
+      @Override
+      public void run( )
+      {
+        while ( consumer.isClosed( ) == false )
+        {
+          if ( consumer.poll( handler ) == 0 )
+            LockSupport.parkNanos( TimeUnit.MILLISECONDS.toNanos( GameEventBus.WaitInterval ) );
+        }
+      }
+    };
+    thread.setDaemon( true );
+    thread.start( );
+    return consumer;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Removes a consumer.
+   *
+   * @param consumer - Consumer.
+   */
+  private synchronized void remove( final Consumer consumer )
+  {
+    final AtomicLong[ ] current = this.gatingSequences;
+    for ( int i = 0; i != current.length; ++i )
+    {
+      if ( current[ i ] == consumer.sequence )
+      {
+        final AtomicLong[ ] gatingSequences = new AtomicLong[ current.length - 1 ];
+        System.arraycopy( current, 0, gatingSequences, 0, i );
+        System.arraycopy( current, i + 1, gatingSequences, i, current.length - i - 1 );
+        this.gatingSequences = gatingSequences;
+        return;
+      }
+    }
+  }
+
+  /**
+   * Finds the lowest sequence number read by every consumer.
+   *
+   * @param minimum - Sequence number to return if there are no consumers.
+   * @return Lowest sequence number.
+   */
+  private long getMinimumSequence( final long minimum )
+  {
+    long result = minimum;
+    for ( final AtomicLong sequence : this.gatingSequences )
+      result = Math.min( result, sequence.get( ) );
+    return result;
+  }
+
+  /**
+   * Gets the slot of an event.
+   *
+   * @param sequence - Sequence number of the event.
+   * @return Slot index.
+   */
+  private static int index( final long sequence )
+  {
+    return ( int )( sequence & ( GameEventBus.Capacity - 1 ) );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.bryanchacosky.core.events;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Handler of the events read from a {@link GameEventBus}.
+ *
+ * @author Bryan Chacosky
+ */
+public interface GameEventHandler
+{
+  /**
+   * Handles an event.  The event is only valid until the handler returns.
+   *
+   * @param event - Event.
+   * @param sequence - Sequence number of the event on the bus.
+   * @param endOfBatch - True if this is the last event available, so that batched work can be finished.
+   */
+  public void onEvent( final GameEvent event, final long sequence, final boolean endOfBatch );
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
@@ -0,0 +1,295 @@
+package com.bryanchacosky.core.graphics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import playn.core.GroupLayer;
+import playn.core.Layer;
+import playn.core.Mouse;
+import playn.core.Pointer;
+import pythagoras.f.Transform;
+
+import com.bryanchacosky.core.Session;
+import com.bryanchacosky.core.utilities.QuadTree;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Dispatches pointer and mouse events to interactive layers through a quadtree of their bounds, instead of letting
+ * PlayN walk the layer tree and hit-test every layer on every event.  Layers registered with the dispatcher are indexed
+ * by their world-space bounds, which are refreshed once per frame by {@link #refresh()} for the layers which moved,
+ * so each event only costs a lookup in the quadtree.
+ *
+ * The dispatcher replaces the global pointer and mouse listeners while it is installed.  Like PlayN, the layer a
+ * pointer started on receives the rest of its events, hover changes are reported as mouse over and out events, and
+ * hidden layers (including layers hidden by their parents) can't be hit.  Events are passed on as they were received,
+ * so their local coordinates are relative to the window rather than to the layer, and rotated layers are hit-tested
+ * against their unrotated bounds.
+ *
+ * @author Bryan Chacosky
+ */
+public class PointerDispatcher implements Pointer.Listener, Mouse.Listener
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Interactive layer registered with the dispatcher.
+   */
+  private static final class Target
+  {
+    /** Layer. */
+    final Layer.HasSize layer;
+
+    /** Pointer listener, or null. */
+    final Pointer.Listener pointerListener;
+
+    /** Mouse listener, or null. */
+    final Mouse.LayerListener mouseListener;
+
+    /** True if the layer is in the quadtree. */
+    boolean indexed = false;
+
+    /** Left edge of the indexed bounds. */
+    float left;
+
+    /** Top edge of the indexed bounds. */
+    float top;
+
+    /** Right edge of the indexed bounds. */
+    float right;
+
+    /** Bottom edge of the indexed bounds. */
+    float bottom;
+
+    /**
+     * Instantiates a new target.
+     *
+     * @param layer - Layer.
+     * @param pointerListener - Pointer listener, or null.
+     * @param mouseListener - Mouse listener, or null.
+     */
+    Target( final Layer.HasSize layer, final Pointer.Listener pointerListener, final Mouse.LayerListener mouseListener )
+    {
+      this.layer = layer;
+      this.pointerListener = pointerListener;
+      this.mouseListener = mouseListener;
+    }
+  };
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Session whose pointer and mouse are dispatched. */
+  private final Session session;
+
+  /** Registered layers, in the order they were registered. */
+  private final List< Target > targets = new ArrayList< Target >( );
+
+  /** Quadtree of the bounds of the visible registered layers. */
+  private final QuadTree< Target > index;
+
+  /** Target the active pointer started on, or null. */
+  private Target pressedTarget = null;
+
+  /** Target under the mouse, or null. */
+  private Target hoveredTarget = null;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a new dispatcher.
+   *
+   * @param session - Session whose pointer and mouse are dispatched.
+   */
+  public PointerDispatcher( final Session session )
+  {
+    this.session = session;
+    this.index = new QuadTree< Target >( 0.0f, 0.0f, session.getWindowWidth( ), session.getWindowHeight( ) );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Registers an interactive layer.
+   *
+   * @param layer - Layer.
+   * @param pointerListener - Listener receiving the pointer events on the layer, or null.
+   * @param mouseListener - Listener receiving the mouse events on the layer, or null.
+   */
+  public void register( final Layer.HasSize layer, final Pointer.Listener pointerListener, final Mouse.LayerListener mouseListener )
+  {
+    this.targets.add( new Target( layer, pointerListener, mouseListener ) );
+  }
+
+  /**
+   * Installs the dispatcher as the global pointer and mouse listener.
+   */
+  public void install( )
+  {
+    this.refresh( );
+    this.session.pointer( ).setListener( this );
+    this.session.mouse( ).setListener( this );
+  }
+
+  /**
+   * Uninstalls the dispatcher, clearing the global pointer and mouse listeners.
+   */
+  public void uninstall( )
+  {
+    this.session.pointer( ).setListener( null );
+    this.session.mouse( ).setListener( null );
+    this.pressedTarget = null;
+    this.hoveredTarget = null;
+  }
+
+  /**
+   * Updates the quadtree with the current bounds of the registered layers.  Call once per frame; only layers whose
+   * bounds or visibility changed are moved in the quadtree.
+   */
+  public void refresh( )
+  {
+    for ( final Target target : this.targets )
+    {
+      final Layer.HasSize layer = target.layer;
+      if ( PointerDispatcher.isShown( layer ) == false )
+      {
+        if ( target.indexed == true )
+        {
+          this.index.remove( target );
+          target.indexed = false;
+        }
+        continue;
+      }
+
+      // Map the layer's bounds up through its parents into world space:
+      float left = -layer.originX( ), top = -layer.originY( );
+      float right = left + layer.width( ), bottom = top + layer.height( );
+      for ( Layer current = layer; null != current; current = current.parent( ) )
+      {
+        final Transform transform = current.transform( );
+        left = transform.tx( ) + transform.scaleX( ) * left;
+        top = transform.ty( ) + transform.scaleY( ) * top;
+        right = transform.tx( ) + transform.scaleX( ) * right;
+        bottom = transform.ty( ) + transform.scaleY( ) * bottom;
+
+        final GroupLayer parent = current.parent( );
+        if ( null != parent )
+        {
+          left -= parent.originX( );
+          top -= parent.originY( );
+          right -= parent.originX( );
+          bottom -= parent.originY( );
+        }
+      }
+
+      if ( left > right )
+      {
+        final float swap = left; left = right; right = swap;
+      }
+      if ( top > bottom )
+      {
+        final float swap = top; top = bottom; bottom = swap;
+      }
+
+      if ( target.indexed == false || target.left != left || target.top != top || target.right != right || target.bottom != bottom )
+      {
+        target.left = left;
+        target.top = top;
+        target.right = right;
+        target.bottom = bottom;
+        target.indexed = true;
+        this.index.put( target, left, top, right, bottom );
+      }
+    }
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public void onPointerStart( final Pointer.Event event )
+  {
+    this.pressedTarget = this.index.find( event.x( ), event.y( ) );
+    if ( null != this.pressedTarget && null != this.pressedTarget.pointerListener )
+      this.pressedTarget.pointerListener.onPointerStart( event );
+  }
+
+  @Override
+  public void onPointerDrag( final Pointer.Event event )
+  {
+    if ( null != this.pressedTarget && null != this.pressedTarget.pointerListener )
+      this.pressedTarget.pointerListener.onPointerDrag( event );
+  }
+
+  @Override
+  public void onPointerEnd( final Pointer.Event event )
+  {
+    final Target target = this.pressedTarget;
+    this.pressedTarget = null;
+
+    if ( null != target && null != target.pointerListener )
+      target.pointerListener.onPointerEnd( event );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public void onMouseDown( final Mouse.ButtonEvent event )
+  {
+    final Target target = this.index.find( event.x( ), event.y( ) );
+    if ( null != target && null != target.mouseListener )
+      target.mouseListener.onMouseDown( event );
+  }
+
+  @Override
+  public void onMouseUp( final Mouse.ButtonEvent event )
+  {
+    final Target target = this.index.find( event.x( ), event.y( ) );
+    if ( null != target && null != target.mouseListener )
+      target.mouseListener.onMouseUp( event );
+  }
+
+  @Override
+  public void onMouseMove( final Mouse.MotionEvent event )
+  {
+    final Target target = this.index.find( event.x( ), event.y( ) );
+    if ( target == this.hoveredTarget )
+      return;
+
+    if ( null != this.hoveredTarget && null != this.hoveredTarget.mouseListener )
+      this.hoveredTarget.mouseListener.onMouseOut( event );
+
+    this.hoveredTarget = target;
+
+    if ( null != target && null != target.mouseListener )
+      target.mouseListener.onMouseOver( event );
+  }
+
+  @Override
+  public void onMouseWheelScroll( final Mouse.WheelEvent event )
+  {
+    if ( null != this.hoveredTarget && null != this.hoveredTarget.mouseListener )
+      this.hoveredTarget.mouseListener.onMouseWheelScroll( event );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Checks if a layer and all of its parents are visible.
+   *
+   * @param layer - Layer.
+   * @return True if the layer is shown.
+   */
+  private static boolean isShown( final Layer layer )
+  {
+    for ( Layer current = layer; null != current; current = current.parent( ) )
+    {
+      if ( current.visible( ) == false )
+        return false;
+    }
+
+    return true;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
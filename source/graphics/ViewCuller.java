@@ -0,0 +1,339 @@
+package com.bryanchacosky.core.graphics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import playn.core.GroupLayer;
+import playn.core.ImmediateLayer;
+import playn.core.Layer;
+import playn.core.Surface;
+import pythagoras.f.Transform;
+
+import com.bryanchacosky.core.Session;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Hides layers which are entirely outside of the view, so that the renderer skips them along with their children.
+ * Clouds scrolled off the edge, the helicopter before it enters and the ground while it rises from below the window
+ * would otherwise all still be transformed and painted.
+ *
+ * The renderer only skips layers which aren't visible, so the culler hides them, but only while the layer tree is
+ * rendered: {@link #cull(GroupLayer)} runs at the end of the game's paint, and the {@link #getRestoreLayer() restore
+ * layer}, painted after every other layer, shows them again.  Game code never runs in between, so it only ever sees
+ * the visibility it set itself, and a layer the game hides stays hidden however it moves in and out of view.
+ *
+ * The bounds of every layer are cached in its parent's space along with the values they were computed from.  A layer
+ * recomputes its bounds only when one of those values changes, and a group only when its own values or the bounds of
+ * one of its children do, so the tree is walked each frame but only what moved is recomputed.  Layers without a size
+ * (or with a rotation) are never culled, and neither are the groups holding them.
+ *
+ * @author Bryan Chacosky
+ */
+public class ViewCuller
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Number of values the bounds of a layer are computed from. */
+  private static final int InputCount = 9;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Cached bounds of a layer, in its parent's space.
+   */
+  private static final class Bounds
+  {
+    /** Values the bounds were computed from: transform, origin and size. */
+    final float[ ] inputs = new float[ ViewCuller.InputCount ];
+
+    /** Number of visible children of a group the bounds were computed from. */
+    int children = 0;
+
+    /** Identities of the visible children of a group the bounds were computed from, hashed together. */
+    int identity = 0;
+
+    /** True if the bounds need recomputing. */
+    boolean dirty = true;
+
+    /** True if the bounds changed during the last pass, so the parent's need recomputing. */
+    boolean changed = true;
+
+    /** True if the layer has bounds; layers without a size can't be culled. */
+    boolean bounded;
+
+    /** Left edge of the bounds. */
+    float left;
+
+    /** Top edge of the bounds. */
+    float top;
+
+    /** Right edge of the bounds. */
+    float right;
+
+    /** Bottom edge of the bounds. */
+    float bottom;
+  };
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Width of the view. */
+  private final float viewWidth;
+
+  /** Height of the view. */
+  private final float viewHeight;
+
+  /** Maps a layer -> its cached bounds.  Weak, so that destroyed layers drop out. */
+  private final Map< Layer, Bounds > boundsMap = new WeakHashMap< Layer, Bounds >( );
+
+  /** Layers hidden by the last pass, to show again once they have been rendered. */
+  private final List< Layer > culledLayers = new ArrayList< Layer >( );
+
+  /** Layer painted after every other layer, which shows the culled layers again. */
+  private final ImmediateLayer restoreLayer;
+
+  /** Number of bounds recomputed by the last pass. */
+  private int recomputedCount = 0;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a new culler for the window of a session.
+   *
+   * @param session - Session.
+   */
+  public ViewCuller( final Session session )
+  {
+    this.viewWidth = session.getWindowWidth( );
+    this.viewHeight = session.getWindowHeight( );
+    this.restoreLayer = session.graphics( ).createImmediateLayer( new ImmediateLayer.Renderer( )
+    {
+      @Override
+      public void render( final Surface surface )
+      {
+        ViewCuller.this.restore( );
+      }
+    });
+    this.restoreLayer.setDepth( Float.MAX_VALUE );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Culls the children of a root layer against the view.  Call once per frame, after the game has painted and just
+   * before the layers are rendered.
+   *
+   * @param root - Root layer, drawn at the origin of the view.
+   */
+  public void cull( final GroupLayer root )
+  {
+    // Show whatever a previous pass hid, in case the layers were never rendered:
+    this.restore( );
+    this.recomputedCount = 0;
+
+    for ( int i = 0; i != root.size( ); ++i )
+    {
+      final Layer layer = root.get( i );
+      if ( layer != this.restoreLayer )
+        this.visit( layer, 0.0f, 0.0f, 1.0f, 1.0f );
+    }
+  }
+
+  /**
+   * Shows the layers hidden by the last pass.  Called by the restore layer once the tree has been rendered.
+   */
+  public void restore( )
+  {
+    for ( int i = 0; i != this.culledLayers.size( ); ++i )
+      this.culledLayers.get( i ).setVisible( true );
+    this.culledLayers.clear( );
+  }
+
+  /**
+   * Gets the layer which shows the culled layers again once it's painted.  It must be the last child of the root layer.
+   *
+   * @return Restore layer.
+   */
+  public Layer getRestoreLayer( )
+  {
+    return this.restoreLayer;
+  }
+
+  /**
+   * Gets the number of layers hidden by the last pass, until they are shown again.
+   *
+   * @return Culled layer count.
+   */
+  public int getCulledCount( )
+  {
+    return this.culledLayers.size( );
+  }
+
+  /**
+   * Gets the number of layers whose bounds were recomputed by the last pass.
+   *
+   * @return Recomputed layer count.
+   */
+  public int getRecomputedCount( )
+  {
+    return this.recomputedCount;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Updates the bounds of a layer and its children, and culls whichever of them are out of view.
+   *
+   * @param layer - Layer.
+   * @param parentX - World x-coordinate of the parent's origin.
+   * @param parentY - World y-coordinate of the parent's origin.
+   * @param parentScaleX - World horizontal scale of the parent.
+   * @param parentScaleY - World vertical scale of the parent.
+   * @return Bounds of the layer, or null if the layer is hidden by the game.
+   */
+  private Bounds visit( final Layer layer, final float parentX, final float parentY, final float parentScaleX, final float parentScaleY )
+  {
+    // Subtrees hidden by the game aren't painted, so there is nothing to cull:
+    if ( layer.visible( ) == false )
+      return null;
+
+    Bounds bounds = this.boundsMap.get( layer );
+    if ( null == bounds )
+    {
+      bounds = new Bounds( );
+      this.boundsMap.put( layer, bounds );
+    }
+
+    final Transform transform = layer.transform( );
+    final float[ ] inputs = bounds.inputs;
+    bounds.dirty |= ViewCuller.update( inputs, 0, transform.tx( ) );
+    bounds.dirty |= ViewCuller.update( inputs, 1, transform.ty( ) );
+    bounds.dirty |= ViewCuller.update( inputs, 2, transform.scaleX( ) );
+    bounds.dirty |= ViewCuller.update( inputs, 3, transform.scaleY( ) );
+    bounds.dirty |= ViewCuller.update( inputs, 4, transform.rotation( ) );
+    bounds.dirty |= ViewCuller.update( inputs, 5, layer.originX( ) );
+    bounds.dirty |= ViewCuller.update( inputs, 6, layer.originY( ) );
+
+    final int mark = this.culledLayers.size( );
+    float left = 0.0f;
+    float top = 0.0f;
+    float right = 0.0f;
+    float bottom = 0.0f;
+    boolean bounded;
+
+    if ( layer instanceof GroupLayer )
+    {
+      // Groups are bounded by their visible children, which are visited whether or not the group has changed:
+      final GroupLayer group = ( GroupLayer )layer;
+      final float originX = parentX + parentScaleX * ( transform.tx( ) - transform.scaleX( ) * layer.originX( ) );
+      final float originY = parentY + parentScaleY * ( transform.ty( ) - transform.scaleY( ) * layer.originY( ) );
+      final float scaleX = parentScaleX * transform.scaleX( );
+      final float scaleY = parentScaleY * transform.scaleY( );
+
+      int children = 0;
+      int identity = 0;
+      boolean childrenChanged = false;
+      bounded = true;
+      left = top = Float.POSITIVE_INFINITY;
+      right = bottom = Float.NEGATIVE_INFINITY;
+      for ( int i = 0; i != group.size( ); ++i )
+      {
+        final Bounds child = this.visit( group.get( i ), originX, originY, scaleX, scaleY );
+        if ( null == child )
+          continue;
+
+        ++children;
+        identity = 31 * identity + System.identityHashCode( child );
+        childrenChanged |= child.changed;
+        bounded &= child.bounded;
+        left = Math.min( left, child.left );
+        top = Math.min( top, child.top );
+        right = Math.max( right, child.right );
+        bottom = Math.max( bottom, child.bottom );
+      }
+
+      // The bounds are only stale if a child moved, or the children shown changed:
+      bounds.dirty |= childrenChanged || children != bounds.children || identity != bounds.identity;
+      bounds.children = children;
+      bounds.identity = identity;
+      bounded &= children != 0;
+    }
+    else if ( layer instanceof Layer.HasSize )
+    {
+      final Layer.HasSize sized = ( Layer.HasSize )layer;
+      bounds.dirty |= ViewCuller.update( inputs, 7, sized.width( ) );
+      bounds.dirty |= ViewCuller.update( inputs, 8, sized.height( ) );
+      bounded = true;
+      right = sized.width( );
+      bottom = sized.height( );
+    }
+    else
+    {
+      bounded = false;
+    }
+
+    // Recompute the bounds in the parent's space:
+    bounds.changed = bounds.dirty;
+    if ( bounds.dirty == true )
+    {
+      bounds.bounded = bounded && transform.rotation( ) == 0.0f;
+      if ( bounds.bounded == true )
+      {
+        final float x0 = transform.tx( ) + transform.scaleX( ) * ( left - layer.originX( ) );
+        final float y0 = transform.ty( ) + transform.scaleY( ) * ( top - layer.originY( ) );
+        final float x1 = transform.tx( ) + transform.scaleX( ) * ( right - layer.originX( ) );
+        final float y1 = transform.ty( ) + transform.scaleY( ) * ( bottom - layer.originY( ) );
+        bounds.left = Math.min( x0, x1 );
+        bounds.top = Math.min( y0, y1 );
+        bounds.right = Math.max( x0, x1 );
+        bounds.bottom = Math.max( y0, y1 );
+      }
+
+      bounds.dirty = false;
+      ++this.recomputedCount;
+    }
+
+    // Hide the layer until it has been rendered if it's out of view, showing the children it has hidden already:
+    if ( bounds.bounded == true )
+    {
+      final float worldLeft = parentX + parentScaleX * bounds.left;
+      final float worldTop = parentY + parentScaleY * bounds.top;
+      final float worldRight = parentX + parentScaleX * bounds.right;
+      final float worldBottom = parentY + parentScaleY * bounds.bottom;
+      if ( Math.max( worldLeft, worldRight ) <= 0.0f || Math.max( worldTop, worldBottom ) <= 0.0f ||
+           Math.min( worldLeft, worldRight ) >= this.viewWidth || Math.min( worldTop, worldBottom ) >= this.viewHeight )
+      {
+        while ( this.culledLayers.size( ) != mark )
+          this.culledLayers.remove( this.culledLayers.size( ) - 1 ).setVisible( true );
+
+        layer.setVisible( false );
+        this.culledLayers.add( layer );
+      }
+    }
+
+    return bounds;
+  }
+
+  /**
+   * Updates a cached input value.
+   *
+   * @param inputs - Cached inputs.
+   * @param index - Index of the input.
+   * @param value - Current value of the input.
+   * @return True if the value changed.
+   */
+  private static boolean update( final float[ ] inputs, final int index, final float value )
+  {
+    if ( inputs[ index ] == value )
+      return false;
+
+    inputs[ index ] = value;
+    return true;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
@@ -1,6 +1,6 @@
 package com.bryanchacosky.core.graphics.controller;
 
-import java.util.Random;
+import java.io.IOException;
 
 import playn.core.CanvasImage;
 import playn.core.Font;
@@ -10,7 +10,6 @@ import playn.core.ImmediateLayer;
 import playn.core.ImmediateLayer.Renderer;
 import playn.core.Layer;
 import playn.core.Pattern;
-import playn.core.PlayN;
 import playn.core.Pointer.Event;
 import playn.core.Pointer.Listener;
 import playn.core.Surface;
@@ -18,11 +17,36 @@ import playn.core.TextFormat;
 import playn.core.TextLayout;
 import playn.core.gl.GroupLayerGL;
 
+import com.bryanchacosky.core.Session;
 import com.bryanchacosky.core.SkyDiver;
+import com.bryanchacosky.core.events.GameEvent;
+import com.bryanchacosky.core.events.GameEventBus;
+import com.bryanchacosky.core.events.GameEventHandler;
+import com.bryanchacosky.core.graphics.layer.BatchedGroupLayer;
 import com.bryanchacosky.core.graphics.layer.CountdownLayer;
-import com.bryanchacosky.core.graphics.layer.PhysicsLayer;
+import com.bryanchacosky.core.network.Ghost;
+import com.bryanchacosky.core.network.GhostChannel;
+import com.bryanchacosky.core.network.SpectatorServer;
+import com.bryanchacosky.core.scores.HighScore;
+import com.bryanchacosky.core.scores.HighScoreTable;
+import com.bryanchacosky.core.scores.LeaderboardClient;
+import com.bryanchacosky.core.simulation.PhysicsBackend;
+import com.bryanchacosky.core.simulation.Prediction;
+import com.bryanchacosky.core.simulation.Round;
+import com.bryanchacosky.core.simulation.RoundSimulator;
+import com.bryanchacosky.core.simulation.RoundSnapshot;
+import com.bryanchacosky.core.simulation.RoundState;
+import com.bryanchacosky.core.simulation.ScoreSolver;
+import com.bryanchacosky.core.simulation.SimulationThread;
+import com.bryanchacosky.core.simulation.Solution;
+import com.bryanchacosky.core.simulation.TrajectoryPredictor;
 import com.bryanchacosky.core.utilities.Animator;
+import com.bryanchacosky.core.utilities.JobScheduler;
+import com.bryanchacosky.core.utilities.Metrics;
 import com.bryanchacosky.core.utilities.ParticleSystem;
+import com.bryanchacosky.core.utilities.Telemetry;
+import com.bryanchacosky.core.utilities.TelemetryEvent;
+import com.bryanchacosky.core.utilities.TimingWheel;
 
 //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
@@ -36,85 +60,112 @@ public class GameController extends GroupLayerGL implements com.bryanchacosky.co
 {
   //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
-  /** Height from the top of the screen that the helicopter will fly. */
-  private static final int HelicopterHeight = 10;
+  /** True to preview where the jumper would land if he jumped or opened the parachute right now.
+   * Enabled with the <code>skydiver.preview</code> system property. */
+  private static final boolean ShowLandingPreview = Boolean.getBoolean( "skydiver.preview" );
 
-  /** Maximum speed which the wind can blow. */
-  private static final float WindSpeedMax = 150.0f;
+  /** Size of the landing preview marker. */
+  private static final int PreviewMarkerSize = 8;
 
-  /** Minimum speed which the wind can blow. */
-  private static final float WindSpeedMin = 25.0f;
+  /** Opacity of the other players' ghosts. */
+  private static final float GhostAlpha = 0.35f;
 
-  /** Maximum height of the ground layer. */
-  private static final int GroundMaxHeight = 150;
+  /** Images a round uses. */
+  private static final String[ ] Images =
+  {
+    "images/helicopter-0.png", "images/helicopter-1.png", "images/helicopter-2.png",
+    "images/jumper.png", "images/parachute.png", "images/dirt.png"
+  };
 
-  /** Minimum height of the ground layer */
-  private static final int GroundMinHeight = 50;
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
-  /** Maximum width of the ground layer. */
-  private static final int GroundMaxWidth = 600;
+  /** Game the round belongs to. */
+  private final SkyDiver game;
 
-  /** Minimum width of the ground layer. */
-  private static final int GroundMinWidth = 200;
+  /** Session the round runs in. */
+  private final Session session;
 
-  /** Maximum velocity that the jumper can safely land on the ground.  Any velocity greater than this value ... and splat!
-   * If the parachute is not pulled, the jumper will typically hit the ground with about 680 m/s velocity. */
-  private static final float MaximumSafeVelocity = 500.0f;
+  /** Ground layer for the jumper to land on. */
+  private final Layer groundLayer;
 
-  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /** Helicopter layer. */
+  private final ImageLayer helicopterLayer;
 
-  /**
-   * Enumeration of game states that the controller can be in.  These states will act as a faux-state machine
-   * through the {@link com.bryanchacosky.graphics.controller.GameController#setState(State) setState} and
-   * {@link com.bryanchacosky.graphics.controller.GameController#update() update} methods.
-   */
-  private static enum State
-  {
-    /** Countdown timer is ticking. */
-    Countdown,
+  /** Jumper layer. */
+  private final ImageLayer jumperLayer;
 
-    /** Helicopter is on the move and waiting for the player to launch. */
-    PreLaunch,
+  /** Parachute layer. */
+  private final ImageLayer parachuteLayer;
 
-    /** Player has launched and we're waiting for a success/failure response. */
-    InFlight,
+  /** Landing preview layer. */
+  private final Layer previewLayer;
 
-    /*
-     * Enumeration values below represent completion states.  They are not intended to be
-     * set in continuous order like the previous states.  The intention is to set a single
-     * completion state based off the result of the round, and the faux-state machine
-     * will handle the appropriate visual response.
-     */
+  /** Channel the jumper is streamed on, or null to race alone. */
+  private final GhostChannel ghosts;
 
-    /** Round is complete and the score is presented. */
-    CompleteDefault,
+  /** Jumper layers of the other players' ghosts, by slot; null when racing alone. */
+  private final ImageLayer[ ] ghostJumperLayers;
 
-    /** Round is complete and the splat message is presented. */
-    CompleteSplat;
-  };
+  /** Parachute layers of the other players' ghosts, by slot; null when racing alone. */
+  private final ImageLayer[ ] ghostParachuteLayers;
 
-  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /** Server the round is broadcast to spectators from, or null if nobody is watching. */
+  private final SpectatorServer spectators;
 
-  /** Ground layer for the jumper to land on. */
-  private final Layer groundLayer;
+  /** Sequence number of the last snapshot broadcast. */
+  private long broadcastSequence = -1;
 
-  /** Helicopter layer. */
-  private final ImageLayer helicopterLayer;
+  /** Layer the particles are fired into, batched so that a splat costs a single draw call. */
+  private final BatchedGroupLayer particleLayer;
 
-  /** Jumper layer. */
-  private final PhysicsLayer jumperLayer;
+  /** Landing prediction presented by the preview layer, reused every frame. */
+  private final Prediction prediction = new Prediction( );
 
-  /** Parachute layer. */
-  private final ImageLayer parachuteLayer;
+  /** Randomized parameters of the round. */
+  private final Round round;
 
   /** Wind speed. */
   private final float windspeed;
 
-  /** Current game state. */
-  private State state;
+  /** Runs the round's physics and rules, publishing a snapshot after every step. */
+  private final SimulationThread simulation;
 
-  /** Completion score. */
-  private int score = 0;
+  /** True if the simulation is stepped from the updates rather than its own thread. */
+  private final boolean simulationInline;
+
+  /** Game time the inline simulation has been stepped up to, on the session's timing wheel, in milliseconds. */
+  private double simulatedTime;
+
+  /** Best achievable play of the round, once solved in the background, or null until then. */
+  private Solution solution = null;
+
+  /** Score of the round once it has landed safely, until it's presented with the solution; otherwise -1. */
+  private int landedScore = -1;
+
+  /** Number of completion messages shown, so that a message rasterized late doesn't cover a newer one. */
+  private int completionCount = 0;
+
+  /** Completion message layer, or null before one is shown. */
+  private ImageLayer completionLayer = null;
+
+  /** Reads the round's state transitions from the session's event bus. */
+  private final GameEventBus.Consumer events;
+
+  /** Presents each state transition read from the event bus. */
+  private final GameEventHandler transitionHandler = new GameEventHandler( )
+  {
+    @Override
+    public void onEvent( final GameEvent event, final long sequence, final boolean endOfBatch )
+    {
+      GameController.this.setState( event.getState( ), event );
+    }
+  };
+
+  /** Game state presented. */
+  private RoundState state;
+
+  /** True once the parachute has been seen open. */
+  private boolean deployed = false;
 
   /** Randomized width of the ground layer since {@link playn.core.ImmediateLayer} doesn't provide width support. */
   private final int groundWidth;
@@ -122,44 +173,111 @@ public class GameController extends GroupLayerGL implements com.bryanchacosky.co
   /** Randomized height of the ground layer since {@link playn.core.ImmediateLayer} doesn't provide height support. */
   private final int groundHeight;
 
-  /** Time when the parachute was launched.  Used in calculating the score. */
-  private double parachuteLaunchTime;
-
   //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+  /**
+   * Starts loading the images a round uses in the background, so that starting a round doesn't wait on decoding them.
+   *
+   * @param session - Session the rounds will run in.
+   */
+  public static void preload( final Session session )
+  {
+    session.getImageCache( ).preload( GameController.Images );
+  }
+
   /**
    * Instantiates a default game layer.
+   *
+   * @param game - Game the round belongs to.
    */
-  public GameController( )
+  public GameController( final SkyDiver game )
   {
-    super( PlayN.graphics( ).ctx( ) );
+    super( game.getSession( ).graphics( ).ctx( ) );
+    this.game = game;
+    this.session = game.getSession( );
+
+    // Randomize the round:
+    this.round = new Round( this.session.getRandom( ).nextLong( ), this.session.getWindowWidth( ), this.session.getWindowHeight( ) );
 
-    // Randomize the ground width/height now since ImmediateLayer doesn't provide height/width:
-    this.groundWidth = new Random( ).nextInt( GameController.GroundMaxWidth - GameController.GroundMinWidth ) + GameController.GroundMinWidth;
-    this.groundHeight = new Random( ).nextInt( GameController.GroundMaxHeight - GameController.GroundMinHeight ) + GameController.GroundMinHeight;
+    // Pull the ground width/height now since ImmediateLayer doesn't provide height/width:
+    this.groundWidth = this.round.getGroundWidth( );
+    this.groundHeight = this.round.getGroundHeight( );
 
-    // Initialize the windspeed:
-    this.windspeed = new Random( ).nextFloat( ) * ( GameController.WindSpeedMax - GameController.WindSpeedMin ) + GameController.WindSpeedMin;
+    // Initialize the wind:
+    this.windspeed = this.round.getWindspeed( );
 
     // Initialize the layers:
     super.add( this.groundLayer = this.createGroundLayer( ) );
     super.add( this.helicopterLayer = this.createHelicopterLayer( ) );
+
+    // Draw the other players' ghosts underneath the jumper:
+    this.ghosts = this.session.getGhosts( );
+    this.ghostJumperLayers = null == this.ghosts ? null : new ImageLayer[ GhostChannel.MaxGhosts ];
+    this.ghostParachuteLayers = null == this.ghosts ? null : new ImageLayer[ GhostChannel.MaxGhosts ];
+    for ( int i = 0; null != this.ghosts && i != GhostChannel.MaxGhosts; ++i )
+    {
+      super.add( this.ghostJumperLayers[ i ] = this.createGhostLayer( this.createJumperLayer( ) ) );
+      super.add( this.ghostParachuteLayers[ i ] = this.createGhostLayer( this.createParachuteLayer( ) ) );
+    }
+
     super.add( this.jumperLayer = this.createJumperLayer( ) );
     super.add( this.parachuteLayer = this.createParachuteLayer( ) );
+    super.add( this.previewLayer = this.createPreviewLayer( ) );
+    super.add( this.particleLayer = new BatchedGroupLayer( this.session ) );
+    this.spectators = this.session.getSpectators( );
+
+    // Simulate the round with the real layer sizes, on its own thread unless running inline:
+    this.events = this.session.getEvents( ).subscribe( );
+    this.simulation = new SimulationThread( new RoundSimulator( this.round, PhysicsBackend.Default,
+                                                                this.jumperLayer.width( ), this.jumperLayer.height( ),
+                                                                this.helicopterLayer.width( ), this.helicopterLayer.height( ) ),
+                                            this.session.getEvents( ) );
+    this.simulationInline = this.session.isSimulationInline( );
+    this.simulatedTime = this.session.getTimers( ).getTime( );
+    if ( this.simulationInline == false )
+    {
+      this.simulation.setTimeScale( this.session.getTimers( ).getTimeScale( ) );
+      this.simulation.start( );
+    }
+
+    // Solve the round in the background while it's played, keeping the candidate plays it simulates off the frame:
+    final ScoreSolver solver = this.createSolver( );
+    this.session.getJobs( ).submit( new JobScheduler.Task< Solution >( )
+    {
+      @Override
+      public Solution call( )
+      {
+        final Solution solution = new Solution( );
+        solver.solve( GameController.this.round, solution );
+        return solution;
+      }
+
+      @Override
+      public void onCompletion( final Solution solution )
+      {
+        GameController.this.solution = solution;
+        if ( GameController.this.landedScore >= 0 )
+          GameController.this.presentScore( );
+      }
+    });
 
     // Initialize the game state:
-    this.setState( State.Countdown );
+    Telemetry.record( TelemetryEvent.RoundStart, this.session.getId( ), this.round.getSeed( ), 0.0 );
+    this.setState( RoundState.Countdown, null );
   }
 
   //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
   /**
-   * Sets the current game state.
+   * Presents a new game state.  The simulation has already moved into the state; this only updates the layers and
+   * input handlers to match.
    *
    * @param state - New game state.
+   * @param event - Transition into the state, or null for the initial state.
    */
-  private void setState( final State state )
+  private void setState( final RoundState state, final GameEvent event )
   {
+    final RoundSnapshot snapshot = null == event ? this.simulation.latest( ) : event.getSnapshot( );
     this.state = state;
 
     switch ( state )
@@ -171,13 +289,12 @@ public class GameController extends GroupLayerGL implements com.bryanchacosky.co
         this.jumperLayer.setVisible( false );
         this.parachuteLayer.setVisible( false );
 
-        // Add a new countdown layer:
-        super.add( new CountdownLayer( 3, new CountdownLayer.Callback( )
+        // Add a new countdown layer; the simulation ends the countdown itself:
+        super.add( new CountdownLayer( this.session, RoundSimulator.CountdownDuration / 1000, new CountdownLayer.Callback( )
         {
           @Override
           public void onCompletion( )
           {
-            GameController.this.setState( State.PreLaunch );
           }
         }));
       }
@@ -189,26 +306,8 @@ public class GameController extends GroupLayerGL implements com.bryanchacosky.co
         this.helicopterLayer.setVisible( true );
         this.jumperLayer.setVisible( true );
 
-        // Launch the helicopter:
-        this.helicopterLayer.setTranslation( -this.helicopterLayer.width( ), GameController.HelicopterHeight );
-        Animator.setScrolling( this.helicopterLayer, 5000, new Animator.Callback( )
-        {
-          @Override
-          public void onAnimationComplete( )
-          {
-            if ( State.PreLaunch.equals( GameController.this.state ) == true )
-            {
-              // Helicopter went off screen while we were still in pre-launch, so terminate the game:
-              GameController.this.setState( State.CompleteDefault );
-            }
-
-            // Prevent scrolling multiple times:
-            Animator.clearScrolling( GameController.this.helicopterLayer );
-          }
-        });
-
         // Register a touch handler:
-        PlayN.pointer( ).setListener( new Listener( )
+        this.session.pointer( ).setListener( new Listener( )
         {
           @Override
           public void onPointerStart( final Event event )
@@ -218,12 +317,8 @@ public class GameController extends GroupLayerGL implements com.bryanchacosky.co
           @Override
           public void onPointerEnd( final Event event )
           {
-            // Make sure we're in the proper state:
-            if ( State.PreLaunch.equals( state ) == true )
-            {
-              // Launch the little guy:
-              GameController.this.setState( State.InFlight );
-            }
+            // Launch the little guy:
+            GameController.this.simulation.jump( );
           }
 
           @Override
@@ -236,17 +331,10 @@ public class GameController extends GroupLayerGL implements com.bryanchacosky.co
 
       case InFlight:
       {
-        // Reset the vertical acceleration so he falls:
-        this.jumperLayer.resetVerticalAcceleration( );
-
-        // Set a horizontal acceleration from the wind:
-        this.jumperLayer.setHorizontalAcceleration( this.windspeed );
-
-        // Set a horizontal velocity to mimic the helicopter pulling him:
-        this.jumperLayer.setHorizontalVelocity( 25.0f );
+        Telemetry.record( TelemetryEvent.Jump, this.session.getId( ), snapshot.getTime( ), 0.0 );
 
         // Register a touch handler:
-        PlayN.pointer( ).setListener( new Listener( )
+        this.session.pointer( ).setListener( new Listener( )
         {
           @Override
           public void onPointerStart( final Event event )
@@ -256,17 +344,11 @@ public class GameController extends GroupLayerGL implements com.bryanchacosky.co
           @Override
           public void onPointerEnd( final Event event )
           {
-            // Parachute opens, so clip the jumper's speed and vertical acceleration:
-            GameController.this.jumperLayer.setVerticalAcceleration( PhysicsLayer.DefaultVerticalAcceleration * 0.1f );
-            GameController.this.jumperLayer.setVerticalVelocity( GameController.this.jumperLayer.getVerticalVelocity( ) * 0.1f );
-            GameController.this.jumperLayer.setHorizontalVelocity( GameController.this.jumperLayer.getHorizontalVelocity( ) * 0.25f );
-
-            // Show the parachute and initialize the launch timer:
-            GameController.this.parachuteLayer.setVisible( true );
-            GameController.this.parachuteLaunchTime = PlayN.currentTime( );
+            // Open the parachute:
+            GameController.this.simulation.deploy( );
 
             // Remove input listeners:
-            PlayN.pointer( ).setListener( null );
+            GameController.this.session.pointer( ).setListener( null );
           }
 
           @Override
@@ -280,15 +362,76 @@ public class GameController extends GroupLayerGL implements com.bryanchacosky.co
       case CompleteDefault:
       case CompleteSplat:
       {
-        // Clear movement on the jumper:
-        this.jumperLayer.clearMovement( );
+        Metrics.roundPlayed( );
+
+        // Let the helicopter fly the rest of the way off screen:
+        if ( this.helicopterLayer.visible( ) == true && snapshot.getHelicopterX( ) < this.session.getWindowWidth( ) )
+        {
+          this.session.getAnimator( ).setScrolling( this.helicopterLayer, Round.HelicopterDuration, new Animator.Callback( )
+          {
+            @Override
+            public void onAnimationComplete( )
+            {
+              // Prevent scrolling multiple times:
+              GameController.this.session.getAnimator( ).clearScrolling( GameController.this.helicopterLayer );
+            }
+          });
+        }
+
+        // Report the landing, if the jumper reached the ground:
+        this.session.getStatistics( ).recordRound( event, this.windspeed );
+        if ( event.isLanding( ) == true )
+          Telemetry.record( TelemetryEvent.Landing, this.session.getId( ), snapshot.getTime( ), snapshot.getLandingVelocity( ) );
 
-        // Present the completion message:
-        if ( State.CompleteSplat.equals( state ) == true )    super.add( GameController.createCompletionLayer( "Uh oh..." ) );
-        else                                                  super.add( GameController.createCompletionLayer( "Score: " + this.score ) );
+        if ( RoundState.CompleteSplat.equals( state ) == true )
+        {
+          // Splat...
+          Telemetry.record( TelemetryEvent.Splat, this.session.getId( ), this.round.getSeed( ), snapshot.getLandingVelocity( ) );
+          new ParticleSystem( this.session )
+          {
+            @Override
+            protected int getParticleCount( )
+            {
+              return GameController.this.session.getRandom( ).nextInt( 5 ) + 10;
+            }
+
+            @Override
+            protected int getParticleColor( )
+            {
+              return 0xFFFF0000;
+            }
+
+            @Override
+            protected int getParticleSize( )
+            {
+              return GameController.this.session.getRandom( ).nextInt( 2 ) + 2;
+            }
+
+            @Override
+            protected long getParticleDuration( )
+            {
+              return GameController.this.session.getRandom( ).nextInt( 500 ) + 1750;
+            }
+          }.fire( this.particleLayer, snapshot.getJumperX( ), snapshot.getJumperY( ) );
+        }
+
+        // Present the completion message, recording the score and its place on the leaderboard:
+        if ( RoundState.CompleteSplat.equals( state ) == true )
+        {
+          this.showCompletion( "Uh oh..." );
+        }
+        else
+        {
+          // Show the score straight away, and its percentage of the best play once the background solve finishes:
+          this.landedScore = snapshot.getScore( );
+          if ( null != this.solution )
+            this.presentScore( );
+          else
+            this.showCompletion( "Score: " + this.landedScore );
+        }
 
         // Register a touch handler:
-        PlayN.pointer( ).setListener( new Listener( )
+        this.session.pointer( ).setListener( new Listener( )
         {
           @Override
           public void onPointerStart( final Event event )
@@ -299,7 +442,7 @@ public class GameController extends GroupLayerGL implements com.bryanchacosky.co
           public void onPointerEnd( final Event event )
           {
             // Move back to the menu controller:
-            SkyDiver.setContentLayer( new MenuController( ) );
+            GameController.this.game.setContentLayer( new MenuController( GameController.this.game ) );
           }
 
           @Override
@@ -317,92 +460,146 @@ public class GameController extends GroupLayerGL implements com.bryanchacosky.co
   @Override
   public void update( final float delta )
   {
+    // The simulation runs on its own thread at the game clock's time scale, unless it has to be stepped here; then it
+    // takes a step for every update's worth of scaled game time the timing wheel has passed:
+    final TimingWheel timers = this.session.getTimers( );
+    if ( this.simulationInline == false )
+    {
+      this.simulation.setTimeScale( timers.getTimeScale( ) );
+      return;
+    }
+
+    while ( this.simulatedTime + SkyDiver.UpdateRate <= timers.getTime( ) )
+    {
+      this.simulation.step( );
+      this.simulatedTime += SkyDiver.UpdateRate;
+    }
+  }
+
+  @Override
+  public void paint( final float alpha )
+  {
+    // Present every state transition since the last frame, then the latest state published by the simulation:
+    this.events.poll( this.transitionHandler );
+    final RoundSnapshot snapshot = this.simulation.latest( );
+
     switch ( this.state )
     {
       case PreLaunch:
+      case InFlight:
       {
-        // Re-position the jumper to be aligned with the helicopter:
-        final float x = this.helicopterLayer.transform( ).tx( ) + this.helicopterLayer.width( ) / 2.0f;
-        final float y = this.helicopterLayer.transform( ).ty( ) + this.helicopterLayer.height( ) - this.jumperLayer.height( ) * 0.2f;
-        this.jumperLayer.setTranslation( x, y );
+        this.helicopterLayer.setTranslation( snapshot.getHelicopterX( ), Round.HelicopterHeight );
+        this.jumperLayer.setTranslation( snapshot.getJumperX( ), snapshot.getJumperY( ) );
+        this.parachuteLayer.setTranslation( snapshot.getJumperX( ), snapshot.getJumperY( ) );
+        this.parachuteLayer.setVisible( snapshot.isParachuteOpen( ) );
       }
         break;
 
-      case InFlight:
+      case CompleteDefault:
+      case CompleteSplat:
       {
-        // Update the jumper layer:
-        this.jumperLayer.update( delta );
+        this.jumperLayer.setTranslation( snapshot.getJumperX( ), snapshot.getJumperY( ) );
+        this.parachuteLayer.setTranslation( snapshot.getJumperX( ), snapshot.getJumperY( ) );
+      }
+        break;
 
-        // Re-position the parachute to be aligned with the jumper:
-        this.parachuteLayer.setTranslation( this.jumperLayer.transform( ).tx( ), this.jumperLayer.transform( ).ty( ) );
+      default:
+        break;
+    }
 
-        // Check if the jumper is on screen:
-        if ( this.jumperLayer.isOnscreen( ) == false )
-        {
-          // Jumper has flown out of the screen, so clear the score and finish the game:
-          this.score = 0;
-          GameController.this.setState( State.CompleteDefault );
-        }
+    // Note when the parachute opens:
+    if ( this.deployed == false && snapshot.isParachuteOpen( ) == true )
+    {
+      this.deployed = true;
+      Telemetry.record( TelemetryEvent.Deploy, this.session.getId( ), snapshot.getTime( ), 0.0 );
+    }
 
-        // Check for a collision with the ground layer.  Use a 1 pixel height for the ground layer to make sure that we are
-        // testing intersection with the top of the ground layer.  If the jumper hits the side then we shouldn't reward any
-        // points:
-        else if ( this.jumperLayer.intersects( this.groundLayer.transform( ).tx( ), this.groundLayer.transform( ).ty( ), this.groundWidth, 1 ) )
-        {
-          // Jumper has intersected with the land!  Let's check if he was going too fast and broke his legs:
-          System.out.println( "Jumper landed with velocity: " + this.jumperLayer.getCurrentVelocity( ) );
-          if ( this.jumperLayer.getCurrentVelocity( ) <= GameController.MaximumSafeVelocity )
-          {
-            // Safe jump!  Calculate the score:
-            this.score  = ( int )this.windspeed;                                  // More wind, more points!
-            this.score += GameController.GroundMaxWidth - this.groundWidth;       // Smaller ground, more points!
-            this.score += PlayN.currentTime( ) - this.parachuteLaunchTime;        // More parachute time, more points!
+    // Refresh the landing preview for the new positions:
+    this.updatePreview( snapshot );
 
-            // Complete the round:
-            GameController.this.setState( State.CompleteDefault );
-          }
-          else
-          {
-            // Splat...
-            new ParticleSystem( )
-            {
-              @Override
-              protected int getParticleCount( )
-              {
-                return new Random( ).nextInt( 5 ) + 10;
-              }
-
-              @Override
-              protected int getParticleColor( )
-              {
-                return 0xFFFF0000;
-              }
-
-              @Override
-              protected int getParticleSize( )
-              {
-                return new Random( ).nextInt( 2 ) + 2;
-              }
-
-              @Override
-              protected long getParticleDuration( )
-              {
-                return new Random( ).nextInt( 500 ) + 1750;
-              }
-            }.fire( this, this.jumperLayer.transform( ).tx( ), this.jumperLayer.transform( ).ty( ) );
-
-            // Complete the round:
-            this.setState( State.CompleteSplat );
-          }
-        }
-      }
-        break;
+    // Stream the jumper while he's in the air, and move the other players' ghosts:
+    if ( null != this.ghosts )
+      this.updateGhosts( snapshot );
+
+    // Broadcast each new snapshot to the spectators:
+    if ( null != this.spectators && snapshot.getSequence( ) != this.broadcastSequence )
+    {
+      this.broadcastSequence = snapshot.getSequence( );
+      this.spectators.broadcast( this.round.getSeed( ), snapshot );
     }
   }
 
   @Override
-  public void paint( final float alpha )
+  public void onRemove( )
   {
+    // Stop animating the helicopter, which would otherwise keep its timers running on the session for good:
+    this.session.getAnimator( ).clearAnimation( this.helicopterLayer );
+    this.session.getAnimator( ).clearScrolling( this.helicopterLayer );
+    this.simulation.stop( );
+    this.events.close( );
+    super.onRemove( );
+  }
+
+  /**
+   * Predicts where the jumper would land if he jumped now (before launch) or opened the parachute now (in flight),
+   * and shows the preview layer if he would reach the ground.
+   *
+   * @param snapshot - Latest snapshot.
+   */
+  private void updatePreview( final RoundSnapshot snapshot )
+  {
+    if ( GameController.ShowLandingPreview == false )
+      return;
+
+    // The jumper touches the ground once his feet reach the top of the ground layer:
+    final float groundY = this.session.getWindowHeight( ) - this.groundHeight - this.jumperLayer.height( );
+    final float x = snapshot.getJumperX( );
+    final float y = snapshot.getJumperY( );
+
+    final boolean visible;
+    switch ( this.state )
+    {
+      case PreLaunch:
+        visible = TrajectoryPredictor.predictJump( this.prediction, x, y, this.windspeed, groundY );
+        break;
+
+      case InFlight:
+        visible = snapshot.isParachuteOpen( ) == false && TrajectoryPredictor.predictDeploy( this.prediction, x, y, snapshot.getHorizontalVelocity( ), snapshot.getVerticalVelocity( ), this.windspeed, groundY );
+        break;
+
+      default:
+        visible = false;
+        break;
+    }
+
+    this.previewLayer.setVisible( visible );
+  }
+
+  /**
+   * Sends the jumper's state to the other players, and moves their ghosts to the positions they've streamed.
+   *
+   * @param snapshot - Latest snapshot.
+   */
+  private void updateGhosts( final RoundSnapshot snapshot )
+  {
+    final double now = this.session.currentTime( );
+    if ( RoundState.PreLaunch.equals( this.state ) == true || RoundState.InFlight.equals( this.state ) == true )
+      this.ghosts.send( snapshot, now );
+    this.ghosts.receive( now );
+
+    for ( int i = 0; i != GhostChannel.MaxGhosts; ++i )
+    {
+      final Ghost ghost = this.ghosts.getGhost( i );
+      final boolean visible = null != ghost && ghost.isVisible( ) == true;
+
+      this.ghostJumperLayers[ i ].setVisible( visible );
+      this.ghostParachuteLayers[ i ].setVisible( visible == true && ghost.isParachuteOpen( ) == true );
+      if ( visible == true )
+      {
+        this.ghostJumperLayers[ i ].setTranslation( ghost.getX( ), ghost.getY( ) );
+        this.ghostParachuteLayers[ i ].setTranslation( ghost.getX( ), ghost.getY( ) );
+      }
+    }
   }
 
   //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -416,15 +613,15 @@ public class GameController extends GroupLayerGL implements com.bryanchacosky.co
   {
     final Image animationImages[ ] =
     {
-      PlayN.assets( ).getImage( "images/helicopter-0.png" ),
-      PlayN.assets( ).getImage( "images/helicopter-1.png" ),
-      PlayN.assets( ).getImage( "images/helicopter-2.png" ),
-      PlayN.assets( ).getImage( "images/helicopter-1.png" )
+      this.session.getImageCache( ).getImage( "images/helicopter-0.png" ),
+      this.session.getImageCache( ).getImage( "images/helicopter-1.png" ),
+      this.session.getImageCache( ).getImage( "images/helicopter-2.png" ),
+      this.session.getImageCache( ).getImage( "images/helicopter-1.png" )
     };
 
     // Create the image layer:
-    final ImageLayer layer = PlayN.graphics( ).createImageLayer( animationImages[ 0 ] );
-    Animator.setAnimation( layer, 75, animationImages );
+    final ImageLayer layer = this.session.graphics( ).createImageLayer( animationImages[ 0 ] );
+    this.session.getAnimator( ).setAnimation( layer, 75, animationImages );
     return layer;
   }
 
@@ -433,13 +630,28 @@ public class GameController extends GroupLayerGL implements com.bryanchacosky.co
    *
    * @return Jumper layer.
    */
-  private PhysicsLayer createJumperLayer( )
+  private ImageLayer createJumperLayer( )
   {
-    final PhysicsLayer layer = new PhysicsLayer( PlayN.assets( ).getImage( "images/jumper.png" ) );
+    final Image image = this.session.getImageCache( ).getImage( "images/jumper.png" );
+    final ImageLayer layer = this.session.graphics( ).createImageLayer( image );
+    layer.setSize( image.width( ), image.height( ) );
     layer.setOrigin( layer.width( ) / 2, layer.originY( ) );
     return layer;
   }
 
+  /**
+   * Fades a jumper or parachute layer out to draw a ghost with, hidden until the ghost's first state arrives.
+   *
+   * @param layer - Layer.
+   * @return The same layer.
+   */
+  private ImageLayer createGhostLayer( final ImageLayer layer )
+  {
+    layer.setAlpha( GameController.GhostAlpha );
+    layer.setVisible( false );
+    return layer;
+  }
+
   /**
    * Creates a randomized ground layer for the jumper to land on.
    *
@@ -447,17 +659,15 @@ public class GameController extends GroupLayerGL implements com.bryanchacosky.co
    */
   private Layer createGroundLayer( )
   {
-    final Random random = new Random( );
-
     // Determine the position:
-    final int x = random.nextInt( SkyDiver.WindowWidth - this.groundWidth );
-    final int y = SkyDiver.WindowHeight - this.groundHeight;
+    final int x = this.round.getGroundX( );
+    final int y = this.round.getGroundY( );
 
     // Pull the dirt pattern:
-    final Pattern pattern = PlayN.assets( ).getImage( "images/dirt.png" ).toPattern( );
+    final Pattern pattern = this.session.getImageCache( ).getImage( "images/dirt.png" ).toPattern( );
 
     // Create an immediate layer and fill with the dirt pattern:
-    final ImmediateLayer layer = PlayN.graphics( ).createImmediateLayer( this.groundWidth, this.groundHeight, new Renderer( )
+    final ImmediateLayer layer = this.session.graphics( ).createImmediateLayer( this.groundWidth, this.groundHeight, new Renderer( )
     {
       @Override
       public void render( final Surface surface )
@@ -468,10 +678,10 @@ public class GameController extends GroupLayerGL implements com.bryanchacosky.co
     });
 
     // Position the ground offscreen initially:
-    layer.setTranslation( x, SkyDiver.WindowHeight );
+    layer.setTranslation( x, this.session.getWindowHeight( ) );
 
     // And bring the ground back up to the proper height like some demonic platform:
-    Animator.lerp( layer, x, y, 1000 );
+    this.session.getAnimator( ).lerp( layer, x, y, 1000 );
 
     return layer;
   }
@@ -483,38 +693,155 @@ public class GameController extends GroupLayerGL implements com.bryanchacosky.co
    */
   private ImageLayer createParachuteLayer( )
   {
-    final Image image = PlayN.assets( ).getImage( "images/parachute.png" );
-    final ImageLayer layer = PlayN.graphics( ).createImageLayer( image );
+    final Image image = this.session.getImageCache( ).getImage( "images/parachute.png" );
+    final ImageLayer layer = this.session.graphics( ).createImageLayer( image );
     layer.setSize( image.width( ), image.height( ) );
     layer.setOrigin( image.width( ) / 2, image.height( ) );
     return layer;
   }
 
+  /**
+   * Creates the landing preview layer, which marks the predicted landing position on top of the ground.
+   *
+   * @return Preview layer.
+   */
+  private Layer createPreviewLayer( )
+  {
+    final Layer layer = this.session.graphics( ).createImmediateLayer( this.session.getWindowWidth( ), this.session.getWindowHeight( ), new Renderer( )
+    {
+      @Override
+      public void render( final Surface surface )
+      {
+        // Green for a safe landing, red for a splat:
+        final Prediction prediction = GameController.this.prediction;
+        surface.setFillColor( prediction.getImpactVelocity( ) <= Round.MaximumSafeVelocity ? 0xC000FF00 : 0xC0FF0000 );
+        surface.fillRect( prediction.getLandingX( ) - GameController.PreviewMarkerSize / 2,
+                          GameController.this.session.getWindowHeight( ) - GameController.this.groundHeight - GameController.PreviewMarkerSize,
+                          GameController.PreviewMarkerSize,
+                          GameController.PreviewMarkerSize );
+      }
+    });
+    layer.setVisible( false );
+    return layer;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Creates a solver for the round, sized to its layers.
+   *
+   * @return Score solver.
+   */
+  private ScoreSolver createSolver( )
+  {
+    return new ScoreSolver( this.jumperLayer.width( ), this.jumperLayer.height( ), this.helicopterLayer.width( ), this.helicopterLayer.height( ) );
+  }
+
+  /**
+   * Presents the landed score relative to the best achievable play, recording it along with its place on the
+   * leaderboard.  Called once both the round has landed and the background solve has finished, in either order.
+   */
+  private void presentScore( )
+  {
+    final int score = this.landedScore;
+    final int percent = this.solution.percentOf( score );
+    this.landedScore = -1;
+
+    final int rank = this.recordScore( score, this.solution.getScore( ) );
+    Telemetry.record( TelemetryEvent.Score, this.session.getId( ), score, percent );
+    this.session.getStatistics( ).recordScore( percent );
+    this.showCompletion( "Score: " + score + " (" + percent + "%)" + ( rank > 0 ? "  #" + rank : "" ) );
+  }
+
+  /**
+   * Records a score in the session's high score table, and submits it to the leaderboard in the background.
+   *
+   * @param score - Score achieved.
+   * @param best - Best achievable score of the round.
+   * @return Rank of the score on the leaderboard, starting at 1, or 0 if it didn't make the leaderboard or wasn't recorded.
+   */
+  private int recordScore( final int score, final int best )
+  {
+    if ( score <= 0 )
+      return 0;
+
+    // Submit to the leaderboard without waiting on the network:
+    final HighScore highScore = new HighScore( System.currentTimeMillis( ), this.round.getSeed( ), score, best );
+    final LeaderboardClient leaderboard = this.session.getLeaderboard( );
+    if ( null != leaderboard )
+      leaderboard.submit( highScore, null );
+
+    final HighScoreTable highScores = this.session.getHighScores( );
+    if ( null == highScores )
+      return 0;
+
+    try
+    {
+      return highScores.add( highScore );
+    }
+    catch ( final IOException exception )
+    {
+      this.session.log( ).warn( "Unable to record the score: " + exception );
+      return 0;
+    }
+  }
+
   //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
   /**
-   * Creates the game over layer.
+   * Shows the game over message, once it has been rasterized in the background, replacing any message shown before.
    *
    * @param message - Message to display.
-   * @return Score layer.
    */
-  private static Layer createCompletionLayer( final String message )
+  private void showCompletion( final String message )
+  {
+    final int count = ++this.completionCount;
+    this.session.getJobs( ).submit( new JobScheduler.Task< CanvasImage >( )
+    {
+      @Override
+      public CanvasImage call( )
+      {
+        return GameController.createCompletionImage( GameController.this.session, message );
+      }
+
+      @Override
+      public void onCompletion( final CanvasImage image )
+      {
+        // A newer message has been asked for since, so this one is already out of date:
+        if ( count != GameController.this.completionCount )
+          return;
+
+        // Wrap the image into an image layer:
+        final ImageLayer layer = GameController.this.session.graphics( ).createImageLayer( image );
+        layer.setTranslation( ( GameController.this.session.getWindowWidth( ) - image.width( ) ) / 2, ( GameController.this.session.getWindowHeight( ) - image.height( ) ) / 2 );
+        if ( null != GameController.this.completionLayer )
+          GameController.this.remove( GameController.this.completionLayer );
+        GameController.this.completionLayer = layer;
+        GameController.this.add( layer );
+      }
+    });
+  }
+
+  /**
+   * Rasterizes the game over message.  Touches no layers, so it can run on a worker thread.
+   *
+   * @param session - Session the message is shown in.
+   * @param message - Message to display.
+   * @return Image of the message.
+   */
+  public static CanvasImage createCompletionImage( final Session session, final String message )
   {
     // Create the text layout:
-    final TextLayout layout = PlayN.graphics( ).layoutText( message, new TextFormat( ).withFont( PlayN.graphics( ).createFont( "Helvetica", Font.Style.PLAIN, SkyDiver.WindowHeight * 0.2f ) ) );
+    final TextLayout layout = session.graphics( ).layoutText( message, new TextFormat( ).withFont( session.graphics( ).createFont( "Helvetica", Font.Style.PLAIN, session.getWindowHeight( ) * 0.2f ) ) );
 
     // Wrap the layout within an image:
-    final CanvasImage image = PlayN.graphics( ).createImage( ( int )layout.width( ),( int )layout.height( ) );
+    final CanvasImage image = session.graphics( ).createImage( ( int )layout.width( ),( int )layout.height( ) );
     image.canvas( ).setFillColor( 0xFFFFFFFF );
     image.canvas( ).fillText( layout, 0, 0 );
     image.canvas( ).setStrokeColor( 0xFF404040 );
     image.canvas( ).setStrokeWidth( 2.0f );
     image.canvas( ).strokeText( layout, 0, 0 );
-
-    // Wrap the image into an image layer:
-    final ImageLayer layer = PlayN.graphics( ).createImageLayer( image );
-    layer.setTranslation( ( SkyDiver.WindowWidth - image.width( ) ) / 2, ( SkyDiver.WindowHeight - image.height( ) ) / 2 );
-    return layer;
+    return image;
   }
 
   //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
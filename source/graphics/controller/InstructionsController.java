@@ -1,10 +1,10 @@
 package com.bryanchacosky.core.graphics.controller;
 
-import playn.core.PlayN;
 import playn.core.Pointer.Event;
 import playn.core.Pointer.Listener;
 import playn.core.gl.ImageLayerGL;
 
+import com.bryanchacosky.core.Session;
 import com.bryanchacosky.core.SkyDiver;
 
 //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -18,14 +18,24 @@ public class InstructionsController extends ImageLayerGL implements com.bryancha
 {
   //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+  /** Game the instructions belong to. */
+  private final SkyDiver game;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
   /**
    * Instantiates a default instructions controller.
+   *
+   * @param game - Game the instructions belong to.
    */
-  public InstructionsController( )
+  public InstructionsController( final SkyDiver game )
   {
-    super( PlayN.graphics( ).ctx( ) );
-    super.setSize( SkyDiver.WindowWidth, SkyDiver.WindowHeight );
-    super.setImage( PlayN.assets( ).getImage( "images/instructions.png" ) );
+    super( game.getSession( ).graphics( ).ctx( ) );
+    this.game = game;
+
+    final Session session = game.getSession( );
+    super.setSize( session.getWindowWidth( ), session.getWindowHeight( ) );
+    super.setImage( session.getImageCache( ).getImage( "images/instructions.png" ) );
   }
 
   //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -36,7 +46,7 @@ public class InstructionsController extends ImageLayerGL implements com.bryancha
     super.onAdd( );
 
     // Set the pointer:
-    PlayN.pointer( ).setListener( new Listener( )
+    this.game.getSession( ).pointer( ).setListener( new Listener( )
     {
       @Override
       public void onPointerStart( final Event event )
@@ -47,7 +57,7 @@ public class InstructionsController extends ImageLayerGL implements com.bryancha
       public void onPointerEnd( final Event event )
       {
         // Start a new round:
-        SkyDiver.setContentLayer( new GameController( ) );
+        InstructionsController.this.game.setContentLayer( new GameController( InstructionsController.this.game ) );
       }
 
       @Override
@@ -1,8 +1,5 @@
 package com.bryanchacosky.core.graphics.controller;
 
-import java.util.Timer;
-import java.util.TimerTask;
-
 import playn.core.CanvasImage;
 import playn.core.Font;
 import playn.core.GroupLayer;
@@ -12,15 +9,17 @@ import playn.core.Mouse;
 import playn.core.Mouse.ButtonEvent;
 import playn.core.Mouse.MotionEvent;
 import playn.core.Mouse.WheelEvent;
-import playn.core.PlayN;
 import playn.core.Pointer;
 import playn.core.Pointer.Event;
 import playn.core.TextFormat;
 import playn.core.TextLayout;
 import playn.core.gl.GroupLayerGL;
 
+import com.bryanchacosky.core.Session;
 import com.bryanchacosky.core.SkyDiver;
+import com.bryanchacosky.core.graphics.PointerDispatcher;
 import com.bryanchacosky.core.utilities.Animator;
+import com.bryanchacosky.core.utilities.TimingWheel;
 
 //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
@@ -33,24 +32,41 @@ public class MenuController extends GroupLayerGL implements com.bryanchacosky.co
 {
   //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+  /** Game the menu belongs to. */
+  private final SkyDiver game;
+
+  /** Session the menu runs in. */
+  private final Session session;
+
   /** Layer to display the game title. */
   private final Layer.HasSize titleLayer;
 
   /** Layer which holds each of the options. */
   private final GroupLayer optionsLayer;
 
+  /** Dispatches pointer and mouse events to the options. */
+  private final PointerDispatcher dispatcher;
+
   //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
   /**
    * Instantiates the default menu layer.
+   *
+   * @param game - Game the menu belongs to.
    */
-  public MenuController( )
+  public MenuController( final SkyDiver game )
   {
-    super( PlayN.graphics( ).ctx( ) );
+    super( game.getSession( ).graphics( ).ctx( ) );
+    this.game = game;
+    this.session = game.getSession( );
+    this.dispatcher = new PointerDispatcher( this.session );
 
     // Initialize the final layers:
     super.add( this.titleLayer = this.createTitleLayer( ) );
-    super.add( this.optionsLayer = PlayN.graphics( ).createGroupLayer( ) );
+    super.add( this.optionsLayer = this.session.graphics( ).createGroupLayer( ) );
+
+    // Decode the round's images while the menu is up:
+    GameController.preload( this.session );
 
     // Create a group layer to hold each of the options:
     this.addOption( "Play", new Pointer.Adapter( )
@@ -58,7 +74,7 @@ public class MenuController extends GroupLayerGL implements com.bryanchacosky.co
       @Override
       public void onPointerEnd( final Event event )
       {
-        SkyDiver.setContentLayer( new GameController( ) );
+        MenuController.this.game.setContentLayer( new GameController( MenuController.this.game ) );
       }
     });
     this.addOption( "Instructions", new Pointer.Adapter( )
@@ -66,7 +82,15 @@ public class MenuController extends GroupLayerGL implements com.bryanchacosky.co
       @Override
       public void onPointerEnd( final Event event )
       {
-        SkyDiver.setContentLayer( new InstructionsController( ) );
+        MenuController.this.game.setContentLayer( new InstructionsController( MenuController.this.game ) );
+      }
+    });
+    this.addOption( "Statistics", new Pointer.Adapter( )
+    {
+      @Override
+      public void onPointerEnd( final Event event )
+      {
+        MenuController.this.game.setContentLayer( new StatisticsController( MenuController.this.game ) );
       }
     });
     this.addOption( "Quit", new Pointer.Adapter( )
@@ -84,6 +108,7 @@ public class MenuController extends GroupLayerGL implements com.bryanchacosky.co
   @Override
   public void update( final float delta )
   {
+    this.dispatcher.refresh( );
   }
 
   @Override
@@ -97,21 +122,22 @@ public class MenuController extends GroupLayerGL implements com.bryanchacosky.co
   public void onAdd( )
   {
     super.onAdd( );
+    this.dispatcher.install( );
 
     // Prepare to animate the title layer from above:
-    this.titleLayer.setTranslation( ( SkyDiver.WindowWidth - this.titleLayer.width( ) ) / 2, -this.titleLayer.height( ) );
+    this.titleLayer.setTranslation( ( this.session.getWindowWidth( ) - this.titleLayer.width( ) ) / 2, -this.titleLayer.height( ) );
     this.optionsLayer.setVisible( false );
 
     // Delay the animation by a second:
-    new Timer( ).schedule( new TimerTask( )
+    this.session.getTimers( ).schedule( new TimingWheel.Callback( )
     {
       @Override
-      public void run( )
+      public void onTimer( final TimingWheel.Timer timer )
       {
         // Animate the title layer down to the proper position, directly on top of the options layer:
         final float x = MenuController.this.titleLayer.transform( ).tx( );
         final float y = MenuController.this.titleLayer.height( ) / 2;
-        Animator.lerp( MenuController.this.titleLayer, x, y, 1000, new Animator.Callback( )
+        MenuController.this.session.getAnimator( ).lerp( MenuController.this.titleLayer, x, y, 1000, new Animator.Callback( )
         {
           @Override
           public void onAnimationComplete( )
@@ -126,7 +152,7 @@ public class MenuController extends GroupLayerGL implements com.bryanchacosky.co
              */
 
             // Animation complete, so present the options:
-            final float x = ( SkyDiver.WindowWidth - MenuController.width( MenuController.this.optionsLayer ) ) / 2;
+            final float x = ( MenuController.this.session.getWindowWidth( ) - MenuController.width( MenuController.this.optionsLayer ) ) / 2;
             final float y = MenuController.this.titleLayer.transform( ).ty( ) + MenuController.this.titleLayer.height( ) / 2;
             MenuController.this.optionsLayer.setTranslation( x, y );
             MenuController.this.optionsLayer.setVisible( true );
@@ -136,6 +162,13 @@ public class MenuController extends GroupLayerGL implements com.bryanchacosky.co
     }, 1000 );
   }
 
+  @Override
+  public void onRemove( )
+  {
+    this.dispatcher.uninstall( );
+    super.onRemove( );
+  }
+
   //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
   /**
@@ -145,7 +178,7 @@ public class MenuController extends GroupLayerGL implements com.bryanchacosky.co
    */
   private Layer.HasSize createTitleLayer( )
   {
-    return PlayN.graphics( ).createImageLayer( PlayN.assets( ).getImage( "images/title.png" ) );
+    return this.session.graphics( ).createImageLayer( this.session.getImageCache( ).getImage( "images/title.png" ) );
   }
 
   //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -159,17 +192,16 @@ public class MenuController extends GroupLayerGL implements com.bryanchacosky.co
   private void addOption( final String option, final Pointer.Adapter onClick )
   {
     // Create the text layout:
-    final TextLayout layout = PlayN.graphics( ).layoutText( option, new TextFormat( ).withFont( PlayN.graphics( ).createFont( "Helvetica", Font.Style.PLAIN, 85.0f ) ) );
+    final TextLayout layout = this.session.graphics( ).layoutText( option, new TextFormat( ).withFont( this.session.graphics( ).createFont( "Helvetica", Font.Style.PLAIN, 85.0f ) ) );
 
     // Wrap the layout within an image:
-    final CanvasImage image = PlayN.graphics( ).createImage( ( int )layout.width( ),( int )layout.height( ) );
+    final CanvasImage image = this.session.graphics( ).createImage( ( int )layout.width( ),( int )layout.height( ) );
     image.canvas( ).setFillColor( 0xFF404040 );
     image.canvas( ).fillText( layout, 0, 0 );
 
     // Wrap the image into an image layer:
-    final ImageLayer layer = PlayN.graphics( ).createImageLayer( image );
-    layer.addListener( onClick );
-    layer.addListener( new Mouse.LayerListener( )
+    final ImageLayer layer = this.session.graphics( ).createImageLayer( image );
+    this.dispatcher.register( layer, onClick, new Mouse.LayerListener( )
     {
       @Override
       public void onMouseWheelScroll( final WheelEvent event )
@@ -0,0 +1,174 @@
+package com.bryanchacosky.core.graphics.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import playn.core.CanvasImage;
+import playn.core.Font;
+import playn.core.Pointer.Event;
+import playn.core.Pointer.Listener;
+import playn.core.TextFormat;
+import playn.core.TextLayout;
+import playn.core.gl.ImageLayerGL;
+
+import com.bryanchacosky.core.Session;
+import com.bryanchacosky.core.SkyDiver;
+import com.bryanchacosky.core.statistics.GameStatistics;
+import com.bryanchacosky.core.statistics.Histogram;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Controller to display the statistics of the rounds played in the session.  Tapping returns to the
+ * {@link MenuController}.
+ *
+ * @author Bryan Chacosky
+ */
+public class StatisticsController extends ImageLayerGL implements com.bryanchacosky.core.graphics.Layer
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Quantiles shown for each distribution. */
+  private static final double Quantiles[ ] = { 0.5, 0.9, 0.99 };
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Game the statistics belong to. */
+  private final SkyDiver game;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a default statistics controller.
+   *
+   * @param game - Game the statistics belong to.
+   */
+  public StatisticsController( final SkyDiver game )
+  {
+    super( game.getSession( ).graphics( ).ctx( ) );
+    this.game = game;
+
+    final Session session = game.getSession( );
+    super.setSize( session.getWindowWidth( ), session.getWindowHeight( ) );
+    super.setImage( this.createImage( session, StatisticsController.describe( session.getStatistics( ) ) ) );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public void onAdd( )
+  {
+    super.onAdd( );
+
+    // Set the pointer:
+    this.game.getSession( ).pointer( ).setListener( new Listener( )
+    {
+      @Override
+      public void onPointerStart( final Event event )
+      {
+      }
+
+      @Override
+      public void onPointerEnd( final Event event )
+      {
+        // Move back to the menu controller:
+        StatisticsController.this.game.setContentLayer( new MenuController( StatisticsController.this.game ) );
+      }
+
+      @Override
+      public void onPointerDrag( final Event event )
+      {
+      }
+    });
+  }
+
+  @Override
+  public void update( final float delta )
+  {
+  }
+
+  @Override
+  public void paint( final float alpha )
+  {
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Describes the statistics, one line per entry.
+   *
+   * @param statistics - Statistics.
+   * @return Lines of text.
+   */
+  private static List< String > describe( final GameStatistics statistics )
+  {
+    final List< String > lines = new ArrayList< String >( );
+    lines.add( "Rounds played: " + statistics.getRoundCount( ) );
+    if ( statistics.getRoundCount( ) == 0 )
+      return lines;
+
+    // Distributions:
+    lines.add( "Landing speed:" + StatisticsController.quantiles( statistics.getLandingVelocities( ), "% of safe" ) );
+    lines.add( "Parachute time:" + StatisticsController.quantiles( statistics.getParachuteTimes( ), " ms" ) );
+    lines.add( "Score:" + StatisticsController.quantiles( statistics.getScorePercents( ), "% of best" ) );
+
+    // Splat rate by wind speed:
+    lines.add( "Splats by wind speed:" );
+    for ( int i = 0; i != GameStatistics.WindBuckets; ++i )
+    {
+      final long rounds = statistics.getRoundCount( i );
+      if ( rounds != 0 )
+        lines.add( "  " + ( int )GameStatistics.getWindBucketMinimum( i ) + "-" + ( int )GameStatistics.getWindBucketMinimum( i + 1 ) + ": "
+                   + statistics.getSplatCount( i ) + " of " + rounds + " (" + ( 100 * statistics.getSplatCount( i ) / rounds ) + "%)" );
+    }
+
+    return lines;
+  }
+
+  /**
+   * Describes the quantiles of a distribution.
+   *
+   * @param histogram - Distribution.
+   * @param unit - Unit appended to each value.
+   * @return Description, or "  none" if nothing was recorded.
+   */
+  private static String quantiles( final Histogram histogram, final String unit )
+  {
+    if ( histogram.getCount( ) == 0 )
+      return "  none";
+
+    final StringBuilder builder = new StringBuilder( );
+    for ( final double quantile : StatisticsController.Quantiles )
+      builder.append( "  p" ).append( ( int )Math.round( quantile * 100 ) ).append( ' ' ).append( histogram.getValueAtQuantile( quantile ) ).append( unit );
+    return builder.toString( );
+  }
+
+  /**
+   * Creates the image presenting the statistics.
+   *
+   * @param session - Session to create the image in.
+   * @param lines - Lines of text.
+   * @return Image.
+   */
+  private CanvasImage createImage( final Session session, final List< String > lines )
+  {
+    final TextFormat format = new TextFormat( ).withFont( session.graphics( ).createFont( "Helvetica", Font.Style.PLAIN, session.getWindowHeight( ) * 0.05f ) );
+    final CanvasImage image = session.graphics( ).createImage( session.getWindowWidth( ), session.getWindowHeight( ) );
+    image.canvas( ).setFillColor( 0xFF404040 );
+
+    // Stack the lines from the top left corner:
+    float y = session.getWindowHeight( ) * 0.05f;
+    for ( final String line : lines )
+    {
+      final TextLayout layout = session.graphics( ).layoutText( line, format );
+      image.canvas( ).fillText( layout, session.getWindowWidth( ) * 0.05f, y );
+      y += layout.height( );
+    }
+
+    return image;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
@@ -0,0 +1,457 @@
+package com.bryanchacosky.core.graphics.controller;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import playn.core.Image;
+import playn.core.ImageLayer;
+
+import com.bryanchacosky.core.Session;
+import com.bryanchacosky.core.SkyDiver;
+import com.bryanchacosky.core.graphics.layer.BatchedGroupLayer;
+import com.bryanchacosky.core.graphics.layer.PhysicsLayer;
+import com.bryanchacosky.core.simulation.Round;
+import com.bryanchacosky.core.simulation.WindField;
+import com.bryanchacosky.core.utilities.Animator;
+import com.bryanchacosky.core.utilities.ParticleSystem;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Hidden benchmark scene which finds how much the current machine can draw.  The scene ramps up clouds, falling
+ * jumpers, particle bursts and scrolling helicopters in steps, recording the frame time and heap use of every step.
+ * Once the game can no longer hold 30 FPS (or every step has run) it writes a CSV report, prints the entity counts at
+ * which 60 and 30 FPS were lost, and returns to the {@link MenuController}.
+ *
+ * Opened with {@link SkyDiver#StressKey}.  The report is written to <code>skydiver-stress.csv</code>, or to the file
+ * named by the <code>skydiver.stress.report</code> system property.
+ *
+ * @author Bryan Chacosky
+ */
+public class StressController extends BatchedGroupLayer implements com.bryanchacosky.core.graphics.Layer
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** File the report is written to. */
+  public static final String ReportPath = System.getProperty( "skydiver.stress.report", "skydiver-stress.csv" );
+
+  /** Maximum number of steps. */
+  public static final int StepCount = 20;
+
+  /** Duration of each step, in milliseconds. */
+  public static final long StepDuration = 4000;
+
+  /** Time at the start of each step which isn't measured, so that new entities settle first, in milliseconds. */
+  public static final long SettleDuration = 1000;
+
+  /** Clouds added per step. */
+  public static final int CloudsPerStep = 25;
+
+  /** Jumpers added per step. */
+  public static final int JumpersPerStep = 25;
+
+  /** Particle bursts per second added per step. */
+  public static final int BurstsPerStep = 2;
+
+  /** Scrolling helicopters added per step. */
+  public static final int ScrollingPerStep = 10;
+
+  /** Frame rates reported on, highest first.  The scene stops once the last can't be held. */
+  private static final int[ ] TargetFrameRates = { 60, 30 };
+
+  /** A frame rate is held while the 95th percentile frame time is within this factor of the frame budget, which
+   * leaves room for vsync jitter. */
+  private static final double FrameTolerance = 1.1;
+
+  /** Most frames measured per step. */
+  private static final int MaxFrames = 4096;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Measurements of a single step.
+   */
+  private static final class Step
+  {
+    /** Number of clouds. */
+    int clouds;
+
+    /** Number of jumpers. */
+    int jumpers;
+
+    /** Particle bursts per second. */
+    int bursts;
+
+    /** Number of scrolling helicopters. */
+    int scrolling;
+
+    /** Particles in flight at the end of the step. */
+    long particles;
+
+    /** Layers in the scene at the end of the step. */
+    int layers;
+
+    /** Mean frame time, in milliseconds. */
+    double meanFrameTime;
+
+    /** 95th percentile frame time, in milliseconds. */
+    double p95FrameTime;
+
+    /** Longest frame time, in milliseconds. */
+    double maxFrameTime;
+
+    /** Largest heap use seen during the step, in bytes. */
+    long heapUsed;
+  };
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Measurements of the completed steps. */
+  private final List< Step > steps = new LinkedList< Step >( );
+
+  /** Frame times of the current step, in nanoseconds. */
+  private final long[ ] frameTimes = new long[ StressController.MaxFrames ];
+
+  /** Game the scene belongs to. */
+  private final SkyDiver game;
+
+  /** Session the scene runs in. */
+  private final Session session;
+
+  /** Animator of the session. */
+  private final Animator animator;
+
+  /** Jumpers falling through the wind. */
+  private final List< PhysicsLayer > jumpers = new LinkedList< PhysicsLayer >( );
+
+  /** Layers scrolling across the screen, cleared when the scene ends. */
+  private final List< ImageLayer > scrollingLayers = new LinkedList< ImageLayer >( );
+
+  /** Wind the jumpers fall through. */
+  private final WindField windField;
+
+  /** Particle bursts fired around the screen. */
+  private final ParticleSystem burst;
+
+  /** Random numbers for placing the entities. */
+  private final Random random = new Random( 0 );
+
+  /** Number of clouds, which scroll along with the helicopters. */
+  private int cloudCount = 0;
+
+  /** Measurements of the current step. */
+  private Step step = null;
+
+  /** Number of frames measured in the current step. */
+  private int frameCount = 0;
+
+  /** Time the current step started, in milliseconds. */
+  private double stepStartTime;
+
+  /** Time of the last paint, in nanoseconds, or 0 before the first paint. */
+  private long lastFrameTime = 0;
+
+  /** Time until the next particle burst, in milliseconds. */
+  private float burstDelay = 0.0f;
+
+  /** True once the report has been written. */
+  private boolean finished = false;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a new stress scene.
+   *
+   * @param game - Game the scene belongs to.
+   */
+  public StressController( final SkyDiver game )
+  {
+    super( game.getSession( ) );
+    this.game = game;
+    this.session = game.getSession( );
+    this.animator = this.session.getAnimator( );
+
+    this.windField = new Round( 0, this.session.getWindowWidth( ), this.session.getWindowHeight( ) ).createWindField( );
+    this.burst = new ParticleSystem( this.session )
+    {
+      @Override
+      protected int getParticleCount( )
+      {
+        return 12;
+      }
+
+      @Override
+      protected int getParticleColor( )
+      {
+        return 0xFFFF0000;
+      }
+
+      @Override
+      protected int getParticleSize( )
+      {
+        return 3;
+      }
+
+      @Override
+      protected long getParticleDuration( )
+      {
+        return 2000;
+      }
+    };
+
+    this.startStep( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public void update( final float delta )
+  {
+    if ( this.finished == true )
+      return;
+
+    // Keep the jumpers falling, wrapping them back to the top of the screen:
+    this.windField.update( delta );
+    for ( final PhysicsLayer jumper : this.jumpers )
+    {
+      this.session.getProfiler( ).update( jumper, delta );
+      if ( jumper.transform( ).ty( ) > this.session.getWindowHeight( ) )
+      {
+        jumper.setTranslation( this.random.nextInt( this.session.getWindowWidth( ) ), -jumper.height( ) );
+        jumper.setVerticalVelocity( 0.0f );
+      }
+    }
+
+    // Fire the particle bursts:
+    this.burstDelay -= delta;
+    while ( this.step.bursts > 0 && this.burstDelay <= 0.0f )
+    {
+      this.burst.fire( this, this.random.nextInt( this.session.getWindowWidth( ) ), this.random.nextInt( this.session.getWindowHeight( ) ) );
+      this.burstDelay += 1000.0f / this.step.bursts;
+    }
+
+    // Move on once the step has run its course:
+    if ( this.session.currentTime( ) - this.stepStartTime >= StressController.StepDuration )
+      this.finishStep( );
+  }
+
+  @Override
+  public void paint( final float alpha )
+  {
+    if ( this.finished == true )
+      return;
+
+    final long now = System.nanoTime( );
+    if ( this.lastFrameTime != 0 && this.session.currentTime( ) - this.stepStartTime >= StressController.SettleDuration && this.frameCount != this.frameTimes.length )
+    {
+      this.frameTimes[ this.frameCount++ ] = now - this.lastFrameTime;
+
+      final Runtime runtime = Runtime.getRuntime( );
+      this.step.heapUsed = Math.max( this.step.heapUsed, runtime.totalMemory( ) - runtime.freeMemory( ) );
+    }
+
+    this.lastFrameTime = now;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Starts the next step, adding its entities to the scene.
+   */
+  private void startStep( )
+  {
+    final Step previous = this.step;
+    this.step = new Step( );
+    this.step.bursts = ( null == previous ? 0 : previous.bursts ) + StressController.BurstsPerStep;
+
+    for ( int i = 0; i != StressController.CloudsPerStep; ++i )
+      this.addCloud( );
+    for ( int i = 0; i != StressController.JumpersPerStep; ++i )
+      this.addJumper( );
+    for ( int i = 0; i != StressController.ScrollingPerStep; ++i )
+      this.addScrolling( );
+
+    this.frameCount = 0;
+    this.stepStartTime = this.session.currentTime( );
+  }
+
+  /**
+   * Finishes the current step, then either starts the next one or ends the scene.
+   */
+  private void finishStep( )
+  {
+    final Step step = this.step;
+    step.clouds = this.cloudCount;
+    step.jumpers = this.jumpers.size( );
+    step.scrolling = this.scrollingLayers.size( ) - this.cloudCount;
+    step.particles = ParticleSystem.getLiveParticleCount( );
+    step.layers = super.size( );
+
+    // Frame time statistics:
+    final long[ ] sorted = Arrays.copyOf( this.frameTimes, this.frameCount );
+    Arrays.sort( sorted );
+    long total = 0;
+    for ( final long frameTime : sorted )
+      total += frameTime;
+
+    if ( sorted.length != 0 )
+    {
+      step.meanFrameTime = total / 1.0e6 / sorted.length;
+      step.p95FrameTime = sorted[ Math.min( sorted.length - 1, ( int )( sorted.length * 0.95 ) ) ] / 1.0e6;
+      step.maxFrameTime = sorted[ sorted.length - 1 ] / 1.0e6;
+    }
+    this.steps.add( step );
+
+    // Stop once the lowest frame rate can't be held any more:
+    final int lowest = StressController.TargetFrameRates[ StressController.TargetFrameRates.length - 1 ];
+    if ( this.steps.size( ) == StressController.StepCount || StressController.holds( step, lowest ) == false )
+      this.finish( );
+    else
+      this.startStep( );
+  }
+
+  /**
+   * Ends the scene: writes the report, prints the capacity and returns to the menu.
+   */
+  private void finish( )
+  {
+    this.finished = true;
+    for ( final ImageLayer layer : this.scrollingLayers )
+    {
+      this.animator.clearScrolling( layer );
+      this.animator.clearAnimation( layer );
+    }
+
+    this.writeReport( );
+
+    for ( final int rate : StressController.TargetFrameRates )
+    {
+      Step lost = null;
+      for ( final Step step : this.steps )
+      {
+        if ( StressController.holds( step, rate ) == false )
+        {
+          lost = step;
+          break;
+        }
+      }
+
+      if ( null == lost )
+        System.out.println( rate + " FPS held through every step (" + StressController.describe( this.steps.get( this.steps.size( ) - 1 ) ) + ")" );
+      else
+        System.out.println( rate + " FPS lost at " + StressController.describe( lost ) );
+    }
+
+    this.game.setContentLayer( new MenuController( this.game ) );
+  }
+
+  /**
+   * Writes the measurements of every step as comma separated values.
+   */
+  private void writeReport( )
+  {
+    try ( final PrintWriter writer = new PrintWriter( new FileWriter( StressController.ReportPath ) ) )
+    {
+      writer.println( "step,clouds,jumpers,bursts_per_second,scrolling,particles,layers,mean_ms,p95_ms,max_ms,fps,heap_mb" );
+
+      int index = 0;
+      for ( final Step step : this.steps )
+      {
+        writer.println( String.format( "%d,%d,%d,%d,%d,%d,%d,%.2f,%.2f,%.2f,%.1f,%.1f",
+                                       ++index, step.clouds, step.jumpers, step.bursts, step.scrolling, step.particles, step.layers,
+                                       step.meanFrameTime, step.p95FrameTime, step.maxFrameTime,
+                                       step.meanFrameTime == 0.0 ? 0.0 : 1000.0 / step.meanFrameTime,
+                                       step.heapUsed / 1048576.0 ) );
+      }
+
+      System.out.println( "Stress report written to " + StressController.ReportPath );
+    }
+    catch ( final IOException exception )
+    {
+      this.session.log( ).warn( "Unable to write the stress report: " + exception );
+    }
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Adds a cloud drifting across the screen.
+   */
+  private void addCloud( )
+  {
+    final ImageLayer cloud = this.session.graphics( ).createImageLayer( this.session.getImageCache( ).getImage( "images/cloud-" + this.random.nextInt( 2 ) + ".png" ) );
+    cloud.setAlpha( ( this.random.nextInt( 4 ) + 4 ) / 10.0f );
+    cloud.setTranslation( this.random.nextInt( this.session.getWindowWidth( ) ), this.random.nextInt( this.session.getWindowHeight( ) ) );
+    this.animator.setScrolling( cloud, this.random.nextInt( 4000 ) + 8000 );
+    this.scrollingLayers.add( cloud );
+    ++this.cloudCount;
+    super.add( cloud );
+  }
+
+  /**
+   * Adds a jumper falling through the wind.
+   */
+  private void addJumper( )
+  {
+    final PhysicsLayer jumper = new PhysicsLayer( this.session, this.session.getImageCache( ).getImage( "images/jumper.png" ) );
+    jumper.setTranslation( this.random.nextInt( this.session.getWindowWidth( ) ), this.random.nextInt( this.session.getWindowHeight( ) ) );
+    jumper.setWindField( this.windField );
+    this.jumpers.add( jumper );
+    super.add( jumper );
+  }
+
+  /**
+   * Adds an animated helicopter scrolling across the screen.
+   */
+  private void addScrolling( )
+  {
+    final Image[ ] images =
+    {
+      this.session.getImageCache( ).getImage( "images/helicopter-0.png" ),
+      this.session.getImageCache( ).getImage( "images/helicopter-1.png" ),
+      this.session.getImageCache( ).getImage( "images/helicopter-2.png" ),
+      this.session.getImageCache( ).getImage( "images/helicopter-1.png" )
+    };
+
+    final ImageLayer helicopter = this.session.graphics( ).createImageLayer( images[ 0 ] );
+    helicopter.setTranslation( this.random.nextInt( this.session.getWindowWidth( ) ), this.random.nextInt( this.session.getWindowHeight( ) ) );
+    this.animator.setAnimation( helicopter, 75, images );
+    this.animator.setScrolling( helicopter, Round.HelicopterDuration );
+    this.scrollingLayers.add( helicopter );
+    super.add( helicopter );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Checks if a step held a frame rate.
+   *
+   * @param step - Step.
+   * @param rate - Frame rate, in frames per second.
+   * @return True if the frame rate was held.
+   */
+  private static boolean holds( final Step step, final int rate )
+  {
+    return step.p95FrameTime <= 1000.0 / rate * StressController.FrameTolerance;
+  }
+
+  /**
+   * Describes the entity counts of a step.
+   *
+   * @param step - Step.
+   * @return Description.
+   */
+  private static String describe( final Step step )
+  {
+    return step.clouds + " clouds, " + step.jumpers + " jumpers, " + step.bursts + " bursts/s, " + step.scrolling + " scrolling, " + step.layers + " layers";
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
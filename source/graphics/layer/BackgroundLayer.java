@@ -6,54 +6,65 @@ import playn.core.Canvas;
 import playn.core.CanvasImage;
 import playn.core.ImageLayer;
 import playn.core.Layer;
-import playn.core.PlayN;
-import playn.core.gl.GroupLayerGL;
 
-import com.bryanchacosky.core.SkyDiver;
+import com.bryanchacosky.core.Session;
 import com.bryanchacosky.core.utilities.Animator;
+import com.bryanchacosky.core.utilities.JobScheduler;
 
 //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
 /**
- * Background layer containing the sky and wrapping clouds.
+ * Background layer containing the sky and wrapping clouds.  Clouds are batched by image.  The sky's gradient covers
+ * the whole window, so it is drawn on a worker thread and shown once it's ready.
  *
  * @author Bryan Chacosky
  */
-public class BackgroundLayer extends GroupLayerGL implements com.bryanchacosky.core.graphics.Layer
+public class BackgroundLayer extends BatchedGroupLayer implements com.bryanchacosky.core.graphics.Layer
 {
   //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+  /** Session the background belongs to. */
+  private final Session session;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
   /**
    * Instantiates a default background layer.
+   *
+   * @param session - Session the background belongs to.
    */
-  public BackgroundLayer( )
+  public BackgroundLayer( final Session session )
   {
-    super( PlayN.graphics( ).ctx( ) );
+    super( session );
+    this.session = session;
 
     // Initialize the background gradient layer:
     super.add( this.createBackgroundGradientLayer( ) );
 
     // Create a few clouds in the sky:
-    final Random random = new Random( );
-    for ( int i = 0; i != random.nextInt( 3 ) + 3; ++i )
+    final int windowWidth = session.getWindowWidth( );
+    final int windowHeight = session.getWindowHeight( );
+    final Random random = session.getRandom( );
+    final int cloudCount = random.nextInt( 3 ) + 3;
+    for ( int i = 0; i != cloudCount; ++i )
     {
       final long  speed = random.nextInt( 4000 ) + 8000;              // Duration to scroll the screen, between 8 and 12 seconds
       final float alpha = ( random.nextInt( 4 ) + 4 ) / 10.0f;        // Alpa transparency, between 0.4 and 0.8
-      final int   x     = random.nextInt( SkyDiver.WindowWidth );     // Starting x position, between 0 and screen width
-      final int   y     = random.nextInt( SkyDiver.WindowHeight );    // Starting y position, between 0 and screen height
+      final int   x     = random.nextInt( windowWidth );              // Starting x position, between 0 and screen width
+      final int   y     = random.nextInt( windowHeight );             // Starting y position, between 0 and screen height
       final int   image = random.nextInt( 2 );                        // Cloud asset image
 
       // Create the layer:
-      final ImageLayer cloud = PlayN.graphics( ).createImageLayer( PlayN.assets( ).getImage( "images/cloud-" + image + ".png" ) );
+      final ImageLayer cloud = session.graphics( ).createImageLayer( session.getImageCache( ).getImage( "images/cloud-" + image + ".png" ) );
       cloud.setAlpha( alpha );
       cloud.setTranslation( x, y );
-      Animator.setScrolling( cloud, speed, new Animator.Callback( )
+      session.getAnimator( ).setScrolling( cloud, speed, new Animator.Callback( )
       {
         @Override
         public void onAnimationComplete( )
         {
           // About to wrap around the edge, so let's change to a new height to keep it interesting:
-          cloud.setTranslation( cloud.transform( ).tx( ), random.nextInt( SkyDiver.WindowHeight ) );
+          cloud.setTranslation( cloud.transform( ).tx( ), random.nextInt( windowHeight ) );
         }
       });
       super.add( cloud );
@@ -75,21 +86,34 @@ public class BackgroundLayer extends GroupLayerGL implements com.bryanchacosky.c
   //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
   /**
-   * Creates the background gradient layer.
+   * Creates the background gradient layer, empty until the gradient has been drawn in the background.
    *
    * @return Gradient layer.
    */
   private Layer createBackgroundGradientLayer( )
   {
-    // Create the canvas image with the gradient:
-    final CanvasImage canvasImage = PlayN.graphics( ).createImage( SkyDiver.WindowWidth, SkyDiver.WindowHeight );
-    final Canvas canvas = canvasImage.canvas( );
-    canvas.setFillGradient( PlayN.graphics( ).createLinearGradient( 0, SkyDiver.WindowHeight, 0, 0, new int[ ]{ 0xFF6090BF, 0xFF80B1FF }, new float[ ]{ 0.0f, 1.0f } ) );
-    canvas.fillRect( 0, 0, SkyDiver.WindowWidth, SkyDiver.WindowHeight );
-
-    // Convert the canvas image into an ImageLayer:
-    final ImageLayer imageLayer = PlayN.graphics( ).createImageLayer( );
-    imageLayer.setImage( canvasImage );
+    final ImageLayer imageLayer = this.session.graphics( ).createImageLayer( );
+    this.session.getJobs( ).submit( new JobScheduler.Task< CanvasImage >( )
+    {
+      @Override
+      public CanvasImage call( )
+      {
+        // Create the canvas image with the gradient:
+        final int windowWidth = BackgroundLayer.this.session.getWindowWidth( );
+        final int windowHeight = BackgroundLayer.this.session.getWindowHeight( );
+        final CanvasImage canvasImage = BackgroundLayer.this.session.graphics( ).createImage( windowWidth, windowHeight );
+        final Canvas canvas = canvasImage.canvas( );
+        canvas.setFillGradient( BackgroundLayer.this.session.graphics( ).createLinearGradient( 0, windowHeight, 0, 0, new int[ ]{ 0xFF6090BF, 0xFF80B1FF }, new float[ ]{ 0.0f, 1.0f } ) );
+        canvas.fillRect( 0, 0, windowWidth, windowHeight );
+        return canvasImage;
+      }
+
+      @Override
+      public void onCompletion( final CanvasImage canvasImage )
+      {
+        imageLayer.setImage( canvasImage );
+      }
+    });
     return imageLayer;
   }
 
@@ -0,0 +1,239 @@
+package com.bryanchacosky.core.graphics.layer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import playn.core.Image;
+import playn.core.ImageLayer;
+import playn.core.ImmediateLayer;
+import playn.core.Layer;
+import playn.core.gl.GroupLayerGL;
+
+import com.bryanchacosky.core.Session;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Group layer which paints its children grouped by texture, so that the GL renderer can merge them into as few draw
+ * calls as possible.  The renderer already merges consecutive quads drawn with the same texture into one batch, but
+ * every change of texture flushes the batch; a group of clouds or particles added in random order flushes on almost
+ * every child.  This layer gives each child a depth by its texture (the image of an image layer, or the renderer class
+ * of an immediate layer), so that children sharing a texture are painted back to back and the number of draw calls
+ * follows the number of textures rather than the number of sprites.
+ *
+ * Children sharing a texture keep the order they were added in, and textures are painted in the order they were
+ * first seen; so only use this layer for children whose order relative to children with other textures doesn't
+ * matter, such as clouds and particles.  Children which can't be batched share a single depth of their own.
+ *
+ * A texture's batch is kept while any child uses it, and empty batches are dropped the next time the depths are
+ * compacted, so a group whose textures come and go (such as the images rasterized each round) stays bounded.  A child
+ * whose image changes must change it through {@link #setImage(ImageLayer, Image)}, as the {@link
+ * com.bryanchacosky.core.utilities.Animator} does, so that it moves to the new texture's batch.
+ *
+ * @author Bryan Chacosky
+ */
+public class BatchedGroupLayer extends GroupLayerGL
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Number of depths handed out beyond twice the number of batches before the depths are compacted. */
+  private static final int CompactSlack = 16;
+
+  /** Texture key shared by the children which can't be batched. */
+  private static final Object Unbatched = new Object( );
+
+  /** Orders batches by depth. */
+  private static final Comparator< Batch > DepthOrder = new Comparator< Batch >( )
+  {
+    @Override
+    public int compare( final Batch a, final Batch b )
+    {
+      return Float.compare( a.depth, b.depth );
+    }
+  };
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Children painted with a single texture.
+   */
+  private static final class Batch
+  {
+    /** Depth of the children. */
+    float depth;
+
+    /** Number of children. */
+    int count;
+  };
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Maps a texture -> batch of the children painted with it. */
+  private final Map< Object, Batch > batches = new IdentityHashMap< Object, Batch >( );
+
+  /** Depth given to the next texture seen. */
+  private int nextDepth = 0;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a new batched group layer.
+   *
+   * @param session - Session the layer belongs to.
+   */
+  public BatchedGroupLayer( final Session session )
+  {
+    super( session.graphics( ).ctx( ) );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public void add( final Layer layer )
+  {
+    layer.setDepth( this.acquire( BatchedGroupLayer.getTexture( layer ) ).depth );
+    super.add( layer );
+  }
+
+  @Override
+  public void remove( final Layer layer )
+  {
+    if ( layer.parent( ) == this )
+      this.release( BatchedGroupLayer.getTexture( layer ) );
+    super.remove( layer );
+  }
+
+  @Override
+  public void clear( )
+  {
+    super.clear( );
+    this.batches.clear( );
+    this.nextDepth = 0;
+  }
+
+  /**
+   * Changes the image of a child, moving it to the batch of its new texture.  Layers which aren't children of this
+   * group just have their image set.
+   *
+   * @param layer - Image layer.
+   * @param image - New image.
+   */
+  public void setImage( final ImageLayer layer, final Image image )
+  {
+    if ( layer.parent( ) == this && layer.image( ) != image )
+    {
+      this.release( layer.image( ) );
+      layer.setDepth( this.acquire( image ).depth );
+    }
+
+    layer.setImage( image );
+  }
+
+  /**
+   * Gets the number of textures the children have been grouped by, including textures no child uses any more whose
+   * batches haven't been dropped yet.
+   *
+   * @return Texture count.
+   */
+  public int getTextureCount( )
+  {
+    return this.batches.size( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Adds a child to the batch of a texture, creating the batch if needed.
+   *
+   * @param texture - Texture, or null if the child can't be batched.
+   * @return Batch.
+   */
+  private Batch acquire( final Object texture )
+  {
+    final Object key = null == texture ? BatchedGroupLayer.Unbatched : texture;
+
+    Batch batch = this.batches.get( key );
+    if ( null == batch )
+    {
+      if ( this.nextDepth >= 2 * this.batches.size( ) + BatchedGroupLayer.CompactSlack )
+        this.compact( );
+
+      batch = new Batch( );
+      batch.depth = this.nextDepth++;
+      this.batches.put( key, batch );
+    }
+
+    ++batch.count;
+    return batch;
+  }
+
+  /**
+   * Removes a child from the batch of a texture.  The batch is kept, even once empty, so that a child switching back
+   * and forth between images (such as an animation) reuses it; empty batches are dropped by {@link #compact()}.
+   *
+   * @param texture - Texture, or null if the child can't be batched.
+   */
+  private void release( final Object texture )
+  {
+    final Batch batch = this.batches.get( null == texture ? BatchedGroupLayer.Unbatched : texture );
+    if ( null != batch && batch.count > 0 )
+      --batch.count;
+  }
+
+  /**
+   * Drops the empty batches and renumbers the rest from zero, keeping their order, so that the depths stay small.
+   */
+  private void compact( )
+  {
+    final List< Batch > live = new ArrayList< Batch >( this.batches.size( ) );
+    for ( final Iterator< Batch > iterator = this.batches.values( ).iterator( ); iterator.hasNext( ); )
+    {
+      final Batch batch = iterator.next( );
+      if ( batch.count == 0 )
+        iterator.remove( );
+      else
+        live.add( batch );
+    }
+
+    Collections.sort( live, BatchedGroupLayer.DepthOrder );
+    for ( int i = 0; i != live.size( ); ++i )
+      live.get( i ).depth = i;
+    this.nextDepth = live.size( );
+
+    // Changing a child's depth re-sorts the children, so work from a copy of them:
+    final Layer[ ] children = new Layer[ super.size( ) ];
+    for ( int i = 0; i != children.length; ++i )
+      children[ i ] = super.get( i );
+
+    for ( final Layer child : children )
+    {
+      final Object texture = BatchedGroupLayer.getTexture( child );
+      child.setDepth( this.batches.get( null == texture ? BatchedGroupLayer.Unbatched : texture ).depth );
+    }
+  }
+
+  /**
+   * Gets the texture a layer is painted with.
+   *
+   * @param layer - Layer.
+   * @return Texture, or null if the layer can't be batched.
+   */
+  private static Object getTexture( final Layer layer )
+  {
+    if ( layer instanceof ImageLayer )
+      return ( ( ImageLayer )layer ).image( );
+    else if ( layer instanceof ImmediateLayer )
+      return ( ( ImmediateLayer )layer ).renderer( ).getClass( );
+    else
+      return null;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
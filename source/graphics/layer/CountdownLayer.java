@@ -1,24 +1,24 @@
 package com.bryanchacosky.core.graphics.layer;
 
-import java.util.Timer;
-import java.util.TimerTask;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import playn.core.CanvasImage;
 import playn.core.Font;
 import playn.core.ImageLayer;
-import playn.core.PlayN;
 import playn.core.TextFormat;
 import playn.core.TextLayout;
 import playn.core.gl.GroupLayerGL;
 
-import com.bryanchacosky.core.SkyDiver;
+import com.bryanchacosky.core.Session;
+import com.bryanchacosky.core.utilities.JobScheduler;
+import com.bryanchacosky.core.utilities.TimingWheel;
 
 ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
 /**
  * Layer containing a countdown timer.  The timer will count down from the initialized time
- * and present an visual indicator for each second that ticks.
+ * and present an visual indicator for each second that ticks.  Each number is rasterized on
+ * a worker thread and shown on the game thread.  The seconds are counted on the game clock.
  *
  * @author Bryan Chacosky
  */
@@ -39,34 +39,40 @@ public class CountdownLayer extends GroupLayerGL
 
   //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+  /** Session the countdown runs in. */
+  private final Session session;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
   /**
    * Instantiates a new countdown layer.
    *
+   * @param session - Session the countdown runs in.
    * @param duration - Duration in seconds to countdown.
    * @param callback - Callback.
    */
-  public CountdownLayer( final int duration, final Callback callback )
+  public CountdownLayer( final Session session, final int duration, final Callback callback )
   {
-    super( PlayN.graphics( ).ctx( ) );
+    super( session.graphics( ).ctx( ) );
+    this.session = session;
 
     // Use an atomic integer since we need a final, mutable variable:
     final AtomicInteger remainingTime = new AtomicInteger( duration );
 
     // Register a timer to update the countdown every second:
-    final Timer presentationTimer = new Timer( );
-    presentationTimer.scheduleAtFixedRate( new TimerTask( )
+    session.getTimers( ).scheduleAtFixedRate( new TimingWheel.Callback( )
     {
       @Override
-      public void run( )
+      public void onTimer( final TimingWheel.Timer timer )
       {
         if ( remainingTime.get( ) == 0 )
         {
+          // Cancel the timer:
+          timer.cancel( );
+
           // Timer is complete:
           callback.onCompletion( );
 
-          // Cancel the timer:
-          this.cancel( );
-
           /*
            * I had been using 'CountdownLayer.this.destroy( );' instead of setting invisible but this
            * cause inconsistent issues with destroying the layer, since it would occassionally would
@@ -88,30 +94,54 @@ public class CountdownLayer extends GroupLayerGL
   //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
   /**
-   * Sets the countdown display.
+   * Sets the countdown display, once the number has been rasterized in the background.
    *
    * @param remainingTime - Number to display.
    */
   private void setCountdown( final int remainingTime )
+  {
+    this.session.getJobs( ).submit( new JobScheduler.Task< CanvasImage >( )
+    {
+      @Override
+      public CanvasImage call( )
+      {
+        return CountdownLayer.createCountdownImage( CountdownLayer.this.session, remainingTime );
+      }
+
+      @Override
+      public void onCompletion( final CanvasImage image )
+      {
+        // Wrap the image into a PlayN layer:
+        final ImageLayer layer = CountdownLayer.this.session.graphics( ).createImageLayer( image );
+        layer.setTranslation( ( CountdownLayer.this.session.getWindowWidth( ) - image.width( ) ) / 2, ( CountdownLayer.this.session.getWindowHeight( ) - image.height( ) ) / 2 );
+
+        // Reset the group layer contents:
+        CountdownLayer.this.clear( );
+        CountdownLayer.this.add( layer );
+      }
+    });
+  }
+
+  /**
+   * Rasterizes a number of the countdown.  Touches no layers, so it can run on a worker thread.
+   *
+   * @param session - Session the countdown runs in.
+   * @param remainingTime - Number to display.
+   * @return Image of the number.
+   */
+  public static CanvasImage createCountdownImage( final Session session, final int remainingTime )
   {
     // Create the text layout:
-    final TextLayout layout = PlayN.graphics( ).layoutText( String.valueOf( remainingTime ), new TextFormat( ).withFont( PlayN.graphics( ).createFont( "Helvetica", Font.Style.PLAIN, SkyDiver.WindowHeight * 0.4f ) ) );
+    final TextLayout layout = session.graphics( ).layoutText( String.valueOf( remainingTime ), new TextFormat( ).withFont( session.graphics( ).createFont( "Helvetica", Font.Style.PLAIN, session.getWindowHeight( ) * 0.4f ) ) );
 
     // Wrap the layout within an image:
-    final CanvasImage image = PlayN.graphics( ).createImage( ( int )layout.width( ),( int )layout.height( ) );
+    final CanvasImage image = session.graphics( ).createImage( ( int )layout.width( ),( int )layout.height( ) );
     image.canvas( ).setFillColor( 0xFFFFFFFF );
     image.canvas( ).fillText( layout, 0, 0 );
     image.canvas( ).setStrokeColor( 0xFF404040 );
     image.canvas( ).setStrokeWidth( 2.0f );
     image.canvas( ).strokeText( layout, 0, 0 );
-
-    // Wrap the image into a PlayN layer:
-    final ImageLayer layer = PlayN.graphics( ).createImageLayer( image );
-    layer.setTranslation( ( SkyDiver.WindowWidth - image.width( ) ) / 2, ( SkyDiver.WindowHeight - image.height( ) ) / 2 );
-
-    // Reset the group layer contents:
-    super.clear( );
-    super.add( layer );
+    return image;
   }
 
   //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
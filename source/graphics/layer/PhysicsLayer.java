@@ -2,15 +2,18 @@ package com.bryanchacosky.core.graphics.layer;
 
 import playn.core.Image;
 import playn.core.Layer;
-import playn.core.PlayN;
 import playn.core.gl.ImageLayerGL;
 
-import com.bryanchacosky.core.SkyDiver;
+import com.bryanchacosky.core.Session;
+import com.bryanchacosky.core.simulation.Body;
+import com.bryanchacosky.core.simulation.PhysicsBackend;
+import com.bryanchacosky.core.simulation.WindField;
 
 //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
 /**
- * Image layer subclass which includes physics properties, such as acceleration and velocity.
+ * Image layer subclass which includes physics properties, such as acceleration and velocity.  The physics state lives
+ * in a {@link Body} from the selected {@link PhysicsBackend}, and the layer translation follows the body each update.
  *
  * @author Bryan Chacosky
  */
@@ -19,36 +22,48 @@ public class PhysicsLayer extends ImageLayerGL implements com.bryanchacosky.core
   //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
   /** Default vertical acceleration, representing gravity = {@value #DefaultVerticalAcceleration} */
-  public static final float DefaultVerticalAcceleration = 300.0f;
+  public static final float DefaultVerticalAcceleration = Body.DefaultVerticalAcceleration;
 
   /** Default horizontal acceleration = {@value #DefaultHorizontalAcceleration} */
-  public static final float DefaultHorizontalAcceleration = 0.0f;
+  public static final float DefaultHorizontalAcceleration = Body.DefaultHorizontalAcceleration;
 
   //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
-  /** Vertical acceleration.  Typically this would be implemented with a constant but we're going to support
-   * adjustments to simulate drag from the parachute. */
-  private float v_acceleration = 0.0f;
-
-  /** Horizontal acceleration. */
-  private float h_acceleration = 0.0f;
+  /** Session the layer belongs to. */
+  private final Session session;
 
-  /** Vertical velocity. */
-  private float v_velocity = 0.0f;
+  /** Physics body.  Vertical acceleration would typically be a constant but we're going to support
+   * adjustments to simulate drag from the parachute. */
+  private final Body body;
 
-  /** Horizontal velocity. */
-  private float h_velocity = 0.0f;
+  /** Wind field sampled at the layer position each update, or null for no wind. */
+  private WindField windField = null;
 
   //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
   /**
    * Instantiates a new physics layer.
    *
+   * @param session - Session the layer belongs to.
+   * @param image - Image for the image layer.
+   */
+  public PhysicsLayer( final Session session, final Image image )
+  {
+    this( session, image, PhysicsBackend.Default );
+  }
+
+  /**
+   * Instantiates a new physics layer with a specific physics backend.
+   *
+   * @param session - Session the layer belongs to.
    * @param image - Image for the image layer.
+   * @param backend - Physics backend.
    */
-  public PhysicsLayer( final Image image )
+  public PhysicsLayer( final Session session, final Image image, final PhysicsBackend backend )
   {
-    super( PlayN.graphics( ).ctx( ) );
+    super( session.graphics( ).ctx( ) );
+    this.session = session;
+    this.body = backend.createBody( );
     super.setImage( image );
     super.setSize( image.width( ), image.height( ) );
 
@@ -75,7 +90,7 @@ public class PhysicsLayer extends ImageLayerGL implements com.bryanchacosky.core
    */
   public void setVerticalAcceleration( final float acceleration )
   {
-    this.v_acceleration = acceleration;
+    this.body.setVerticalAcceleration( acceleration );
   }
 
   /**
@@ -94,7 +109,7 @@ public class PhysicsLayer extends ImageLayerGL implements com.bryanchacosky.core
    */
   public void setHorizontalAcceleration( final float acceleration )
   {
-    this.h_acceleration = acceleration;
+    this.body.setHorizontalAcceleration( acceleration );
   }
 
   /**
@@ -104,7 +119,7 @@ public class PhysicsLayer extends ImageLayerGL implements com.bryanchacosky.core
    */
   public void setVerticalVelocity( final float velocity )
   {
-    this.v_velocity = velocity;
+    this.body.setVerticalVelocity( velocity );
   }
 
   /**
@@ -114,7 +129,7 @@ public class PhysicsLayer extends ImageLayerGL implements com.bryanchacosky.core
    */
   public void setHorizontalVelocity( final float velocity )
   {
-    this.h_velocity = velocity;
+    this.body.setHorizontalVelocity( velocity );
   }
 
   /**
@@ -126,6 +141,17 @@ public class PhysicsLayer extends ImageLayerGL implements com.bryanchacosky.core
     this.setHorizontalAcceleration( 0.0f );
     this.setVerticalVelocity( 0.0f );
     this.setHorizontalVelocity( 0.0f );
+    this.setWindField( null );
+  }
+
+  /**
+   * Sets the wind field which is sampled at the layer position and added to the accelerations each update.
+   *
+   * @param windField - Wind field, or null to remove the wind.
+   */
+  public void setWindField( final WindField windField )
+  {
+    this.windField = windField;
   }
 
   //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -137,7 +163,7 @@ public class PhysicsLayer extends ImageLayerGL implements com.bryanchacosky.core
    */
   public float getVerticalVelocity( )
   {
-    return this.v_velocity;
+    return this.body.getVerticalVelocity( );
   }
 
   /**
@@ -147,7 +173,7 @@ public class PhysicsLayer extends ImageLayerGL implements com.bryanchacosky.core
    */
   public float getHorizontalVelocity( )
   {
-    return this.h_velocity;
+    return this.body.getHorizontalVelocity( );
   }
 
   /**
@@ -157,7 +183,7 @@ public class PhysicsLayer extends ImageLayerGL implements com.bryanchacosky.core
    */
   public double getCurrentVelocity( )
   {
-    return Math.sqrt( this.h_velocity * this.h_velocity + this.v_velocity * this.v_velocity );
+    return this.body.getCurrentVelocity( );
   }
 
   //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -184,12 +210,8 @@ public class PhysicsLayer extends ImageLayerGL implements com.bryanchacosky.core
    */
   public boolean intersects( final float tx, final float ty, final float width, final float height )
   {
-    if ( this.transform.tx( ) > tx + width )           return false;
-    if ( this.transform.tx( ) + this.width( ) < tx )   return false;
-    if ( this.transform.ty( ) > ty + height )          return false;
-    if ( this.transform.ty( ) + this.height( ) < ty )  return false;
-
-    return true;
+    this.synchronizeBody( );
+    return this.body.intersects( this.width( ), this.height( ), tx, ty, width, height );
   }
 
   /**
@@ -199,10 +221,10 @@ public class PhysicsLayer extends ImageLayerGL implements com.bryanchacosky.core
    */
   public boolean isOnscreen( )
   {
-    if ( this.transform.tx( ) + this.width( ) < 0.0f )    return false;
-    if ( this.transform.tx( ) > SkyDiver.WindowWidth )    return false;
-    if ( this.transform.ty( ) + this.height( ) < 0.0f )   return false;
-    if ( this.transform.ty( ) > SkyDiver.WindowHeight )   return false;
+    if ( this.transform.tx( ) + this.width( ) < 0.0f )              return false;
+    if ( this.transform.tx( ) > this.session.getWindowWidth( ) )     return false;
+    if ( this.transform.ty( ) + this.height( ) < 0.0f )             return false;
+    if ( this.transform.ty( ) > this.session.getWindowHeight( ) )  return false;
 
     return true;
   }
@@ -212,17 +234,10 @@ public class PhysicsLayer extends ImageLayerGL implements com.bryanchacosky.core
   @Override
   public void update( final float delta )
   {
-    // Divide the delta duration by 1000 since its easier for the user to provide values in units per second, not units per millisecond:
-    final float dt = delta / 1000.0f;
-
-    // Integrate the acceleration to update the velocity with basic Euler integration:
-    this.v_velocity += this.v_acceleration * dt;
-    this.h_velocity += this.h_acceleration * dt;
-
-    // Update the translation based off the current velocity:
-    final float x = this.transform( ).tx( ) + this.h_velocity * dt;
-    final float y = this.transform( ).ty( ) + this.v_velocity * dt;
-    this.setTranslation( x, y );
+    // Integrate the body and move the layer along with it:
+    this.synchronizeBody( );
+    this.body.step( delta, this.windField );
+    this.setTranslation( this.body.getX( ), this.body.getY( ) );
   }
 
   @Override
@@ -231,6 +246,21 @@ public class PhysicsLayer extends ImageLayerGL implements com.bryanchacosky.core
   }
 
   //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Moves the body to the layer translation if the layer has been moved since the last update, such as when the
+   * jumper is carried by the helicopter.  Otherwise the body keeps its own exact position, since the layer translation
+   * is only a float copy of it.
+   */
+  private void synchronizeBody( )
+  {
+    final float x = this.transform.tx( );
+    final float y = this.transform.ty( );
+    if ( x != this.body.getX( ) || y != this.body.getY( ) )
+      this.body.setPosition( x, y );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 }
 
 //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
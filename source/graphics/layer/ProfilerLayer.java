@@ -0,0 +1,137 @@
+package com.bryanchacosky.core.graphics.layer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import playn.core.CanvasImage;
+import playn.core.Font;
+import playn.core.ImageLayer;
+import playn.core.TextFormat;
+import playn.core.TextLayout;
+import playn.core.gl.GroupLayerGL;
+
+import com.bryanchacosky.core.Session;
+import com.bryanchacosky.core.utilities.Profiler;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Overlay presenting the {@link Profiler} report of a session in the top left corner of the screen.  The report is only re-drawn
+ * a couple of times per second, and the overlay hides itself and does nothing else while the profiler is disabled.
+ *
+ * @author Bryan Chacosky
+ */
+public class ProfilerLayer extends GroupLayerGL implements com.bryanchacosky.core.graphics.Layer
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Time between report refreshes, in milliseconds. */
+  private static final float RefreshRate = 500.0f;
+
+  /** Width of the overlay. */
+  private static final int Width = 360;
+
+  /** Height of the overlay. */
+  private static final int Height = 240;
+
+  /** Margin around the report text. */
+  private static final float Margin = 4.0f;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Session whose profiler is presented. */
+  private final Session session;
+
+  /** Profiler presented. */
+  private final Profiler profiler;
+
+  /** Image the report is drawn into. */
+  private final CanvasImage image;
+
+  /** Text format of the report. */
+  private final TextFormat format;
+
+  /** Report lines, reused between refreshes. */
+  private final List< String > lines = new ArrayList< String >( );
+
+  /** Time since the last refresh, in milliseconds. */
+  private float elapsed = 0.0f;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a new profiler overlay.
+   *
+   * @param session - Session whose profiler is presented.
+   */
+  public ProfilerLayer( final Session session )
+  {
+    super( session.graphics( ).ctx( ) );
+
+    this.session = session;
+    this.profiler = session.getProfiler( );
+    this.image = session.graphics( ).createImage( ProfilerLayer.Width, ProfilerLayer.Height );
+    this.format = new TextFormat( ).withFont( session.graphics( ).createFont( "Courier", Font.Style.PLAIN, 12.0f ) );
+
+    final ImageLayer layer = session.graphics( ).createImageLayer( this.image );
+    super.add( layer );
+    super.setVisible( this.profiler.isEnabled( ) );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public void update( final float delta )
+  {
+    if ( this.profiler.isEnabled( ) == false )
+    {
+      super.setVisible( false );
+      return;
+    }
+
+    // Present the first report straight away, then refresh periodically:
+    this.elapsed += delta;
+    if ( super.visible( ) == false || this.elapsed >= ProfilerLayer.RefreshRate )
+    {
+      this.elapsed = 0.0f;
+      this.refresh( );
+      super.setVisible( true );
+    }
+  }
+
+  @Override
+  public void paint( final float alpha )
+  {
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Re-draws the report.
+   */
+  private void refresh( )
+  {
+    this.lines.clear( );
+    this.profiler.report( this.lines );
+
+    this.image.canvas( ).clear( );
+    this.image.canvas( ).setFillColor( 0xA0000000 );
+    this.image.canvas( ).fillRect( 0, 0, ProfilerLayer.Width, ProfilerLayer.Height );
+    this.image.canvas( ).setFillColor( 0xFFFFFFFF );
+
+    float y = ProfilerLayer.Margin;
+    for ( final String line : this.lines )
+    {
+      final TextLayout layout = this.session.graphics( ).layoutText( line, this.format );
+      if ( y + layout.height( ) > ProfilerLayer.Height )
+        break;
+
+      this.image.canvas( ).fillText( layout, ProfilerLayer.Margin, y );
+      y += layout.height( );
+    }
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
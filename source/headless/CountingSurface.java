@@ -0,0 +1,374 @@
+package com.bryanchacosky.core.headless;
+
+import java.util.Arrays;
+
+import playn.core.Image;
+import playn.core.Pattern;
+import playn.core.Surface;
+import playn.core.gl.GLShader;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Surface which counts what would have been drawn instead of drawing it.  It tracks the current transform so that the
+ * fill area and off-screen draws are measured in screen pixels, and it counts texture switches (consecutive draws of
+ * different images) since every switch ends a GPU batch on a real display.
+ *
+ * @author Bryan Chacosky
+ */
+public class CountingSurface implements Surface
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Number of values in each saved transform: m00, m01, m10, m11, tx, ty. */
+  private static final int TransformSize = 6;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Width of the surface. */
+  private final float width;
+
+  /** Height of the surface. */
+  private final float height;
+
+  /** Stack of saved transforms, with the current transform on top. */
+  private float[ ] transforms = new float[ 16 * CountingSurface.TransformSize ];
+
+  /** Offset of the current transform in the stack. */
+  private int top = 0;
+
+  /** Pattern image used by fills, or null for solid fills. */
+  private Image fillImage = null;
+
+  /** Texture of the last draw, or null if the last draw was a solid fill. */
+  private Image lastTexture = null;
+
+  /** Number of draw calls since the last reset. */
+  private long drawCallCount = 0;
+
+  /** Number of image draws since the last reset. */
+  private long imageDrawCount = 0;
+
+  /** Number of draws which used a different texture than the draw before since the last reset. */
+  private long textureSwitchCount = 0;
+
+  /** Number of draws entirely outside the surface since the last reset. */
+  private long offscreenDrawCount = 0;
+
+  /** Area covered by draws since the last reset, in screen pixels. */
+  private double fillArea = 0.0;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a new surface.
+   *
+   * @param width - Width of the surface.
+   * @param height - Height of the surface.
+   */
+  public CountingSurface( final float width, final float height )
+  {
+    this.width = width;
+    this.height = height;
+    this.reset( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Resets the counts and the transform, ready for a new frame.
+   */
+  public void reset( )
+  {
+    this.top = 0;
+    this.transforms[ 0 ] = 1.0f;
+    this.transforms[ 1 ] = 0.0f;
+    this.transforms[ 2 ] = 0.0f;
+    this.transforms[ 3 ] = 1.0f;
+    this.transforms[ 4 ] = 0.0f;
+    this.transforms[ 5 ] = 0.0f;
+
+    this.fillImage = null;
+    this.lastTexture = null;
+    this.drawCallCount = 0;
+    this.imageDrawCount = 0;
+    this.textureSwitchCount = 0;
+    this.offscreenDrawCount = 0;
+    this.fillArea = 0.0;
+  }
+
+  /**
+   * Gets the number of draw calls since the last reset.
+   *
+   * @return Draw call count.
+   */
+  public long getDrawCallCount( )
+  {
+    return this.drawCallCount;
+  }
+
+  /**
+   * Gets the number of image draws since the last reset.
+   *
+   * @return Image draw count.
+   */
+  public long getImageDrawCount( )
+  {
+    return this.imageDrawCount;
+  }
+
+  /**
+   * Gets the number of draws which used a different texture than the draw before since the last reset.
+   *
+   * @return Texture switch count.
+   */
+  public long getTextureSwitchCount( )
+  {
+    return this.textureSwitchCount;
+  }
+
+  /**
+   * Gets the number of draws which landed entirely outside the surface since the last reset.
+   *
+   * @return Off-screen draw count.
+   */
+  public long getOffscreenDrawCount( )
+  {
+    return this.offscreenDrawCount;
+  }
+
+  /**
+   * Gets the area covered by draws since the last reset.  Overlapping draws count once each, so the ratio of the fill
+   * area to the surface area is the overdraw.
+   *
+   * @return Area, in screen pixels.
+   */
+  public double getFillArea( )
+  {
+    return this.fillArea;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public float width( )
+  {
+    return this.width;
+  }
+
+  @Override
+  public float height( )
+  {
+    return this.height;
+  }
+
+  @Override
+  public Surface clear( )
+  {
+    return this.draw( null, 0.0f, 0.0f, this.width, this.height );
+  }
+
+  @Override
+  public Surface setFillColor( final int color )
+  {
+    this.fillImage = null;
+    return this;
+  }
+
+  @Override
+  public Surface setFillPattern( final Pattern pattern )
+  {
+    this.fillImage = pattern instanceof HeadlessPattern ? ( ( HeadlessPattern )pattern ).getImage( ) : null;
+    return this;
+  }
+
+  @Override
+  public Surface setShader( final GLShader shader )
+  {
+    return this;
+  }
+
+  @Override
+  public Surface setAlpha( final float alpha )
+  {
+    return this;
+  }
+
+  @Override
+  public Surface fillRect( final float x, final float y, final float width, final float height )
+  {
+    return this.draw( this.fillImage, x, y, width, height );
+  }
+
+  @Override
+  public Surface fillTriangles( final float[ ] xys, final int[ ] indices )
+  {
+    float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY;
+    float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY;
+    for ( int i = 0; i < xys.length - 1; i += 2 )
+    {
+      minX = Math.min( minX, xys[ i ] );
+      maxX = Math.max( maxX, xys[ i ] );
+      minY = Math.min( minY, xys[ i + 1 ] );
+      maxY = Math.max( maxY, xys[ i + 1 ] );
+    }
+
+    return xys.length < 2 ? this : this.draw( this.fillImage, minX, minY, maxX - minX, maxY - minY );
+  }
+
+  @Override
+  public Surface fillTriangles( final float[ ] xys, final float[ ] sxys, final int[ ] indices )
+  {
+    return this.fillTriangles( xys, indices );
+  }
+
+  @Override
+  public Surface drawImage( final Image image, final float x, final float y )
+  {
+    return this.drawImage( image, x, y, image.width( ), image.height( ) );
+  }
+
+  @Override
+  public Surface drawImage( final Image image, final float x, final float y, final float width, final float height )
+  {
+    ++this.imageDrawCount;
+    return this.draw( image, x, y, width, height );
+  }
+
+  @Override
+  public Surface drawImage( final Image image, final float dx, final float dy, final float dw, final float dh, final float sx, final float sy, final float sw, final float sh )
+  {
+    return this.drawImage( image, dx, dy, dw, dh );
+  }
+
+  @Override
+  public Surface drawImageCentered( final Image image, final float x, final float y )
+  {
+    return this.drawImage( image, x - image.width( ) / 2, y - image.height( ) / 2 );
+  }
+
+  @Override
+  public Surface drawLine( final float x0, final float y0, final float x1, final float y1, final float width )
+  {
+    return this.draw( null, Math.min( x0, x1 ), Math.min( y0, y1 ), Math.abs( x1 - x0 ) + width, Math.abs( y1 - y0 ) + width );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public Surface save( )
+  {
+    if ( this.top + 2 * CountingSurface.TransformSize > this.transforms.length )
+      this.transforms = Arrays.copyOf( this.transforms, this.transforms.length * 2 );
+
+    System.arraycopy( this.transforms, this.top, this.transforms, this.top + CountingSurface.TransformSize, CountingSurface.TransformSize );
+    this.top += CountingSurface.TransformSize;
+    return this;
+  }
+
+  @Override
+  public Surface restore( )
+  {
+    assert this.top > 0 : "Surface restored more often than saved!";
+    this.top -= CountingSurface.TransformSize;
+    return this;
+  }
+
+  @Override
+  public Surface translate( final float x, final float y )
+  {
+    return this.transform( 1.0f, 0.0f, 0.0f, 1.0f, x, y );
+  }
+
+  @Override
+  public Surface scale( final float x, final float y )
+  {
+    return this.transform( x, 0.0f, 0.0f, y, 0.0f, 0.0f );
+  }
+
+  @Override
+  public Surface rotate( final float angle )
+  {
+    final float sin = ( float )Math.sin( angle );
+    final float cos = ( float )Math.cos( angle );
+    return this.transform( cos, sin, -sin, cos, 0.0f, 0.0f );
+  }
+
+  @Override
+  public Surface transform( final float m00, final float m01, final float m10, final float m11, final float tx, final float ty )
+  {
+    final float[ ] t = this.transforms;
+    final int i = this.top;
+    final float a = t[ i ], b = t[ i + 1 ], c = t[ i + 2 ], d = t[ i + 3 ];
+
+    t[ i ]     = a * m00 + c * m01;
+    t[ i + 1 ] = b * m00 + d * m01;
+    t[ i + 2 ] = a * m10 + c * m11;
+    t[ i + 3 ] = b * m10 + d * m11;
+    t[ i + 4 ] += a * tx + c * ty;
+    t[ i + 5 ] += b * tx + d * ty;
+    return this;
+  }
+
+  @Override
+  public Surface setTransform( final float m00, final float m01, final float m10, final float m11, final float tx, final float ty )
+  {
+    final float[ ] t = this.transforms;
+    final int i = this.top;
+    t[ i ]     = m00;
+    t[ i + 1 ] = m01;
+    t[ i + 2 ] = m10;
+    t[ i + 3 ] = m11;
+    t[ i + 4 ] = tx;
+    t[ i + 5 ] = ty;
+    return this;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Records a draw of a rectangle under the current transform.
+   *
+   * @param texture - Texture of the draw, or null for a solid fill.
+   * @param x - Left of the rectangle.
+   * @param y - Top of the rectangle.
+   * @param width - Width of the rectangle.
+   * @param height - Height of the rectangle.
+   * @return This surface.
+   */
+  private Surface draw( final Image texture, final float x, final float y, final float width, final float height )
+  {
+    ++this.drawCallCount;
+    if ( texture != this.lastTexture )
+      ++this.textureSwitchCount;
+    this.lastTexture = texture;
+
+    // Area of the transformed rectangle, from the determinant of the transform:
+    final float[ ] t = this.transforms;
+    final int i = this.top;
+    this.fillArea += Math.abs( ( t[ i ] * t[ i + 3 ] - t[ i + 1 ] * t[ i + 2 ] ) * width * height );
+
+    // Screen bounds of the transformed rectangle:
+    float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY;
+    float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY;
+    for ( int corner = 0; corner != 4; ++corner )
+    {
+      final float cx = ( corner & 1 ) == 0 ? x : x + width;
+      final float cy = ( corner & 2 ) == 0 ? y : y + height;
+      final float sx = t[ i ] * cx + t[ i + 2 ] * cy + t[ i + 4 ];
+      final float sy = t[ i + 1 ] * cx + t[ i + 3 ] * cy + t[ i + 5 ];
+      minX = Math.min( minX, sx );
+      maxX = Math.max( maxX, sx );
+      minY = Math.min( minY, sy );
+      maxY = Math.max( maxY, sy );
+    }
+
+    if ( maxX <= 0.0f || maxY <= 0.0f || minX >= this.width || minY >= this.height )
+      ++this.offscreenDrawCount;
+    return this;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
@@ -0,0 +1,120 @@
+package com.bryanchacosky.core.headless;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import playn.core.Assets;
+import playn.core.Image;
+import playn.core.ResourceCallback;
+import playn.core.Sound;
+import playn.core.gl.GLContext;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Asset service of the {@link HeadlessPlatform}.  Assets load synchronously from a directory; images are never
+ * decoded, only the size is read from the PNG header, so that layers laid out from image sizes come out the same as
+ * on a display.  Sounds are silent.
+ *
+ * @author Bryan Chacosky
+ */
+public class HeadlessAssets implements Assets
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Signature which starts every PNG file. */
+  private static final long PngSignature = 0x89504E470D0A1A0AL;
+
+  /** Type of the PNG header chunk, which must be the first chunk. */
+  private static final int HeaderChunk = 0x49484452;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** GL context the images belong to. */
+  private final GLContext context;
+
+  /** Directory the asset paths are relative to. */
+  private final File root;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a new asset service.
+   *
+   * @param context - GL context the images belong to.
+   * @param root - Directory the asset paths are relative to.
+   */
+  public HeadlessAssets( final GLContext context, final File root )
+  {
+    assert root != null : "Cannot load assets from a null directory!";
+    this.context = context;
+    this.root = root;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public Image getImage( final String path )
+  {
+    try ( final DataInputStream input = new DataInputStream( new FileInputStream( new File( this.root, path ) ) ) )
+    {
+      // Signature, then the header chunk's length and type, then the width and height:
+      if ( input.readLong( ) != HeadlessAssets.PngSignature )
+        throw new IOException( "Not a PNG image: " + path );
+      input.readInt( );
+      if ( input.readInt( ) != HeadlessAssets.HeaderChunk )
+        throw new IOException( "PNG image is missing its header: " + path );
+
+      final int width = input.readInt( );
+      final int height = input.readInt( );
+      return new HeadlessImage( this.context, width, height );
+    }
+    catch ( final IOException exception )
+    {
+      return new HeadlessImage( this.context, 0.0f, 0.0f, exception );
+    }
+  }
+
+  @Override
+  public Sound getSound( final String path )
+  {
+    return new HeadlessSound( );
+  }
+
+  @Override
+  public void getText( final String path, final ResourceCallback< String > callback )
+  {
+    final String text;
+    try
+    {
+      text = new String( Files.readAllBytes( new File( this.root, path ).toPath( ) ), StandardCharsets.UTF_8 );
+    }
+    catch ( final IOException exception )
+    {
+      callback.error( exception );
+      return;
+    }
+
+    callback.done( text );
+  }
+
+  @Override
+  public boolean isDone( )
+  {
+    return true;
+  }
+
+  @Override
+  public int getPendingRequestCount( )
+  {
+    return 0;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
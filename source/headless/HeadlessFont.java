@@ -0,0 +1,64 @@
+package com.bryanchacosky.core.headless;
+
+import playn.core.Font;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Font which only records its name, style and size.
+ *
+ * @author Bryan Chacosky
+ */
+class HeadlessFont implements Font
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Name of the font. */
+  private final String name;
+
+  /** Style of the font. */
+  private final Style style;
+
+  /** Size of the font, in points. */
+  private final float size;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a new font.
+   *
+   * @param name - Name of the font.
+   * @param style - Style of the font.
+   * @param size - Size of the font, in points.
+   */
+  public HeadlessFont( final String name, final Style style, final float size )
+  {
+    this.name = name;
+    this.style = style;
+    this.size = size;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public String name( )
+  {
+    return this.name;
+  }
+
+  @Override
+  public Style style( )
+  {
+    return this.style;
+  }
+
+  @Override
+  public float size( )
+  {
+    return this.size;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
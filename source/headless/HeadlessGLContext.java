@@ -0,0 +1,180 @@
+package com.bryanchacosky.core.headless;
+
+import playn.core.InternalTransform;
+import playn.core.Platform;
+import playn.core.StockInternalTransform;
+import playn.core.gl.GLBuffer;
+import playn.core.gl.GLContext;
+import playn.core.gl.GLProgram;
+import playn.core.gl.GLShader;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * GL context without a GL driver behind it.  Layers built by {@link HeadlessGraphics} are PlayN's own GL layers, which
+ * need a context to be constructed; they are never painted through it, since {@link SceneRenderer} draws the layer tree
+ * onto a {@link CountingSurface} instead.  Textures and frame buffers are handed out as numbers with nothing behind
+ * them, and asking for a shader program or vertex buffer, which only painting does, is unsupported.
+ *
+ * @author Bryan Chacosky
+ */
+class HeadlessGLContext extends GLContext
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Transform converting the view to pixels, which is the identity without a HiDPI scale. */
+  private final InternalTransform rootTransform = new StockInternalTransform( );
+
+  /** Last texture or frame buffer handed out. */
+  private int lastHandle = 0;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a new context.
+   *
+   * @param platform - Platform the context belongs to.
+   */
+  public HeadlessGLContext( final Platform platform )
+  {
+    super( platform, 1.0f );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public void setTextureFilter( final Filter minFilter, final Filter magFilter )
+  {
+  }
+
+  @Override
+  public int getInteger( final int param )
+  {
+    return 0;
+  }
+
+  @Override
+  public float getFloat( final int param )
+  {
+    return 0.0f;
+  }
+
+  @Override
+  public boolean getBoolean( final int param )
+  {
+    return false;
+  }
+
+  @Override
+  public GLProgram createProgram( final String vertexShader, final String fragmentShader )
+  {
+    throw new UnsupportedOperationException( "Cannot compile shaders without a GL driver" );
+  }
+
+  @Override
+  public GLBuffer.Float createFloatBuffer( final int capacity )
+  {
+    throw new UnsupportedOperationException( "Cannot create vertex buffers without a GL driver" );
+  }
+
+  @Override
+  public GLBuffer.Short createShortBuffer( final int capacity )
+  {
+    throw new UnsupportedOperationException( "Cannot create index buffers without a GL driver" );
+  }
+
+  @Override
+  public void deleteFramebuffer( final int frameBuffer )
+  {
+  }
+
+  @Override
+  public int createTexture( final boolean repeatX, final boolean repeatY )
+  {
+    return ++this.lastHandle;
+  }
+
+  @Override
+  public int createTexture( final int width, final int height, final boolean repeatX, final boolean repeatY )
+  {
+    return ++this.lastHandle;
+  }
+
+  @Override
+  public void activeTexture( final int textureUnit )
+  {
+  }
+
+  @Override
+  public void bindTexture( final int texture )
+  {
+  }
+
+  @Override
+  public void destroyTexture( final int texture )
+  {
+  }
+
+  @Override
+  public void startClipped( final int x, final int y, final int width, final int height )
+  {
+  }
+
+  @Override
+  public void endClipped( )
+  {
+  }
+
+  @Override
+  public void clear( final float red, final float green, final float blue, final float alpha )
+  {
+  }
+
+  @Override
+  public void checkGLError( final String operation )
+  {
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public InternalTransform rootTransform( )
+  {
+    return this.rootTransform;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  protected int defaultFrameBuffer( )
+  {
+    return 0;
+  }
+
+  @Override
+  protected int createFramebufferImpl( final int texture )
+  {
+    return ++this.lastHandle;
+  }
+
+  @Override
+  protected void bindFramebufferImpl( final int frameBuffer, final int width, final int height )
+  {
+  }
+
+  @Override
+  protected GLShader quadShader( )
+  {
+    return null;
+  }
+
+  @Override
+  protected GLShader trisShader( )
+  {
+    return null;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
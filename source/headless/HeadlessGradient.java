@@ -0,0 +1,46 @@
+package com.bryanchacosky.core.headless;
+
+import playn.core.Gradient;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Gradient which is never rasterized.
+ *
+ * @author Bryan Chacosky
+ */
+class HeadlessGradient implements Gradient
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Colors of the gradient. */
+  private final int[ ] colors;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a new gradient.
+   *
+   * @param colors - Colors of the gradient.
+   */
+  public HeadlessGradient( final int[ ] colors )
+  {
+    this.colors = colors.clone( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Gets the colors of the gradient.
+   *
+   * @return Colors.
+   */
+  public int[ ] getColors( )
+  {
+    return this.colors.clone( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
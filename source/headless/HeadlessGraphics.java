@@ -0,0 +1,208 @@
+package com.bryanchacosky.core.headless;
+
+import playn.core.CanvasImage;
+import playn.core.Font;
+import playn.core.Gradient;
+import playn.core.Graphics;
+import playn.core.GroupLayer;
+import playn.core.Image;
+import playn.core.ImageLayer;
+import playn.core.ImmediateLayer;
+import playn.core.Platform;
+import playn.core.SurfaceLayer;
+import playn.core.TextFormat;
+import playn.core.TextLayout;
+import playn.core.gl.GL20;
+import playn.core.gl.GLContext;
+import playn.core.gl.GroupLayerGL;
+import playn.core.gl.ImageLayerGL;
+import playn.core.gl.ImmediateLayerGL;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Graphics service of the {@link HeadlessPlatform}.  Layers are PlayN's own GL layers, so the scene graph behaves
+ * exactly as it does on a display, except for surface layers, which draw onto a {@link CountingSurface}; images are
+ * {@link HeadlessImage}s and text is measured by estimate.  There is no GL driver, so {@link #gl20()} is unsupported.
+ *
+ * @author Bryan Chacosky
+ */
+public class HeadlessGraphics implements Graphics
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** GL context the layers are built with. */
+  private final GLContext context;
+
+  /** Root layer of the scene graph. */
+  private final GroupLayer rootLayer;
+
+  /** Width of the screen. */
+  private final int screenWidth;
+
+  /** Height of the screen. */
+  private final int screenHeight;
+
+  /** Width of the window. */
+  private int width;
+
+  /** Height of the window. */
+  private int height;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a new graphics service.
+   *
+   * @param platform - Platform the service belongs to.
+   * @param screenWidth - Width of the screen.
+   * @param screenHeight - Height of the screen.
+   */
+  public HeadlessGraphics( final Platform platform, final int screenWidth, final int screenHeight )
+  {
+    this.context = new HeadlessGLContext( platform );
+    this.rootLayer = new GroupLayerGL( this.context );
+    this.screenWidth = screenWidth;
+    this.screenHeight = screenHeight;
+    this.width = screenWidth;
+    this.height = screenHeight;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public GLContext ctx( )
+  {
+    return this.context;
+  }
+
+  @Override
+  public GL20 gl20( )
+  {
+    throw new UnsupportedOperationException( "No GL driver on a headless platform" );
+  }
+
+  @Override
+  public GroupLayer rootLayer( )
+  {
+    return this.rootLayer;
+  }
+
+  @Override
+  public GroupLayer createGroupLayer( )
+  {
+    return new GroupLayerGL( this.context );
+  }
+
+  @Override
+  public GroupLayer.Clipped createGroupLayer( final float width, final float height )
+  {
+    return new GroupLayerGL.Clipped( this.context, width, height );
+  }
+
+  @Override
+  public ImageLayer createImageLayer( )
+  {
+    return new ImageLayerGL( this.context );
+  }
+
+  @Override
+  public ImageLayer createImageLayer( final Image image )
+  {
+    return new ImageLayerGL( this.context, image );
+  }
+
+  @Override
+  public ImmediateLayer.Clipped createImmediateLayer( final int width, final int height, final ImmediateLayer.Renderer renderer )
+  {
+    return new ImmediateLayerGL.Clipped( this.context, width, height, renderer );
+  }
+
+  @Override
+  public ImmediateLayer createImmediateLayer( final ImmediateLayer.Renderer renderer )
+  {
+    return new ImmediateLayerGL( this.context, renderer );
+  }
+
+  @Override
+  public SurfaceLayer createSurfaceLayer( final float width, final float height )
+  {
+    return new HeadlessSurfaceLayer( this.context, width, height );
+  }
+
+  @Override
+  public CanvasImage createImage( final float width, final float height )
+  {
+    return new HeadlessImage( this.context, width, height );
+  }
+
+  @Override
+  public Gradient createLinearGradient( final float x0, final float y0, final float x1, final float y1, final int[ ] colors, final float[ ] positions )
+  {
+    assert colors.length == positions.length : "Gradient must have one position per color!";
+    return new HeadlessGradient( colors );
+  }
+
+  @Override
+  public Gradient createRadialGradient( final float x, final float y, final float radius, final int[ ] colors, final float[ ] positions )
+  {
+    assert colors.length == positions.length : "Gradient must have one position per color!";
+    return new HeadlessGradient( colors );
+  }
+
+  @Override
+  public Font createFont( final String name, final Font.Style style, final float size )
+  {
+    return new HeadlessFont( name, style, size );
+  }
+
+  @Override
+  public TextLayout layoutText( final String text, final TextFormat format )
+  {
+    return new HeadlessTextLayout( text, format );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public int screenWidth( )
+  {
+    return this.screenWidth;
+  }
+
+  @Override
+  public int screenHeight( )
+  {
+    return this.screenHeight;
+  }
+
+  @Override
+  public int width( )
+  {
+    return this.width;
+  }
+
+  @Override
+  public int height( )
+  {
+    return this.height;
+  }
+
+  @Override
+  public void setSize( final int width, final int height )
+  {
+    this.width = width;
+    this.height = height;
+    this.context.setSize( width, height );
+  }
+
+  @Override
+  public float scaleFactor( )
+  {
+    return 1.0f;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
@@ -0,0 +1,142 @@
+package com.bryanchacosky.core.headless;
+
+import java.util.Arrays;
+
+import playn.core.CanvasImage;
+import playn.core.Image;
+import playn.core.Pattern;
+import playn.core.ResourceCallback;
+import playn.core.gl.GLContext;
+import playn.core.gl.ImageGL;
+import playn.core.gl.Scale;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * In-memory image which only knows its size.  Images are ready as soon as they are created, so callbacks run
+ * immediately, and drawing onto the image is recorded by a {@link RecordingCanvas} instead of rasterized.  It's a GL
+ * image, since PlayN's image layers only take those, but there are no pixels: they read back as transparent, and the
+ * texture handed out by the {@link HeadlessGLContext} is never uploaded to.
+ *
+ * @author Bryan Chacosky
+ */
+public class HeadlessImage extends ImageGL implements CanvasImage
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Width of the image. */
+  private final float width;
+
+  /** Height of the image. */
+  private final float height;
+
+  /** Error loading the image, or null if the image is ready. */
+  private final Throwable error;
+
+  /** Canvas of the image, created on first use. */
+  private RecordingCanvas canvas = null;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a new image.
+   *
+   * @param context - GL context the image belongs to.
+   * @param width - Width of the image.
+   * @param height - Height of the image.
+   */
+  public HeadlessImage( final GLContext context, final float width, final float height )
+  {
+    this( context, width, height, null );
+  }
+
+  /**
+   * Instantiates a new image.
+   *
+   * @param context - GL context the image belongs to.
+   * @param width - Width of the image.
+   * @param height - Height of the image.
+   * @param error - Error loading the image, or null if the image is ready.
+   */
+  public HeadlessImage( final GLContext context, final float width, final float height, final Throwable error )
+  {
+    super( context, Scale.ONE );
+    assert width >= 0.0f && height >= 0.0f : "Image cannot have a negative size!";
+
+    this.width = width;
+    this.height = height;
+    this.error = error;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public float width( )
+  {
+    return this.width;
+  }
+
+  @Override
+  public float height( )
+  {
+    return this.height;
+  }
+
+  @Override
+  public boolean isReady( )
+  {
+    return null == this.error;
+  }
+
+  @Override
+  public void addCallback( final ResourceCallback< ? super Image > callback )
+  {
+    if ( null == this.error )
+      callback.done( this );
+    else
+      callback.error( this.error );
+  }
+
+  @Override
+  public Image.Region subImage( final float x, final float y, final float width, final float height )
+  {
+    return new HeadlessImageRegion( this.ctx, this, x, y, width, height );
+  }
+
+  @Override
+  public void getRgb( final int x, final int y, final int width, final int height, final int[ ] rgbArray, final int offset, final int scanSize )
+  {
+    for ( int row = 0; row != height; ++row )
+      Arrays.fill( rgbArray, offset + row * scanSize, offset + row * scanSize + width, 0 );
+  }
+
+  @Override
+  public Image transform( final BitmapTransformer transformer )
+  {
+    return this;
+  }
+
+  @Override
+  protected void updateTexture( final int texture )
+  {
+    // Nothing to upload.
+  }
+
+  @Override
+  public Pattern toPattern( )
+  {
+    return new HeadlessPattern( this );
+  }
+
+  @Override
+  public RecordingCanvas canvas( )
+  {
+    if ( null == this.canvas )
+      this.canvas = new RecordingCanvas( this.width, this.height );
+    return this.canvas;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
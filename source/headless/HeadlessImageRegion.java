@@ -0,0 +1,97 @@
+package com.bryanchacosky.core.headless;
+
+import playn.core.Image;
+import playn.core.gl.GLContext;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Region of a {@link HeadlessImage}, which is an image of the region's size of its own.
+ *
+ * @author Bryan Chacosky
+ */
+class HeadlessImageRegion extends HeadlessImage implements Image.Region
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Image the region is part of. */
+  private final HeadlessImage parent;
+
+  /** X-coordinate of the region in the parent image. */
+  private float x;
+
+  /** Y-coordinate of the region in the parent image. */
+  private float y;
+
+  /** Width of the region. */
+  private float width;
+
+  /** Height of the region. */
+  private float height;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a new region.
+   *
+   * @param context - GL context the region belongs to.
+   * @param parent - Image the region is part of.
+   * @param x - X-coordinate of the region in the parent image.
+   * @param y - Y-coordinate of the region in the parent image.
+   * @param width - Width of the region.
+   * @param height - Height of the region.
+   */
+  public HeadlessImageRegion( final GLContext context, final HeadlessImage parent, final float x, final float y, final float width, final float height )
+  {
+    super( context, width, height );
+    this.parent = parent;
+    this.setBounds( x, y, width, height );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public float x( )
+  {
+    return this.x;
+  }
+
+  @Override
+  public float y( )
+  {
+    return this.y;
+  }
+
+  @Override
+  public float width( )
+  {
+    return this.width;
+  }
+
+  @Override
+  public float height( )
+  {
+    return this.height;
+  }
+
+  @Override
+  public void setBounds( final float x, final float y, final float width, final float height )
+  {
+    assert width >= 0.0f && height >= 0.0f : "Region cannot have a negative size!";
+
+    this.x = x;
+    this.y = y;
+    this.width = width;
+    this.height = height;
+  }
+
+  @Override
+  public Image parent( )
+  {
+    return this.parent;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
@@ -0,0 +1,77 @@
+package com.bryanchacosky.core.headless;
+
+import playn.core.Key;
+import playn.core.Keyboard;
+import playn.core.util.Callback;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Keyboard service of the {@link HeadlessPlatform}, which delivers key presses as soon as they are made.  There is no
+ * one to type, so text requests are answered with no text.
+ *
+ * @author Bryan Chacosky
+ */
+public class HeadlessKeyboard implements Keyboard
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Clock the key events are stamped with. */
+  private final ManualClock clock;
+
+  /** Listener receiving the events, or null. */
+  private Listener listener = null;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a new keyboard.
+   *
+   * @param clock - Clock the key events are stamped with.
+   */
+  public HeadlessKeyboard( final ManualClock clock )
+  {
+    this.clock = clock;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Presses and releases a key.
+   *
+   * @param key - Key.
+   */
+  public void press( final Key key )
+  {
+    if ( null == this.listener )
+      return;
+
+    final Keyboard.Event event = new Keyboard.Event.Impl( this.clock.time( ), key );
+    this.listener.onKeyDown( event );
+    this.listener.onKeyUp( event );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public void setListener( final Listener listener )
+  {
+    this.listener = listener;
+  }
+
+  @Override
+  public boolean hasHardwareKeyboard( )
+  {
+    return true;
+  }
+
+  @Override
+  public void getText( final TextType textType, final String label, final String initialValue, final Callback< String > callback )
+  {
+    callback.onSuccess( null );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
@@ -0,0 +1,110 @@
+package com.bryanchacosky.core.headless;
+
+import playn.core.Log;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Log service of the {@link HeadlessPlatform}, which writes to standard error and counts warnings and errors so that a
+ * test can fail on them.
+ *
+ * @author Bryan Chacosky
+ */
+public class HeadlessLog implements Log
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Whether debug and info messages are written. */
+  private final boolean verbose;
+
+  /** Number of warnings and errors logged. */
+  private int problemCount = 0;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a new log.
+   *
+   * @param verbose - Whether debug and info messages are written.
+   */
+  public HeadlessLog( final boolean verbose )
+  {
+    this.verbose = verbose;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Gets the number of warnings and errors logged.
+   *
+   * @return Problem count.
+   */
+  public int getProblemCount( )
+  {
+    return this.problemCount;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public void debug( final String message )
+  {
+    if ( this.verbose == true )
+      System.err.println( "DEBUG: " + message );
+  }
+
+  @Override
+  public void debug( final String message, final Throwable error )
+  {
+    this.debug( message );
+    if ( this.verbose == true )
+      error.printStackTrace( );
+  }
+
+  @Override
+  public void info( final String message )
+  {
+    if ( this.verbose == true )
+      System.err.println( "INFO: " + message );
+  }
+
+  @Override
+  public void info( final String message, final Throwable error )
+  {
+    this.info( message );
+    if ( this.verbose == true )
+      error.printStackTrace( );
+  }
+
+  @Override
+  public void warn( final String message )
+  {
+    ++this.problemCount;
+    System.err.println( "WARN: " + message );
+  }
+
+  @Override
+  public void warn( final String message, final Throwable error )
+  {
+    this.warn( message );
+    error.printStackTrace( );
+  }
+
+  @Override
+  public void error( final String message )
+  {
+    ++this.problemCount;
+    System.err.println( "ERROR: " + message );
+  }
+
+  @Override
+  public void error( final String message, final Throwable error )
+  {
+    this.error( message );
+    error.printStackTrace( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
@@ -0,0 +1,70 @@
+package com.bryanchacosky.core.headless;
+
+import playn.core.Mouse;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Mouse service of the {@link HeadlessPlatform}.  The game is driven through the pointer, so the mouse never produces
+ * events; scripts go through {@link ScriptedPointer} instead.
+ *
+ * @author Bryan Chacosky
+ */
+public class HeadlessMouse implements Mouse
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Whether the mouse is enabled. */
+  private boolean enabled = true;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public void setListener( final Listener listener )
+  {
+  }
+
+  @Override
+  public boolean isEnabled( )
+  {
+    return this.enabled;
+  }
+
+  @Override
+  public void setEnabled( final boolean enabled )
+  {
+    this.enabled = enabled;
+  }
+
+  @Override
+  public boolean hasMouse( )
+  {
+    return false;
+  }
+
+  @Override
+  public void lock( )
+  {
+  }
+
+  @Override
+  public void unlock( )
+  {
+  }
+
+  @Override
+  public boolean isLocked( )
+  {
+    return false;
+  }
+
+  @Override
+  public boolean isLockSupported( )
+  {
+    return false;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
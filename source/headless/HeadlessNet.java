@@ -0,0 +1,41 @@
+package com.bryanchacosky.core.headless;
+
+import java.io.IOException;
+
+import playn.core.Net;
+import playn.core.util.Callback;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Network service of the {@link HeadlessPlatform}.  Headless runs must not depend on the network, so every request
+ * fails straight away and web sockets are unsupported.
+ *
+ * @author Bryan Chacosky
+ */
+public class HeadlessNet implements Net
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public WebSocket createWebSocket( final String url, final WebSocket.Listener listener )
+  {
+    throw new UnsupportedOperationException( "No web sockets on a headless platform" );
+  }
+
+  @Override
+  public void get( final String url, final Callback< String > callback )
+  {
+    callback.onFailure( new IOException( "No network on a headless platform: " + url ) );
+  }
+
+  @Override
+  public void post( final String url, final String data, final Callback< String > callback )
+  {
+    callback.onFailure( new IOException( "No network on a headless platform: " + url ) );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
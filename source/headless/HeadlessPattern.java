@@ -0,0 +1,47 @@
+package com.bryanchacosky.core.headless;
+
+import playn.core.Image;
+import playn.core.Pattern;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Fill pattern of a headless image.
+ *
+ * @author Bryan Chacosky
+ */
+class HeadlessPattern implements Pattern
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Image repeated by the pattern. */
+  private final Image image;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a new pattern.
+   *
+   * @param image - Image repeated by the pattern.
+   */
+  public HeadlessPattern( final Image image )
+  {
+    this.image = image;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Gets the image repeated by the pattern.
+   *
+   * @return Image.
+   */
+  public Image getImage( )
+  {
+    return this.image;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
@@ -0,0 +1,417 @@
+package com.bryanchacosky.core.headless;
+
+import java.io.File;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import playn.core.Analytics;
+import playn.core.Audio;
+import playn.core.Game;
+import playn.core.Platform;
+import playn.core.PlayN;
+import playn.core.RegularExpression;
+import playn.core.TouchStub;
+import playn.core.json.JsonImpl;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * PlayN platform without a window or GL context, so that the real scene graph can run under tests and benchmarks on a
+ * machine without a display.  Time only moves when {@link #advance(double)} is called, which runs the game's fixed
+ * updates the way the desktop platform does and then paints the layer tree onto a {@link CountingSurface}; so a test
+ * can play a scripted round in milliseconds, and a benchmark can count the draw calls of a frame.  The countdown and
+ * animations run on the session's timing wheel, which the updates advance, so they keep step with the clock too.
+ *
+ * The game reaches the platform through its {@link com.bryanchacosky.core.Session}, which reads the screen size as it
+ * is constructed, while PlayN's own layers and images reach it through {@link PlayN}; so {@link #register()} must run
+ * before the first session is created.  Sessions on this platform step the round simulation inline with the fixed
+ * updates, rather than on a thread paced by the wall clock, so that runs follow the manual clock; see
+ * {@link #setSimulationInline(boolean)}.
+ *
+ * @author Bryan Chacosky
+ */
+public class HeadlessPlatform implements Platform
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Width of the simulated screen. */
+  public static final int DefaultScreenWidth = 1920;
+
+  /** Height of the simulated screen. */
+  public static final int DefaultScreenHeight = 1080;
+
+  /** Directory the game's assets are loaded from by default, set with the <code>skydiver.assets</code> system property. */
+  public static final File DefaultAssetDirectory = new File( System.getProperty( "skydiver.assets", "resources" ) );
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Clock driving the platform. */
+  private final ManualClock clock = new ManualClock( );
+
+  /** Graphics service. */
+  private final HeadlessGraphics graphics;
+
+  /** Asset service. */
+  private final HeadlessAssets assets;
+
+  /** Pointer service. */
+  private final ScriptedPointer pointer = new ScriptedPointer( );
+
+  /** Keyboard service. */
+  private final HeadlessKeyboard keyboard = new HeadlessKeyboard( this.clock );
+
+  /** Mouse service. */
+  private final HeadlessMouse mouse = new HeadlessMouse( );
+
+  /** Touch service, which never produces events. */
+  private final TouchStub touch = new TouchStub( );
+
+  /** Storage service. */
+  private final HeadlessStorage storage = new HeadlessStorage( );
+
+  /** Network service. */
+  private final HeadlessNet net = new HeadlessNet( );
+
+  /** JSON service. */
+  private final JsonImpl json = new JsonImpl( );
+
+  /** Audio service, which has nothing to play sounds on. */
+  private final Audio audio = new Audio( )
+  {
+  };
+
+  /** Analytics service, which drops every event. */
+  private final Analytics analytics = new Analytics( )
+  {
+    @Override
+    public void logEvent( final Category category, final String action )
+    {
+    }
+
+    @Override
+    public void logEvent( final Category category, final String action, final String label, final int value )
+    {
+    }
+  };
+
+  /** Regular expression service. */
+  private final RegularExpression regularExpression = new RegularExpression( )
+  {
+    @Override
+    public boolean matches( final String regex, final String input )
+    {
+      return input.matches( regex );
+    }
+  };
+
+  /** Log service. */
+  private final HeadlessLog log = new HeadlessLog( false );
+
+  /** Random numbers, seeded so that runs repeat. */
+  private final Random random = new Random( 0 );
+
+  /** Runnables waiting for the next update, which may be queued from any thread. */
+  private final Queue< Runnable > pending = new ConcurrentLinkedQueue< Runnable >( );
+
+  /** Surface the layer tree is painted onto, created once the game has sized the window. */
+  private CountingSurface surface = null;
+
+  /** Game being run, or null. */
+  private Game game = null;
+
+  /** Listener told when the game is paused, resumed or exits, or null. */
+  private PlayN.LifecycleListener lifecycleListener = null;
+
+  /** Time of the next fixed update, in milliseconds. */
+  private double nextUpdate = 0.0;
+
+  /** True if sessions created on the platform step the round simulation inline, unless told otherwise by the
+   * <code>skydiver.simulation.inline</code> system property. */
+  private boolean simulationInline = Boolean.parseBoolean( System.getProperty( "skydiver.simulation.inline", "true" ) );
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a new platform.
+   *
+   * @param screenWidth - Width of the simulated screen.
+   * @param screenHeight - Height of the simulated screen.
+   * @param assetDirectory - Directory the assets are loaded from.
+   */
+  public HeadlessPlatform( final int screenWidth, final int screenHeight, final File assetDirectory )
+  {
+    this.graphics = new HeadlessGraphics( this, screenWidth, screenHeight );
+    this.assets = new HeadlessAssets( this.graphics.ctx( ), assetDirectory );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Creates a platform with the default screen and asset directory and makes it the current PlayN platform.
+   *
+   * @return Platform.
+   */
+  public static HeadlessPlatform register( )
+  {
+    return HeadlessPlatform.register( new HeadlessPlatform( HeadlessPlatform.DefaultScreenWidth, HeadlessPlatform.DefaultScreenHeight, HeadlessPlatform.DefaultAssetDirectory ) );
+  }
+
+  /**
+   * Makes a platform the current PlayN platform.
+   *
+   * @param platform - Platform.
+   * @return The platform.
+   */
+  public static HeadlessPlatform register( final HeadlessPlatform platform )
+  {
+    PlayN.setPlatform( platform );
+    return platform;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Starts a game.  Unlike the other platforms this returns immediately; the game only runs as the clock is advanced.
+   *
+   * @param game - Game.
+   */
+  @Override
+  public void run( final Game game )
+  {
+    assert this.game == null : "Platform is already running a game!";
+
+    this.game = game;
+    this.game.init( );
+    this.surface = new CountingSurface( this.graphics.width( ), this.graphics.height( ) );
+    this.nextUpdate = this.clock.time( ) + game.updateRate( );
+  }
+
+  /**
+   * Advances the clock, running every fixed update due on the way and then painting a single frame.
+   *
+   * @param delta - Time to advance by, in milliseconds.
+   */
+  public void advance( final double delta )
+  {
+    assert this.game != null : "Platform is not running a game!";
+
+    final double end = this.clock.time( ) + delta;
+    final int updateRate = this.game.updateRate( );
+    while ( this.nextUpdate <= end )
+    {
+      this.clock.advance( this.nextUpdate - this.clock.time( ) );
+      this.runPending( );
+      this.pointer.dispatch( this.clock.time( ) );
+      this.game.update( updateRate );
+      this.nextUpdate += updateRate;
+    }
+
+    this.clock.advance( end - this.clock.time( ) );
+    this.paint( ( float )( 1.0 - ( this.nextUpdate - end ) / updateRate ) );
+  }
+
+  /**
+   * Advances the clock by a single update and paints a frame.
+   */
+  public void frame( )
+  {
+    this.advance( this.game.updateRate( ) );
+  }
+
+  /**
+   * Paints a frame without advancing the clock.  The surface counts only what this frame drew.
+   *
+   * @param alpha - Fraction of the way to the next update.
+   */
+  public void paint( final float alpha )
+  {
+    this.surface.reset( );
+    this.game.paint( alpha );
+    SceneRenderer.render( this.graphics.rootLayer( ), this.surface );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Gets the clock driving the platform.
+   *
+   * @return Clock.
+   */
+  public ManualClock getClock( )
+  {
+    return this.clock;
+  }
+
+  /**
+   * Checks if sessions created on the platform step the round simulation inline with the fixed updates.
+   *
+   * @return True if the simulation is stepped inline.
+   */
+  public boolean isSimulationInline( )
+  {
+    return this.simulationInline;
+  }
+
+  /**
+   * Sets whether sessions created on the platform from now on step the round simulation inline with the fixed
+   * updates.  A single session can be changed with {@link com.bryanchacosky.core.Session#setSimulationInline(boolean)}.
+   *
+   * @param simulationInline - True to step the simulation inline.
+   */
+  public void setSimulationInline( final boolean simulationInline )
+  {
+    this.simulationInline = simulationInline;
+  }
+
+  /**
+   * Gets the surface the last frame was painted onto.
+   *
+   * @return Surface, or null before the game is run.
+   */
+  public CountingSurface getSurface( )
+  {
+    return this.surface;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public Type type( )
+  {
+    return Type.JAVA;
+  }
+
+  @Override
+  public double time( )
+  {
+    return this.clock.time( );
+  }
+
+  @Override
+  public float random( )
+  {
+    return this.random.nextFloat( );
+  }
+
+  @Override
+  public void invokeLater( final Runnable runnable )
+  {
+    this.pending.add( runnable );
+  }
+
+  @Override
+  public void openURL( final String url )
+  {
+    this.log.info( "Not opening URL on a headless platform: " + url );
+  }
+
+  @Override
+  public void setLifecycleListener( final PlayN.LifecycleListener listener )
+  {
+    this.lifecycleListener = listener;
+  }
+
+  /**
+   * Tells the lifecycle listener that the game is exiting, as the desktop platform does when its window closes.
+   */
+  public void exit( )
+  {
+    if ( null != this.lifecycleListener )
+      this.lifecycleListener.onExit( );
+  }
+
+  @Override
+  public HeadlessAssets assets( )
+  {
+    return this.assets;
+  }
+
+  @Override
+  public HeadlessGraphics graphics( )
+  {
+    return this.graphics;
+  }
+
+  @Override
+  public ScriptedPointer pointer( )
+  {
+    return this.pointer;
+  }
+
+  @Override
+  public HeadlessMouse mouse( )
+  {
+    return this.mouse;
+  }
+
+  @Override
+  public HeadlessKeyboard keyboard( )
+  {
+    return this.keyboard;
+  }
+
+  @Override
+  public TouchStub touch( )
+  {
+    return this.touch;
+  }
+
+  @Override
+  public HeadlessStorage storage( )
+  {
+    return this.storage;
+  }
+
+  @Override
+  public HeadlessNet net( )
+  {
+    return this.net;
+  }
+
+  @Override
+  public JsonImpl json( )
+  {
+    return this.json;
+  }
+
+  @Override
+  public Audio audio( )
+  {
+    return this.audio;
+  }
+
+  @Override
+  public Analytics analytics( )
+  {
+    return this.analytics;
+  }
+
+  @Override
+  public RegularExpression regularExpression( )
+  {
+    return this.regularExpression;
+  }
+
+  @Override
+  public HeadlessLog log( )
+  {
+    return this.log;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Runs the runnables queued with {@link #invokeLater(Runnable)}.
+   */
+  private void runPending( )
+  {
+    Runnable runnable;
+    while ( null != ( runnable = this.pending.poll( ) ) )
+      runnable.run( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
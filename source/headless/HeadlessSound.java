@@ -0,0 +1,80 @@
+package com.bryanchacosky.core.headless;
+
+import playn.core.ResourceCallback;
+import playn.core.Sound;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Sound of the {@link HeadlessAssets}, which is never played since there is no audio device.  It's ready as soon as
+ * it's loaded and tracks its looping and volume, so the game's sound handling runs unchanged.
+ *
+ * @author Bryan Chacosky
+ */
+class HeadlessSound implements Sound
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Whether the sound loops. */
+  private boolean looping = false;
+
+  /** Volume of the sound, between 0 and 1. */
+  private float volume = 1.0f;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public boolean play( )
+  {
+    return false;
+  }
+
+  @Override
+  public void stop( )
+  {
+  }
+
+  @Override
+  public void setLooping( final boolean looping )
+  {
+    this.looping = looping;
+  }
+
+  /**
+   * Returns true if the sound was set to loop.
+   *
+   * @return True if the sound loops, otherwise false.
+   */
+  public boolean isLooping( )
+  {
+    return this.looping;
+  }
+
+  @Override
+  public float volume( )
+  {
+    return this.volume;
+  }
+
+  @Override
+  public void setVolume( final float volume )
+  {
+    this.volume = volume;
+  }
+
+  @Override
+  public boolean isPlaying( )
+  {
+    return false;
+  }
+
+  @Override
+  public void addCallback( final ResourceCallback< ? super Sound > callback )
+  {
+    callback.done( this );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
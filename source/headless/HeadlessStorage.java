@@ -0,0 +1,58 @@
+package com.bryanchacosky.core.headless;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import playn.core.Storage;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Storage service of the {@link HeadlessPlatform}, which keeps its items in memory, so every run starts empty.
+ *
+ * @author Bryan Chacosky
+ */
+public class HeadlessStorage implements Storage
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Maps a key -> its item. */
+  private final Map< String, String > items = new HashMap< String, String >( );
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public void setItem( final String key, final String data )
+  {
+    this.items.put( key, data );
+  }
+
+  @Override
+  public void removeItem( final String key )
+  {
+    this.items.remove( key );
+  }
+
+  @Override
+  public String getItem( final String key )
+  {
+    return this.items.get( key );
+  }
+
+  @Override
+  public Iterable< String > keys( )
+  {
+    return new ArrayList< String >( this.items.keySet( ) );
+  }
+
+  @Override
+  public boolean isPersisted( )
+  {
+    return false;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
@@ -0,0 +1,81 @@
+package com.bryanchacosky.core.headless;
+
+import playn.core.InternalTransform;
+import playn.core.SurfaceLayer;
+import playn.core.gl.GLContext;
+import playn.core.gl.GLShader;
+import playn.core.gl.LayerGL;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Surface layer of the {@link HeadlessPlatform}.  PlayN's own surface layer draws onto a GL texture, so the headless
+ * one draws onto a {@link CountingSurface} of its own instead, which counts what the game drew into it; the layer
+ * itself is drawn by {@link SceneRenderer} as a single fill of its size.
+ *
+ * @author Bryan Chacosky
+ */
+class HeadlessSurfaceLayer extends LayerGL implements SurfaceLayer
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Surface drawn onto by the game. */
+  private final CountingSurface surface;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a new surface layer.
+   *
+   * @param context - GL context the layer is built with.
+   * @param width - Width of the surface.
+   * @param height - Height of the surface.
+   */
+  public HeadlessSurfaceLayer( final GLContext context, final float width, final float height )
+  {
+    super( context );
+    this.surface = new CountingSurface( width, height );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public CountingSurface surface( )
+  {
+    return this.surface;
+  }
+
+  @Override
+  public float width( )
+  {
+    return this.surface.width( );
+  }
+
+  @Override
+  public float height( )
+  {
+    return this.surface.height( );
+  }
+
+  @Override
+  public float scaledWidth( )
+  {
+    return this.transform( ).scaleX( ) * this.width( );
+  }
+
+  @Override
+  public float scaledHeight( )
+  {
+    return this.transform( ).scaleY( ) * this.height( );
+  }
+
+  @Override
+  public void paint( final InternalTransform transform, final float alpha, final GLShader shader )
+  {
+    // Never painted through GL; the scene renderer draws the layer instead.
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
@@ -0,0 +1,119 @@
+package com.bryanchacosky.core.headless;
+
+import playn.core.TextFormat;
+import playn.core.TextLayout;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Text layout which estimates the size of the text from the font size, since there are no font metrics without a
+ * display.  The estimate is close enough for layout code which centers or right-aligns text.
+ *
+ * @author Bryan Chacosky
+ */
+class HeadlessTextLayout implements TextLayout
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Font size used when the format has no font, in points. */
+  private static final float DefaultFontSize = 12.0f;
+
+  /** Average width of a glyph, relative to the font size. */
+  private static final float GlyphWidth = 0.6f;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Format of the text. */
+  private final TextFormat format;
+
+  /** Number of lines of text. */
+  private final int lineCount;
+
+  /** Estimated width of the text. */
+  private final float width;
+
+  /** Font size of the text, in points. */
+  private final float size;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a new text layout.
+   *
+   * @param text - Text to lay out.
+   * @param format - Format of the text.
+   */
+  public HeadlessTextLayout( final String text, final TextFormat format )
+  {
+    this.format = format;
+    this.size = null == format.font ? HeadlessTextLayout.DefaultFontSize : format.font.size( );
+
+    final String[ ] lines = text.split( "\n", -1 );
+    int longest = 0;
+    for ( final String line : lines )
+      longest = Math.max( longest, line.length( ) );
+
+    this.lineCount = lines.length;
+    this.width = longest * this.size * HeadlessTextLayout.GlyphWidth;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public float width( )
+  {
+    return this.width;
+  }
+
+  @Override
+  public float height( )
+  {
+    return this.lineCount * ( this.ascent( ) + this.descent( ) + this.leading( ) );
+  }
+
+  @Override
+  public int lineCount( )
+  {
+    return this.lineCount;
+  }
+
+  /**
+   * Gets the ascent of a line.
+   *
+   * @return Ascent.
+   */
+  private float ascent( )
+  {
+    return this.size * 0.8f;
+  }
+
+  /**
+   * Gets the descent of a line.
+   *
+   * @return Descent.
+   */
+  private float descent( )
+  {
+    return this.size * 0.2f;
+  }
+
+  /**
+   * Gets the leading of a line.
+   *
+   * @return Leading.
+   */
+  private float leading( )
+  {
+    return this.size * 0.2f;
+  }
+
+  @Override
+  public TextFormat format( )
+  {
+    return this.format;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
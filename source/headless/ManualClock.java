@@ -0,0 +1,44 @@
+package com.bryanchacosky.core.headless;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Clock which only moves when told to, so that headless runs are deterministic and can run faster (or slower) than
+ * real time.
+ *
+ * @author Bryan Chacosky
+ */
+public class ManualClock
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Current time, in milliseconds. */
+  private double time = 0.0;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Advances the clock.
+   *
+   * @param delta - Time to advance by, in milliseconds.
+   */
+  public void advance( final double delta )
+  {
+    assert delta >= 0.0 : "Cannot move the clock backwards!";
+    this.time += delta;
+  }
+
+  /**
+   * Gets the current time.
+   *
+   * @return Time, in milliseconds.
+   */
+  public double time( )
+  {
+    return this.time;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
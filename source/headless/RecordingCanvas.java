@@ -0,0 +1,460 @@
+package com.bryanchacosky.core.headless;
+
+import playn.core.Canvas;
+import playn.core.Gradient;
+import playn.core.Image;
+import playn.core.Path;
+import playn.core.Pattern;
+import playn.core.TextLayout;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Canvas of a {@link HeadlessImage} which records how much drawing was done instead of rasterizing it.  Canvas drawing
+ * is the expensive path on a real display (every change re-uploads the image as a texture), so the counts show which
+ * layers redraw their canvases more often than they need to.
+ *
+ * @author Bryan Chacosky
+ */
+public class RecordingCanvas implements Canvas
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Path which records its bounds, so that filling it counts the area of the bounds.
+   */
+  private static final class RecordedPath implements Path
+  {
+    /** Left edge of the points added since the last reset. */
+    float left;
+
+    /** Top edge of the points added since the last reset. */
+    float top;
+
+    /** Right edge of the points added since the last reset. */
+    float right;
+
+    /** Bottom edge of the points added since the last reset. */
+    float bottom;
+
+    /**
+     * Instantiates a new path.
+     */
+    public RecordedPath( )
+    {
+      this.reset( );
+    }
+
+    @Override
+    public void reset( )
+    {
+      this.left = this.top = Float.POSITIVE_INFINITY;
+      this.right = this.bottom = Float.NEGATIVE_INFINITY;
+    }
+
+    @Override
+    public void close( )
+    {
+    }
+
+    @Override
+    public void moveTo( final float x, final float y )
+    {
+      this.add( x, y );
+    }
+
+    @Override
+    public void lineTo( final float x, final float y )
+    {
+      this.add( x, y );
+    }
+
+    @Override
+    public void quadraticCurveTo( final float cpx, final float cpy, final float x, final float y )
+    {
+      this.add( cpx, cpy );
+      this.add( x, y );
+    }
+
+    @Override
+    public void bezierTo( final float c1x, final float c1y, final float c2x, final float c2y, final float x, final float y )
+    {
+      this.add( c1x, c1y );
+      this.add( c2x, c2y );
+      this.add( x, y );
+    }
+
+    /**
+     * Gets the area of the bounds of the path.
+     *
+     * @return Area, in pixels, or 0 if the path is empty.
+     */
+    double area( )
+    {
+      return this.right < this.left ? 0.0 : ( double )( this.right - this.left ) * ( this.bottom - this.top );
+    }
+
+    /**
+     * Grows the bounds to a point.
+     *
+     * @param x - X-coordinate of the point.
+     * @param y - Y-coordinate of the point.
+     */
+    private void add( final float x, final float y )
+    {
+      this.left = Math.min( this.left, x );
+      this.top = Math.min( this.top, y );
+      this.right = Math.max( this.right, x );
+      this.bottom = Math.max( this.bottom, y );
+    }
+  };
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Width of the canvas. */
+  private final float width;
+
+  /** Height of the canvas. */
+  private final float height;
+
+  /** Number of drawing operations since the last reset. */
+  private long operationCount = 0;
+
+  /** Number of text drawing operations since the last reset. */
+  private long textCount = 0;
+
+  /** Number of times the canvas was cleared since the last reset. */
+  private long clearCount = 0;
+
+  /** Area filled by rectangles and images since the last reset, in pixels, ignoring transforms. */
+  private double fillArea = 0.0;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a new canvas.
+   *
+   * @param width - Width of the canvas.
+   * @param height - Height of the canvas.
+   */
+  public RecordingCanvas( final float width, final float height )
+  {
+    this.width = width;
+    this.height = height;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Resets the counts.
+   */
+  public void reset( )
+  {
+    this.operationCount = 0;
+    this.textCount = 0;
+    this.clearCount = 0;
+    this.fillArea = 0.0;
+  }
+
+  /**
+   * Gets the number of drawing operations since the last reset.
+   *
+   * @return Operation count.
+   */
+  public long getOperationCount( )
+  {
+    return this.operationCount;
+  }
+
+  /**
+   * Gets the number of text drawing operations since the last reset.
+   *
+   * @return Text count.
+   */
+  public long getTextCount( )
+  {
+    return this.textCount;
+  }
+
+  /**
+   * Gets the number of times the canvas was cleared since the last reset.
+   *
+   * @return Clear count.
+   */
+  public long getClearCount( )
+  {
+    return this.clearCount;
+  }
+
+  /**
+   * Gets the area filled by rectangles and images since the last reset.
+   *
+   * @return Area, in pixels.
+   */
+  public double getFillArea( )
+  {
+    return this.fillArea;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public float width( )
+  {
+    return this.width;
+  }
+
+  @Override
+  public float height( )
+  {
+    return this.height;
+  }
+
+  @Override
+  public Canvas clear( )
+  {
+    ++this.clearCount;
+    return this;
+  }
+
+  @Override
+  public Canvas fillRect( final float x, final float y, final float width, final float height )
+  {
+    return this.fill( width * height );
+  }
+
+  @Override
+  public Canvas strokeRect( final float x, final float y, final float width, final float height )
+  {
+    return this.fill( 0.0 );
+  }
+
+  @Override
+  public Canvas fillRoundRect( final float x, final float y, final float width, final float height, final float radius )
+  {
+    return this.fill( width * height );
+  }
+
+  @Override
+  public Canvas strokeRoundRect( final float x, final float y, final float width, final float height, final float radius )
+  {
+    return this.fill( 0.0 );
+  }
+
+  @Override
+  public Canvas fillCircle( final float x, final float y, final float radius )
+  {
+    return this.fill( Math.PI * radius * radius );
+  }
+
+  @Override
+  public Canvas strokeCircle( final float x, final float y, final float radius )
+  {
+    return this.fill( 0.0 );
+  }
+
+  @Override
+  public Path createPath( )
+  {
+    return new RecordedPath( );
+  }
+
+  @Override
+  public Canvas fillPath( final Path path )
+  {
+    return this.fill( path instanceof RecordedPath ? ( ( RecordedPath )path ).area( ) : 0.0 );
+  }
+
+  @Override
+  public Canvas strokePath( final Path path )
+  {
+    return this.fill( 0.0 );
+  }
+
+  @Override
+  public Canvas drawPoint( final float x, final float y )
+  {
+    return this.fill( 1.0 );
+  }
+
+  @Override
+  public Canvas drawLine( final float x0, final float y0, final float x1, final float y1 )
+  {
+    return this.fill( 0.0 );
+  }
+
+  @Override
+  public Canvas drawImage( final Image image, final float x, final float y )
+  {
+    return this.fill( image.width( ) * image.height( ) );
+  }
+
+  @Override
+  public Canvas drawImage( final Image image, final float x, final float y, final float width, final float height )
+  {
+    return this.fill( width * height );
+  }
+
+  @Override
+  public Canvas drawImage( final Image image, final float dx, final float dy, final float dw, final float dh,
+                           final float sx, final float sy, final float sw, final float sh )
+  {
+    return this.fill( dw * dh );
+  }
+
+  @Override
+  public Canvas drawImageCentered( final Image image, final float x, final float y )
+  {
+    return this.fill( image.width( ) * image.height( ) );
+  }
+
+  @Override
+  public Canvas fillText( final TextLayout layout, final float x, final float y )
+  {
+    ++this.textCount;
+    return this.fill( layout.width( ) * layout.height( ) );
+  }
+
+  @Override
+  public Canvas strokeText( final TextLayout layout, final float x, final float y )
+  {
+    ++this.textCount;
+    return this.fill( 0.0 );
+  }
+
+  @Override
+  public Canvas drawText( final String text, final float x, final float y )
+  {
+    ++this.textCount;
+    return this.fill( 0.0 );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public Canvas setFillColor( final int color )
+  {
+    return this;
+  }
+
+  @Override
+  public Canvas setFillGradient( final Gradient gradient )
+  {
+    return this;
+  }
+
+  @Override
+  public Canvas setFillPattern( final Pattern pattern )
+  {
+    return this;
+  }
+
+  @Override
+  public Canvas setStrokeColor( final int color )
+  {
+    return this;
+  }
+
+  @Override
+  public Canvas setStrokeWidth( final float width )
+  {
+    return this;
+  }
+
+  @Override
+  public Canvas setLineCap( final LineCap cap )
+  {
+    return this;
+  }
+
+  @Override
+  public Canvas setLineJoin( final LineJoin join )
+  {
+    return this;
+  }
+
+  @Override
+  public Canvas setMiterLimit( final float miter )
+  {
+    return this;
+  }
+
+  @Override
+  public Canvas setAlpha( final float alpha )
+  {
+    return this;
+  }
+
+  @Override
+  public Canvas setCompositeOperation( final Composite composite )
+  {
+    return this;
+  }
+
+  @Override
+  public Canvas clip( final Path clipPath )
+  {
+    return this;
+  }
+
+  @Override
+  public Canvas save( )
+  {
+    return this;
+  }
+
+  @Override
+  public Canvas restore( )
+  {
+    return this;
+  }
+
+  @Override
+  public Canvas translate( final float x, final float y )
+  {
+    return this;
+  }
+
+  @Override
+  public Canvas scale( final float x, final float y )
+  {
+    return this;
+  }
+
+  @Override
+  public Canvas rotate( final float angle )
+  {
+    return this;
+  }
+
+  @Override
+  public Canvas transform( final float m11, final float m12, final float m21, final float m22, final float dx, final float dy )
+  {
+    return this;
+  }
+
+  @Override
+  public Canvas setTransform( final float m11, final float m12, final float m21, final float m22, final float dx, final float dy )
+  {
+    return this;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Records a drawing operation.
+   *
+   * @param area - Area filled by the operation, in pixels.
+   * @return This canvas.
+   */
+  private Canvas fill( final double area )
+  {
+    ++this.operationCount;
+    this.fillArea += Math.abs( area );
+    return this;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
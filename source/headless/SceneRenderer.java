@@ -0,0 +1,87 @@
+package com.bryanchacosky.core.headless;
+
+import playn.core.GroupLayer;
+import playn.core.ImageLayer;
+import playn.core.ImmediateLayer;
+import playn.core.Layer;
+import playn.core.Surface;
+import playn.core.SurfaceLayer;
+import pythagoras.f.Transform;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Abstract class containing static methods to draw a layer tree onto a {@link Surface}, the way the GL renderer walks
+ * it: invisible layers are skipped along with their children, each layer is drawn under its parent's transform
+ * followed by its own translation, scale, rotation and origin, image layers draw their image, surface layers fill
+ * their size and immediate layers run their renderer.
+ *
+ * @author Bryan Chacosky
+ */
+public abstract class SceneRenderer
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Draws a layer and its children.
+   *
+   * @param layer - Layer to draw.
+   * @param surface - Surface to draw onto.
+   */
+  public static void render( final Layer layer, final Surface surface )
+  {
+    SceneRenderer.render( layer, surface, 1.0f );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Draws a layer and its children.
+   *
+   * @param layer - Layer to draw.
+   * @param surface - Surface to draw onto.
+   * @param alpha - Alpha inherited from the parent layers.
+   */
+  private static void render( final Layer layer, final Surface surface, final float alpha )
+  {
+    if ( layer.visible( ) == false || layer.alpha( ) * alpha <= 0.0f )
+      return;
+
+    final Transform transform = layer.transform( );
+    surface.save( );
+    surface.translate( transform.tx( ), transform.ty( ) );
+    if ( transform.rotation( ) != 0.0f )
+      surface.rotate( transform.rotation( ) );
+    surface.scale( transform.scaleX( ), transform.scaleY( ) );
+    surface.translate( -layer.originX( ), -layer.originY( ) );
+    surface.setAlpha( layer.alpha( ) * alpha );
+
+    if ( layer instanceof GroupLayer )
+    {
+      final GroupLayer group = ( GroupLayer )layer;
+      for ( int i = 0; i != group.size( ); ++i )
+        SceneRenderer.render( group.get( i ), surface, layer.alpha( ) * alpha );
+    }
+    else if ( layer instanceof ImageLayer )
+    {
+      final ImageLayer imageLayer = ( ImageLayer )layer;
+      if ( null != imageLayer.image( ) )
+        surface.drawImage( imageLayer.image( ), 0.0f, 0.0f, imageLayer.width( ), imageLayer.height( ) );
+    }
+    else if ( layer instanceof SurfaceLayer )
+    {
+      final SurfaceLayer surfaceLayer = ( SurfaceLayer )layer;
+      surface.fillRect( 0.0f, 0.0f, surfaceLayer.width( ), surfaceLayer.height( ) );
+    }
+    else if ( layer instanceof ImmediateLayer )
+    {
+      ( ( ImmediateLayer )layer ).renderer( ).render( surface );
+    }
+
+    surface.restore( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
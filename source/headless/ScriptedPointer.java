@@ -0,0 +1,200 @@
+package com.bryanchacosky.core.headless;
+
+import java.util.LinkedList;
+import java.util.ListIterator;
+
+import playn.core.Pointer;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Pointer service of the {@link HeadlessPlatform}, which plays back a script of timed pointer events.  Events are
+ * delivered to the pointer listener by {@link #dispatch(double)} once the clock reaches their time, so a test can
+ * script a whole round of taps up front.
+ *
+ * @author Bryan Chacosky
+ */
+public class ScriptedPointer implements Pointer
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Kinds of pointer events.
+   */
+  private static enum Kind
+  {
+    Start, Drag, End
+  };
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Scripted pointer event.  Layer-local coordinates equal the screen coordinates, since events go to the global
+   * listener rather than to a layer.
+   */
+  private static final class ScriptedEvent extends Pointer.Event.Impl
+  {
+    /** Kind of the event. */
+    private final Kind kind;
+
+    /**
+     * Instantiates a new event.
+     *
+     * @param kind - Kind of the event.
+     * @param time - Time of the event, in milliseconds.
+     * @param x - Screen x-coordinate of the event.
+     * @param y - Screen y-coordinate of the event.
+     */
+    public ScriptedEvent( final Kind kind, final double time, final float x, final float y )
+    {
+      super( time, x, y, false );
+      this.kind = kind;
+    }
+  };
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Scripted events, in time order. */
+  private final LinkedList< ScriptedEvent > script = new LinkedList< ScriptedEvent >( );
+
+  /** Listener receiving the events, or null. */
+  private Listener listener = null;
+
+  /** Whether events are delivered. */
+  private boolean enabled = true;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Scripts a pointer press.
+   *
+   * @param time - Time of the event, in milliseconds.
+   * @param x - Screen x-coordinate.
+   * @param y - Screen y-coordinate.
+   * @return This pointer, for chaining.
+   */
+  public ScriptedPointer start( final double time, final float x, final float y )
+  {
+    return this.schedule( new ScriptedEvent( Kind.Start, time, x, y ) );
+  }
+
+  /**
+   * Scripts a pointer drag.
+   *
+   * @param time - Time of the event, in milliseconds.
+   * @param x - Screen x-coordinate.
+   * @param y - Screen y-coordinate.
+   * @return This pointer, for chaining.
+   */
+  public ScriptedPointer drag( final double time, final float x, final float y )
+  {
+    return this.schedule( new ScriptedEvent( Kind.Drag, time, x, y ) );
+  }
+
+  /**
+   * Scripts a pointer release.
+   *
+   * @param time - Time of the event, in milliseconds.
+   * @param x - Screen x-coordinate.
+   * @param y - Screen y-coordinate.
+   * @return This pointer, for chaining.
+   */
+  public ScriptedPointer end( final double time, final float x, final float y )
+  {
+    return this.schedule( new ScriptedEvent( Kind.End, time, x, y ) );
+  }
+
+  /**
+   * Scripts a tap: a press immediately followed by a release.
+   *
+   * @param time - Time of the tap, in milliseconds.
+   * @param x - Screen x-coordinate.
+   * @param y - Screen y-coordinate.
+   * @return This pointer, for chaining.
+   */
+  public ScriptedPointer tap( final double time, final float x, final float y )
+  {
+    return this.start( time, x, y ).end( time, x, y );
+  }
+
+  /**
+   * Gets the number of scripted events not yet delivered.
+   *
+   * @return Pending event count.
+   */
+  public int getPendingCount( )
+  {
+    return this.script.size( );
+  }
+
+  /**
+   * Delivers every scripted event due by a time.  Events due while the pointer is disabled or has no listener are
+   * dropped, as a real pointer's would be.
+   *
+   * @param time - Current time, in milliseconds.
+   */
+  public void dispatch( final double time )
+  {
+    while ( this.script.isEmpty( ) == false && this.script.getFirst( ).time( ) <= time )
+    {
+      final ScriptedEvent event = this.script.removeFirst( );
+      if ( null == this.listener || this.enabled == false )
+        continue;
+
+      switch ( event.kind )
+      {
+        case Start: this.listener.onPointerStart( event ); break;
+        case Drag:  this.listener.onPointerDrag( event );  break;
+        case End:   this.listener.onPointerEnd( event );   break;
+      }
+    }
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public void setListener( final Listener listener )
+  {
+    this.listener = listener;
+  }
+
+  @Override
+  public boolean isEnabled( )
+  {
+    return this.enabled;
+  }
+
+  @Override
+  public void setEnabled( final boolean enabled )
+  {
+    this.enabled = enabled;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Inserts an event into the script after every event at the same time or earlier.
+   *
+   * @param event - Event.
+   * @return This pointer, for chaining.
+   */
+  private ScriptedPointer schedule( final ScriptedEvent event )
+  {
+    final ListIterator< ScriptedEvent > iterator = this.script.listIterator( this.script.size( ) );
+    while ( iterator.hasPrevious( ) == true )
+    {
+      if ( iterator.previous( ).time( ) <= event.time( ) )
+      {
+        iterator.next( );
+        break;
+      }
+    }
+
+    iterator.add( event );
+    return this;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
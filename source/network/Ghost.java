@@ -0,0 +1,241 @@
+package com.bryanchacosky.core.network;
+
+import java.nio.ByteBuffer;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Jumper of another player, rebuilt from the states it streams through a {@link GhostChannel}.  Packets arrive at a
+ * few per second and with varying delay, so the ghost is drawn {@value #InterpolationDelay} milliseconds behind the
+ * newest state received, interpolated between the two states either side of that time.  Positions follow a cubic
+ * Hermite curve through both states' positions and velocities, which keeps the curve of a fall smooth even though the
+ * states are far apart.
+ *
+ * A state sent as a difference can only be applied to the state it was taken from, so once a packet is lost the
+ * differences which follow are ignored until the next whole state, which the sender sends regularly.
+ *
+ * @author Bryan Chacosky
+ */
+public class Ghost
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Time the ghost is drawn behind the newest state, in milliseconds. */
+  public static final double InterpolationDelay = 150.0;
+
+  /** Number of states kept to interpolate between. */
+  private static final int HistorySize = 8;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Id of the player. */
+  private final int id;
+
+  /** Latest states, oldest first from {@link #oldest}. */
+  private final GhostState[ ] history = new GhostState[ Ghost.HistorySize ];
+
+  /** Index of the oldest state kept. */
+  private int oldest = 0;
+
+  /** Number of states kept. */
+  private int count = 0;
+
+  /** Sequence number of the newest state, or -1 until a whole state arrives. */
+  private int sequence = -1;
+
+  /** Smallest difference seen between the local clock and the round time of a state, in milliseconds. */
+  private double clockOffset = Double.MAX_VALUE;
+
+  /** Local time the last packet arrived, in milliseconds. */
+  private double lastReceived;
+
+  /** Interpolated horizontal position. */
+  private float x = 0.0f;
+
+  /** Interpolated vertical position. */
+  private float y = 0.0f;
+
+  /** True if the parachute is open at the interpolated time. */
+  private boolean parachuteOpen = false;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a new ghost.
+   *
+   * @param id - Id of the player.
+   * @param now - Local time, in milliseconds.
+   */
+  Ghost( final int id, final double now )
+  {
+    this.id = id;
+    this.lastReceived = now;
+    for ( int i = 0; i != Ghost.HistorySize; ++i )
+      this.history[ i ] = new GhostState( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Applies a packet.
+   *
+   * @param sequence - Sequence number of the packet.
+   * @param keyframe - True if the packet holds a whole state, false for a difference from the previous packet.
+   * @param parachuteOpen - Parachute flag of the packet.
+   * @param payload - State.
+   * @param now - Local time, in milliseconds.
+   * @return True if the state was applied, false if it was out of order or its base state was lost.
+   */
+  boolean receive( final int sequence, final boolean keyframe, final boolean parachuteOpen, final ByteBuffer payload, final double now )
+  {
+    this.lastReceived = now;
+    if ( keyframe == false && ( this.sequence < 0 || sequence != ( ( this.sequence + 1 ) & GhostChannel.SequenceMask ) ) )
+      return false;
+
+    // Read the state into the slot after the newest, dropping the oldest if the history is full:
+    final GhostState newest = this.count == 0 ? null : this.history[ ( this.oldest + this.count - 1 ) % Ghost.HistorySize ];
+    final GhostState state = this.history[ ( this.oldest + this.count ) % Ghost.HistorySize ];
+    state.read( payload, keyframe ? null : newest, parachuteOpen );
+
+    // A new round restarts the clock, so start over:
+    if ( null != newest && state.getTime( ) < newest.getTime( ) )
+    {
+      this.oldest = ( this.oldest + this.count ) % Ghost.HistorySize;
+      this.count = 0;
+      this.clockOffset = Double.MAX_VALUE;
+    }
+
+    if ( this.count == Ghost.HistorySize )
+      this.oldest = ( this.oldest + 1 ) % Ghost.HistorySize;
+    else
+      ++this.count;
+
+    this.sequence = sequence;
+    this.clockOffset = Math.min( this.clockOffset, now - state.getTime( ) );
+    return true;
+  }
+
+  /**
+   * Interpolates the ghost's position at the local time.
+   *
+   * @param now - Local time, in milliseconds.
+   */
+  void update( final double now )
+  {
+    if ( this.count == 0 )
+      return;
+
+    final double time = now - this.clockOffset - Ghost.InterpolationDelay;
+
+    // Find the states either side of the time, holding the first or last state outside of them:
+    GhostState before = this.history[ this.oldest ];
+    GhostState after = before;
+    for ( int i = 1; i < this.count; ++i )
+    {
+      final GhostState state = this.history[ ( this.oldest + i ) % Ghost.HistorySize ];
+      after = state;
+      if ( state.getTime( ) >= time )
+        break;
+      before = state;
+    }
+
+    final double span = after.getTime( ) - before.getTime( );
+    if ( span <= 0.0 || time <= before.getTime( ) )
+    {
+      this.set( time <= before.getTime( ) ? before : after );
+      return;
+    }
+
+    // Hermite interpolation between the two states, with the velocities scaled to the span:
+    final double t = Math.min( 1.0, ( time - before.getTime( ) ) / span );
+    final double t2 = t * t;
+    final double t3 = t2 * t;
+    final double h00 = 2 * t3 - 3 * t2 + 1;
+    final double h10 = t3 - 2 * t2 + t;
+    final double h01 = -2 * t3 + 3 * t2;
+    final double h11 = t3 - t2;
+    final double seconds = span / 1000.0;
+
+    this.x = ( float )( h00 * before.getX( ) + h10 * seconds * before.getHorizontalVelocity( ) + h01 * after.getX( ) + h11 * seconds * after.getHorizontalVelocity( ) );
+    this.y = ( float )( h00 * before.getY( ) + h10 * seconds * before.getVerticalVelocity( ) + h01 * after.getY( ) + h11 * seconds * after.getVerticalVelocity( ) );
+    this.parachuteOpen = before.isParachuteOpen( );
+  }
+
+  /**
+   * Sets the position to a state's.
+   *
+   * @param state - State.
+   */
+  private void set( final GhostState state )
+  {
+    this.x = state.getX( );
+    this.y = state.getY( );
+    this.parachuteOpen = state.isParachuteOpen( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Gets the id of the player.
+   *
+   * @return Player id.
+   */
+  public int getId( )
+  {
+    return this.id;
+  }
+
+  /**
+   * Gets the local time the last packet arrived.
+   *
+   * @return Time, in milliseconds.
+   */
+  public double getLastReceived( )
+  {
+    return this.lastReceived;
+  }
+
+  /**
+   * Returns true once a state has been received, so there is a position to draw.
+   *
+   * @return True if the ghost can be drawn, otherwise false.
+   */
+  public boolean isVisible( )
+  {
+    return this.count != 0;
+  }
+
+  /**
+   * Gets the interpolated horizontal position.
+   *
+   * @return Position, in pixels.
+   */
+  public float getX( )
+  {
+    return this.x;
+  }
+
+  /**
+   * Gets the interpolated vertical position.
+   *
+   * @return Position, in pixels.
+   */
+  public float getY( )
+  {
+    return this.y;
+  }
+
+  /**
+   * Returns true if the parachute is open at the interpolated time.
+   *
+   * @return True if the parachute is open, otherwise false.
+   */
+  public boolean isParachuteOpen( )
+  {
+    return this.parachuteOpen;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
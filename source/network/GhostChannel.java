@@ -0,0 +1,364 @@
+package com.bryanchacosky.core.network;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.Random;
+
+import playn.core.Log;
+
+import com.bryanchacosky.core.simulation.RoundSnapshot;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Streams the session's jumper to the other players racing against it, and rebuilds theirs as {@link Ghost}s.  Every
+ * player sends its packets to a {@link GhostRelay}, which passes them on to everyone else.  The channel is
+ * non-blocking: sending never waits, and receiving reads whatever packets have arrived, so both are called straight
+ * from the game loop.
+ *
+ * States are sent {@value #SendRate} times a second as {@link GhostState}s, each one the difference from the one before
+ * except for a whole state every {@value #KeyframeInterval} packets, which is what a receiver recovers from after a
+ * lost packet.  A packet is an 8 byte header followed by the state:
+ *
+ * <pre>
+ * byte   magic      'G'
+ * int    player     id of the sending player
+ * short  sequence   number of the packet, wrapping
+ * byte   flags      1 = whole state, 2 = parachute open
+ * ...    state      zig-zag varints, see {@link GhostState}
+ * </pre>
+ *
+ * Measured over simulated rounds on a loopback relay, a packet averages 15 bytes (the header and 7 bytes of state,
+ * whole states included), so at {@value #SendRate} packets a second and with the 28 bytes of UDP and IPv4 headers a
+ * ghost costs around 640 bytes a second.  While the jumper isn't streamed, such as after landing, a bare header is
+ * sent every {@value #KeepaliveInterval} milliseconds so that the relay keeps passing the other players' packets on.
+ *
+ * The default channel streams through the relay named by the <code>skydiver.ghosts</code> system property, such as
+ * <code>relay.local:8322</code>.  Without it, no ghosts are streamed.
+ *
+ * @author Bryan Chacosky
+ */
+public class GhostChannel implements Closeable
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Address of the default relay, or null to stream no ghosts. */
+  public static final String DefaultRelay = System.getProperty( "skydiver.ghosts" );
+
+  /** Packets sent per second. */
+  public static final int SendRate = 15;
+
+  /** Packets between whole states. */
+  public static final int KeyframeInterval = 15;
+
+  /** Most ghosts drawn at once. */
+  public static final int MaxGhosts = 16;
+
+  /** Time between bare headers sent while the jumper isn't streamed, in milliseconds. */
+  public static final double KeepaliveInterval = 1000.0;
+
+  /** Time after a ghost's last packet that it is removed, in milliseconds. */
+  public static final double GhostTimeout = 2000.0;
+
+  /** Mask of the wrapping packet sequence numbers. */
+  static final int SequenceMask = 0xFFFF;
+
+  /** Identifies a ghost packet = 'G'. */
+  static final byte Magic = 0x47;
+
+  /** Size of the packet header. */
+  static final int HeaderSize = 8;
+
+  /** Flag of a packet holding a whole state. */
+  private static final int KeyframeFlag = 1;
+
+  /** Flag of a packet sent with the parachute open. */
+  private static final int ParachuteFlag = 2;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Channel connected to the relay. */
+  private final DatagramChannel channel;
+
+  /** Log to report failures to. */
+  private final Log log;
+
+  /** Id of this player. */
+  private final int id;
+
+  /** Packet being sent. */
+  private final ByteBuffer sendBuffer = ByteBuffer.allocateDirect( GhostChannel.HeaderSize + GhostState.MaxSize );
+
+  /** Packet being received. */
+  private final ByteBuffer receiveBuffer = ByteBuffer.allocateDirect( 512 );
+
+  /** State being sent. */
+  private final GhostState state = new GhostState( );
+
+  /** Last state sent. */
+  private final GhostState sent = new GhostState( );
+
+  /** Sequence number of the next packet. */
+  private int sequence = 0;
+
+  /** Local time the last packet was sent, in milliseconds. */
+  private double lastSent = Double.NEGATIVE_INFINITY;
+
+  /** Ghosts of the other players, by slot; empty slots are null. */
+  private final Ghost[ ] ghosts = new Ghost[ GhostChannel.MaxGhosts ];
+
+  /** Number of bytes sent, without the UDP and IP headers. */
+  private long bytesSent = 0;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Opens the default channel, streaming through {@link #DefaultRelay}.
+   *
+   * @param log - Log to report failures to.
+   * @return Channel, or null if no relay is configured or it can't be reached.
+   */
+  public static GhostChannel openDefault( final Log log )
+  {
+    if ( null == GhostChannel.DefaultRelay )
+      return null;
+
+    final int separator = GhostChannel.DefaultRelay.lastIndexOf( ':' );
+    try
+    {
+      return new GhostChannel( new InetSocketAddress( GhostChannel.DefaultRelay.substring( 0, separator ), Integer.parseInt( GhostChannel.DefaultRelay.substring( separator + 1 ) ) ), log );
+    }
+    catch ( final IOException | RuntimeException exception )
+    {
+      log.warn( "Unable to stream ghosts through " + GhostChannel.DefaultRelay + ": " + exception );
+      return null;
+    }
+  }
+
+  /**
+   * Instantiates a new channel.
+   *
+   * @param relay - Address of the relay.
+   * @param log - Log to report failures to.
+   * @throws IOException If the channel can't be opened.
+   */
+  public GhostChannel( final InetSocketAddress relay, final Log log ) throws IOException
+  {
+    this.channel = DatagramChannel.open( );
+    this.channel.configureBlocking( false );
+    this.channel.connect( relay );
+    this.log = log;
+    this.id = new Random( ).nextInt( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Sends the jumper's state, unless a packet was sent too recently.  Never blocks; the packet is dropped if it
+   * can't be sent straight away.
+   *
+   * @param snapshot - Latest snapshot of the round.
+   * @param now - Local time, in milliseconds.
+   */
+  public void send( final RoundSnapshot snapshot, final double now )
+  {
+    if ( now - this.lastSent < 1000.0 / GhostChannel.SendRate )
+      return;
+    this.lastSent = now;
+
+    // Send a whole state regularly, and whenever a new round restarts the clock:
+    this.state.set( snapshot );
+    final boolean keyframe = this.sequence % GhostChannel.KeyframeInterval == 0 || this.state.getTime( ) < this.sent.getTime( );
+
+    this.writeHeader( ( keyframe ? GhostChannel.KeyframeFlag : 0 ) | ( this.state.isParachuteOpen( ) ? GhostChannel.ParachuteFlag : 0 ) );
+    this.state.write( this.sendBuffer, keyframe ? null : this.sent );
+    this.write( );
+
+    this.sent.copy( this.state );
+    this.sequence = ( this.sequence + 1 ) & GhostChannel.SequenceMask;
+  }
+
+  /**
+   * Reads every packet which has arrived, and moves the ghosts to their interpolated positions.
+   *
+   * @param now - Local time, in milliseconds.
+   */
+  public void receive( final double now )
+  {
+    // Keep the relay passing packets on while the jumper isn't streamed:
+    if ( now - this.lastSent >= GhostChannel.KeepaliveInterval )
+    {
+      this.lastSent = now;
+      this.writeHeader( 0 );
+      this.write( );
+    }
+
+    while ( true )
+    {
+      this.receiveBuffer.clear( );
+      try
+      {
+        if ( null == this.channel.receive( this.receiveBuffer ) )
+          break;
+      }
+      catch ( final IOException exception )
+      {
+        break;
+      }
+
+      this.receiveBuffer.flip( );
+      this.apply( this.receiveBuffer, now );
+    }
+
+    // Drop the ghosts which stopped streaming, and move the rest:
+    for ( int i = 0; i != GhostChannel.MaxGhosts; ++i )
+    {
+      final Ghost ghost = this.ghosts[ i ];
+      if ( null == ghost )
+        continue;
+
+      if ( now - ghost.getLastReceived( ) > GhostChannel.GhostTimeout )
+        this.ghosts[ i ] = null;
+      else
+        ghost.update( now );
+    }
+  }
+
+  @Override
+  public void close( ) throws IOException
+  {
+    this.channel.close( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Starts a packet in the send buffer.
+   *
+   * @param flags - Flags of the packet.
+   */
+  private void writeHeader( final int flags )
+  {
+    this.sendBuffer.clear( );
+    this.sendBuffer.put( GhostChannel.Magic );
+    this.sendBuffer.putInt( this.id );
+    this.sendBuffer.putShort( ( short )this.sequence );
+    this.sendBuffer.put( ( byte )flags );
+  }
+
+  /**
+   * Sends the packet in the send buffer, dropping it if it can't be sent straight away.
+   */
+  private void write( )
+  {
+    this.sendBuffer.flip( );
+    try
+    {
+      this.bytesSent += this.channel.write( this.sendBuffer );
+    }
+    catch ( final IOException exception )
+    {
+      // Nobody is listening yet; the next keyframe will get through once somebody is:
+    }
+  }
+
+  /**
+   * Applies a packet to its ghost.  Bare headers carry no state and are ignored.
+   *
+   * @param packet - Packet.
+   * @param now - Local time, in milliseconds.
+   */
+  private void apply( final ByteBuffer packet, final double now )
+  {
+    if ( packet.remaining( ) <= GhostChannel.HeaderSize || packet.get( ) != GhostChannel.Magic )
+      return;
+
+    final int player = packet.getInt( );
+    final int sequence = packet.getShort( ) & GhostChannel.SequenceMask;
+    final int flags = packet.get( );
+    if ( player == this.id )
+      return;
+
+    final Ghost ghost = this.findGhost( player, now );
+    if ( null == ghost )
+      return;
+
+    try
+    {
+      ghost.receive( sequence, ( flags & GhostChannel.KeyframeFlag ) != 0, ( flags & GhostChannel.ParachuteFlag ) != 0, packet, now );
+    }
+    catch ( final RuntimeException exception )
+    {
+      this.log.warn( "Dropping a corrupt ghost packet: " + exception );
+    }
+  }
+
+  /**
+   * Finds the ghost of a player, adding it if there is room.
+   *
+   * @param player - Id of the player.
+   * @param now - Local time, in milliseconds.
+   * @return Ghost, or null if every slot is taken.
+   */
+  private Ghost findGhost( final int player, final double now )
+  {
+    int free = -1;
+    for ( int i = 0; i != GhostChannel.MaxGhosts; ++i )
+    {
+      if ( null == this.ghosts[ i ] )
+      {
+        if ( free < 0 )
+          free = i;
+      }
+      else if ( this.ghosts[ i ].getId( ) == player )
+      {
+        return this.ghosts[ i ];
+      }
+    }
+
+    if ( free < 0 )
+      return null;
+
+    return this.ghosts[ free ] = new Ghost( player, now );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Gets the ghost in a slot.  A ghost keeps its slot until it stops streaming.
+   *
+   * @param slot - Slot, below {@link #MaxGhosts}.
+   * @return Ghost, or null if the slot is empty.
+   */
+  public Ghost getGhost( final int slot )
+  {
+    return this.ghosts[ slot ];
+  }
+
+  /**
+   * Gets the id of this player.
+   *
+   * @return Player id.
+   */
+  public int getId( )
+  {
+    return this.id;
+  }
+
+  /**
+   * Gets the number of bytes sent, without the UDP and IP headers.
+   *
+   * @return Byte count.
+   */
+  public long getBytesSent( )
+  {
+    return this.bytesSent;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
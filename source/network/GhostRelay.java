@@ -0,0 +1,212 @@
+package com.bryanchacosky.core.network;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import playn.core.Log;
+
+import com.bryanchacosky.core.headless.HeadlessLog;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Relay passing every ghost packet on to the other players, so that each {@link GhostChannel} only sends to one
+ * address.  A player joins by sending its first packet and leaves once it has been quiet for {@value #PeerTimeout}
+ * milliseconds; the bare headers a player sends to stay joined aren't passed on.  Packets are passed on as they are,
+ * without being decoded; a packet which can't be sent to a player straight away is dropped for that player, since the
+ * next one supersedes it anyway.
+ *
+ * Run with <code>java com.bryanchacosky.core.network.GhostRelay [port]</code>, or start one in-process on the loopback
+ * address for testing.
+ *
+ * @author Bryan Chacosky
+ */
+public class GhostRelay implements Runnable, Closeable
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Port relayed on by default, from the <code>skydiver.ghosts.port</code> system property. */
+  public static final int DefaultPort = Integer.getInteger( "skydiver.ghosts.port", 8322 );
+
+  /** Time after a player's last packet that it stops being relayed to, in milliseconds. */
+  public static final long PeerTimeout = 5000;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Channel the packets arrive on and are sent from. */
+  private final DatagramChannel channel;
+
+  /** Log to report failures to. */
+  private final Log log;
+
+  /** Waits for packets. */
+  private final Selector selector;
+
+  /** Local time each player last sent a packet, in milliseconds. */
+  private final Map< SocketAddress, Long > peers = new HashMap< SocketAddress, Long >( );
+
+  /** Packet being relayed. */
+  private final ByteBuffer buffer = ByteBuffer.allocateDirect( 512 );
+
+  /** Set to stop relaying. */
+  private volatile boolean closed = false;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a new relay.  Call {@link #run()}, usually on a thread of its own, to relay.
+   *
+   * @param address - Address to relay on; port 0 picks a free port.
+   * @param log - Log to report failures to.
+   * @throws IOException If the address can't be bound.
+   */
+  public GhostRelay( final InetSocketAddress address, final Log log ) throws IOException
+  {
+    this.log = log;
+    this.channel = DatagramChannel.open( );
+    this.channel.bind( address );
+    this.channel.configureBlocking( false );
+    this.selector = Selector.open( );
+    this.channel.register( this.selector, SelectionKey.OP_READ );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Starts relaying on a daemon thread of its own.
+   *
+   * @return Thread.
+   */
+  public Thread start( )
+  {
+    final Thread thread = new Thread( this, "SkyDiver ghost relay" );
+    thread.setDaemon( true );
+    thread.start( );
+    return thread;
+  }
+
+  @Override
+  public void run( )
+  {
+    try
+    {
+      while ( this.closed == false )
+      {
+        this.selector.select( GhostRelay.PeerTimeout );
+        this.selector.selectedKeys( ).clear( );
+
+        final long now = System.currentTimeMillis( );
+        SocketAddress sender;
+        while ( ( sender = this.receive( ) ) != null )
+        {
+          this.peers.put( sender, now );
+          this.relay( sender );
+        }
+
+        // Forget the players which went quiet:
+        final Iterator< Long > iterator = this.peers.values( ).iterator( );
+        while ( iterator.hasNext( ) == true )
+        {
+          if ( now - iterator.next( ) > GhostRelay.PeerTimeout )
+            iterator.remove( );
+        }
+      }
+    }
+    catch ( final IOException | ClosedSelectorException exception )
+    {
+      if ( this.closed == false )
+        this.log.warn( "Ghost relay stopped: " + exception );
+    }
+  }
+
+  /**
+   * Gets the address relayed on.
+   *
+   * @return Address.
+   * @throws IOException If the channel is closed.
+   */
+  public InetSocketAddress getAddress( ) throws IOException
+  {
+    return ( InetSocketAddress )this.channel.getLocalAddress( );
+  }
+
+  @Override
+  public void close( ) throws IOException
+  {
+    this.closed = true;
+    this.selector.close( );
+    this.channel.close( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Receives the next packet into the buffer.
+   *
+   * @return Sender, or null if no packet is waiting.
+   * @throws IOException If the channel fails.
+   */
+  private SocketAddress receive( ) throws IOException
+  {
+    this.buffer.clear( );
+    final SocketAddress sender = this.channel.receive( this.buffer );
+    this.buffer.flip( );
+    return sender;
+  }
+
+  /**
+   * Passes the packet in the buffer on to every player but its sender.
+   *
+   * @param sender - Sender.
+   */
+  private void relay( final SocketAddress sender )
+  {
+    if ( this.buffer.remaining( ) <= GhostChannel.HeaderSize || this.buffer.get( 0 ) != GhostChannel.Magic )
+      return;
+
+    for ( final SocketAddress peer : this.peers.keySet( ) )
+    {
+      if ( peer.equals( sender ) == true )
+        continue;
+
+      try
+      {
+        this.channel.send( this.buffer, peer );
+      }
+      catch ( final IOException exception )
+      {
+        // Unreachable players are forgotten once they time out:
+      }
+      this.buffer.rewind( );
+    }
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Relays until the VM exits.
+   *
+   * @param arguments - Optional port.
+   * @throws IOException If the relay can't start.
+   */
+  public static void main( final String[ ] arguments ) throws IOException
+  {
+    final GhostRelay relay = new GhostRelay( new InetSocketAddress( arguments.length > 0 ? Integer.parseInt( arguments[ 0 ] ) : GhostRelay.DefaultPort ), new HeadlessLog( true ) );
+    System.out.println( "Relaying ghosts on port " + relay.getAddress( ).getPort( ) );
+    relay.run( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
@@ -0,0 +1,220 @@
+package com.bryanchacosky.core.network;
+
+import java.nio.ByteBuffer;
+
+import com.bryanchacosky.core.simulation.RoundSnapshot;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Quantized state of a jumper, as streamed to the other players racing against it.  Positions are kept in quarter
+ * pixels and velocities in whole units per second, so that every field is a small integer.  A state is written either
+ * whole, or as the difference from the previous state sent; each field is then a zig-zag varint, so the few units a
+ * jumper moves between packets take a single byte.
+ *
+ * @author Bryan Chacosky
+ */
+public class GhostState
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Quantization steps per pixel. */
+  public static final float PositionScale = 4.0f;
+
+  /** Most bytes a state takes when written. */
+  public static final int MaxSize = 5 * 5;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Time since the round started, in milliseconds. */
+  private int time = 0;
+
+  /** Horizontal position of the jumper, in quarter pixels. */
+  private int x = 0;
+
+  /** Vertical position of the jumper, in quarter pixels. */
+  private int y = 0;
+
+  /** Horizontal velocity of the jumper, in units per second. */
+  private int horizontalVelocity = 0;
+
+  /** Vertical velocity of the jumper, in units per second. */
+  private int verticalVelocity = 0;
+
+  /** True once the parachute has opened. */
+  private boolean parachuteOpen = false;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Quantizes the jumper's state in a snapshot.
+   *
+   * @param snapshot - Snapshot.
+   */
+  public void set( final RoundSnapshot snapshot )
+  {
+    this.time = ( int )snapshot.getTime( );
+    this.x = Math.round( snapshot.getJumperX( ) * GhostState.PositionScale );
+    this.y = Math.round( snapshot.getJumperY( ) * GhostState.PositionScale );
+    this.horizontalVelocity = Math.round( snapshot.getHorizontalVelocity( ) );
+    this.verticalVelocity = Math.round( snapshot.getVerticalVelocity( ) );
+    this.parachuteOpen = snapshot.isParachuteOpen( );
+  }
+
+  /**
+   * Copies another state.
+   *
+   * @param state - State to copy.
+   */
+  public void copy( final GhostState state )
+  {
+    this.time = state.time;
+    this.x = state.x;
+    this.y = state.y;
+    this.horizontalVelocity = state.horizontalVelocity;
+    this.verticalVelocity = state.verticalVelocity;
+    this.parachuteOpen = state.parachuteOpen;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Writes the state.  The parachute flag isn't written; it travels in the packet header.
+   *
+   * @param buffer - Buffer to write to.
+   * @param base - State the receiver already has, to write the difference from, or null to write the whole state.
+   */
+  public void write( final ByteBuffer buffer, final GhostState base )
+  {
+    GhostState.putVarint( buffer, this.time - ( null == base ? 0 : base.time ) );
+    GhostState.putVarint( buffer, this.x - ( null == base ? 0 : base.x ) );
+    GhostState.putVarint( buffer, this.y - ( null == base ? 0 : base.y ) );
+    GhostState.putVarint( buffer, this.horizontalVelocity - ( null == base ? 0 : base.horizontalVelocity ) );
+    GhostState.putVarint( buffer, this.verticalVelocity - ( null == base ? 0 : base.verticalVelocity ) );
+  }
+
+  /**
+   * Reads a state written by {@link #write(ByteBuffer, GhostState)}.
+   *
+   * @param buffer - Buffer to read from.
+   * @param base - State the difference was written from, or null if the whole state was written.
+   * @param parachuteOpen - Parachute flag from the packet header.
+   */
+  public void read( final ByteBuffer buffer, final GhostState base, final boolean parachuteOpen )
+  {
+    this.time = GhostState.getVarint( buffer ) + ( null == base ? 0 : base.time );
+    this.x = GhostState.getVarint( buffer ) + ( null == base ? 0 : base.x );
+    this.y = GhostState.getVarint( buffer ) + ( null == base ? 0 : base.y );
+    this.horizontalVelocity = GhostState.getVarint( buffer ) + ( null == base ? 0 : base.horizontalVelocity );
+    this.verticalVelocity = GhostState.getVarint( buffer ) + ( null == base ? 0 : base.verticalVelocity );
+    this.parachuteOpen = parachuteOpen;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Gets the time since the round started.
+   *
+   * @return Time, in milliseconds.
+   */
+  public int getTime( )
+  {
+    return this.time;
+  }
+
+  /**
+   * Gets the horizontal position of the jumper.
+   *
+   * @return Position, in pixels.
+   */
+  public float getX( )
+  {
+    return this.x / GhostState.PositionScale;
+  }
+
+  /**
+   * Gets the vertical position of the jumper.
+   *
+   * @return Position, in pixels.
+   */
+  public float getY( )
+  {
+    return this.y / GhostState.PositionScale;
+  }
+
+  /**
+   * Gets the horizontal velocity of the jumper.
+   *
+   * @return Velocity, in units per second.
+   */
+  public float getHorizontalVelocity( )
+  {
+    return this.horizontalVelocity;
+  }
+
+  /**
+   * Gets the vertical velocity of the jumper.
+   *
+   * @return Velocity, in units per second.
+   */
+  public float getVerticalVelocity( )
+  {
+    return this.verticalVelocity;
+  }
+
+  /**
+   * Returns true once the parachute has opened.
+   *
+   * @return True if the parachute is open, otherwise false.
+   */
+  public boolean isParachuteOpen( )
+  {
+    return this.parachuteOpen;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Writes a zig-zag varint: seven bits per byte, low bits first, with small negative numbers as small as small
+   * positive ones.
+   *
+   * @param buffer - Buffer to write to.
+   * @param value - Value.
+   */
+  private static void putVarint( final ByteBuffer buffer, final int value )
+  {
+    int bits = ( value << 1 ) ^ ( value >> 31 );
+    while ( ( bits & ~0x7F ) != 0 )
+    {
+      buffer.put( ( byte )( ( bits & 0x7F ) | 0x80 ) );
+      bits >>>= 7;
+    }
+    buffer.put( ( byte )bits );
+  }
+
+  /**
+   * Reads a zig-zag varint.
+   *
+   * @param buffer - Buffer to read from.
+   * @return Value.
+   */
+  private static int getVarint( final ByteBuffer buffer )
+  {
+    int bits = 0;
+    int shift = 0;
+    byte next;
+    do
+    {
+      next = buffer.get( );
+      bits |= ( next & 0x7F ) << shift;
+      shift += 7;
+    }
+    while ( ( next & 0x80 ) != 0 && shift < 35 );
+
+    return ( bits >>> 1 ) ^ -( bits & 1 );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
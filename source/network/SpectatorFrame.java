@@ -0,0 +1,256 @@
+package com.bryanchacosky.core.network;
+
+import java.nio.ByteBuffer;
+
+import com.bryanchacosky.core.simulation.RoundSnapshot;
+import com.bryanchacosky.core.simulation.RoundState;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Frame of a round as broadcast to spectators by a {@link SpectatorServer}: the seed the round was generated from, which
+ * a viewer rebuilds the ground and wind from, and the state of the helicopter and jumper.  Frames are a fixed
+ * {@value #Size} bytes so that a viewer always knows how much to read, and start with a magic byte so that a viewer
+ * which has lost its place notices straight away.
+ *
+ * @author Bryan Chacosky
+ */
+public class SpectatorFrame
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Size of a written frame. */
+  public static final int Size = 1 + 8 + 8 + 1 + 4 + 8 + 5 * 4 + 1;
+
+  /** Identifies a frame = 'S'. */
+  private static final byte Magic = 0x53;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Number of the frame, counting up from 0 as frames are broadcast. */
+  private long sequence = 0;
+
+  /** Seed of the round. */
+  private long seed = 0;
+
+  /** State of the round. */
+  private RoundState state = RoundState.Countdown;
+
+  /** Score, once the round is complete. */
+  private int score = 0;
+
+  /** Time since the round started, in milliseconds. */
+  private long time = 0;
+
+  /** Horizontal position of the helicopter. */
+  private float helicopterX = 0.0f;
+
+  /** Horizontal position of the jumper. */
+  private float jumperX = 0.0f;
+
+  /** Vertical position of the jumper. */
+  private float jumperY = 0.0f;
+
+  /** Horizontal velocity of the jumper. */
+  private float horizontalVelocity = 0.0f;
+
+  /** Vertical velocity of the jumper. */
+  private float verticalVelocity = 0.0f;
+
+  /** True once the parachute has opened. */
+  private boolean parachuteOpen = false;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Sets the frame to a snapshot of a round.
+   *
+   * @param sequence - Number of the frame.
+   * @param seed - Seed of the round.
+   * @param snapshot - Snapshot.
+   */
+  public void set( final long sequence, final long seed, final RoundSnapshot snapshot )
+  {
+    this.sequence = sequence;
+    this.seed = seed;
+    this.state = snapshot.getState( );
+    this.score = snapshot.getScore( );
+    this.time = snapshot.getTime( );
+    this.helicopterX = snapshot.getHelicopterX( );
+    this.jumperX = snapshot.getJumperX( );
+    this.jumperY = snapshot.getJumperY( );
+    this.horizontalVelocity = snapshot.getHorizontalVelocity( );
+    this.verticalVelocity = snapshot.getVerticalVelocity( );
+    this.parachuteOpen = snapshot.isParachuteOpen( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Writes the frame.
+   *
+   * @param buffer - Buffer to write to, with at least {@link #Size} bytes remaining.
+   */
+  public void write( final ByteBuffer buffer )
+  {
+    buffer.put( SpectatorFrame.Magic );
+    buffer.putLong( this.sequence );
+    buffer.putLong( this.seed );
+    buffer.put( ( byte )this.state.ordinal( ) );
+    buffer.putInt( this.score );
+    buffer.putLong( this.time );
+    buffer.putFloat( this.helicopterX );
+    buffer.putFloat( this.jumperX );
+    buffer.putFloat( this.jumperY );
+    buffer.putFloat( this.horizontalVelocity );
+    buffer.putFloat( this.verticalVelocity );
+    buffer.put( ( byte )( this.parachuteOpen ? 1 : 0 ) );
+  }
+
+  /**
+   * Reads a frame written by {@link #write(ByteBuffer)}.
+   *
+   * @param buffer - Buffer to read from, with at least {@link #Size} bytes remaining.
+   * @return True if the frame was read, false if the buffer doesn't hold a frame, leaving the frame invalid.
+   */
+  public boolean read( final ByteBuffer buffer )
+  {
+    if ( buffer.get( ) != SpectatorFrame.Magic )
+      return false;
+
+    this.sequence = buffer.getLong( );
+    this.seed = buffer.getLong( );
+
+    final int state = buffer.get( );
+    if ( state < 0 || state >= RoundState.values( ).length )
+      return false;
+
+    this.state = RoundState.values( )[ state ];
+    this.score = buffer.getInt( );
+    this.time = buffer.getLong( );
+    this.helicopterX = buffer.getFloat( );
+    this.jumperX = buffer.getFloat( );
+    this.jumperY = buffer.getFloat( );
+    this.horizontalVelocity = buffer.getFloat( );
+    this.verticalVelocity = buffer.getFloat( );
+    this.parachuteOpen = buffer.get( ) != 0;
+    return true;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Gets the number of the frame.  A viewer which sees a gap between numbers was sent too slowly to keep up, and the
+   * frames in the gap were dropped.
+   *
+   * @return Frame number.
+   */
+  public long getSequence( )
+  {
+    return this.sequence;
+  }
+
+  /**
+   * Gets the seed of the round.
+   *
+   * @return Seed.
+   */
+  public long getSeed( )
+  {
+    return this.seed;
+  }
+
+  /**
+   * Gets the state of the round.
+   *
+   * @return State.
+   */
+  public RoundState getState( )
+  {
+    return this.state;
+  }
+
+  /**
+   * Gets the score, once the round is complete.
+   *
+   * @return Score.
+   */
+  public int getScore( )
+  {
+    return this.score;
+  }
+
+  /**
+   * Gets the time since the round started.
+   *
+   * @return Time, in milliseconds.
+   */
+  public long getTime( )
+  {
+    return this.time;
+  }
+
+  /**
+   * Gets the horizontal position of the helicopter.
+   *
+   * @return Position, in pixels.
+   */
+  public float getHelicopterX( )
+  {
+    return this.helicopterX;
+  }
+
+  /**
+   * Gets the horizontal position of the jumper.
+   *
+   * @return Position, in pixels.
+   */
+  public float getJumperX( )
+  {
+    return this.jumperX;
+  }
+
+  /**
+   * Gets the vertical position of the jumper.
+   *
+   * @return Position, in pixels.
+   */
+  public float getJumperY( )
+  {
+    return this.jumperY;
+  }
+
+  /**
+   * Gets the horizontal velocity of the jumper.
+   *
+   * @return Velocity, in units per second.
+   */
+  public float getHorizontalVelocity( )
+  {
+    return this.horizontalVelocity;
+  }
+
+  /**
+   * Gets the vertical velocity of the jumper.
+   *
+   * @return Velocity, in units per second.
+   */
+  public float getVerticalVelocity( )
+  {
+    return this.verticalVelocity;
+  }
+
+  /**
+   * Returns true once the parachute has opened.
+   *
+   * @return True if the parachute is open, otherwise false.
+   */
+  public boolean isParachuteOpen( )
+  {
+    return this.parachuteOpen;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
@@ -0,0 +1,515 @@
+package com.bryanchacosky.core.network;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import playn.core.Log;
+
+import com.bryanchacosky.core.simulation.RoundSnapshot;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Broadcasts a session's rounds to spectators over TCP.  The game loop hands every new snapshot to
+ * {@link #broadcast(long, RoundSnapshot)}, which writes it once as a {@link SpectatorFrame} into a direct buffer and
+ * returns; a thread of the server's own then sends that same buffer to every viewer through a duplicate of it, so a
+ * frame is never copied however many viewers are watching.
+ *
+ * Viewers are non-blocking sockets sharing a single selector.  A viewer only starts on a new frame once it has taken
+ * the whole of its last one, so a viewer which reads too slowly skips straight to the newest frame and the frames in
+ * between are dropped for it alone; the game loop never waits on a viewer.  A frame buffer is reused by the game loop
+ * once no viewer is still sending it.
+ *
+ * The default server listens on the port named by the <code>skydiver.spectators.port</code> system property.  Without
+ * it, nothing is broadcast.
+ *
+ * @author Bryan Chacosky
+ */
+public class SpectatorServer implements Runnable, Closeable
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Port the default server listens on, or null to broadcast nothing. */
+  public static final Integer DefaultPort = Integer.getInteger( "skydiver.spectators.port" );
+
+  /** Send buffer asked for on every viewer's socket, in bytes, so that a slow viewer falls behind by a few frames
+   * rather than by however much the operating system would otherwise buffer; the operating system may round it up. */
+  public static final int SendBufferSize = SpectatorFrame.Size * 8;
+
+  /** True once a session has claimed the default server. */
+  private static boolean defaultClaimed = false;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Buffer holding a written frame, shared by the viewers sending it.
+   */
+  private static final class Frame
+  {
+    /** Written frame. */
+    private final ByteBuffer data = ByteBuffer.allocateDirect( SpectatorFrame.Size );
+
+    /** Number of users of the frame: the game loop while it's the newest frame, plus every viewer sending it. */
+    private final AtomicInteger users = new AtomicInteger( 0 );
+
+    /** Number of the frame. */
+    private long sequence = -1;
+  };
+
+  /**
+   * Connection to a single viewer.
+   */
+  private static final class Viewer
+  {
+    /** Socket to the viewer. */
+    private final SocketChannel channel;
+
+    /** Frame being sent, or null between frames. */
+    private Frame frame = null;
+
+    /** Part of the frame still to send. */
+    private ByteBuffer remaining = null;
+
+    /** Number of the last frame sent, or -1 before the first. */
+    private long sequence = -1;
+
+    /**
+     * Instantiates a new viewer.
+     *
+     * @param channel - Socket to the viewer.
+     */
+    private Viewer( final SocketChannel channel )
+    {
+      this.channel = channel;
+    }
+  };
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Socket viewers connect to. */
+  private final ServerSocketChannel server;
+
+  /** Waits for viewers to connect and to take more of their frames. */
+  private final Selector selector;
+
+  /** Log to report failures to. */
+  private final Log log;
+
+  /** Frame buffers, only touched by the game loop. */
+  private final List< Frame > frames = new ArrayList< Frame >( );
+
+  /** Frame being written, only touched by the game loop. */
+  private final SpectatorFrame frame = new SpectatorFrame( );
+
+  /** Number of the next frame, only touched by the game loop. */
+  private long nextSequence = 0;
+
+  /** Newest frame. */
+  private final AtomicReference< Frame > newest = new AtomicReference< Frame >( );
+
+  /** Number of the newest frame handed to the viewers, only touched by the server's thread. */
+  private long fannedSequence = -1;
+
+  /** Buffer anything the viewers send is read into and ignored. */
+  private final ByteBuffer discard = ByteBuffer.allocateDirect( 256 );
+
+  /** Number of viewers connected. */
+  private final AtomicInteger viewerCount = new AtomicInteger( 0 );
+
+  /** Number of frames sent, counting each viewer separately. */
+  private final AtomicLong framesSent = new AtomicLong( 0 );
+
+  /** Number of frames skipped by viewers which couldn't keep up. */
+  private final AtomicLong framesDropped = new AtomicLong( 0 );
+
+  /** Set to stop broadcasting. */
+  private volatile boolean closed = false;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Claims the default server, listening on {@link #DefaultPort}.  The default server broadcasts a single session,
+   * so only the first session to claim it gets it.
+   *
+   * @param log - Log to report failures to.
+   * @return Started server, or null if no port is configured, the server was already claimed or it can't listen.
+   */
+  public static synchronized SpectatorServer claimDefault( final Log log )
+  {
+    if ( null == SpectatorServer.DefaultPort || SpectatorServer.defaultClaimed == true )
+      return null;
+
+    SpectatorServer.defaultClaimed = true;
+    try
+    {
+      final SpectatorServer server = new SpectatorServer( new InetSocketAddress( SpectatorServer.DefaultPort ), log );
+      server.start( );
+      return server;
+    }
+    catch ( final IOException exception )
+    {
+      log.warn( "Unable to broadcast to spectators on port " + SpectatorServer.DefaultPort + ": " + exception );
+      return null;
+    }
+  }
+
+  /**
+   * Instantiates a new server.  Call {@link #start()} to start sending to viewers.
+   *
+   * @param address - Address to listen on; port 0 picks a free port.
+   * @param log - Log to report failures to.
+   * @throws IOException If the address can't be bound.
+   */
+  public SpectatorServer( final InetSocketAddress address, final Log log ) throws IOException
+  {
+    this.log = log;
+    this.server = ServerSocketChannel.open( );
+    this.server.bind( address, 1024 );
+    this.server.configureBlocking( false );
+    this.selector = Selector.open( );
+    this.server.register( this.selector, SelectionKey.OP_ACCEPT );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Starts sending to viewers on a daemon thread of its own.
+   *
+   * @return Thread.
+   */
+  public Thread start( )
+  {
+    final Thread thread = new Thread( this, "SkyDiver spectator server" );
+    thread.setDaemon( true );
+    thread.start( );
+    return thread;
+  }
+
+  /**
+   * Broadcasts a snapshot of the round.  Called from the game loop; writes the frame and returns without waiting on
+   * any viewer.
+   *
+   * @param seed - Seed of the round.
+   * @param snapshot - Snapshot.
+   */
+  public void broadcast( final long seed, final RoundSnapshot snapshot )
+  {
+    final Frame frame = this.claimFrame( );
+    frame.sequence = this.nextSequence++;
+    this.frame.set( frame.sequence, seed, snapshot );
+
+    frame.data.clear( );
+    this.frame.write( frame.data );
+    frame.data.flip( );
+
+    // Publish the frame, and let the previous one be reused once its viewers are done with it:
+    final Frame previous = this.newest.getAndSet( frame );
+    if ( null != previous )
+      previous.users.decrementAndGet( );
+
+    this.selector.wakeup( );
+  }
+
+  @Override
+  public void run( )
+  {
+    try
+    {
+      while ( this.closed == false )
+      {
+        this.selector.select( );
+
+        final Iterator< SelectionKey > iterator = this.selector.selectedKeys( ).iterator( );
+        while ( iterator.hasNext( ) == true )
+        {
+          final SelectionKey key = iterator.next( );
+          iterator.remove( );
+
+          if ( key.isValid( ) == true && key.isAcceptable( ) == true )
+            this.accept( );
+          if ( key.isValid( ) == true && key.isReadable( ) == true )
+            this.discard( key );
+          if ( key.isValid( ) == true && key.isWritable( ) == true )
+            this.send( key );
+        }
+
+        // Start every idle viewer on the newest frame:
+        final Frame frame = this.newest.get( );
+        if ( null != frame && frame.sequence != this.fannedSequence )
+        {
+          this.fannedSequence = frame.sequence;
+          for ( final SelectionKey key : this.selector.keys( ) )
+          {
+            final Viewer viewer = ( Viewer )key.attachment( );
+            if ( key.isValid( ) == true && null != viewer && null == viewer.frame )
+              this.send( key );
+          }
+        }
+      }
+    }
+    catch ( final IOException | ClosedSelectorException exception )
+    {
+      if ( this.closed == false )
+        this.log.warn( "Spectator server stopped: " + exception );
+    }
+    finally
+    {
+      this.shutdown( );
+    }
+  }
+
+  /**
+   * Gets the address listened on.
+   *
+   * @return Address.
+   * @throws IOException If the server is closed.
+   */
+  public InetSocketAddress getAddress( ) throws IOException
+  {
+    return ( InetSocketAddress )this.server.getLocalAddress( );
+  }
+
+  @Override
+  public void close( )
+  {
+    this.closed = true;
+    this.selector.wakeup( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Claims a frame buffer no viewer is sending, adding one if they're all in use.
+   *
+   * @return Frame, with the game loop as its only user.
+   */
+  private Frame claimFrame( )
+  {
+    for ( final Frame frame : this.frames )
+    {
+      if ( frame.users.compareAndSet( 0, 1 ) == true )
+        return frame;
+    }
+
+    final Frame frame = new Frame( );
+    frame.users.set( 1 );
+    this.frames.add( frame );
+    return frame;
+  }
+
+  /**
+   * Claims the newest frame for a viewer, if it is newer than the viewer's last.
+   *
+   * @param sequence - Number of the viewer's last frame.
+   * @return Frame, or null if there's no newer frame.
+   */
+  private Frame acquireFrame( final long sequence )
+  {
+    while ( true )
+    {
+      final Frame frame = this.newest.get( );
+      if ( null == frame )
+        return null;
+
+      // A frame with no users may already be being rewritten, so only join one still in use:
+      final int users = frame.users.get( );
+      if ( users == 0 || frame.users.compareAndSet( users, users + 1 ) == false )
+        continue;
+
+      // And only if it's still the newest, since it may have been reused and not yet published:
+      if ( this.newest.get( ) != frame )
+      {
+        frame.users.decrementAndGet( );
+        continue;
+      }
+
+      if ( frame.sequence <= sequence )
+      {
+        frame.users.decrementAndGet( );
+        return null;
+      }
+
+      return frame;
+    }
+  }
+
+  /**
+   * Accepts every waiting viewer.
+   *
+   * @throws IOException If the server socket fails.
+   */
+  private void accept( ) throws IOException
+  {
+    SocketChannel channel;
+    while ( ( channel = this.server.accept( ) ) != null )
+    {
+      channel.configureBlocking( false );
+      channel.socket( ).setTcpNoDelay( true );
+      channel.socket( ).setSendBufferSize( SpectatorServer.SendBufferSize );
+      channel.register( this.selector, SelectionKey.OP_READ, new Viewer( channel ) );
+      this.viewerCount.incrementAndGet( );
+    }
+  }
+
+  /**
+   * Sends a viewer as much of its frames as it will take without blocking, moving on to the newest frame each time it
+   * finishes one.
+   *
+   * @param key - Key of the viewer.
+   */
+  private void send( final SelectionKey key )
+  {
+    final Viewer viewer = ( Viewer )key.attachment( );
+    try
+    {
+      while ( true )
+      {
+        if ( null == viewer.frame )
+        {
+          final Frame frame = this.acquireFrame( viewer.sequence );
+          if ( null == frame )
+          {
+            key.interestOps( SelectionKey.OP_READ );
+            return;
+          }
+
+          if ( viewer.sequence >= 0 )
+            this.framesDropped.addAndGet( frame.sequence - viewer.sequence - 1 );
+          viewer.frame = frame;
+          viewer.remaining = frame.data.duplicate( );
+          viewer.sequence = frame.sequence;
+        }
+
+        viewer.channel.write( viewer.remaining );
+        if ( viewer.remaining.hasRemaining( ) == true )
+        {
+          key.interestOps( SelectionKey.OP_READ | SelectionKey.OP_WRITE );
+          return;
+        }
+
+        viewer.frame.users.decrementAndGet( );
+        viewer.frame = null;
+        viewer.remaining = null;
+        this.framesSent.incrementAndGet( );
+      }
+    }
+    catch ( final IOException exception )
+    {
+      this.disconnect( key );
+    }
+  }
+
+  /**
+   * Reads and ignores anything a viewer sends, disconnecting it once it hangs up.
+   *
+   * @param key - Key of the viewer.
+   */
+  private void discard( final SelectionKey key )
+  {
+    final Viewer viewer = ( Viewer )key.attachment( );
+    try
+    {
+      this.discard.clear( );
+      if ( viewer.channel.read( this.discard ) < 0 )
+        this.disconnect( key );
+    }
+    catch ( final IOException exception )
+    {
+      this.disconnect( key );
+    }
+  }
+
+  /**
+   * Disconnects a viewer, letting go of its frame.
+   *
+   * @param key - Key of the viewer.
+   */
+  private void disconnect( final SelectionKey key )
+  {
+    final Viewer viewer = ( Viewer )key.attachment( );
+    key.cancel( );
+    if ( null != viewer.frame )
+      viewer.frame.users.decrementAndGet( );
+    viewer.frame = null;
+    this.viewerCount.decrementAndGet( );
+
+    try
+    {
+      viewer.channel.close( );
+    }
+    catch ( final IOException exception )
+    {
+      // Already gone:
+    }
+  }
+
+  /**
+   * Disconnects every viewer and closes the server socket.
+   */
+  private void shutdown( )
+  {
+    try
+    {
+      for ( final SelectionKey key : this.selector.keys( ) )
+      {
+        if ( null != key.attachment( ) )
+          this.disconnect( key );
+      }
+      this.selector.close( );
+      this.server.close( );
+    }
+    catch ( final IOException | ClosedSelectorException exception )
+    {
+      this.log.warn( "Unable to close the spectator server: " + exception );
+    }
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Gets the number of viewers connected.
+   *
+   * @return Viewer count.
+   */
+  public int getViewerCount( )
+  {
+    return this.viewerCount.get( );
+  }
+
+  /**
+   * Gets the number of frames sent, counting each viewer separately.
+   *
+   * @return Frame count.
+   */
+  public long getFramesSent( )
+  {
+    return this.framesSent.get( );
+  }
+
+  /**
+   * Gets the number of frames skipped by viewers which couldn't keep up, counting each viewer separately.
+   *
+   * @return Frame count.
+   */
+  public long getFramesDropped( )
+  {
+    return this.framesDropped.get( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
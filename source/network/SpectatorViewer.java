@@ -0,0 +1,175 @@
+package com.bryanchacosky.core.network;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+import playn.core.Log;
+
+import com.bryanchacosky.core.headless.HeadlessLog;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Headless viewer of a {@link SpectatorServer}, standing in for a real display: it reads the broadcast frames one at a
+ * time and counts the frames the server dropped for it.
+ *
+ * Run with <code>java com.bryanchacosky.core.network.SpectatorViewer host port [viewers]</code> to watch with many
+ * viewers at once, each on a thread of its own, printing the frames received and dropped every second.
+ *
+ * @author Bryan Chacosky
+ */
+public class SpectatorViewer implements Closeable
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Socket to the server. */
+  private final SocketChannel channel;
+
+  /** Frame being read. */
+  private final ByteBuffer buffer = ByteBuffer.allocateDirect( SpectatorFrame.Size );
+
+  /** Number of the last frame read, or -1 before the first. */
+  private long sequence = -1;
+
+  /** Number of frames read. */
+  private long framesReceived = 0;
+
+  /** Number of frames the server dropped. */
+  private long framesDropped = 0;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a new viewer, connected to a server.
+   *
+   * @param server - Address of the server.
+   * @throws IOException If the server can't be reached.
+   */
+  public SpectatorViewer( final InetSocketAddress server ) throws IOException
+  {
+    this.channel = SocketChannel.open( server );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Reads the next frame, waiting for it to arrive.
+   *
+   * @param frame - Frame to read into.
+   * @return True if a frame was read, false once the server has hung up.
+   * @throws IOException If the connection fails or the broadcast can't be read.
+   */
+  public boolean read( final SpectatorFrame frame ) throws IOException
+  {
+    this.buffer.clear( );
+    while ( this.buffer.hasRemaining( ) == true )
+    {
+      if ( this.channel.read( this.buffer ) < 0 )
+        return false;
+    }
+
+    this.buffer.flip( );
+    if ( frame.read( this.buffer ) == false )
+      throw new IOException( "Unable to read the spectator broadcast" );
+
+    if ( this.sequence >= 0 )
+      this.framesDropped += frame.getSequence( ) - this.sequence - 1;
+    this.sequence = frame.getSequence( );
+    ++this.framesReceived;
+    return true;
+  }
+
+  @Override
+  public void close( ) throws IOException
+  {
+    this.channel.close( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Gets the number of frames read.
+   *
+   * @return Frame count.
+   */
+  public long getFramesReceived( )
+  {
+    return this.framesReceived;
+  }
+
+  /**
+   * Gets the number of frames the server dropped because this viewer couldn't keep up.
+   *
+   * @return Frame count.
+   */
+  public long getFramesDropped( )
+  {
+    return this.framesDropped;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Watches a server with one or more viewers until it hangs up.
+   *
+   * @param arguments - Host and port of the server, and optionally the number of viewers.
+   * @throws Exception If a viewer can't connect.
+   */
+  public static void main( final String[ ] arguments ) throws Exception
+  {
+    final Log log = new HeadlessLog( true );
+    final InetSocketAddress server = new InetSocketAddress( arguments[ 0 ], Integer.parseInt( arguments[ 1 ] ) );
+    final SpectatorViewer viewers[ ] = new SpectatorViewer[ arguments.length > 2 ? Integer.parseInt( arguments[ 2 ] ) : 1 ];
+    final Thread threads[ ] = new Thread[ viewers.length ];
+
+    for ( int i = 0; i != viewers.length; ++i )
+    {
+      final SpectatorViewer viewer = viewers[ i ] = new SpectatorViewer( server );
+      threads[ i ] = new Thread( new Runnable( )
+      {
+        @Override
+        public void run( )
+        {
+          final SpectatorFrame frame = new SpectatorFrame( );
+          try
+          {
+            while ( viewer.read( frame ) == true )
+              continue;
+          }
+          catch ( final IOException exception )
+          {
+            log.warn( "Viewer stopped: " + exception );
+          }
+        }
+      }, "SkyDiver spectator viewer " + i );
+      threads[ i ].setDaemon( true );
+      threads[ i ].start( );
+    }
+
+    // Report until every viewer has stopped; the counts are read without locking, so they're approximate:
+    boolean watching = true;
+    while ( watching == true )
+    {
+      Thread.sleep( 1000 );
+
+      long received = 0;
+      long dropped = 0;
+      watching = false;
+      for ( int i = 0; i != viewers.length; ++i )
+      {
+        received += viewers[ i ].getFramesReceived( );
+        dropped += viewers[ i ].getFramesDropped( );
+        watching |= threads[ i ].isAlive( );
+      }
+
+      System.out.println( viewers.length + " viewers: " + received + " frames received, " + dropped + " dropped" );
+    }
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
@@ -0,0 +1,111 @@
+package com.bryanchacosky.core.scores;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Score of a single completed round, as stored in the {@link HighScoreTable}.
+ *
+ * @author Bryan Chacosky
+ */
+public class HighScore
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Time the round was completed, in milliseconds since the epoch. */
+  private final long time;
+
+  /** Seed of the round, so that it can be replayed. */
+  private final long seed;
+
+  /** Score achieved. */
+  private final int score;
+
+  /** Best achievable score of the round. */
+  private final int best;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a new high score.
+   *
+   * @param time - Time the round was completed, in milliseconds since the epoch.
+   * @param seed - Seed of the round.
+   * @param score - Score achieved.
+   * @param best - Best achievable score of the round.
+   */
+  public HighScore( final long time, final long seed, final int score, final int best )
+  {
+    this.time = time;
+    this.seed = seed;
+    this.score = score;
+    this.best = best;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Gets the time the round was completed.
+   *
+   * @return Time, in milliseconds since the epoch.
+   */
+  public long getTime( )
+  {
+    return this.time;
+  }
+
+  /**
+   * Gets the seed of the round.
+   *
+   * @return Seed.
+   */
+  public long getSeed( )
+  {
+    return this.seed;
+  }
+
+  /**
+   * Gets the score achieved.
+   *
+   * @return Score.
+   */
+  public int getScore( )
+  {
+    return this.score;
+  }
+
+  /**
+   * Gets the best achievable score of the round.
+   *
+   * @return Best score.
+   */
+  public int getBest( )
+  {
+    return this.best;
+  }
+
+  /**
+   * Checks if the score ranks above another: higher scores rank first, and the earlier of two equal scores.
+   *
+   * @param other - Other score.
+   * @return True if this score ranks above the other.
+   */
+  public boolean ranksAbove( final HighScore other )
+  {
+    if ( this.score != other.score )
+      return this.score > other.score;
+
+    return this.time < other.time;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public String toString( )
+  {
+    return this.score + " of " + this.best + " (seed " + this.seed + ")";
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
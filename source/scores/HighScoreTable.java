@@ -0,0 +1,502 @@
+package com.bryanchacosky.core.scores;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import playn.core.Log;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Local high-score store, kept in a memory-mapped file of fixed-size records so that scores survive the game without
+ * a database.  Every completed round is appended to the file, and the best {@value #TopCount} scores are kept in
+ * memory as a sorted array which is replaced on every change, so reading the leaderboard never waits on an insert.
+ *
+ * Records are appended and committed in place: the fields and their checksum are written first, and the commit
+ * marker last.  When the file is opened the records are read back up to the first one which isn't committed or
+ * doesn't match its checksum, so a crash part way through a write loses at most that record.  Writes go to the page
+ * cache, which survives the process dying; {@link #flush()} forces them to disk as well.
+ *
+ * Inserts are synchronized and cost a few memory writes, so a table takes thousands of scores per second from
+ * sessions running side by side.  A flush only holds the table's lock long enough to pick up the current mapping, and
+ * forces it outside the lock, so an insert from the game thread never waits on the disk.  When the file grows, the
+ * old mapping is kept until the next flush has forced it and is then unmapped, rather than left for the collector.
+ *
+ * The file is locked while the table is open, so a second process (or a second table in the same VM) can't append to
+ * it at the same time.
+ *
+ * @author Bryan Chacosky
+ */
+public class HighScoreTable implements Closeable
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** File the default table is kept in. */
+  public static final String DefaultPath = System.getProperty( "skydiver.scores", "skydiver-scores.dat" );
+
+  /** Number of scores kept on the leaderboard. */
+  public static final int TopCount = 10;
+
+  /** Records the file grows by once it is full. */
+  public static final int GrowthRecords = 65536;
+
+  /** Identifies a high score file = "SKYD". */
+  private static final int Magic = 0x534B5944;
+
+  /** Version of the file layout. */
+  private static final int Version = 1;
+
+  /** Size of the file header: magic, version, record size and a reserved word. */
+  private static final int HeaderSize = 16;
+
+  /** Size of a record: time, seed, score, best, checksum and commit marker. */
+  private static final int RecordSize = 32;
+
+  /** Written last to commit a record = "SCOR". */
+  private static final int CommitMarker = 0x53434F52;
+
+  /** Most records a single mapping can address. */
+  private static final int MaxRecords = ( Integer.MAX_VALUE - HighScoreTable.HeaderSize ) / HighScoreTable.RecordSize;
+
+  /** Default table shared by every session, opened on first use. */
+  private static HighScoreTable defaultTable = null;
+
+  /** True once the default table failed to open, so that it isn't retried every round. */
+  private static boolean defaultFailed = false;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Channel of the file. */
+  private final FileChannel channel;
+
+  /** Lock held on the file while the table is open. */
+  private final FileLock lock;
+
+  /** Serializes flushes, so that a mapping is never unmapped while another flush is forcing it.  Taken before the
+   * table's own lock. */
+  private final Object flushLock = new Object( );
+
+  /** Mapping of the whole file, or null once closed. */
+  private MappedByteBuffer buffer;
+
+  /** Mappings replaced as the file grew, unmapped by the next flush. */
+  private List< MappedByteBuffer > retired = new ArrayList< MappedByteBuffer >( );
+
+  /** Number of records the mapping holds. */
+  private int capacity;
+
+  /** Number of committed records. */
+  private int count = 0;
+
+  /** Best scores, highest first.  Replaced rather than modified, so that readers don't need a lock. */
+  private volatile HighScore[ ] top = new HighScore[ 0 ];
+
+  /** Checksum of the record being written or read. */
+  private final CRC32 checksum = new CRC32( );
+
+  /** Scratch buffer holding the checksummed fields of a record. */
+  private final ByteBuffer scratch = ByteBuffer.allocate( 24 );
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Opens the default table at {@link #DefaultPath}, shared by every session in the VM and flushed when the VM exits.
+   *
+   * @param log - Log to report a failure to.
+   * @return Default table, or null if it couldn't be opened.
+   */
+  public static synchronized HighScoreTable getDefault( final Log log )
+  {
+    if ( null == HighScoreTable.defaultTable && HighScoreTable.defaultFailed == false )
+    {
+      try
+      {
+        final HighScoreTable table = HighScoreTable.open( HighScoreTable.DefaultPath );
+        Runtime.getRuntime( ).addShutdownHook( new Thread( "SkyDiver high scores" )
+        {
+          @Override
+          public void run( )
+          {
+            table.flush( );
+          }
+        });
+        HighScoreTable.defaultTable = table;
+      }
+      catch ( final IOException exception )
+      {
+        HighScoreTable.defaultFailed = true;
+        log.warn( "Unable to open the high score table: " + exception );
+      }
+    }
+
+    return HighScoreTable.defaultTable;
+  }
+
+  /**
+   * Opens a table, creating the file if it doesn't exist.
+   *
+   * @param path - Path of the file.
+   * @return Table.
+   * @throws IOException If the file can't be opened, or isn't a high score file.
+   */
+  public static HighScoreTable open( final String path ) throws IOException
+  {
+    final FileChannel channel = FileChannel.open( Paths.get( path ), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE );
+    try
+    {
+      return new HighScoreTable( channel );
+    }
+    catch ( final IOException exception )
+    {
+      channel.close( );
+      throw exception;
+    }
+  }
+
+  /**
+   * Instantiates a table over an open file, reading back its committed records.
+   *
+   * @param channel - Channel of the file.
+   * @throws IOException If the file can't be mapped, or isn't a high score file.
+   */
+  private HighScoreTable( final FileChannel channel ) throws IOException
+  {
+    this.channel = channel;
+    this.lock = HighScoreTable.lock( channel );
+
+    final long size = channel.size( );
+    final boolean created = size == 0;
+    final long records = Math.max( 0, size - HighScoreTable.HeaderSize ) / HighScoreTable.RecordSize;
+    this.map( ( int )Math.min( HighScoreTable.MaxRecords, Math.max( records, HighScoreTable.GrowthRecords ) ) );
+
+    if ( created == true )
+    {
+      this.buffer.putInt( 0, HighScoreTable.Magic );
+      this.buffer.putInt( 4, HighScoreTable.Version );
+      this.buffer.putInt( 8, HighScoreTable.RecordSize );
+    }
+    else if ( this.buffer.getInt( 0 ) != HighScoreTable.Magic || this.buffer.getInt( 4 ) != HighScoreTable.Version || this.buffer.getInt( 8 ) != HighScoreTable.RecordSize )
+    {
+      throw new IOException( "Not a high score file" );
+    }
+
+    // Read back every committed record, rebuilding the leaderboard:
+    final HighScore[ ] top = new HighScore[ HighScoreTable.TopCount ];
+    int topSize = 0;
+    while ( this.count != this.capacity )
+    {
+      final HighScore score = this.read( this.count );
+      if ( null == score )
+        break;
+
+      ++this.count;
+      topSize = HighScoreTable.insert( top, topSize, score );
+    }
+
+    this.top = Arrays.copyOf( top, topSize );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Appends a score and commits it.
+   *
+   * @param score - Score.
+   * @return Rank of the score on the leaderboard, starting at 1, or 0 if it didn't make the leaderboard.
+   * @throws IOException If the file couldn't grow to hold the score.
+   */
+  public synchronized int add( final HighScore score ) throws IOException
+  {
+    assert score != null : "Cannot add a null score!";
+
+    if ( null == this.buffer )
+      throw new IOException( "High score table is closed" );
+
+    if ( this.count == this.capacity )
+    {
+      if ( this.capacity == HighScoreTable.MaxRecords )
+        throw new IOException( "High score file is full" );
+
+      this.map( ( int )Math.min( HighScoreTable.MaxRecords, ( long )this.capacity + HighScoreTable.GrowthRecords ) );
+    }
+
+    // Write the fields and checksum, then commit:
+    final int offset = HighScoreTable.HeaderSize + this.count * HighScoreTable.RecordSize;
+    this.buffer.putLong( offset, score.getTime( ) );
+    this.buffer.putLong( offset + 8, score.getSeed( ) );
+    this.buffer.putInt( offset + 16, score.getScore( ) );
+    this.buffer.putInt( offset + 20, score.getBest( ) );
+    this.buffer.putInt( offset + 24, this.checksum( score.getTime( ), score.getSeed( ), score.getScore( ), score.getBest( ) ) );
+    this.buffer.putInt( offset + 28, HighScoreTable.CommitMarker );
+    ++this.count;
+
+    // Publish a new leaderboard if the score made it:
+    final HighScore[ ] current = this.top;
+    if ( current.length == HighScoreTable.TopCount && current[ current.length - 1 ].ranksAbove( score ) == true )
+      return 0;
+
+    final HighScore[ ] top = Arrays.copyOf( current, HighScoreTable.TopCount );
+    final int topSize = HighScoreTable.insert( top, current.length, score );
+    this.top = Arrays.copyOf( top, topSize );
+
+    return Arrays.asList( this.top ).indexOf( score ) + 1;
+  }
+
+  /**
+   * Gets the leaderboard.  Never waits on an insert.
+   *
+   * @return Best scores, highest first.
+   */
+  public List< HighScore > getTop( )
+  {
+    return Collections.unmodifiableList( Arrays.asList( this.top ) );
+  }
+
+  /**
+   * Gets a stored score.
+   *
+   * @param index - Index of the score, in the order the scores were added.
+   * @return Score.
+   */
+  public synchronized HighScore get( final int index )
+  {
+    assert null != this.buffer : "Cannot get a score from a closed table!";
+    assert index >= 0 && index < this.count : "Cannot get a score which isn't stored!";
+    return this.read( index );
+  }
+
+  /**
+   * Gets the number of scores stored.
+   *
+   * @return Score count.
+   */
+  public synchronized int size( )
+  {
+    return this.count;
+  }
+
+  /**
+   * Forces the committed scores to disk, then unmaps the mappings replaced since the last flush.  Scores added while
+   * the mapping is forced aren't waited on, and are forced by the next flush.
+   */
+  public void flush( )
+  {
+    synchronized ( this.flushLock )
+    {
+      final MappedByteBuffer buffer;
+      final List< MappedByteBuffer > retired;
+      synchronized ( this )
+      {
+        buffer = this.buffer;
+        retired = this.retire( );
+      }
+
+      HighScoreTable.force( buffer, retired );
+    }
+  }
+
+  @Override
+  public void close( ) throws IOException
+  {
+    synchronized ( this.flushLock )
+    {
+      final MappedByteBuffer buffer;
+      final List< MappedByteBuffer > retired;
+      synchronized ( this )
+      {
+        buffer = this.buffer;
+        retired = this.retire( );
+        this.buffer = null;
+      }
+
+      HighScoreTable.force( buffer, retired );
+      if ( null != buffer )
+      {
+        HighScoreTable.unmap( buffer );
+        this.lock.release( );
+        this.channel.close( );
+      }
+    }
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Maps the file, growing it to hold a number of records.
+   *
+   * @param capacity - Number of records.
+   * @throws IOException If the file can't be mapped.
+   */
+  private void map( final int capacity ) throws IOException
+  {
+    final MappedByteBuffer buffer = this.channel.map( FileChannel.MapMode.READ_WRITE, 0, HighScoreTable.HeaderSize + ( long )capacity * HighScoreTable.RecordSize );
+    if ( null != this.buffer )
+      this.retired.add( this.buffer );
+
+    this.buffer = buffer;
+    this.capacity = capacity;
+  }
+
+  /**
+   * Takes the mappings replaced since the last flush.  Only call while holding the table's lock.
+   *
+   * @return Replaced mappings.
+   */
+  private List< MappedByteBuffer > retire( )
+  {
+    if ( this.retired.isEmpty( ) == true )
+      return Collections.emptyList( );
+
+    final List< MappedByteBuffer > retired = this.retired;
+    this.retired = new ArrayList< MappedByteBuffer >( );
+    return retired;
+  }
+
+  /**
+   * Reads a record.
+   *
+   * @param index - Index of the record.
+   * @return Score, or null if the record isn't committed or doesn't match its checksum.
+   */
+  private HighScore read( final int index )
+  {
+    final int offset = HighScoreTable.HeaderSize + index * HighScoreTable.RecordSize;
+    if ( this.buffer.getInt( offset + 28 ) != HighScoreTable.CommitMarker )
+      return null;
+
+    final long time = this.buffer.getLong( offset );
+    final long seed = this.buffer.getLong( offset + 8 );
+    final int score = this.buffer.getInt( offset + 16 );
+    final int best = this.buffer.getInt( offset + 20 );
+    if ( this.buffer.getInt( offset + 24 ) != this.checksum( time, seed, score, best ) )
+      return null;
+
+    return new HighScore( time, seed, score, best );
+  }
+
+  /**
+   * Computes the checksum of a record's fields.
+   *
+   * @param time - Time.
+   * @param seed - Seed.
+   * @param score - Score.
+   * @param best - Best score.
+   * @return Checksum.
+   */
+  private int checksum( final long time, final long seed, final int score, final int best )
+  {
+    this.scratch.clear( );
+    this.scratch.putLong( time ).putLong( seed ).putInt( score ).putInt( best );
+    this.scratch.flip( );
+
+    this.checksum.reset( );
+    this.checksum.update( this.scratch );
+    return ( int )this.checksum.getValue( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Takes an exclusive lock on a high score file.
+   *
+   * @param channel - Channel of the file.
+   * @return Lock.
+   * @throws IOException If the file is locked by another process or another table in this VM.
+   */
+  private static FileLock lock( final FileChannel channel ) throws IOException
+  {
+    final FileLock lock;
+    try
+    {
+      lock = channel.tryLock( );
+    }
+    catch ( final OverlappingFileLockException exception )
+    {
+      throw new IOException( "High score file is already open in this VM" );
+    }
+
+    if ( null == lock )
+      throw new IOException( "High score file is in use by another process" );
+
+    return lock;
+  }
+
+  /**
+   * Forces the current mapping and the replaced mappings to disk, and unmaps the replaced mappings.  Called outside the
+   * table's lock.
+   *
+   * @param buffer - Current mapping, or null once closed.
+   * @param retired - Replaced mappings.
+   */
+  private static void force( final MappedByteBuffer buffer, final List< MappedByteBuffer > retired )
+  {
+    if ( null != buffer )
+      buffer.force( );
+
+    for ( final MappedByteBuffer mapping : retired )
+    {
+      mapping.force( );
+      HighScoreTable.unmap( mapping );
+    }
+  }
+
+  /**
+   * Unmaps a mapping straight away.  Java 8 offers no way to, in which case the mapping is unmapped once the buffer is
+   * collected.
+   *
+   * @param buffer - Mapping, which must never be touched again.
+   */
+  private static void unmap( final MappedByteBuffer buffer )
+  {
+    try
+    {
+      final Class< ? > unsafeClass = Class.forName( "sun.misc.Unsafe" );
+      final Field field = unsafeClass.getDeclaredField( "theUnsafe" );
+      field.setAccessible( true );
+      unsafeClass.getMethod( "invokeCleaner", ByteBuffer.class ).invoke( field.get( null ), buffer );
+    }
+    catch ( final ReflectiveOperationException | RuntimeException exception )
+    {
+      // Left for the collector:
+    }
+  }
+
+  /**
+   * Inserts a score into a sorted leaderboard, dropping the lowest score if the leaderboard is full.
+   *
+   * @param top - Leaderboard, highest first, with room for {@link #TopCount} scores.
+   * @param size - Number of scores on the leaderboard.
+   * @param score - Score.
+   * @return New number of scores on the leaderboard.
+   */
+  private static int insert( final HighScore[ ] top, final int size, final HighScore score )
+  {
+    int index = size;
+    while ( index != 0 && score.ranksAbove( top[ index - 1 ] ) == true )
+      --index;
+
+    if ( index == top.length )
+      return size;
+
+    System.arraycopy( top, index, top, index + 1, Math.min( size, top.length - 1 ) - index );
+    top[ index ] = score;
+    return Math.min( size + 1, top.length );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
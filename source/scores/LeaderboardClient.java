@@ -0,0 +1,218 @@
+package com.bryanchacosky.core.scores;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import playn.core.Log;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Submits scores to a {@link LeaderboardServer} in the background, so that a round never waits on the network.  Scores
+ * are queued and sent one at a time by a thread of the client's own; if the server falls {@value #QueueCapacity} scores
+ * behind, new scores are dropped and reported rather than queued.
+ *
+ * The default client submits to the server named by the <code>skydiver.leaderboard</code> system property, such as
+ * <code>http://scores.local:8321</code>.  Without it, scores are only kept locally.
+ *
+ * @author Bryan Chacosky
+ */
+public class LeaderboardClient
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Address of the default server, or null to submit nowhere. */
+  public static final String DefaultAddress = System.getProperty( "skydiver.leaderboard" );
+
+  /** Most scores waiting to be submitted. */
+  public static final int QueueCapacity = 64;
+
+  /** Time to wait on the server, in milliseconds. */
+  public static final int Timeout = 2000;
+
+  /** Default client shared by every session, created on first use. */
+  private static LeaderboardClient defaultClient = null;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Receives the rank the server gave a score.  Called on the client's thread.
+   */
+  public static interface Callback
+  {
+    /**
+     * Called once the server has stored the score.
+     *
+     * @param score - Score submitted.
+     * @param rank - Rank of the score on the leaderboard, starting at 1.
+     */
+    public void onRanked( final HighScore score, final int rank );
+  };
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Address scores are posted to. */
+  private final URL submitUrl;
+
+  /** Log to report failures to. */
+  private final Log log;
+
+  /** Sends the queued scores, one at a time. */
+  private final ThreadPoolExecutor executor;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Gets the default client, submitting to {@link #DefaultAddress}.
+   *
+   * @param log - Log to report failures to.
+   * @return Default client, or null if no server is configured.
+   */
+  public static synchronized LeaderboardClient getDefault( final Log log )
+  {
+    if ( null == LeaderboardClient.defaultClient && null != LeaderboardClient.DefaultAddress )
+    {
+      try
+      {
+        LeaderboardClient.defaultClient = new LeaderboardClient( LeaderboardClient.DefaultAddress, log );
+      }
+      catch ( final IOException exception )
+      {
+        log.warn( "Invalid leaderboard address " + LeaderboardClient.DefaultAddress + ": " + exception );
+      }
+    }
+
+    return LeaderboardClient.defaultClient;
+  }
+
+  /**
+   * Instantiates a new client.
+   *
+   * @param address - Address of the server, such as <code>http://localhost:8321</code>.
+   * @param log - Log to report failures to.
+   * @throws IOException If the address isn't a URL.
+   */
+  public LeaderboardClient( final String address, final Log log ) throws IOException
+  {
+    this.submitUrl = new URL( new URL( address ), "/scores" );
+    this.log = log;
+    this.executor = new ThreadPoolExecutor( 1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue< Runnable >( LeaderboardClient.QueueCapacity ), new ThreadFactory( )
+    {
+      @Override
+      public Thread newThread( final Runnable runnable )
+      {
+        final Thread thread = new Thread( runnable, "SkyDiver leaderboard client" );
+        thread.setDaemon( true );
+        return thread;
+      }
+    }, new RejectedExecutionHandler( )
+    {
+      @Override
+      public void rejectedExecution( final Runnable runnable, final ThreadPoolExecutor executor )
+      {
+        LeaderboardClient.this.log.warn( "Leaderboard is falling behind; dropping a score" );
+      }
+    });
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Submits a score in the background.  Returns straight away.
+   *
+   * @param score - Score.
+   * @param callback - Receives the rank of the score, or null.
+   */
+  public void submit( final HighScore score, final Callback callback )
+  {
+    assert score != null : "Cannot submit a null score!";
+
+    this.executor.execute( new Runnable( )
+    {
+      @Override
+      public void run( )
+      {
+        try
+        {
+          final int rank = LeaderboardClient.this.post( score );
+          if ( null != callback )
+            callback.onRanked( score, rank );
+        }
+        catch ( final IOException exception )
+        {
+          LeaderboardClient.this.log.warn( "Unable to submit the score to the leaderboard: " + exception );
+        }
+      }
+    });
+  }
+
+  /**
+   * Stops the client once the queued scores are sent.
+   */
+  public void shutdown( )
+  {
+    this.executor.shutdown( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Posts a score to the server.
+   *
+   * @param score - Score.
+   * @return Rank of the score.
+   * @throws IOException If the server can't be reached or refuses the score.
+   */
+  private int post( final HighScore score ) throws IOException
+  {
+    final byte[ ] body = ( "score=" + score.getScore( ) + "&best=" + score.getBest( ) + "&seed=" + score.getSeed( ) ).getBytes( StandardCharsets.UTF_8 );
+
+    final HttpURLConnection connection = ( HttpURLConnection )this.submitUrl.openConnection( );
+    try
+    {
+      connection.setRequestMethod( "POST" );
+      connection.setConnectTimeout( LeaderboardClient.Timeout );
+      connection.setReadTimeout( LeaderboardClient.Timeout );
+      connection.setDoOutput( true );
+      connection.setFixedLengthStreamingMode( body.length );
+      connection.setRequestProperty( "Content-Type", "application/x-www-form-urlencoded" );
+
+      final OutputStream output = connection.getOutputStream( );
+      output.write( body );
+      output.close( );
+
+      if ( connection.getResponseCode( ) != HttpURLConnection.HTTP_OK )
+        throw new IOException( "Leaderboard answered " + connection.getResponseCode( ) );
+
+      final InputStream input = connection.getInputStream( );
+      final StringBuilder text = new StringBuilder( );
+      int read;
+      while ( ( read = input.read( ) ) != -1 )
+        text.append( ( char )read );
+      input.close( );
+
+      return Integer.parseInt( text.toString( ).trim( ) );
+    }
+    catch ( final NumberFormatException exception )
+    {
+      throw new IOException( "Leaderboard answered an invalid rank" );
+    }
+    finally
+    {
+      connection.disconnect( );
+    }
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
@@ -0,0 +1,491 @@
+package com.bryanchacosky.core.scores;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import playn.core.Log;
+
+import com.bryanchacosky.core.headless.HeadlessLog;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Embedded HTTP leaderboard, which game cabinets on the local network submit their scores to through a
+ * {@link LeaderboardClient}.  Every request runs on a thread of its own, so a slow client or a request waiting for its
+ * score to reach the disk never holds up another.  Scores are ranked by a {@link RankingIndex} and stored in a
+ * {@link HighScoreTable}, whose file is forced to disk by a single flusher thread: every score accepted while one
+ * flush runs is covered by the next, so the cost of a flush is shared by however many scores arrived meanwhile.  A
+ * submission is only ranked, and so only shows up in the top scores and ranks served, once its score is on disk, and
+ * is acknowledged straight after.
+ *
+ * The service answers plain text:
+ *
+ * <pre>
+ * POST /scores           score=&lt;n&gt;&amp;best=&lt;n&gt;&amp;seed=&lt;n&gt;   rank of the score
+ * GET  /scores/top?count=&lt;n&gt;                        one "score best seed time" line per score, highest first
+ * GET  /scores/rank?score=&lt;n&gt;                       rank a new score would have
+ * </pre>
+ *
+ * Run with <code>java com.bryanchacosky.core.scores.LeaderboardServer [port] [file]</code>.  The scores are kept in
+ * {@link #DefaultPath} unless a file is given, apart from the game's own {@link HighScoreTable#DefaultPath table},
+ * which a game running on the same machine keeps open.
+ *
+ * @author Bryan Chacosky
+ */
+public class LeaderboardServer implements Closeable
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Port served by default, from the <code>skydiver.leaderboard.port</code> system property. */
+  public static final int DefaultPort = Integer.getInteger( "skydiver.leaderboard.port", 8321 );
+
+  /** File the scores are kept in by default, from the <code>skydiver.leaderboard.scores</code> system property. */
+  public static final String DefaultPath = System.getProperty( "skydiver.leaderboard.scores", "skydiver-leaderboard.dat" );
+
+  /** Most scores returned by a single top scores query. */
+  public static final int MaxTopCount = 1000;
+
+  /** Number of scores returned by a top scores query without a count. */
+  public static final int DefaultTopCount = HighScoreTable.TopCount;
+
+  /** Largest request body read, in bytes. */
+  private static final int MaxBodySize = 1024;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Thread forcing accepted scores to disk in batches.
+   */
+  private final class Flusher extends Thread
+  {
+    /** Number of scores accepted. */
+    private long accepted = 0;
+
+    /** Number of scores on disk. */
+    private long flushed = 0;
+
+    /** Set once the server is closing. */
+    private boolean stopping = false;
+
+    /**
+     * Instantiates a new flusher.
+     */
+    Flusher( )
+    {
+      super( "SkyDiver leaderboard flusher" );
+      super.setDaemon( true );
+    }
+
+    /**
+     * Notes that a score was accepted.
+     *
+     * @return Number of scores which must be on disk for this one to be.
+     */
+    synchronized long accept( )
+    {
+      this.notifyAll( );
+      return ++this.accepted;
+    }
+
+    /**
+     * Waits for a score to reach the disk.
+     *
+     * @param ticket - Number returned by {@link #accept()} for the score.
+     * @return True once the score is on disk, or false if the server closed first.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    synchronized boolean await( final long ticket ) throws InterruptedException
+    {
+      while ( this.flushed < ticket && this.stopping == false )
+        this.wait( );
+      return this.flushed >= ticket;
+    }
+
+    /**
+     * Flushes the remaining scores and stops.
+     */
+    void shutdown( )
+    {
+      synchronized ( this )
+      {
+        this.stopping = true;
+        this.notifyAll( );
+      }
+
+      try
+      {
+        this.join( 1000 );
+      }
+      catch ( final InterruptedException exception )
+      {
+        Thread.currentThread( ).interrupt( );
+      }
+    }
+
+    @Override
+    public void run( )
+    {
+      while ( true )
+      {
+        // Wait for scores to flush:
+        final long target;
+        synchronized ( this )
+        {
+          while ( this.accepted == this.flushed && this.stopping == false )
+          {
+            try
+            {
+              this.wait( );
+            }
+            catch ( final InterruptedException exception )
+            {
+              return;
+            }
+          }
+
+          if ( this.accepted == this.flushed )
+            return;
+
+          target = this.accepted;
+        }
+
+        // Flush every score accepted so far in one go:
+        LeaderboardServer.this.table.flush( );
+
+        synchronized ( this )
+        {
+          this.flushed = target;
+          this.notifyAll( );
+        }
+      }
+    }
+  };
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Table the scores are stored in. */
+  private final HighScoreTable table;
+
+  /** Ranking of the stored scores. */
+  private final RankingIndex index = new RankingIndex( );
+
+  /** Log to report failures to. */
+  private final Log log;
+
+  /** HTTP server. */
+  private final HttpServer server;
+
+  /** Runs each request on a thread of its own. */
+  private final ExecutorService requests;
+
+  /** Forces accepted scores to disk. */
+  private final Flusher flusher = new Flusher( );
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a new server over a table, ranking the scores already stored.  Call {@link #start()} to serve.
+   *
+   * @param table - Table the scores are stored in.
+   * @param address - Address to serve on; port 0 picks a free port.
+   * @param log - Log to report failures to.
+   * @throws IOException If the address can't be bound.
+   */
+  public LeaderboardServer( final HighScoreTable table, final InetSocketAddress address, final Log log ) throws IOException
+  {
+    this.table = table;
+    this.log = log;
+
+    for ( int i = 0; i != table.size( ); ++i )
+      this.index.add( table.get( i ) );
+
+    this.requests = Executors.newCachedThreadPool( new ThreadFactory( )
+    {
+      /** Number of the next thread. */
+      private final AtomicInteger number = new AtomicInteger( 1 );
+
+      @Override
+      public Thread newThread( final Runnable runnable )
+      {
+        final Thread thread = new Thread( runnable, "SkyDiver leaderboard request " + this.number.getAndIncrement( ) );
+        thread.setDaemon( true );
+        return thread;
+      }
+    });
+
+    this.server = HttpServer.create( address, 0 );
+    this.server.setExecutor( this.requests );
+    this.server.createContext( "/scores", new HttpHandler( )
+    {
+      @Override
+      public void handle( final HttpExchange exchange ) throws IOException
+      {
+        LeaderboardServer.this.handle( exchange );
+      }
+    });
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Starts serving.
+   */
+  public void start( )
+  {
+    this.flusher.start( );
+    this.server.start( );
+  }
+
+  /**
+   * Gets the address served on.
+   *
+   * @return Address.
+   */
+  public InetSocketAddress getAddress( )
+  {
+    return this.server.getAddress( );
+  }
+
+  /**
+   * Gets the ranking of the stored scores.
+   *
+   * @return Ranking index.
+   */
+  public RankingIndex getIndex( )
+  {
+    return this.index;
+  }
+
+  /**
+   * Stops serving and flushes the remaining scores.  The table is left open.
+   */
+  @Override
+  public void close( )
+  {
+    this.server.stop( 0 );
+    this.requests.shutdown( );
+    this.flusher.shutdown( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Answers a request.
+   *
+   * @param exchange - Request and response.
+   * @throws IOException If the response can't be sent.
+   */
+  private void handle( final HttpExchange exchange ) throws IOException
+  {
+    try
+    {
+      final String path = exchange.getRequestURI( ).getPath( );
+      final String method = exchange.getRequestMethod( );
+      final Map< String, String > query = LeaderboardServer.parse( exchange.getRequestURI( ).getRawQuery( ) );
+
+      if ( path.equals( "/scores" ) == true && method.equals( "POST" ) == true )
+        this.submit( exchange );
+      else if ( path.equals( "/scores/top" ) == true && method.equals( "GET" ) == true )
+        this.top( exchange, LeaderboardServer.getInt( query, "count", LeaderboardServer.DefaultTopCount ) );
+      else if ( path.equals( "/scores/rank" ) == true && method.equals( "GET" ) == true )
+        LeaderboardServer.respond( exchange, 200, this.index.rank( LeaderboardServer.getInt( query, "score", 0 ) ) + "\n" );
+      else
+        LeaderboardServer.respond( exchange, 404, "Not found\n" );
+    }
+    catch ( final NumberFormatException exception )
+    {
+      LeaderboardServer.respond( exchange, 400, "Bad request\n" );
+    }
+    finally
+    {
+      exchange.close( );
+    }
+  }
+
+  /**
+   * Stores a submitted score, then ranks it and answers with its rank once it is on disk.
+   *
+   * @param exchange - Request and response.
+   * @throws IOException If the response can't be sent.
+   */
+  private void submit( final HttpExchange exchange ) throws IOException
+  {
+    final Map< String, String > form = LeaderboardServer.parse( LeaderboardServer.readBody( exchange.getRequestBody( ) ) );
+    final int score = LeaderboardServer.getInt( form, "score", 0 );
+    final int best = LeaderboardServer.getInt( form, "best", 0 );
+    final long seed = form.containsKey( "seed" ) ? Long.parseLong( form.get( "seed" ) ) : 0;
+    if ( score <= 0 || best < 0 )
+    {
+      LeaderboardServer.respond( exchange, 400, "Bad score\n" );
+      return;
+    }
+
+    final HighScore highScore = new HighScore( System.currentTimeMillis( ), seed, score, best );
+    final long ticket;
+    try
+    {
+      this.table.add( highScore );
+      ticket = this.flusher.accept( );
+    }
+    catch ( final IOException exception )
+    {
+      this.log.warn( "Unable to store a leaderboard score: " + exception );
+      LeaderboardServer.respond( exchange, 500, "Unable to store the score\n" );
+      return;
+    }
+
+    try
+    {
+      if ( this.flusher.await( ticket ) == false )
+      {
+        LeaderboardServer.respond( exchange, 503, "Shutting down\n" );
+        return;
+      }
+    }
+    catch ( final InterruptedException exception )
+    {
+      Thread.currentThread( ).interrupt( );
+      LeaderboardServer.respond( exchange, 503, "Shutting down\n" );
+      return;
+    }
+
+    // Only rank the score once it's durable, so that the leaderboard never serves a score which a crash would lose:
+    final int rank = this.index.add( highScore );
+    LeaderboardServer.respond( exchange, 200, rank + "\n" );
+  }
+
+  /**
+   * Answers with the top scores.
+   *
+   * @param exchange - Request and response.
+   * @param count - Number of scores requested.
+   * @throws IOException If the response can't be sent.
+   */
+  private void top( final HttpExchange exchange, final int count ) throws IOException
+  {
+    final StringBuilder builder = new StringBuilder( );
+    for ( final HighScore score : this.index.getTop( Math.max( 0, Math.min( count, LeaderboardServer.MaxTopCount ) ) ) )
+      builder.append( score.getScore( ) ).append( ' ' ).append( score.getBest( ) ).append( ' ' ).append( score.getSeed( ) ).append( ' ' ).append( score.getTime( ) ).append( '\n' );
+    LeaderboardServer.respond( exchange, 200, builder.toString( ) );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Sends a plain text response.
+   *
+   * @param exchange - Request and response.
+   * @param status - HTTP status code.
+   * @param text - Response body.
+   * @throws IOException If the response can't be sent.
+   */
+  private static void respond( final HttpExchange exchange, final int status, final String text ) throws IOException
+  {
+    final byte[ ] body = text.getBytes( StandardCharsets.UTF_8 );
+    exchange.getResponseHeaders( ).set( "Content-Type", "text/plain; charset=utf-8" );
+    exchange.sendResponseHeaders( status, body.length );
+
+    final OutputStream output = exchange.getResponseBody( );
+    output.write( body );
+    output.close( );
+  }
+
+  /**
+   * Reads a request body, up to {@link #MaxBodySize} bytes.
+   *
+   * @param input - Request body.
+   * @return Body text.
+   * @throws IOException If the body can't be read.
+   */
+  private static String readBody( final InputStream input ) throws IOException
+  {
+    final ByteArrayOutputStream body = new ByteArrayOutputStream( );
+    final byte[ ] buffer = new byte[ 256 ];
+    int read;
+    while ( body.size( ) < LeaderboardServer.MaxBodySize && ( read = input.read( buffer ) ) != -1 )
+      body.write( buffer, 0, read );
+    return new String( body.toByteArray( ), StandardCharsets.UTF_8 );
+  }
+
+  /**
+   * Parses URL encoded name/value pairs.
+   *
+   * @param text - Encoded pairs, or null.
+   * @return Values by name.
+   * @throws IOException If the text isn't URL encoded.
+   */
+  private static Map< String, String > parse( final String text ) throws IOException
+  {
+    final Map< String, String > values = new HashMap< String, String >( );
+    if ( null == text )
+      return values;
+
+    for ( final String pair : text.trim( ).split( "&" ) )
+    {
+      final int separator = pair.indexOf( '=' );
+      if ( separator > 0 )
+        values.put( URLDecoder.decode( pair.substring( 0, separator ), "UTF-8" ), URLDecoder.decode( pair.substring( separator + 1 ), "UTF-8" ) );
+    }
+    return values;
+  }
+
+  /**
+   * Gets a whole number value.
+   *
+   * @param values - Values by name.
+   * @param name - Name of the value.
+   * @param defaultValue - Value if there is none.
+   * @return Value.
+   * @throws NumberFormatException If the value isn't a whole number.
+   */
+  private static int getInt( final Map< String, String > values, final String name, final int defaultValue )
+  {
+    final String value = values.get( name );
+    return null == value ? defaultValue : Integer.parseInt( value );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Serves the leaderboard until the VM exits.
+   *
+   * @param arguments - Optional port, then the optional path of the score file.
+   * @throws IOException If the server can't start.
+   */
+  public static void main( final String[ ] arguments ) throws IOException
+  {
+    final int port = arguments.length > 0 ? Integer.parseInt( arguments[ 0 ] ) : LeaderboardServer.DefaultPort;
+    final HighScoreTable table = HighScoreTable.open( arguments.length > 1 ? arguments[ 1 ] : LeaderboardServer.DefaultPath );
+    final LeaderboardServer server = new LeaderboardServer( table, new InetSocketAddress( port ), new HeadlessLog( true ) );
+    Runtime.getRuntime( ).addShutdownHook( new Thread( "SkyDiver leaderboard shutdown" )
+    {
+      @Override
+      public void run( )
+      {
+        server.close( );
+      }
+    });
+
+    server.start( );
+    System.out.println( "Leaderboard serving " + table.size( ) + " scores on port " + server.getAddress( ).getPort( ) );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
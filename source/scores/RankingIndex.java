@@ -0,0 +1,168 @@
+package com.bryanchacosky.core.scores;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Concurrent index of every score on a leaderboard, answering rank and top scores queries in logarithmic time while
+ * scores are added from any number of threads.  Scores are kept in a {@link ConcurrentSkipListSet} in ranking order,
+ * so the top scores are the head of the list and adding a score never locks out readers.  A skip list can't count the
+ * entries ahead of a score without walking them, so the ranks come from a Fenwick tree of atomic counts per score
+ * value instead: counting the scores at or above a value sums one count per bit of {@value #MaxScore}.
+ *
+ * Scores above {@value #MaxScore} are ranked as equal to it.  They still come out of {@link #getTop(int)} in the
+ * right order.
+ *
+ * @author Bryan Chacosky
+ */
+public class RankingIndex
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Highest score ranked exactly. */
+  public static final int MaxScore = 65535;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Score in the index, numbered so that equal scores are still distinct entries.
+   */
+  private static final class Entry
+  {
+    /** Score. */
+    final HighScore score;
+
+    /** Order the score was added in. */
+    final long number;
+
+    /**
+     * Instantiates a new entry.
+     *
+     * @param score - Score.
+     * @param number - Order the score was added in.
+     */
+    Entry( final HighScore score, final long number )
+    {
+      this.score = score;
+      this.number = number;
+    }
+  };
+
+  /** Orders entries highest ranked first, and equally ranked entries in the order they were added. */
+  private static final Comparator< Entry > Ranking = new Comparator< Entry >( )
+  {
+    @Override
+    public int compare( final Entry a, final Entry b )
+    {
+      if ( a.score.ranksAbove( b.score ) == true )
+        return -1;
+      if ( b.score.ranksAbove( a.score ) == true )
+        return 1;
+      return Long.compare( a.number, b.number );
+    }
+  };
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Every score, highest ranked first. */
+  private final ConcurrentSkipListSet< Entry > entries = new ConcurrentSkipListSet< Entry >( RankingIndex.Ranking );
+
+  /** Fenwick tree of the number of scores at each position, where position 1 is {@link #MaxScore} and higher. */
+  private final AtomicLongArray counts = new AtomicLongArray( RankingIndex.MaxScore + 2 );
+
+  /** Number given to the next entry. */
+  private final AtomicLong nextNumber = new AtomicLong( );
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Adds a score.
+   *
+   * @param score - Score.
+   * @return Rank of the score, starting at 1.  Equal scores added earlier rank above it.
+   */
+  public int add( final HighScore score )
+  {
+    assert score != null : "Cannot add a null score!";
+
+    this.entries.add( new Entry( score, this.nextNumber.getAndIncrement( ) ) );
+    for ( int i = RankingIndex.position( score.getScore( ) ); i < this.counts.length( ); i += i & -i )
+      this.counts.incrementAndGet( i );
+
+    return ( int )Math.min( Integer.MAX_VALUE, this.countAtOrAbove( score.getScore( ) ) );
+  }
+
+  /**
+   * Gets the rank a new score would have: below every score added so far which is at least as high.
+   *
+   * @param score - Score.
+   * @return Rank, starting at 1.
+   */
+  public int rank( final int score )
+  {
+    return ( int )Math.min( Integer.MAX_VALUE, this.countAtOrAbove( score ) + 1 );
+  }
+
+  /**
+   * Gets the top scores.
+   *
+   * @param count - Most scores to return.
+   * @return Best scores, highest first.
+   */
+  public List< HighScore > getTop( final int count )
+  {
+    final List< HighScore > top = new ArrayList< HighScore >( Math.max( 0, count ) );
+    final Iterator< Entry > iterator = this.entries.iterator( );
+    while ( top.size( ) < count && iterator.hasNext( ) == true )
+      top.add( iterator.next( ).score );
+    return top;
+  }
+
+  /**
+   * Gets the number of scores in the index.
+   *
+   * @return Score count.
+   */
+  public long size( )
+  {
+    return this.countAtOrAbove( 0 );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Counts the scores at or above a value.
+   *
+   * @param score - Score.
+   * @return Score count.
+   */
+  private long countAtOrAbove( final int score )
+  {
+    long count = 0;
+    for ( int i = RankingIndex.position( score ); i > 0; i -= i & -i )
+      count += this.counts.get( i );
+    return count;
+  }
+
+  /**
+   * Gets the position of a score in the Fenwick tree.
+   *
+   * @param score - Score.
+   * @return Position, from 1 for {@link #MaxScore} and higher.
+   */
+  private static int position( final int score )
+  {
+    return RankingIndex.MaxScore - Math.max( 0, Math.min( score, RankingIndex.MaxScore ) ) + 1;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
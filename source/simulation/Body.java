@@ -0,0 +1,146 @@
+package com.bryanchacosky.core.simulation;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Physics state of a single body: position, velocity and acceleration, integrated with basic Euler integration.
+ * Implementations are provided by each {@link PhysicsBackend}.  Values are exchanged as floats in units per second
+ * (and units per second^2) regardless of how the backend stores them.
+ *
+ * @author Bryan Chacosky
+ */
+public interface Body
+{
+  /** Number of longs written by {@link #save(long[], int)}. */
+  public static final int StateSize = 6;
+
+  /** Default vertical acceleration, representing gravity = {@value #DefaultVerticalAcceleration} */
+  public static final float DefaultVerticalAcceleration = 300.0f;
+
+  /** Default horizontal acceleration = {@value #DefaultHorizontalAcceleration} */
+  public static final float DefaultHorizontalAcceleration = 0.0f;
+
+  /**
+   * Sets the position of the body.
+   *
+   * @param x - Horizontal position.
+   * @param y - Vertical position.
+   */
+  public void setPosition( float x, float y );
+
+  /**
+   * Gets the horizontal position.
+   *
+   * @return Horizontal position.
+   */
+  public float getX( );
+
+  /**
+   * Gets the vertical position.
+   *
+   * @return Vertical position.
+   */
+  public float getY( );
+
+  /**
+   * Sets the vertical acceleration.
+   *
+   * @param acceleration - Acceleration.
+   */
+  public void setVerticalAcceleration( float acceleration );
+
+  /**
+   * Sets the horizontal acceleration.
+   *
+   * @param acceleration - Acceleration.
+   */
+  public void setHorizontalAcceleration( float acceleration );
+
+  /**
+   * Sets the vertical velocity.
+   *
+   * @param velocity - Velocity.
+   */
+  public void setVerticalVelocity( float velocity );
+
+  /**
+   * Sets the horizontal velocity.
+   *
+   * @param velocity - Velocity.
+   */
+  public void setHorizontalVelocity( float velocity );
+
+  /**
+   * Gets the vertical acceleration.
+   *
+   * @return Vertical acceleration.
+   */
+  public float getVerticalAcceleration( );
+
+  /**
+   * Gets the horizontal acceleration.
+   *
+   * @return Horizontal acceleration.
+   */
+  public float getHorizontalAcceleration( );
+
+  /**
+   * Gets the vertical velocity.
+   *
+   * @return Vertical velocity.
+   */
+  public float getVerticalVelocity( );
+
+  /**
+   * Gets the horizontal velocity.
+   *
+   * @return Horizontal velocity.
+   */
+  public float getHorizontalVelocity( );
+
+  /**
+   * Returns the magnitude of the combined velocity (vertical and horizontal).
+   *
+   * @return Magnitude of the current velocity.
+   */
+  public double getCurrentVelocity( );
+
+  /**
+   * Returns true if a box of the given size at the body position intersects the passed bounding area.
+   *
+   * @param width - Width of the body.
+   * @param height - Height of the body.
+   * @param tx - X position of the area.
+   * @param ty - Y position of the area.
+   * @param areaWidth - Width of the area.
+   * @param areaHeight - Height of the area.
+   * @return True if the two are intersecting, otherwise false.
+   */
+  public boolean intersects( float width, float height, float tx, float ty, float areaWidth, float areaHeight );
+
+  /**
+   * Integrates the body over a single step.
+   *
+   * @param delta - Duration of the step, in milliseconds.
+   * @param windField - Wind field to sample at the body position, or null for no wind.
+   */
+  public void step( float delta, WindField windField );
+
+  /**
+   * Writes the exact state of the body, as stored by the backend, into a buffer.
+   *
+   * @param buffer - Buffer to write into.
+   * @param offset - Index of the first of {@link #StateSize} longs to write.
+   */
+  public void save( long[ ] buffer, int offset );
+
+  /**
+   * Restores the state of the body from a buffer written by {@link #save(long[], int)} of the same backend.
+   *
+   * @param buffer - Buffer to read from.
+   * @param offset - Index of the first of {@link #StateSize} longs to read.
+   */
+  public void restore( long[ ] buffer, int offset );
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
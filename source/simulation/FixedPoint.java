@@ -0,0 +1,154 @@
+package com.bryanchacosky.core.simulation;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Abstract class containing static methods for 16.16 fixed-point arithmetic stored in longs.  Integer arithmetic gives
+ * bit-identical results on every platform, VM and client, including any port of the simulation outside of the JVM where
+ * float rounding is less strictly defined.  Storing 16.16 values in a long leaves enough headroom to multiply two values
+ * without overflowing for anything the size of a screen.
+ *
+ * @author Bryan Chacosky
+ */
+public abstract class FixedPoint
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Number of fractional bits. */
+  public static final int FractionBits = 16;
+
+  /** Fixed-point representation of one. */
+  public static final long One = 1L << FixedPoint.FractionBits;
+
+  /** Number of fractional bits for durations.  Update steps are tiny fractions of a second, so they get extra precision. */
+  public static final int DurationBits = 32;
+
+  /** Inverse of {@link #One}, exact since it is a power of two. */
+  private static final float InverseOne = 1.0f / FixedPoint.One;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Converts a float to fixed-point, rounding to the nearest representable value.
+   *
+   * @param value - Float value.
+   * @return Fixed-point value.
+   */
+  public static long fromFloat( final float value )
+  {
+    return Math.round( ( double )value * FixedPoint.One );
+  }
+
+  /**
+   * Converts a whole number to fixed-point.
+   *
+   * @param value - Integer value.
+   * @return Fixed-point value.
+   */
+  public static long fromInt( final int value )
+  {
+    return ( long )value << FixedPoint.FractionBits;
+  }
+
+  /**
+   * Converts a fixed-point value to a float.
+   *
+   * @param value - Fixed-point value.
+   * @return Float value.
+   */
+  public static float toFloat( final long value )
+  {
+    // Scaling by a power of two is exact, so rounding to float first gives the same result as rounding last:
+    return ( float )value * FixedPoint.InverseOne;
+  }
+
+  /**
+   * Converts a duration in milliseconds to seconds with {@link #DurationBits} fractional bits.
+   *
+   * @param milliseconds - Duration, in milliseconds.
+   * @return Duration in seconds, for use with {@link #scale(long, long)}.
+   */
+  public static long fromMilliseconds( final float milliseconds )
+  {
+    return Math.round( milliseconds / 1000.0 * ( 1L << FixedPoint.DurationBits ) );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Multiplies a fixed-point value by a duration from {@link #fromMilliseconds(float)}, such as a velocity by a step
+   * to get a distance.
+   *
+   * @param value - Fixed-point value.
+   * @param duration - Duration.
+   * @return Fixed-point product.
+   */
+  public static long scale( final long value, final long duration )
+  {
+    return ( value * duration ) >> FixedPoint.DurationBits;
+  }
+
+  /**
+   * Multiplies two fixed-point values.
+   *
+   * @param a - First value.
+   * @param b - Second value.
+   * @return Product.
+   */
+  public static long mul( final long a, final long b )
+  {
+    return ( a * b ) >> FixedPoint.FractionBits;
+  }
+
+  /**
+   * Divides two fixed-point values.
+   *
+   * @param a - Dividend.
+   * @param b - Divisor.
+   * @return Quotient.
+   */
+  public static long div( final long a, final long b )
+  {
+    assert b != 0 : "Cannot divide by zero!";
+    return ( a << FixedPoint.FractionBits ) / b;
+  }
+
+  /**
+   * Returns the square root of a non-negative fixed-point value, computed bit by bit so that the result is exact
+   * and identical everywhere.
+   *
+   * @param value - Fixed-point value.
+   * @return Square root.
+   */
+  public static long sqrt( final long value )
+  {
+    assert value >= 0 : "Cannot take the square root of a negative value!";
+
+    // sqrt(v / 2^16) * 2^16 == sqrt(v * 2^16), so take the integer root of the shifted value:
+    long remainder = value << FixedPoint.FractionBits;
+    long root = 0;
+    long bit = 1L << 62;
+    while ( bit > remainder )
+      bit >>= 2;
+
+    while ( bit != 0 )
+    {
+      if ( remainder >= root + bit )
+      {
+        remainder -= root + bit;
+        root = ( root >> 1 ) + bit;
+      }
+      else
+      {
+        root >>= 1;
+      }
+      bit >>= 2;
+    }
+
+    return root;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
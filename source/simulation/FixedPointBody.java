@@ -0,0 +1,186 @@
+package com.bryanchacosky.core.simulation;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Body stored and integrated with 16.16 {@link FixedPoint} arithmetic.  Floats passed in are rounded into fixed-point
+ * once, and every step afterwards is pure integer arithmetic, so the same inputs produce the same bits everywhere.
+ *
+ * @author Bryan Chacosky
+ */
+class FixedPointBody implements Body
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Horizontal position. */
+  private long x = 0L;
+
+  /** Vertical position. */
+  private long y = 0L;
+
+  /** Vertical acceleration. */
+  private long v_acceleration = 0L;
+
+  /** Horizontal acceleration. */
+  private long h_acceleration = 0L;
+
+  /** Vertical velocity. */
+  private long v_velocity = 0L;
+
+  /** Horizontal velocity. */
+  private long h_velocity = 0L;
+
+  /** Delta of the last step, in milliseconds. */
+  private float delta = 0.0f;
+
+  /** Delta of the last step as a duration; steps are fixed, so it's only converted when the delta changes. */
+  private long dt = 0L;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public void setPosition( final float x, final float y )
+  {
+    this.x = FixedPoint.fromFloat( x );
+    this.y = FixedPoint.fromFloat( y );
+  }
+
+  @Override
+  public float getX( )
+  {
+    return FixedPoint.toFloat( this.x );
+  }
+
+  @Override
+  public float getY( )
+  {
+    return FixedPoint.toFloat( this.y );
+  }
+
+  @Override
+  public void setVerticalAcceleration( final float acceleration )
+  {
+    this.v_acceleration = FixedPoint.fromFloat( acceleration );
+  }
+
+  @Override
+  public void setHorizontalAcceleration( final float acceleration )
+  {
+    this.h_acceleration = FixedPoint.fromFloat( acceleration );
+  }
+
+  @Override
+  public void setVerticalVelocity( final float velocity )
+  {
+    this.v_velocity = FixedPoint.fromFloat( velocity );
+  }
+
+  @Override
+  public void setHorizontalVelocity( final float velocity )
+  {
+    this.h_velocity = FixedPoint.fromFloat( velocity );
+  }
+
+  @Override
+  public float getVerticalAcceleration( )
+  {
+    return FixedPoint.toFloat( this.v_acceleration );
+  }
+
+  @Override
+  public float getHorizontalAcceleration( )
+  {
+    return FixedPoint.toFloat( this.h_acceleration );
+  }
+
+  @Override
+  public float getVerticalVelocity( )
+  {
+    return FixedPoint.toFloat( this.v_velocity );
+  }
+
+  @Override
+  public float getHorizontalVelocity( )
+  {
+    return FixedPoint.toFloat( this.h_velocity );
+  }
+
+  @Override
+  public double getCurrentVelocity( )
+  {
+    return FixedPoint.toFloat( FixedPoint.sqrt( FixedPoint.mul( this.h_velocity, this.h_velocity ) + FixedPoint.mul( this.v_velocity, this.v_velocity ) ) );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public boolean intersects( final float width, final float height, final float tx, final float ty, final float areaWidth, final float areaHeight )
+  {
+    // The area is given in floats, so compare in floats rather than rounding each of them into fixed-point; the position
+    // rounds to the same float everywhere, so the result is still the same everywhere:
+    final float x = FixedPoint.toFloat( this.x );
+    final float y = FixedPoint.toFloat( this.y );
+
+    if ( x > tx + areaWidth )     return false;
+    if ( x + width < tx )         return false;
+    if ( y > ty + areaHeight )    return false;
+    if ( y + height < ty )        return false;
+
+    return true;
+  }
+
+  @Override
+  public void step( final float delta, final WindField windField )
+  {
+    // Convert the step to seconds since its easier for the user to provide values in units per second:
+    if ( delta != this.delta )
+    {
+      this.delta = delta;
+      this.dt = FixedPoint.fromMilliseconds( delta );
+    }
+    final long dt = this.dt;
+
+    // Add the wind at the current position to the accelerations:
+    long v_acceleration = this.v_acceleration;
+    long h_acceleration = this.h_acceleration;
+    if ( null != windField )
+    {
+      v_acceleration += windField.sampleVertical( this.x, this.y );
+      h_acceleration += windField.sampleHorizontal( this.x, this.y );
+    }
+
+    // Integrate the acceleration to update the velocity with basic Euler integration:
+    this.v_velocity += FixedPoint.scale( v_acceleration, dt );
+    this.h_velocity += FixedPoint.scale( h_acceleration, dt );
+
+    // Update the position based off the current velocity:
+    this.x += FixedPoint.scale( this.h_velocity, dt );
+    this.y += FixedPoint.scale( this.v_velocity, dt );
+  }
+
+  @Override
+  public void save( final long[ ] buffer, final int offset )
+  {
+    buffer[ offset     ] = this.x;
+    buffer[ offset + 1 ] = this.y;
+    buffer[ offset + 2 ] = this.v_acceleration;
+    buffer[ offset + 3 ] = this.h_acceleration;
+    buffer[ offset + 4 ] = this.v_velocity;
+    buffer[ offset + 5 ] = this.h_velocity;
+  }
+
+  @Override
+  public void restore( final long[ ] buffer, final int offset )
+  {
+    this.x              = buffer[ offset     ];
+    this.y              = buffer[ offset + 1 ];
+    this.v_acceleration = buffer[ offset + 2 ];
+    this.h_acceleration = buffer[ offset + 3 ];
+    this.v_velocity     = buffer[ offset + 4 ];
+    this.h_velocity     = buffer[ offset + 5 ];
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
@@ -0,0 +1,169 @@
+package com.bryanchacosky.core.simulation;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Body stored and integrated with float arithmetic.
+ *
+ * @author Bryan Chacosky
+ */
+class FloatBody implements Body
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Horizontal position. */
+  private float x = 0.0f;
+
+  /** Vertical position. */
+  private float y = 0.0f;
+
+  /** Vertical acceleration. */
+  private float v_acceleration = 0.0f;
+
+  /** Horizontal acceleration. */
+  private float h_acceleration = 0.0f;
+
+  /** Vertical velocity. */
+  private float v_velocity = 0.0f;
+
+  /** Horizontal velocity. */
+  private float h_velocity = 0.0f;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public void setPosition( final float x, final float y )
+  {
+    this.x = x;
+    this.y = y;
+  }
+
+  @Override
+  public float getX( )
+  {
+    return this.x;
+  }
+
+  @Override
+  public float getY( )
+  {
+    return this.y;
+  }
+
+  @Override
+  public void setVerticalAcceleration( final float acceleration )
+  {
+    this.v_acceleration = acceleration;
+  }
+
+  @Override
+  public void setHorizontalAcceleration( final float acceleration )
+  {
+    this.h_acceleration = acceleration;
+  }
+
+  @Override
+  public void setVerticalVelocity( final float velocity )
+  {
+    this.v_velocity = velocity;
+  }
+
+  @Override
+  public void setHorizontalVelocity( final float velocity )
+  {
+    this.h_velocity = velocity;
+  }
+
+  @Override
+  public float getVerticalAcceleration( )
+  {
+    return this.v_acceleration;
+  }
+
+  @Override
+  public float getHorizontalAcceleration( )
+  {
+    return this.h_acceleration;
+  }
+
+  @Override
+  public float getVerticalVelocity( )
+  {
+    return this.v_velocity;
+  }
+
+  @Override
+  public float getHorizontalVelocity( )
+  {
+    return this.h_velocity;
+  }
+
+  @Override
+  public double getCurrentVelocity( )
+  {
+    return Math.sqrt( this.h_velocity * this.h_velocity + this.v_velocity * this.v_velocity );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public boolean intersects( final float width, final float height, final float tx, final float ty, final float areaWidth, final float areaHeight )
+  {
+    if ( this.x > tx + areaWidth )     return false;
+    if ( this.x + width < tx )         return false;
+    if ( this.y > ty + areaHeight )    return false;
+    if ( this.y + height < ty )        return false;
+
+    return true;
+  }
+
+  @Override
+  public void step( final float delta, final WindField windField )
+  {
+    // Divide the delta duration by 1000 since its easier for the user to provide values in units per second, not units per millisecond:
+    final float dt = delta / 1000.0f;
+
+    // Add the wind at the current position to the accelerations:
+    float v_acceleration = this.v_acceleration;
+    float h_acceleration = this.h_acceleration;
+    if ( null != windField )
+    {
+      v_acceleration += windField.sampleVertical( this.x, this.y );
+      h_acceleration += windField.sampleHorizontal( this.x, this.y );
+    }
+
+    // Integrate the acceleration to update the velocity with basic Euler integration:
+    this.v_velocity += v_acceleration * dt;
+    this.h_velocity += h_acceleration * dt;
+
+    // Update the position based off the current velocity:
+    this.x += this.h_velocity * dt;
+    this.y += this.v_velocity * dt;
+  }
+
+  @Override
+  public void save( final long[ ] buffer, final int offset )
+  {
+    buffer[ offset     ] = Float.floatToRawIntBits( this.x );
+    buffer[ offset + 1 ] = Float.floatToRawIntBits( this.y );
+    buffer[ offset + 2 ] = Float.floatToRawIntBits( this.v_acceleration );
+    buffer[ offset + 3 ] = Float.floatToRawIntBits( this.h_acceleration );
+    buffer[ offset + 4 ] = Float.floatToRawIntBits( this.v_velocity );
+    buffer[ offset + 5 ] = Float.floatToRawIntBits( this.h_velocity );
+  }
+
+  @Override
+  public void restore( final long[ ] buffer, final int offset )
+  {
+    this.x              = Float.intBitsToFloat( ( int )buffer[ offset     ] );
+    this.y              = Float.intBitsToFloat( ( int )buffer[ offset + 1 ] );
+    this.v_acceleration = Float.intBitsToFloat( ( int )buffer[ offset + 2 ] );
+    this.h_acceleration = Float.intBitsToFloat( ( int )buffer[ offset + 3 ] );
+    this.v_velocity     = Float.intBitsToFloat( ( int )buffer[ offset + 4 ] );
+    this.h_velocity     = Float.intBitsToFloat( ( int )buffer[ offset + 5 ] );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.bryanchacosky.core.simulation;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Enumeration of the available physics backends.
+ *
+ * @author Bryan Chacosky
+ */
+public enum PhysicsBackend
+{
+  /** Float arithmetic.  Fast and simple, but results may drift across platforms and JIT tiers. */
+  Float
+  {
+    @Override
+    public Body createBody( )
+    {
+      return new FloatBody( );
+    }
+  },
+
+  /** 16.16 {@link FixedPoint} arithmetic, wind included.  Results are bit-identical everywhere, so replays and ghost runs never drift. */
+  Fixed
+  {
+    @Override
+    public Body createBody( )
+    {
+      return new FixedPointBody( );
+    }
+  };
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Backend used when none is specified, selected with the <code>skydiver.physics</code> system property. */
+  public static final PhysicsBackend Default = "fixed".equalsIgnoreCase( System.getProperty( "skydiver.physics" ) ) ? PhysicsBackend.Fixed : PhysicsBackend.Float;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Creates a new body at rest at the origin.
+   *
+   * @return New body.
+   */
+  public abstract Body createBody( );
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
@@ -0,0 +1,127 @@
+package com.bryanchacosky.core.simulation;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Result of a {@link TrajectoryPredictor} query.  Predictions are mutable so that a single instance can be reused
+ * every frame without allocating.
+ *
+ * @author Bryan Chacosky
+ */
+public class Prediction
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** True if the body reaches the ground, otherwise false. */
+  private boolean lands = false;
+
+  /** Horizontal position where the body reaches the ground. */
+  private float landingX = 0.0f;
+
+  /** Time until the body reaches the ground, in seconds. */
+  private float timeToImpact = 0.0f;
+
+  /** Horizontal velocity at impact. */
+  private float impactHorizontalVelocity = 0.0f;
+
+  /** Vertical velocity at impact. */
+  private float impactVerticalVelocity = 0.0f;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Returns true if the body reaches the ground.  The remaining values are only meaningful when this is true.
+   *
+   * @return True if the body reaches the ground, otherwise false.
+   */
+  public boolean lands( )
+  {
+    return this.lands;
+  }
+
+  /**
+   * Gets the horizontal position where the body reaches the ground.
+   *
+   * @return Landing position.
+   */
+  public float getLandingX( )
+  {
+    return this.landingX;
+  }
+
+  /**
+   * Gets the time until the body reaches the ground, in seconds.
+   *
+   * @return Time to impact.
+   */
+  public float getTimeToImpact( )
+  {
+    return this.timeToImpact;
+  }
+
+  /**
+   * Gets the horizontal velocity at impact.
+   *
+   * @return Horizontal impact velocity.
+   */
+  public float getImpactHorizontalVelocity( )
+  {
+    return this.impactHorizontalVelocity;
+  }
+
+  /**
+   * Gets the vertical velocity at impact.
+   *
+   * @return Vertical impact velocity.
+   */
+  public float getImpactVerticalVelocity( )
+  {
+    return this.impactVerticalVelocity;
+  }
+
+  /**
+   * Returns the magnitude of the combined velocity at impact, comparable to
+   * {@link com.bryanchacosky.core.graphics.layer.PhysicsLayer#getCurrentVelocity()}.
+   *
+   * @return Magnitude of the impact velocity.
+   */
+  public double getImpactVelocity( )
+  {
+    return Math.sqrt( this.impactHorizontalVelocity * this.impactHorizontalVelocity + this.impactVerticalVelocity * this.impactVerticalVelocity );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Marks the prediction as never reaching the ground.
+   */
+  void clear( )
+  {
+    this.lands = false;
+    this.landingX = 0.0f;
+    this.timeToImpact = 0.0f;
+    this.impactHorizontalVelocity = 0.0f;
+    this.impactVerticalVelocity = 0.0f;
+  }
+
+  /**
+   * Sets the prediction values.
+   *
+   * @param landingX - Horizontal landing position.
+   * @param timeToImpact - Time to impact, in seconds.
+   * @param impactHorizontalVelocity - Horizontal velocity at impact.
+   * @param impactVerticalVelocity - Vertical velocity at impact.
+   */
+  void set( final float landingX, final float timeToImpact, final float impactHorizontalVelocity, final float impactVerticalVelocity )
+  {
+    this.lands = true;
+    this.landingX = landingX;
+    this.timeToImpact = timeToImpact;
+    this.impactHorizontalVelocity = impactHorizontalVelocity;
+    this.impactVerticalVelocity = impactVerticalVelocity;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
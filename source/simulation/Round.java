@@ -0,0 +1,231 @@
+package com.bryanchacosky.core.simulation;
+
+import java.util.Random;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Parameters of a single round of SkyDiver.  Every randomized property of the round is derived from a single seed,
+ * so a round can be reproduced exactly by the game, the headless simulator and the solver.
+ *
+ * @author Bryan Chacosky
+ */
+public class Round
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Height from the top of the screen that the helicopter will fly. */
+  public static final int HelicopterHeight = 10;
+
+  /** Duration for the helicopter to cross the screen, in milliseconds. */
+  public static final long HelicopterDuration = 5000;
+
+  /** Portion of the jumper's height that hangs below the helicopter before launch. */
+  public static final float JumperHangRatio = 0.2f;
+
+  /** Maximum speed which the wind can blow. */
+  public static final float WindSpeedMax = 150.0f;
+
+  /** Minimum speed which the wind can blow. */
+  public static final float WindSpeedMin = 25.0f;
+
+  /** Strength of the wind gusts relative to the average wind speed. */
+  public static final float WindGustRatio = 0.35f;
+
+  /** Maximum height of the ground layer. */
+  public static final int GroundMaxHeight = 150;
+
+  /** Minimum height of the ground layer */
+  public static final int GroundMinHeight = 50;
+
+  /** Maximum width of the ground layer. */
+  public static final int GroundMaxWidth = 600;
+
+  /** Minimum width of the ground layer. */
+  public static final int GroundMinWidth = 200;
+
+  /** Maximum velocity that the jumper can safely land on the ground.  Any velocity greater than this value ... and splat!
+   * If the parachute is not pulled, the jumper will typically hit the ground with about 680 m/s velocity. */
+  public static final float MaximumSafeVelocity = 500.0f;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Seed the round was generated from. */
+  private final long seed;
+
+  /** Width of the window the round is played in. */
+  private final int windowWidth;
+
+  /** Height of the window the round is played in. */
+  private final int windowHeight;
+
+  /** Width of the ground. */
+  private final int groundWidth;
+
+  /** Height of the ground. */
+  private final int groundHeight;
+
+  /** Horizontal position of the ground. */
+  private final int groundX;
+
+  /** Average wind speed. */
+  private final float windspeed;
+
+  /** Seed for the wind field gusts. */
+  private final long windSeed;
+
+  /** Wind field the gusts were first generated for, or null until a wind field is created. */
+  private WindField gusts = null;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a new round.
+   *
+   * @param seed - Seed to derive the round from.
+   * @param windowWidth - Width of the window.
+   * @param windowHeight - Height of the window.
+   */
+  public Round( final long seed, final int windowWidth, final int windowHeight )
+  {
+    assert windowWidth > Round.GroundMaxWidth : "Window must be wider than the widest ground!";
+
+    this.seed = seed;
+    this.windowWidth = windowWidth;
+    this.windowHeight = windowHeight;
+
+    final Random random = new Random( seed );
+    this.groundWidth = random.nextInt( Round.GroundMaxWidth - Round.GroundMinWidth ) + Round.GroundMinWidth;
+    this.groundHeight = random.nextInt( Round.GroundMaxHeight - Round.GroundMinHeight ) + Round.GroundMinHeight;
+    this.groundX = random.nextInt( windowWidth - this.groundWidth );
+    this.windspeed = random.nextFloat( ) * ( Round.WindSpeedMax - Round.WindSpeedMin ) + Round.WindSpeedMin;
+    this.windSeed = random.nextLong( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Calculates the score for a safe landing.
+   *
+   * @param parachuteTime - Time between opening the parachute and landing, in milliseconds.
+   * @return Score.
+   */
+  public int score( final double parachuteTime )
+  {
+    int score;
+    score  = ( int )this.windspeed;                         // More wind, more points!
+    score += Round.GroundMaxWidth - this.groundWidth;       // Smaller ground, more points!
+    score += parachuteTime;                                 // More parachute time, more points!
+    return score;
+  }
+
+  /**
+   * Creates the wind field for the round, starting at its first gust.  Generating the gusts costs far more than a
+   * whole simulated round, so they're generated once and shared by every wind field of the round; the game and the
+   * solver's worker thread both create one, hence the lock.
+   *
+   * @return Wind field.
+   */
+  public synchronized WindField createWindField( )
+  {
+    if ( null == this.gusts )
+      this.gusts = new WindField( this.windowWidth, this.windowHeight, this.windspeed, this.windspeed * Round.WindGustRatio, this.windSeed );
+    return new WindField( this.gusts );
+  }
+
+  /**
+   * Returns the horizontal speed of the helicopter.
+   *
+   * @return Helicopter speed, in units per second.
+   */
+  public float getHelicopterSpeed( )
+  {
+    return this.windowWidth * 1000.0f / Round.HelicopterDuration;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Gets the seed the round was generated from.
+   *
+   * @return Seed.
+   */
+  public long getSeed( )
+  {
+    return this.seed;
+  }
+
+  /**
+   * Gets the width of the window.
+   *
+   * @return Window width.
+   */
+  public int getWindowWidth( )
+  {
+    return this.windowWidth;
+  }
+
+  /**
+   * Gets the height of the window.
+   *
+   * @return Window height.
+   */
+  public int getWindowHeight( )
+  {
+    return this.windowHeight;
+  }
+
+  /**
+   * Gets the width of the ground.
+   *
+   * @return Ground width.
+   */
+  public int getGroundWidth( )
+  {
+    return this.groundWidth;
+  }
+
+  /**
+   * Gets the height of the ground.
+   *
+   * @return Ground height.
+   */
+  public int getGroundHeight( )
+  {
+    return this.groundHeight;
+  }
+
+  /**
+   * Gets the horizontal position of the ground.
+   *
+   * @return Ground position.
+   */
+  public int getGroundX( )
+  {
+    return this.groundX;
+  }
+
+  /**
+   * Gets the vertical position of the top of the ground.
+   *
+   * @return Ground position.
+   */
+  public int getGroundY( )
+  {
+    return this.windowHeight - this.groundHeight;
+  }
+
+  /**
+   * Gets the average wind speed.
+   *
+   * @return Wind speed.
+   */
+  public float getWindspeed( )
+  {
+    return this.windspeed;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
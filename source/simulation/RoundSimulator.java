@@ -0,0 +1,586 @@
+package com.bryanchacosky.core.simulation;
+
+import com.bryanchacosky.core.SkyDiver;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Headless simulation of a single round, following the same rules as
+ * {@link com.bryanchacosky.core.graphics.controller.GameController} without any layers, timers or PlayN.  The
+ * simulation advances in fixed steps of {@link SkyDiver#UpdateRate} milliseconds, so a round replays exactly from its
+ * seed, backend and input timings.
+ *
+ * With snapshots enabled, the simulator records its complete state into a preallocated {@link SnapshotBuffer} every
+ * few steps.  Seeking to an earlier (or later) time restores the nearest snapshot and re-simulates only the steps after
+ * it, replaying the recorded jump and parachute inputs.  Every random property of a round is drawn when the round and
+ * its wind field are built, so the gust time is the only random state that has to be captured.
+ *
+ * @author Bryan Chacosky
+ */
+public class RoundSimulator
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Duration of the countdown before the helicopter appears, in milliseconds. */
+  public static final int CountdownDuration = 3000;
+
+  /** Width of the jumper image. */
+  public static final float DefaultJumperWidth = 10.0f;
+
+  /** Height of the jumper image. */
+  public static final float DefaultJumperHeight = 26.0f;
+
+  /** Width of the helicopter image. */
+  public static final float DefaultHelicopterWidth = 113.0f;
+
+  /** Height of the helicopter image. */
+  public static final float DefaultHelicopterHeight = 46.0f;
+
+  /** Number of longs in a snapshot: the body followed by the round values. */
+  private static final int SnapshotSize = Body.StateSize + 9;
+
+  /** Round states by ordinal, cached since {@link RoundState#values()} returns a new array on every call. */
+  private static final RoundState[ ] States = RoundState.values( );
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Round being simulated. */
+  private final Round round;
+
+  /** Jumper body. */
+  private final Body body;
+
+  /** Wind field of the round. */
+  private final WindField windField;
+
+  /** Width of the jumper. */
+  private final float jumperWidth;
+
+  /** Height of the jumper. */
+  private final float jumperHeight;
+
+  /** Width of the helicopter. */
+  private final float helicopterWidth;
+
+  /** Height of the helicopter. */
+  private final float helicopterHeight;
+
+  /** Current round state. */
+  private RoundState state = RoundState.Countdown;
+
+  /** Completion score. */
+  private int score = 0;
+
+  /** Time since the round started, in milliseconds. */
+  private long time = 0;
+
+  /** Time since the current state was entered, in milliseconds. */
+  private long stateTime = 0;
+
+  /** Horizontal position of the helicopter. */
+  private float helicopterX;
+
+  /** True once the parachute has opened. */
+  private boolean parachuteOpen = false;
+
+  /** Time when the parachute was launched.  Used in calculating the score. */
+  private long parachuteLaunchTime = 0;
+
+  /** Speed of the jumper when he reached the ground, or 0 if he hasn't. */
+  private double landingVelocity = 0.0;
+
+  /** Time of the jump input, or -1 if the jumper has not jumped. */
+  private long jumpInputTime = -1;
+
+  /** Time of the parachute input, or -1 if the parachute has not been opened. */
+  private long deployInputTime = -1;
+
+  /** Recorded snapshots, or null if snapshots are disabled. */
+  private SnapshotBuffer snapshots = null;
+
+  /** Number of steps between snapshots. */
+  private int snapshotInterval = 0;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a new simulator with the default jumper and helicopter sizes.
+   *
+   * @param round - Round to simulate.
+   * @param backend - Physics backend.
+   */
+  public RoundSimulator( final Round round, final PhysicsBackend backend )
+  {
+    this( round, backend, RoundSimulator.DefaultJumperWidth, RoundSimulator.DefaultJumperHeight, RoundSimulator.DefaultHelicopterWidth, RoundSimulator.DefaultHelicopterHeight );
+  }
+
+  /**
+   * Instantiates a new simulator.
+   *
+   * @param round - Round to simulate.
+   * @param backend - Physics backend.
+   * @param jumperWidth - Width of the jumper.
+   * @param jumperHeight - Height of the jumper.
+   * @param helicopterWidth - Width of the helicopter.
+   * @param helicopterHeight - Height of the helicopter.
+   */
+  public RoundSimulator( final Round round, final PhysicsBackend backend, final float jumperWidth, final float jumperHeight, final float helicopterWidth, final float helicopterHeight )
+  {
+    assert round != null : "Cannot simulate a null round!";
+
+    this.round = round;
+    this.body = backend.createBody( );
+    this.windField = round.createWindField( );
+    this.jumperWidth = jumperWidth;
+    this.jumperHeight = jumperHeight;
+    this.helicopterWidth = helicopterWidth;
+    this.helicopterHeight = helicopterHeight;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Launches the jumper from the helicopter.
+   *
+   * @return True if the jumper launched, or false if the round was not waiting for a launch.
+   */
+  public boolean jump( )
+  {
+    if ( RoundState.PreLaunch.equals( this.state ) == false )
+      return false;
+
+    // A new input replaces whatever future was recorded after it:
+    this.forget( );
+    this.jumpInputTime = this.time;
+    this.deployInputTime = -1;
+
+    this.setState( RoundState.InFlight );
+    return true;
+  }
+
+  /**
+   * Opens the parachute.
+   *
+   * @return True if the parachute opened, or false if the jumper was not in flight or it was already open.
+   */
+  public boolean deploy( )
+  {
+    if ( RoundState.InFlight.equals( this.state ) == false || this.parachuteOpen == true )
+      return false;
+
+    // A new input replaces whatever future was recorded after it:
+    this.forget( );
+    this.deployInputTime = this.time;
+
+    this.openParachute( );
+    return true;
+  }
+
+  /**
+   * Opens the parachute, clipping the jumper's speed and vertical acceleration.
+   */
+  private void openParachute( )
+  {
+    // Parachute opens, so clip the jumper's speed and vertical acceleration:
+    this.body.setVerticalAcceleration( Body.DefaultVerticalAcceleration * TrajectoryPredictor.ParachuteAccelerationScale );
+    this.body.setVerticalVelocity( this.body.getVerticalVelocity( ) * TrajectoryPredictor.ParachuteVerticalVelocityScale );
+    this.body.setHorizontalVelocity( this.body.getHorizontalVelocity( ) * TrajectoryPredictor.ParachuteHorizontalVelocityScale );
+
+    this.parachuteOpen = true;
+    this.parachuteLaunchTime = this.time;
+  }
+
+  /**
+   * Simulates the rest of the round, jumping and opening the parachute at the given times.
+   *
+   * @param jumpTime - Time from the helicopter appearing to the jump, in milliseconds.
+   * @param deployDelay - Time from the jump to opening the parachute, in milliseconds.
+   * @return Completion score.
+   */
+  public int simulate( final long jumpTime, final long deployDelay )
+  {
+    while ( this.state.isComplete( ) == false )
+    {
+      if ( RoundState.PreLaunch.equals( this.state ) && this.stateTime >= jumpTime )
+        this.jump( );
+      else if ( RoundState.InFlight.equals( this.state ) && this.stateTime >= deployDelay )
+        this.deploy( );
+
+      this.step( );
+    }
+
+    return this.score;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Advances the round by a single step of {@link SkyDiver#UpdateRate} milliseconds.
+   */
+  public void step( )
+  {
+    final float delta = SkyDiver.UpdateRate;
+    this.time += SkyDiver.UpdateRate;
+    this.stateTime += SkyDiver.UpdateRate;
+
+    // Keep the gusts moving:
+    this.windField.update( delta );
+
+    switch ( this.state )
+    {
+      case Countdown:
+      {
+        if ( this.stateTime >= RoundSimulator.CountdownDuration )
+          this.setState( RoundState.PreLaunch );
+      }
+        break;
+
+      case PreLaunch:
+      {
+        // Fly the helicopter, ending the round if it leaves before the player launches:
+        this.helicopterX += this.round.getHelicopterSpeed( ) * delta / 1000.0f;
+        if ( this.helicopterX > this.round.getWindowWidth( ) )
+        {
+          this.setState( RoundState.CompleteDefault );
+          break;
+        }
+
+        // Re-position the jumper to be aligned with the helicopter:
+        this.body.setPosition( this.helicopterX + this.helicopterWidth / 2.0f,
+                               Round.HelicopterHeight + this.helicopterHeight - this.jumperHeight * Round.JumperHangRatio );
+      }
+        break;
+
+      case InFlight:
+      {
+        // Keep the helicopter flying off screen; it no longer affects the round:
+        this.helicopterX += this.round.getHelicopterSpeed( ) * delta / 1000.0f;
+
+        this.body.step( delta, this.windField );
+
+        if ( this.isOnscreen( ) == false )
+        {
+          // Jumper has flown out of the screen, so clear the score and finish the game:
+          this.score = 0;
+          this.setState( RoundState.CompleteDefault );
+        }
+        else if ( this.body.intersects( this.jumperWidth, this.jumperHeight, this.round.getGroundX( ), this.round.getGroundY( ), this.round.getGroundWidth( ), 1 ) )
+        {
+          // Keep the landing speed, since completing the round stops the jumper:
+          this.landingVelocity = this.body.getCurrentVelocity( );
+          if ( this.body.getCurrentVelocity( ) <= Round.MaximumSafeVelocity )
+          {
+            this.score = this.round.score( this.parachuteOpen ? this.time - this.parachuteLaunchTime : 0 );
+            this.setState( RoundState.CompleteDefault );
+          }
+          else
+          {
+            this.setState( RoundState.CompleteSplat );
+          }
+        }
+      }
+        break;
+
+      default:
+        break;
+    }
+
+    // Record a snapshot every few steps:
+    if ( null != this.snapshots && ( this.time / SkyDiver.UpdateRate ) % this.snapshotInterval == 0 )
+      this.save( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Enables snapshots, discarding any previously recorded ones.  The current state is recorded straight away so that
+   * the simulation can always seek back to it.
+   *
+   * @param capacity - Maximum number of snapshots kept.  Once full, the oldest snapshots are overwritten.
+   * @param interval - Number of steps between snapshots.
+   */
+  public void enableSnapshots( final int capacity, final int interval )
+  {
+    assert interval > 0 : "Snapshot interval must be at least one step!";
+
+    this.snapshots = new SnapshotBuffer( capacity, RoundSimulator.SnapshotSize );
+    this.snapshotInterval = interval;
+    this.save( );
+  }
+
+  /**
+   * Moves the simulation to a time by restoring the nearest earlier snapshot and re-simulating the steps after it with
+   * the recorded inputs.  Seeking forward simulates ahead the same way, from a later snapshot if one is recorded.
+   * The simulation stops early if the round completes before the time.
+   *
+   * @param time - Time since the round started, in milliseconds.
+   * @return True if the simulation reached the time, or false if it is earlier than every recorded snapshot or the
+   *         round completed first.
+   */
+  public boolean seek( final long time )
+  {
+    // Restore the nearest snapshot, unless simulating forward from the current state is shorter:
+    final int index = null == this.snapshots ? -1 : this.snapshots.find( time );
+    if ( index >= 0 && ( time < this.time || this.snapshots.getTime( index ) > this.time ) )
+      this.restore( this.snapshots.getOffset( index ) );
+    else if ( time < this.time )
+      return false;
+
+    // Re-simulate the remaining steps, replaying the recorded inputs as they come up:
+    while ( this.time < time && this.state.isComplete( ) == false )
+    {
+      if ( RoundState.PreLaunch.equals( this.state ) && this.time == this.jumpInputTime )
+        this.setState( RoundState.InFlight );
+      else if ( RoundState.InFlight.equals( this.state ) && this.parachuteOpen == false && this.time == this.deployInputTime )
+        this.openParachute( );
+
+      this.step( );
+    }
+
+    return this.time >= time;
+  }
+
+  /**
+   * Moves the simulation back to an earlier time and forgets the inputs made at or after it, so that a different
+   * future can be played out from there.  The snapshots after the time are discarded along with the inputs.
+   *
+   * @param time - Time since the round started, in milliseconds.
+   * @return True if the simulation reached the time, or false if it is later than the current time or earlier than
+   *         every recorded snapshot.
+   */
+  public boolean rewind( final long time )
+  {
+    if ( time > this.time || null == this.snapshots )
+      return false;
+
+    if ( this.jumpInputTime >= time )
+      this.jumpInputTime = -1;
+    if ( this.deployInputTime >= time )
+      this.deployInputTime = -1;
+
+    // Restore even when already at the time, since an input may have been made since the snapshot:
+    this.snapshots.truncate( time );
+    final int index = this.snapshots.find( time );
+    if ( index < 0 )
+      return false;
+
+    this.restore( this.snapshots.getOffset( index ) );
+    return this.seek( time );
+  }
+
+  /**
+   * Discards the snapshots after the current time, since a new input changes everything after it.
+   */
+  private void forget( )
+  {
+    if ( null != this.snapshots )
+      this.snapshots.truncate( this.time );
+  }
+
+  /**
+   * Records a snapshot of the current state.
+   */
+  private void save( )
+  {
+    final long[ ] data = this.snapshots.getData( );
+    final int offset = this.snapshots.write( this.time );
+
+    this.body.save( data, offset );
+
+    int i = offset + Body.StateSize;
+    data[ i++ ] = this.state.ordinal( );
+    data[ i++ ] = this.score;
+    data[ i++ ] = this.time;
+    data[ i++ ] = this.stateTime;
+    data[ i++ ] = Float.floatToRawIntBits( this.helicopterX );
+    data[ i++ ] = this.parachuteOpen ? 1 : 0;
+    data[ i++ ] = this.parachuteLaunchTime;
+    data[ i++ ] = Float.floatToRawIntBits( this.windField.getTime( ) );
+    data[ i++ ] = Double.doubleToRawLongBits( this.landingVelocity );
+  }
+
+  /**
+   * Restores the state recorded in a snapshot.
+   *
+   * @param offset - Offset of the snapshot.
+   */
+  private void restore( final int offset )
+  {
+    final long[ ] data = this.snapshots.getData( );
+
+    this.body.restore( data, offset );
+
+    int i = offset + Body.StateSize;
+    this.state               = RoundSimulator.States[ ( int )data[ i++ ] ];
+    this.score               = ( int )data[ i++ ];
+    this.time                = data[ i++ ];
+    this.stateTime           = data[ i++ ];
+    this.helicopterX         = Float.intBitsToFloat( ( int )data[ i++ ] );
+    this.parachuteOpen       = data[ i++ ] != 0;
+    this.parachuteLaunchTime = data[ i++ ];
+    this.windField.setTime( Float.intBitsToFloat( ( int )data[ i++ ] ) );
+    this.landingVelocity     = Double.longBitsToDouble( data[ i++ ] );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Sets the current round state.
+   *
+   * @param state - New round state.
+   */
+  private void setState( final RoundState state )
+  {
+    this.state = state;
+    this.stateTime = 0;
+
+    switch ( state )
+    {
+      case PreLaunch:
+      {
+        // Start the helicopter offscreen with the jumper hanging below it:
+        this.helicopterX = -this.helicopterWidth;
+        this.body.setPosition( this.helicopterX + this.helicopterWidth / 2.0f,
+                               Round.HelicopterHeight + this.helicopterHeight - this.jumperHeight * Round.JumperHangRatio );
+      }
+        break;
+
+      case InFlight:
+      {
+        // Start falling, pulled along by the helicopter and pushed by the wind:
+        this.body.setVerticalAcceleration( Body.DefaultVerticalAcceleration );
+        this.body.setHorizontalAcceleration( Body.DefaultHorizontalAcceleration );
+        this.body.setHorizontalVelocity( TrajectoryPredictor.JumpHorizontalVelocity );
+      }
+        break;
+
+      case CompleteDefault:
+      case CompleteSplat:
+      {
+        // Clear movement on the jumper:
+        this.body.setVerticalAcceleration( 0.0f );
+        this.body.setHorizontalAcceleration( 0.0f );
+        this.body.setVerticalVelocity( 0.0f );
+        this.body.setHorizontalVelocity( 0.0f );
+      }
+        break;
+
+      default:
+        break;
+    }
+  }
+
+  /**
+   * Returns true if the jumper is partially or fully contained within the window, otherwise false.
+   *
+   * @return True if the jumper is on screen, otherwise false.
+   */
+  private boolean isOnscreen( )
+  {
+    final float x = this.body.getX( );
+    final float y = this.body.getY( );
+
+    if ( x + this.jumperWidth < 0.0f )                return false;
+    if ( x > this.round.getWindowWidth( ) )           return false;
+    if ( y + this.jumperHeight < 0.0f )               return false;
+    if ( y > this.round.getWindowHeight( ) )          return false;
+
+    return true;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Gets the round being simulated.
+   *
+   * @return Round.
+   */
+  public Round getRound( )
+  {
+    return this.round;
+  }
+
+  /**
+   * Gets the jumper body.
+   *
+   * @return Jumper body.
+   */
+  public Body getBody( )
+  {
+    return this.body;
+  }
+
+  /**
+   * Gets the current round state.
+   *
+   * @return Round state.
+   */
+  public RoundState getState( )
+  {
+    return this.state;
+  }
+
+  /**
+   * Gets the completion score.
+   *
+   * @return Score.
+   */
+  public int getScore( )
+  {
+    return this.score;
+  }
+
+  /**
+   * Gets the time since the round started.
+   *
+   * @return Time, in milliseconds.
+   */
+  public long getTime( )
+  {
+    return this.time;
+  }
+
+  /**
+   * Gets the horizontal position of the helicopter.
+   *
+   * @return Helicopter position.
+   */
+  public float getHelicopterX( )
+  {
+    return this.helicopterX;
+  }
+
+  /**
+   * Returns true once the parachute has opened.
+   *
+   * @return True if the parachute is open, otherwise false.
+   */
+  public boolean isParachuteOpen( )
+  {
+    return this.parachuteOpen;
+  }
+
+  /**
+   * Gets the speed of the jumper when he reached the ground.
+   *
+   * @return Landing velocity, or 0 if the jumper hasn't landed.
+   */
+  public double getLandingVelocity( )
+  {
+    return this.landingVelocity;
+  }
+
+  /**
+   * Gets the time the parachute has been open.
+   *
+   * @return Time, in milliseconds, or 0 if the parachute hasn't opened.
+   */
+  public long getParachuteTime( )
+  {
+    return this.parachuteOpen ? this.time - this.parachuteLaunchTime : 0;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
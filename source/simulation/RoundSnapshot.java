@@ -0,0 +1,239 @@
+package com.bryanchacosky.core.simulation;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Copy of the state of a {@link RoundSimulator} after a step, handed from the simulation thread to the render thread
+ * by {@link SimulationThread}.  Snapshots are recycled between the two threads rather than allocated per step; a
+ * snapshot is only ever written by the simulation thread while it owns it, and is read-only once published.
+ *
+ * @author Bryan Chacosky
+ */
+public class RoundSnapshot
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Number of the step the snapshot was taken after; later snapshots have higher numbers. */
+  private long sequence = -1;
+
+  /** Round state. */
+  private RoundState state = RoundState.Countdown;
+
+  /** Completion score. */
+  private int score = 0;
+
+  /** Time since the round started, in milliseconds. */
+  private long time = 0;
+
+  /** Horizontal position of the helicopter. */
+  private float helicopterX = 0.0f;
+
+  /** Horizontal position of the jumper. */
+  private float jumperX = 0.0f;
+
+  /** Vertical position of the jumper. */
+  private float jumperY = 0.0f;
+
+  /** Horizontal velocity of the jumper. */
+  private float horizontalVelocity = 0.0f;
+
+  /** Vertical velocity of the jumper. */
+  private float verticalVelocity = 0.0f;
+
+  /** Magnitude of the jumper's velocity. */
+  private double currentVelocity = 0.0;
+
+  /** True once the parachute has opened. */
+  private boolean parachuteOpen = false;
+
+  /** Time the parachute has been open, in milliseconds. */
+  private long parachuteTime = 0;
+
+  /** Speed of the jumper when he reached the ground. */
+  private double landingVelocity = 0.0;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Copies the current state of a simulator into the snapshot.
+   *
+   * @param simulator - Simulator.
+   * @param sequence - Number of the step just taken.
+   */
+  void capture( final RoundSimulator simulator, final long sequence )
+  {
+    final Body body = simulator.getBody( );
+
+    this.sequence = sequence;
+    this.state = simulator.getState( );
+    this.score = simulator.getScore( );
+    this.time = simulator.getTime( );
+    this.helicopterX = simulator.getHelicopterX( );
+    this.jumperX = body.getX( );
+    this.jumperY = body.getY( );
+    this.horizontalVelocity = body.getHorizontalVelocity( );
+    this.verticalVelocity = body.getVerticalVelocity( );
+    this.currentVelocity = body.getCurrentVelocity( );
+    this.parachuteOpen = simulator.isParachuteOpen( );
+    this.parachuteTime = simulator.getParachuteTime( );
+    this.landingVelocity = simulator.getLandingVelocity( );
+  }
+
+  /**
+   * Copies another snapshot.
+   *
+   * @param snapshot - Snapshot to copy.
+   */
+  public void copy( final RoundSnapshot snapshot )
+  {
+    this.sequence = snapshot.sequence;
+    this.state = snapshot.state;
+    this.score = snapshot.score;
+    this.time = snapshot.time;
+    this.helicopterX = snapshot.helicopterX;
+    this.jumperX = snapshot.jumperX;
+    this.jumperY = snapshot.jumperY;
+    this.horizontalVelocity = snapshot.horizontalVelocity;
+    this.verticalVelocity = snapshot.verticalVelocity;
+    this.currentVelocity = snapshot.currentVelocity;
+    this.parachuteOpen = snapshot.parachuteOpen;
+    this.parachuteTime = snapshot.parachuteTime;
+    this.landingVelocity = snapshot.landingVelocity;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Gets the number of the step the snapshot was taken after.
+   *
+   * @return Step number, or -1 for a snapshot which has never been written.
+   */
+  public long getSequence( )
+  {
+    return this.sequence;
+  }
+
+  /**
+   * Gets the round state.
+   *
+   * @return Round state.
+   */
+  public RoundState getState( )
+  {
+    return this.state;
+  }
+
+  /**
+   * Gets the completion score.
+   *
+   * @return Score.
+   */
+  public int getScore( )
+  {
+    return this.score;
+  }
+
+  /**
+   * Gets the time since the round started.
+   *
+   * @return Time, in milliseconds.
+   */
+  public long getTime( )
+  {
+    return this.time;
+  }
+
+  /**
+   * Gets the horizontal position of the helicopter.
+   *
+   * @return Helicopter position.
+   */
+  public float getHelicopterX( )
+  {
+    return this.helicopterX;
+  }
+
+  /**
+   * Gets the horizontal position of the jumper.
+   *
+   * @return Horizontal position.
+   */
+  public float getJumperX( )
+  {
+    return this.jumperX;
+  }
+
+  /**
+   * Gets the vertical position of the jumper.
+   *
+   * @return Vertical position.
+   */
+  public float getJumperY( )
+  {
+    return this.jumperY;
+  }
+
+  /**
+   * Gets the horizontal velocity of the jumper.
+   *
+   * @return Horizontal velocity.
+   */
+  public float getHorizontalVelocity( )
+  {
+    return this.horizontalVelocity;
+  }
+
+  /**
+   * Gets the vertical velocity of the jumper.
+   *
+   * @return Vertical velocity.
+   */
+  public float getVerticalVelocity( )
+  {
+    return this.verticalVelocity;
+  }
+
+  /**
+   * Gets the magnitude of the jumper's velocity.
+   *
+   * @return Magnitude of the velocity.
+   */
+  public double getCurrentVelocity( )
+  {
+    return this.currentVelocity;
+  }
+
+  /**
+   * Returns true once the parachute has opened.
+   *
+   * @return True if the parachute is open, otherwise false.
+   */
+  public boolean isParachuteOpen( )
+  {
+    return this.parachuteOpen;
+  }
+
+  /**
+   * Gets the speed of the jumper when he reached the ground.
+   *
+   * @return Landing velocity, or 0 if the jumper hasn't landed.
+   */
+  public double getLandingVelocity( )
+  {
+    return this.landingVelocity;
+  }
+
+  /**
+   * Gets the time the parachute has been open.
+   *
+   * @return Time, in milliseconds, or 0 if the parachute hasn't opened.
+   */
+  public long getParachuteTime( )
+  {
+    return this.parachuteTime;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
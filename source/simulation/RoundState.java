@@ -0,0 +1,48 @@
+package com.bryanchacosky.core.simulation;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Enumeration of the states a round can be in.  These states act as a faux-state machine through the
+ * {@link com.bryanchacosky.core.graphics.controller.GameController} and {@link RoundSimulator} update methods.
+ *
+ * @author Bryan Chacosky
+ */
+public enum RoundState
+{
+  /** Countdown timer is ticking. */
+  Countdown,
+
+  /** Helicopter is on the move and waiting for the player to launch. */
+  PreLaunch,
+
+  /** Player has launched and we're waiting for a success/failure response. */
+  InFlight,
+
+  /*
+   * Enumeration values below represent completion states.  They are not intended to be
+   * set in continuous order like the previous states.  The intention is to set a single
+   * completion state based off the result of the round, and the faux-state machine
+   * will handle the appropriate visual response.
+   */
+
+  /** Round is complete and the score is presented. */
+  CompleteDefault,
+
+  /** Round is complete and the splat message is presented. */
+  CompleteSplat;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Returns true if this is a completion state.
+   *
+   * @return True if the round is complete, otherwise false.
+   */
+  public boolean isComplete( )
+  {
+    return RoundState.CompleteDefault.equals( this ) || RoundState.CompleteSplat.equals( this );
+  }
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
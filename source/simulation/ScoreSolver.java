@@ -0,0 +1,541 @@
+package com.bryanchacosky.core.simulation;
+
+import com.bryanchacosky.core.SkyDiver;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Finds the jump and parachute timings which maximize the score of a round while still landing safely.
+ *
+ * The fixed parts of the score only depend on the round, so the solver maximizes the parachute time, which comes down
+ * to opening the parachute as early as still lands safely.  Every candidate is played out on a {@link RoundSimulator}
+ * of the round, the same simulation the game runs, so it meets the same gusting {@link WindField} in the same steps,
+ * and a solution is a play a player with perfect timing could make.
+ *
+ * For a given opening delay, jumping later moves the landing further right, so the jump which lands on the ground is
+ * found by a few Newton steps from the closed-form drift, falling back to bisection.  A splat from drifting too fast
+ * depends on the gusts the jump meets, so the slowest landing onto the ground is then found by a golden-section search
+ * over the jumps.  The earliest opening delay with a safe landing is bracketed in doubling strides from a closed-form
+ * {@link TrajectoryPredictor} estimate for the mean wind, and refined by bisection.  Every search is bounded, so a
+ * solve plays out a few dozen flights, on the order of a hundred microseconds, rather than every jump and delay.  It
+ * is approximate: gusts can open narrow landing windows the searches step over, which an exhaustive search would
+ * find, so the score found can fall a few percent short of the best.  The simulator keeps a snapshot of every step
+ * and rewinds to each jump, so a candidate only simulates its own flight, and solving the same round again allocates
+ * nothing.
+ *
+ * The game integrates in fixed steps of {@link SkyDiver#UpdateRate} milliseconds.  Stepped Euler integration follows
+ * the same parabola as the continuous equations started with half a step of extra velocity, so the estimate adds that
+ * half step to match the game.
+ *
+ * @author Bryan Chacosky
+ */
+public class ScoreSolver
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Number of samples in the coarse scans which bracket the earliest safe opening time. */
+  private static final int BracketCount = 32;
+
+  /** Number of bisection iterations used to refine the estimate. */
+  private static final int BisectionIterations = 24;
+
+  /** Number of Newton steps taken towards a landing jump before falling back to bisection. */
+  private static final int NewtonIterations = 3;
+
+  /** Number of golden-section iterations used to find the slowest landing. */
+  private static final int GoldenIterations = 8;
+
+  /** Inverse of the golden ratio. */
+  private static final float InverseGolden = 0.618034f;
+
+  /** Number of snapshots kept: one a step from the countdown until the helicopter leaves, and a whole flight. */
+  private static final int SnapshotCapacity = 1024;
+
+  /** Half of an update step, in seconds. */
+  private static final float HalfStep = SkyDiver.UpdateRate / 2000.0f;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Outcomes of a simulated jump.
+   */
+  private static enum Outcome
+  {
+    /** Landed on the ground slowly enough. */
+    Landed,
+
+    /** Landed on the ground too fast. */
+    Splat,
+
+    /** Missed the ground to the left. */
+    Left,
+
+    /** Missed the ground to the right. */
+    Right
+  };
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Width of the jumper. */
+  private final float jumperWidth;
+
+  /** Height of the jumper. */
+  private final float jumperHeight;
+
+  /** Width of the helicopter. */
+  private final float helicopterWidth;
+
+  /** Height of the helicopter. */
+  private final float helicopterHeight;
+
+  /** Scratch prediction, reused between estimates. */
+  private final Prediction prediction = new Prediction( );
+
+  /** Round being solved, or null before the first solve. */
+  private Round round = null;
+
+  /** Simulator of the round being solved, recording a snapshot every step. */
+  private RoundSimulator simulator = null;
+
+  /** Time of the jump played out last, which the simulator rewinds to before the next one. */
+  private long rewindTime = 0;
+
+  /** First step after the helicopter appears at which the jumper can jump. */
+  private int firstJump = 0;
+
+  /** Last step after the helicopter appears at which the jumper can jump. */
+  private int lastJump = 0;
+
+  /** Jump step found by the last successful {@link #land(int)}. */
+  private int jump = 0;
+
+  /** Distance the helicopter, and so the jump, moves in a step. */
+  private float jumpSpacing;
+
+  /** Horizontal position of the jumper for a jump the moment the helicopter appears. */
+  private float firstJumpX;
+
+  /** Horizontal position of the jumper when landing on the middle of the ground. */
+  private float targetX;
+
+  /** Difference between the drift of the last landing and its closed-form prediction. */
+  private float driftError;
+
+  /** Final horizontal position of the jumper in the last {@link #fly(int, int)}. */
+  private float landingX;
+
+  /** Vertical position of the jumper when they jump, for the round being solved. */
+  private float startY;
+
+  /** Vertical position at which the jumper touches the ground, for the round being solved. */
+  private float groundY;
+
+  /** Average wind speed, for the round being solved. */
+  private float windspeed;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a new solver.
+   *
+   * @param jumperWidth - Width of the jumper.
+   * @param jumperHeight - Height of the jumper.
+   * @param helicopterWidth - Width of the helicopter.
+   * @param helicopterHeight - Height of the helicopter.
+   */
+  public ScoreSolver( final float jumperWidth, final float jumperHeight, final float helicopterWidth, final float helicopterHeight )
+  {
+    this.jumperWidth = jumperWidth;
+    this.jumperHeight = jumperHeight;
+    this.helicopterWidth = helicopterWidth;
+    this.helicopterHeight = helicopterHeight;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Solves a round for the best achievable score.
+   *
+   * @param round - Round to solve.
+   * @param solution - Receives the solution.
+   * @return True if a safe landing is possible, otherwise false.
+   */
+  public boolean solve( final Round round, final Solution solution )
+  {
+    assert round != null : "Cannot solve a null round!";
+    assert solution != null : "Cannot solve into a null solution!";
+
+    this.prepare( round );
+    final float estimate = this.estimate( round );
+
+    // Step away from the closed-form estimate in growing strides, towards later delays while the parachute opens too
+    // early and earlier ones while it opens too late, until a delay lands or the strides cross a bound.  The parachute
+    // opens a step after the jump at the earliest, as it does when the simulator plays the solution out:
+    final int lastDelay = ( int )( TrajectoryPredictor.timeToReach( this.startY, 0.0f, Body.DefaultVerticalAcceleration, this.groundY ) * 1000.0f / SkyDiver.UpdateRate );
+    int early  = 0;
+    int late   = lastDelay + 1;
+    int delay  = Math.min( Math.max( Math.round( estimate * 1000.0f / SkyDiver.UpdateRate ), 1 ), lastDelay );
+    int landed = -1;
+    for ( int stride = 1; landed < 0; stride *= 2 )
+    {
+      final Outcome outcome = this.land( delay );
+      if ( Outcome.Landed.equals( outcome ) == true )
+      {
+        landed = delay;
+        break;
+      }
+
+      if ( Outcome.Right.equals( outcome ) == true )    early = delay;
+      else                                              late = delay;
+
+      if ( late - early <= 1 )
+      {
+        solution.clear( );
+        return false;
+      }
+
+      delay = Outcome.Right.equals( outcome ) == true ? delay + stride : delay - stride;
+      if ( delay <= early || delay >= late )
+        delay = ( early + late ) >>> 1;
+    }
+
+    // Then bisect down to the earliest delay that lands, stepping down in growing strides while no earlier delay is
+    // known to open too early:
+    int bestJump = this.jump;
+    for ( int stride = 1; landed - early > 1; stride *= 2 )
+    {
+      delay = early == 0 ? Math.max( landed - stride, 1 ) : ( early + landed ) >>> 1;
+      if ( Outcome.Landed.equals( this.land( delay ) ) == true )
+      {
+        landed = delay;
+        bestJump = this.jump;
+      }
+      else
+      {
+        early = delay;
+      }
+    }
+
+    // Play the solution out once more, to read its parachute time:
+    this.fly( bestJump, landed );
+    solution.set( bestJump * SkyDiver.UpdateRate, landed * SkyDiver.UpdateRate, this.simulator.getParachuteTime( ), this.simulator.getScore( ) );
+    return true;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Builds the simulator for a round, unless it's the round solved last, and flies the helicopter across the screen
+   * without jumping, recording a snapshot of every step a jump could start from.
+   *
+   * @param round - Round to solve.
+   */
+  private void prepare( final Round round )
+  {
+    if ( round == this.round )
+      return;
+
+    this.round = round;
+    this.simulator = new RoundSimulator( round, PhysicsBackend.Default, this.jumperWidth, this.jumperHeight, this.helicopterWidth, this.helicopterHeight );
+    this.simulator.enableSnapshots( ScoreSolver.SnapshotCapacity, 1 );
+    while ( this.simulator.getState( ).isComplete( ) == false )
+      this.simulator.step( );
+    this.rewindTime = this.simulator.getTime( );
+
+    // The jumper hangs from the middle of the helicopter, which starts a helicopter width off screen:
+    this.jumpSpacing = round.getHelicopterSpeed( ) * SkyDiver.UpdateRate / 1000.0f;
+    this.firstJumpX  = -this.helicopterWidth * 0.5f;
+    this.targetX     = round.getGroundX( ) + ( round.getGroundWidth( ) - this.jumperWidth ) * 0.5f;
+    this.driftError  = 0.0f;
+
+    // Jumps can be made until the helicopter leaves, but the first few would start off screen and end straight away:
+    this.lastJump  = ( int )( ( this.rewindTime - RoundSimulator.CountdownDuration ) / SkyDiver.UpdateRate ) - 1;
+    this.firstJump = Math.max( ( int )Math.ceil( ( -this.jumperWidth - this.firstJumpX ) / this.jumpSpacing ), 0 );
+    while ( this.firstJump < this.lastJump && Outcome.Left.equals( this.fly( this.firstJump, 1 ) ) == true && this.simulator.getBody( ).getX( ) + this.jumperWidth < 0.0f )
+      ++this.firstJump;
+  }
+
+  /**
+   * Finds a jump which lands safely on the ground when the parachute opens a number of steps after it.  The first
+   * jump tried is the one the closed-form drift puts over the middle of the ground, corrected by how far the last
+   * landing strayed from its prediction, so that most delays take a single flight.  Jumping later moves the landing
+   * right, so every miss narrows a bracket of jumps; a few Newton steps of the miss over the helicopter's speed
+   * narrow it first, and bisection takes over after them or whenever a step leaves the bracket.
+   *
+   * @param delay - Steps from the jump to opening the parachute.
+   * @return {@link Outcome#Landed} if a jump lands safely, leaving its step in {@link #jump}; {@link Outcome#Right} if
+   *         the parachute opens too early for any jump, since even the first overshoots the ground; otherwise
+   *         {@link Outcome#Left} or {@link Outcome#Splat} if it opens too late.
+   */
+  private Outcome land( final int delay )
+  {
+    final float drift = this.drift( delay );
+    int jump = Math.round( ( this.targetX - this.firstJumpX - drift - this.driftError ) / this.jumpSpacing );
+    jump = Math.min( Math.max( jump, this.firstJump ), this.lastJump );
+
+    int low  = this.firstJump - 1;
+    int high = this.lastJump + 1;
+    for ( int i = 0; ; ++i )
+    {
+      final Outcome outcome = this.fly( jump, delay );
+      switch ( outcome )
+      {
+        case Landed:
+          this.jump = jump;
+          this.driftError = this.landingX - ( this.firstJumpX + jump * this.jumpSpacing ) - drift;
+          return Outcome.Landed;
+
+        case Splat:
+          if ( this.isDriftSplat( ) == false )
+            return Outcome.Splat;
+          return this.slowest( jump, delay ) == true ? Outcome.Landed : Outcome.Right;
+
+        case Left:
+          low = jump;
+          break;
+
+        case Right:
+          high = jump;
+          break;
+      }
+
+      // Every jump misses; the parachute opens too early if even the first jump overshoots:
+      if ( high - low <= 1 )
+        return high == this.firstJump ? Outcome.Right : Outcome.Left;
+
+      int next = i < ScoreSolver.NewtonIterations ? jump - Math.round( ( this.landingX - this.targetX ) / this.jumpSpacing ) : -1;
+      if ( next <= low || next >= high )
+        next = ( low + high ) >>> 1;
+      jump = next;
+    }
+  }
+
+  /**
+   * Finds the jump which lands slowest for a delay, after a jump splatted on the ground from drifting too fast.  How
+   * fast the gusts carry the jumper depends on when and where they blow, so other jumps onto the ground may still
+   * land safely.  The landing speed varies smoothly across the jumps which reach the ground, so it's minimized by a
+   * golden-section search over them, stopping at the first safe landing.
+   *
+   * @param splat - Step of the jump which splatted.
+   * @param delay - Steps from the jump to opening the parachute.
+   * @return True if a jump lands safely, leaving its step in {@link #jump}; otherwise false.
+   */
+  private boolean slowest( final int splat, final int delay )
+  {
+    // Jumps reaching the ground, assuming the drift stays the same as the splat's:
+    float low  = splat - ( this.landingX - this.round.getGroundX( ) + this.jumperWidth ) / this.jumpSpacing;
+    float high = splat + ( this.round.getGroundX( ) + this.round.getGroundWidth( ) - this.landingX ) / this.jumpSpacing;
+    low  = Math.max( low, this.firstJump );
+    high = Math.min( high, this.lastJump );
+
+    float left  = high - ( high - low ) * ScoreSolver.InverseGolden;
+    float right = low + ( high - low ) * ScoreSolver.InverseGolden;
+    double leftSpeed  = this.landingSpeed( Math.round( left ), delay );
+    double rightSpeed = leftSpeed < 0.0 ? leftSpeed : this.landingSpeed( Math.round( right ), delay );
+    for ( int i = 0; i != ScoreSolver.GoldenIterations && leftSpeed >= 0.0 && rightSpeed >= 0.0; ++i )
+    {
+      if ( leftSpeed < rightSpeed )
+      {
+        high       = right;
+        right      = left;
+        rightSpeed = leftSpeed;
+        left       = high - ( high - low ) * ScoreSolver.InverseGolden;
+        leftSpeed  = this.landingSpeed( Math.round( left ), delay );
+      }
+      else
+      {
+        low        = left;
+        left       = right;
+        leftSpeed  = rightSpeed;
+        right      = low + ( high - low ) * ScoreSolver.InverseGolden;
+        rightSpeed = this.landingSpeed( Math.round( right ), delay );
+      }
+    }
+
+    return leftSpeed < 0.0 || rightSpeed < 0.0;
+  }
+
+  /**
+   * Plays out a jump and measures how fast it reaches the ground.
+   *
+   * @param jump - Steps from the helicopter appearing to the jump.
+   * @param delay - Steps from the jump to opening the parachute.
+   * @return -1 if the jump lands safely, leaving its step in {@link #jump}; otherwise the speed it hits the ground at,
+   *         or the largest double if it misses the ground.
+   */
+  private double landingSpeed( final int jump, final int delay )
+  {
+    final Outcome outcome = this.fly( jump, delay );
+    if ( Outcome.Landed.equals( outcome ) == true )
+    {
+      this.jump = jump;
+      return -1.0;
+    }
+
+    return Outcome.Splat.equals( outcome ) == true ? this.simulator.getLandingVelocity( ) : Double.MAX_VALUE;
+  }
+
+  /**
+   * Plays out a jump on the simulator, rewinding it to the jump first, and keeps the jumper's final horizontal position
+   * in {@link #landingX}.
+   *
+   * @param jump - Steps from the helicopter appearing to the jump.
+   * @param delay - Steps from the jump to opening the parachute.
+   * @return Outcome of the jump.
+   */
+  private Outcome fly( final int jump, final int delay )
+  {
+    final long time = RoundSimulator.CountdownDuration + ( long )jump * SkyDiver.UpdateRate;
+
+    // Forget the last jump, and fly the helicopter on to this one:
+    this.simulator.rewind( Math.min( time, this.rewindTime ) );
+    this.simulator.seek( time );
+    this.rewindTime = time;
+
+    if ( this.simulator.jump( ) == false )
+    {
+      this.landingX = this.round.getWindowWidth( );
+      return Outcome.Right;
+    }
+    this.simulator.simulate( 0, ( long )delay * SkyDiver.UpdateRate );
+    this.landingX = this.simulator.getBody( ).getX( );
+
+    if ( RoundState.CompleteSplat.equals( this.simulator.getState( ) ) == true )
+      return Outcome.Splat;
+    if ( this.simulator.getLandingVelocity( ) > 0.0 )
+      return Outcome.Landed;
+
+    // Missed the ground, flying off the bottom or side of the screen:
+    return this.landingX < this.targetX ? Outcome.Left : Outcome.Right;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Estimates the earliest safe opening time for the mean wind, in closed form.
+   *
+   * @param round - Round to solve.
+   * @return Time from the jump to opening the parachute, in seconds, or -1 if no safe opening is predicted.
+   */
+  private float estimate( final Round round )
+  {
+    this.startY = Round.HelicopterHeight + this.helicopterHeight - this.jumperHeight * Round.JumperHangRatio;
+    this.groundY = round.getGroundY( ) - this.jumperHeight;
+    this.windspeed = round.getWindspeed( );
+
+    // Range of positions the jumper can leave from, and that count as landing on top of the ground:
+    final float firstJumpX = 0.0f;
+    final float lastJumpX  = round.getWindowWidth( ) - this.jumperWidth;
+    final float left       = round.getGroundX( ) - this.jumperWidth;
+    final float right      = round.getGroundX( ) + round.getGroundWidth( );
+
+    // Opening the parachute any later than this means opening it underground:
+    final float freeFallTime = TrajectoryPredictor.timeToReach( this.startY, 0.0f, Body.DefaultVerticalAcceleration, this.groundY );
+
+    // Bracket the earliest feasible opening time with a coarse scan:
+    float infeasible = -1.0f;
+    float feasible   = -1.0f;
+    for ( int i = 0; i <= ScoreSolver.BracketCount; ++i )
+    {
+      final float delay = freeFallTime * i / ScoreSolver.BracketCount;
+      if ( this.isFeasible( delay, firstJumpX, lastJumpX, left, right ) == true )
+      {
+        feasible = delay;
+        break;
+      }
+      infeasible = delay;
+    }
+
+    // Refine the bracket by bisection:
+    if ( feasible >= 0.0f && infeasible >= 0.0f )
+    {
+      for ( int i = 0; i != ScoreSolver.BisectionIterations; ++i )
+      {
+        final float delay = ( infeasible + feasible ) * 0.5f;
+        if ( this.isFeasible( delay, firstJumpX, lastJumpX, left, right ) == true )   feasible = delay;
+        else                                                                           infeasible = delay;
+      }
+    }
+
+    return feasible;
+  }
+
+  /**
+   * Returns true if opening the parachute after a delay is predicted to land safely on the ground for some jump time.
+   *
+   * @param delay - Time from the jump to opening the parachute, in seconds.
+   * @param firstJumpX - Leftmost jump position.
+   * @param lastJumpX - Rightmost jump position.
+   * @param left - Leftmost landing position on the ground.
+   * @param right - Rightmost landing position on the ground.
+   * @return True if the opening time is feasible, otherwise false.
+   */
+  private boolean isFeasible( final float delay, final float firstJumpX, final float lastJumpX, final float left, final float right )
+  {
+    if ( this.deploy( delay ) == false )
+      return false;
+
+    if ( this.prediction.getImpactVelocity( ) > Round.MaximumSafeVelocity )
+      return false;
+
+    // Drift is independent of the jump position, so some jump lands on the ground if the shifted ranges overlap:
+    final float drift = this.prediction.getLandingX( );
+    return firstJumpX + drift <= right && lastJumpX + drift >= left;
+  }
+
+  /**
+   * Returns true if the last {@link #drift(int)} predicts landing faster sideways than downwards, so that a splat
+   * comes from drifting under the parachute for too long in a strong wind rather than opening it too late.
+   *
+   * @return True if the parachute opens too early to land safely, otherwise false.
+   */
+  private boolean isDriftSplat( )
+  {
+    return this.prediction.lands( ) == true && Math.abs( this.prediction.getImpactHorizontalVelocity( ) ) > Math.abs( this.prediction.getImpactVerticalVelocity( ) );
+  }
+
+  /**
+   * Predicts the horizontal drift of a jump which opens the parachute a number of steps after it, for the mean wind.
+   *
+   * @param delay - Steps from the jump to opening the parachute.
+   * @return Drift from the jump to the landing, or 0 if the jumper lands before the parachute opens.
+   */
+  private float drift( final int delay )
+  {
+    return this.deploy( delay * SkyDiver.UpdateRate / 1000.0f ) == true ? this.prediction.getLandingX( ) : 0.0f;
+  }
+
+  /**
+   * Predicts the landing of a jump from a horizontal position of zero which opens the parachute after a delay.
+   * The landing position of the prediction is therefore the horizontal drift of the jump.
+   *
+   * @param delay - Time from the jump to opening the parachute, in seconds.
+   * @return True if the jumper is still in the air when the parachute opens, otherwise false.
+   */
+  private boolean deploy( final float delay )
+  {
+    final float gravity = Body.DefaultVerticalAcceleration;
+    final float parachuteGravity = gravity * TrajectoryPredictor.ParachuteAccelerationScale;
+
+    // Free fall until the parachute opens, with the half step correction for the stepped integration:
+    final float y = this.startY + ( gravity * ScoreSolver.HalfStep ) * delay + 0.5f * gravity * delay * delay;
+    if ( y >= this.groundY )
+      return false;
+
+    final float x  = ( TrajectoryPredictor.JumpHorizontalVelocity + this.windspeed * ScoreSolver.HalfStep ) * delay + 0.5f * this.windspeed * delay * delay;
+    final float vx = TrajectoryPredictor.JumpHorizontalVelocity + this.windspeed * delay;
+    final float vy = gravity * delay;
+
+    // Then drift down under the parachute:
+    return TrajectoryPredictor.predict( this.prediction, x, y,
+                                        vx * TrajectoryPredictor.ParachuteHorizontalVelocityScale + this.windspeed * ScoreSolver.HalfStep,
+                                        vy * TrajectoryPredictor.ParachuteVerticalVelocityScale + parachuteGravity * ScoreSolver.HalfStep,
+                                        this.windspeed,
+                                        parachuteGravity,
+                                        this.groundY );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
@@ -0,0 +1,242 @@
+package com.bryanchacosky.core.simulation;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import com.bryanchacosky.core.SkyDiver;
+import com.bryanchacosky.core.events.GameEventBus;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Runs a {@link RoundSimulator} on its own thread at the fixed {@link SkyDiver#UpdateRate}, so that physics and the
+ * round rules use a second core instead of sharing the PlayN loop with rendering.  The step period follows the
+ * session's {@link com.bryanchacosky.core.utilities.TimingWheel#setTimeScale(float) time scale}, passed in with
+ * {@link #setTimeScale(float)}, so the round pauses, slows down or fast-forwards along with the game clock.  After every step the simulation
+ * copies its state into a {@link RoundSnapshot} and publishes it; the render thread picks up the latest snapshot with
+ * {@link #latest()} and never waits on the simulation, so a slow step only delays the next snapshot rather than a frame.
+ *
+ * Snapshots are handed over through a lock-free triple buffer: the simulation owns a back snapshot which it writes, the
+ * render thread owns a front snapshot which it reads, and the two swap their snapshot with a shared middle slot using
+ * an atomic exchange.  Neither thread ever sees a snapshot while the other is using it, and no snapshots are
+ * allocated once the thread is running.  Player input is passed the other way with atomic flags, applied before the
+ * next step.
+ *
+ * Every change of round state is also published on the session's {@link GameEventBus}, for the consumers of
+ * transitions such as the landing, which need each of them rather than just the latest state.
+ *
+ * When the session steps the simulation inline ({@link com.bryanchacosky.core.Session#isSimulationInline()}), no
+ * thread is started and the owner calls {@link #step()} from its own update instead, once for every
+ * {@link SkyDiver#UpdateRate} of scaled game time, which keeps headless runs deterministic.
+ *
+ * @author Bryan Chacosky
+ */
+public class SimulationThread implements Runnable
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Most steps taken at once to catch up after a stall; any further behind and the lost time is dropped. */
+  public static final int MaxCatchUpSteps = 5;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Simulator, only touched by the simulation thread once it has started. */
+  private final RoundSimulator simulator;
+
+  /** Bus the state transitions are published on. */
+  private final GameEventBus events;
+
+  /** State of the last snapshot published. */
+  private RoundState publishedState;
+
+  /** Snapshot written by the simulation thread. */
+  private RoundSnapshot back = new RoundSnapshot( );
+
+  /** Most recently published snapshot, or the render thread's previous snapshot once it has been picked up. */
+  private final AtomicReference< RoundSnapshot > middle = new AtomicReference< RoundSnapshot >( new RoundSnapshot( ) );
+
+  /** Snapshot read by the render thread. */
+  private RoundSnapshot front = new RoundSnapshot( );
+
+  /** Number of steps taken. */
+  private long sequence = 0;
+
+  /** Set when the player jumps. */
+  private final AtomicBoolean jumpRequested = new AtomicBoolean( false );
+
+  /** Set when the player opens the parachute. */
+  private final AtomicBoolean deployRequested = new AtomicBoolean( false );
+
+  /** Thread running the simulation, or null if it isn't running. */
+  private volatile Thread thread = null;
+
+  /** Multiplies the rate the thread steps at; 0 pauses it. */
+  private volatile float timeScale = 1.0f;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a new simulation thread, publishing the simulator's initial state.
+   *
+   * @param simulator - Simulator to run.
+   * @param events - Bus to publish the state transitions on.
+   */
+  public SimulationThread( final RoundSimulator simulator, final GameEventBus events )
+  {
+    assert simulator != null : "Cannot run a null simulator!";
+    assert events != null : "Cannot publish to a null event bus!";
+
+    this.simulator = simulator;
+    this.events = events;
+    this.publishedState = simulator.getState( );
+    this.publish( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Starts stepping the simulation on a new thread.  The thread stops by itself once the round completes.
+   */
+  public void start( )
+  {
+    assert this.thread == null : "Simulation thread is already running!";
+
+    final Thread thread = new Thread( this, "SkyDiver simulation" );
+    thread.setDaemon( true );
+    this.thread = thread;
+    thread.start( );
+  }
+
+  /**
+   * Stops the simulation thread, if it is running.
+   */
+  public void stop( )
+  {
+    final Thread thread = this.thread;
+    this.thread = null;
+
+    if ( null != thread )
+      LockSupport.unpark( thread );
+  }
+
+  /**
+   * Sets the rate the thread steps at, as a multiple of {@link SkyDiver#UpdateRate}.  Takes effect from the next step.
+   *
+   * @param timeScale - Time scale; 0 pauses the simulation.
+   */
+  public void setTimeScale( final float timeScale )
+  {
+    assert timeScale >= 0.0f : "Cannot run the simulation backwards!";
+    this.timeScale = timeScale;
+  }
+
+  /**
+   * Requests a jump, applied before the next step.
+   */
+  public void jump( )
+  {
+    this.jumpRequested.set( true );
+  }
+
+  /**
+   * Requests the parachute to open, applied before the next step.
+   */
+  public void deploy( )
+  {
+    this.deployRequested.set( true );
+  }
+
+  /**
+   * Gets the most recently published snapshot.  Only call from a single thread; the snapshot returned stays valid
+   * until the next call.
+   *
+   * @return Latest snapshot.
+   */
+  public RoundSnapshot latest( )
+  {
+    if ( this.middle.get( ).getSequence( ) > this.front.getSequence( ) )
+      this.front = this.middle.getAndSet( this.front );
+
+    return this.front;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Applies any pending input, advances the simulation by a single step and publishes the result.  Called by the
+   * thread, or by the owner when the simulation runs inline.
+   */
+  public void step( )
+  {
+    if ( this.simulator.getState( ).isComplete( ) == true )
+      return;
+
+    if ( this.jumpRequested.getAndSet( false ) == true )
+      this.simulator.jump( );
+    if ( this.deployRequested.getAndSet( false ) == true )
+      this.simulator.deploy( );
+
+    this.simulator.step( );
+    this.publish( );
+  }
+
+  @Override
+  public void run( )
+  {
+    final long unscaledPeriod = SkyDiver.UpdateRate * 1000000L;
+    long next = System.nanoTime( ) + unscaledPeriod;
+
+    while ( Thread.currentThread( ) == this.thread && this.simulator.getState( ).isComplete( ) == false )
+    {
+      // Hold the round while the game clock is paused, carrying on from wherever it resumes:
+      final float timeScale = this.timeScale;
+      if ( timeScale == 0.0f )
+      {
+        LockSupport.parkNanos( this, unscaledPeriod );
+        next = System.nanoTime( );
+        continue;
+      }
+
+      // Take every step which is due at the current time scale, catching up a little after a stall:
+      final long period = ( long )( unscaledPeriod / timeScale );
+      final long now = System.nanoTime( );
+      for ( int steps = 0; now - next >= 0 && steps != SimulationThread.MaxCatchUpSteps; ++steps )
+      {
+        this.step( );
+        next += period;
+      }
+
+      // Still behind, so drop the lost time rather than racing through the round:
+      if ( now - next >= 0 )
+        next = now + period;
+
+      LockSupport.parkNanos( this, next - System.nanoTime( ) );
+    }
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Copies the simulator state into the back snapshot and swaps it into the middle slot, publishing an event first if
+   * the state changed.
+   */
+  private void publish( )
+  {
+    this.back.capture( this.simulator, this.sequence++ );
+
+    final RoundState state = this.back.getState( );
+    if ( state.equals( this.publishedState ) == false )
+    {
+      this.events.claim( ).set( this.publishedState, this.back );
+      this.events.publish( );
+      this.publishedState = state;
+    }
+
+    this.back = this.middle.getAndSet( this.back );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
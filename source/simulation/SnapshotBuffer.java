@@ -0,0 +1,175 @@
+package com.bryanchacosky.core.simulation;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Fixed-size ring buffer of simulation snapshots.  Every snapshot is a run of longs in a single preallocated array,
+ * tagged with the time it was taken, so recording never allocates once the buffer exists.  When the buffer is full the
+ * oldest snapshot is overwritten.  Snapshots are kept in increasing time order: writing a snapshot discards any which
+ * are not older than it, which is how a rewound simulation forgets the future it is about to replace.
+ *
+ * @author Bryan Chacosky
+ */
+public class SnapshotBuffer
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Snapshot data, {@link #stride} longs per slot. */
+  private final long[ ] data;
+
+  /** Time of the snapshot in each slot. */
+  private final long[ ] times;
+
+  /** Number of longs per snapshot. */
+  private final int stride;
+
+  /** Slot of the oldest snapshot. */
+  private int head = 0;
+
+  /** Number of stored snapshots. */
+  private int count = 0;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a new buffer.
+   *
+   * @param capacity - Maximum number of snapshots kept.
+   * @param stride - Number of longs in each snapshot.
+   */
+  public SnapshotBuffer( final int capacity, final int stride )
+  {
+    assert capacity > 0 : "Snapshot buffer must hold at least one snapshot!";
+    assert stride > 0 : "Snapshots must hold at least one value!";
+
+    this.data = new long[ capacity * stride ];
+    this.times = new long[ capacity ];
+    this.stride = stride;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Reserves a slot for a new snapshot, discarding any snapshots at or after its time and overwriting the oldest
+   * snapshot if the buffer is full.  The caller writes the snapshot into {@link #getData()} at the returned offset.
+   *
+   * @param time - Time of the snapshot.
+   * @return Offset of the snapshot in the data array.
+   */
+  public int write( final long time )
+  {
+    this.truncate( time - 1 );
+
+    final int capacity = this.times.length;
+    if ( this.count == capacity )
+    {
+      this.head = ( this.head + 1 ) % capacity;
+      --this.count;
+    }
+
+    final int slot = ( this.head + this.count ) % capacity;
+    this.times[ slot ] = time;
+    ++this.count;
+
+    return slot * this.stride;
+  }
+
+  /**
+   * Finds the latest snapshot taken at or before a time.
+   *
+   * @param time - Time to search for.
+   * @return Index of the snapshot, from 0 for the oldest, or -1 if every stored snapshot is later.
+   */
+  public int find( final long time )
+  {
+    // Times increase from the head, so binary search over the logical indices:
+    int low = 0;
+    int high = this.count - 1;
+    int found = -1;
+    while ( low <= high )
+    {
+      final int middle = ( low + high ) >>> 1;
+      if ( this.getTime( middle ) <= time )
+      {
+        found = middle;
+        low = middle + 1;
+      }
+      else
+      {
+        high = middle - 1;
+      }
+    }
+
+    return found;
+  }
+
+  /**
+   * Discards every snapshot taken after a time.
+   *
+   * @param time - Time of the latest snapshot to keep.
+   */
+  public void truncate( final long time )
+  {
+    while ( this.count > 0 && this.getTime( this.count - 1 ) > time )
+      --this.count;
+  }
+
+  /**
+   * Discards every snapshot.
+   */
+  public void clear( )
+  {
+    this.head = 0;
+    this.count = 0;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Gets the number of stored snapshots.
+   *
+   * @return Snapshot count.
+   */
+  public int size( )
+  {
+    return this.count;
+  }
+
+  /**
+   * Gets the time of a stored snapshot.
+   *
+   * @param index - Index of the snapshot, from 0 for the oldest.
+   * @return Snapshot time.
+   */
+  public long getTime( final int index )
+  {
+    assert index >= 0 && index < this.count : "Snapshot index out of range!";
+    return this.times[ ( this.head + index ) % this.times.length ];
+  }
+
+  /**
+   * Gets the offset of a stored snapshot in the data array.
+   *
+   * @param index - Index of the snapshot, from 0 for the oldest.
+   * @return Offset of the snapshot.
+   */
+  public int getOffset( final int index )
+  {
+    assert index >= 0 && index < this.count : "Snapshot index out of range!";
+    return ( ( this.head + index ) % this.times.length ) * this.stride;
+  }
+
+  /**
+   * Gets the data array shared by every snapshot.
+   *
+   * @return Snapshot data.
+   */
+  public long[ ] getData( )
+  {
+    return this.data;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
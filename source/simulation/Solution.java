@@ -0,0 +1,131 @@
+package com.bryanchacosky.core.simulation;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Result of a {@link ScoreSolver} query: the jump and parachute timings which maximize the score of a round.
+ * Solutions are mutable so that a single instance can be reused between rounds.
+ *
+ * @author Bryan Chacosky
+ */
+public class Solution
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** True if a safe landing is possible in the round, otherwise false. */
+  private boolean feasible = false;
+
+  /** Time from the helicopter appearing to the jump, in milliseconds. */
+  private float jumpTime = 0.0f;
+
+  /** Time from the jump to opening the parachute, in milliseconds. */
+  private float deployDelay = 0.0f;
+
+  /** Time from opening the parachute to landing, in milliseconds. */
+  private float parachuteTime = 0.0f;
+
+  /** Best achievable score. */
+  private int score = 0;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Returns true if a safe landing is possible in the round.  The remaining values are only meaningful when this is true.
+   *
+   * @return True if a safe landing is possible, otherwise false.
+   */
+  public boolean isFeasible( )
+  {
+    return this.feasible;
+  }
+
+  /**
+   * Gets the time from the helicopter appearing to the jump, in milliseconds.
+   *
+   * @return Jump time.
+   */
+  public float getJumpTime( )
+  {
+    return this.jumpTime;
+  }
+
+  /**
+   * Gets the time from the jump to opening the parachute, in milliseconds.
+   *
+   * @return Deploy delay.
+   */
+  public float getDeployDelay( )
+  {
+    return this.deployDelay;
+  }
+
+  /**
+   * Gets the time from opening the parachute to landing, in milliseconds.
+   *
+   * @return Parachute time.
+   */
+  public float getParachuteTime( )
+  {
+    return this.parachuteTime;
+  }
+
+  /**
+   * Gets the best achievable score.
+   *
+   * @return Score.
+   */
+  public int getScore( )
+  {
+    return this.score;
+  }
+
+  /**
+   * Returns a score as a percentage of the best achievable score.  The percentage goes above 100 if a player finds a
+   * better play than the solver, which would point at a gap in its search rather than be hidden.
+   *
+   * @param score - Score to compare.
+   * @return Percentage of the best achievable score.
+   */
+  public int percentOf( final int score )
+  {
+    if ( this.score <= 0 )
+      return 100;
+
+    return Math.max( 0, ( int )( 100L * score / this.score ) );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Marks the round as having no safe landing.
+   */
+  void clear( )
+  {
+    this.feasible = false;
+    this.jumpTime = 0.0f;
+    this.deployDelay = 0.0f;
+    this.parachuteTime = 0.0f;
+    this.score = 0;
+  }
+
+  /**
+   * Sets the solution values.
+   *
+   * @param jumpTime - Jump time, in milliseconds.
+   * @param deployDelay - Deploy delay, in milliseconds.
+   * @param parachuteTime - Parachute time, in milliseconds.
+   * @param score - Best achievable score.
+   */
+  void set( final float jumpTime, final float deployDelay, final float parachuteTime, final int score )
+  {
+    this.feasible = true;
+    this.jumpTime = jumpTime;
+    this.deployDelay = deployDelay;
+    this.parachuteTime = parachuteTime;
+    this.score = score;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
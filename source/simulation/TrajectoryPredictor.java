@@ -0,0 +1,131 @@
+package com.bryanchacosky.core.simulation;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Abstract class containing static methods to predict where a jumper will land.  Under constant acceleration the path
+ * of a body has a closed form, so each prediction is O(1) instead of stepping the simulation frame by frame.
+ *
+ * Predictions use the mean wind and the continuous equations of motion, so they differ slightly from the stepped
+ * Euler integration of a {@link Body} and ignore gusts from the {@link WindField}.  The integration error
+ * shrinks with the update rate.
+ *
+ * @author Bryan Chacosky
+ */
+public abstract class TrajectoryPredictor
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Horizontal velocity of the jumper as he leaves the helicopter, mimicking the helicopter pulling him. */
+  public static final float JumpHorizontalVelocity = 25.0f;
+
+  /** Scale applied to gravity once the parachute opens. */
+  public static final float ParachuteAccelerationScale = 0.1f;
+
+  /** Scale applied to the vertical velocity when the parachute opens. */
+  public static final float ParachuteVerticalVelocityScale = 0.1f;
+
+  /** Scale applied to the horizontal velocity when the parachute opens. */
+  public static final float ParachuteHorizontalVelocityScale = 0.25f;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Predicts the landing if the jumper were to jump from the position right now.
+   *
+   * @param prediction - Receives the prediction.
+   * @param x - Current horizontal position.
+   * @param y - Current vertical position.
+   * @param windspeed - Mean horizontal wind acceleration.
+   * @param groundY - Vertical position at which the jumper touches the ground.
+   * @return True if the jumper reaches the ground, otherwise false.
+   */
+  public static boolean predictJump( final Prediction prediction, final float x, final float y, final float windspeed, final float groundY )
+  {
+    return TrajectoryPredictor.predict( prediction, x, y, TrajectoryPredictor.JumpHorizontalVelocity, 0.0f, windspeed, Body.DefaultVerticalAcceleration, groundY );
+  }
+
+  /**
+   * Predicts the landing if the jumper were to open his parachute right now.
+   *
+   * @param prediction - Receives the prediction.
+   * @param x - Current horizontal position.
+   * @param y - Current vertical position.
+   * @param vx - Current horizontal velocity.
+   * @param vy - Current vertical velocity.
+   * @param windspeed - Mean horizontal wind acceleration.
+   * @param groundY - Vertical position at which the jumper touches the ground.
+   * @return True if the jumper reaches the ground, otherwise false.
+   */
+  public static boolean predictDeploy( final Prediction prediction, final float x, final float y, final float vx, final float vy, final float windspeed, final float groundY )
+  {
+    return TrajectoryPredictor.predict( prediction, x, y,
+                                        vx * TrajectoryPredictor.ParachuteHorizontalVelocityScale,
+                                        vy * TrajectoryPredictor.ParachuteVerticalVelocityScale,
+                                        windspeed,
+                                        Body.DefaultVerticalAcceleration * TrajectoryPredictor.ParachuteAccelerationScale,
+                                        groundY );
+  }
+
+  /**
+   * Predicts the landing of a body under constant acceleration.
+   *
+   * @param prediction - Receives the prediction.
+   * @param x - Current horizontal position.
+   * @param y - Current vertical position.
+   * @param vx - Current horizontal velocity.
+   * @param vy - Current vertical velocity.
+   * @param ax - Horizontal acceleration.
+   * @param ay - Vertical acceleration.
+   * @param groundY - Vertical position at which the body touches the ground.
+   * @return True if the body reaches the ground, otherwise false.
+   */
+  public static boolean predict( final Prediction prediction, final float x, final float y, final float vx, final float vy, final float ax, final float ay, final float groundY )
+  {
+    assert prediction != null : "Cannot predict into a null prediction!";
+
+    final float t = TrajectoryPredictor.timeToReach( y, vy, ay, groundY );
+    if ( t < 0.0f )
+    {
+      prediction.clear( );
+      return false;
+    }
+
+    prediction.set( x + vx * t + 0.5f * ax * t * t, t, vx + ax * t, vy + ay * t );
+    return true;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Returns the time for a body to fall to a vertical position, solving 0.5 * ay * t^2 + vy * t - (groundY - y) = 0
+   * for the first non-negative root.
+   *
+   * @param y - Current vertical position.
+   * @param vy - Current vertical velocity.
+   * @param ay - Vertical acceleration.
+   * @param groundY - Vertical position to reach.
+   * @return Time in seconds, or a negative value if the position is never reached.
+   */
+  public static float timeToReach( final float y, final float vy, final float ay, final float groundY )
+  {
+    final float distance = groundY - y;
+    if ( distance <= 0.0f )
+      return 0.0f;
+
+    final float discriminant = vy * vy + 2.0f * ay * distance;
+    if ( discriminant < 0.0f )
+      return -1.0f;
+
+    // Use the rearranged root 2d / (vy + sqrt(disc)) which stays stable when the acceleration is zero or tiny:
+    final float denominator = vy + ( float )Math.sqrt( discriminant );
+    if ( denominator <= 0.0f )
+      return -1.0f;
+
+    return 2.0f * distance / denominator;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
@@ -0,0 +1,424 @@
+package com.bryanchacosky.core.simulation;
+
+import java.util.Random;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Spatially varying wind field with gusts that change over time.  The field is a coarse grid of wind vectors covering
+ * the window, generated once from a seeded noise table with a fixed number of gust keyframes.  Each update only picks
+ * the two nearest keyframes, and bodies sample the field with bilinear interpolation, blending just the four grid
+ * points around them between the keyframes; so an update costs the same however large the grid, which keeps the
+ * simulations run by the {@link ScoreSolver} cheap.
+ *
+ * All tables are flat arrays allocated up front, so neither updating nor sampling the field allocates.  The tables are
+ * kept in both float and 16.16 {@link FixedPoint}, so that fixed-point bodies sample the wind in pure integer
+ * arithmetic rather than converting their position to float and the wind back.
+ *
+ * @author Bryan Chacosky
+ */
+public class WindField
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Default size of a single grid cell, in pixels. */
+  public static final int DefaultCellSize = 64;
+
+  /** Number of gust keyframes stored in the noise table. */
+  private static final int FrameCount = 16;
+
+  /** Duration of a single gust keyframe, in seconds. */
+  private static final float FrameDuration = 0.75f;
+
+  /** Strength of the vertical gusts relative to the horizontal gusts.  Mostly the wind blows sideways. */
+  private static final float VerticalGustScale = 0.25f;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Number of grid points along the horizontal axis. */
+  private final int columns;
+
+  /** Number of grid points along the vertical axis. */
+  private final int rows;
+
+  /** Inverse of the cell size, to turn pixel positions into grid positions with a multiply. */
+  private final float inverseCellSize;
+
+  /** Precomputed horizontal wind for every keyframe, laid out as [frame][row][column]. */
+  private final float[ ] horizontalTable;
+
+  /** Precomputed vertical wind for every keyframe, laid out as [frame][row][column]. */
+  private final float[ ] verticalTable;
+
+  /** Inverse of the cell size in fixed-point. */
+  private final long fixedInverseCellSize;
+
+  /** Horizontal table in fixed-point.  Wind speeds are small enough for 16.16 values to fit an int. */
+  private final int[ ] fixedHorizontalTable;
+
+  /** Vertical table in fixed-point. */
+  private final int[ ] fixedVerticalTable;
+
+  /** Offset of the keyframe before the current time in the tables. */
+  private int currentFrame = 0;
+
+  /** Offset of the keyframe after the current time in the tables. */
+  private int nextFrame = 0;
+
+  /** Weight of the keyframe after the current time. */
+  private float weight = 0.0f;
+
+  /** Weight of the keyframe after the current time in fixed-point. */
+  private long fixedWeight = 0L;
+
+  /** Current time within the gust cycle, in seconds. */
+  private float time = 0.0f;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a new wind field with the default cell size.
+   *
+   * @param width - Width of the area covered by the field.
+   * @param height - Height of the area covered by the field.
+   * @param meanSpeed - Average horizontal wind speed, in units per second^2.
+   * @param gustSpeed - Maximum deviation of a gust from the average wind speed, in units per second^2.
+   * @param seed - Seed for the noise table.
+   */
+  public WindField( final int width, final int height, final float meanSpeed, final float gustSpeed, final long seed )
+  {
+    this( width, height, WindField.DefaultCellSize, meanSpeed, gustSpeed, seed );
+  }
+
+  /**
+   * Instantiates a new wind field.
+   *
+   * @param width - Width of the area covered by the field.
+   * @param height - Height of the area covered by the field.
+   * @param cellSize - Size of a single grid cell, in pixels.
+   * @param meanSpeed - Average horizontal wind speed, in units per second^2.
+   * @param gustSpeed - Maximum deviation of a gust from the average wind speed, in units per second^2.
+   * @param seed - Seed for the noise table.
+   */
+  public WindField( final int width, final int height, final int cellSize, final float meanSpeed, final float gustSpeed, final long seed )
+  {
+    assert width > 0 && height > 0 : "Wind field must cover a non-empty area!";
+    assert cellSize > 0 : "Cell size must be positive!";
+
+    // Grid points sit on cell corners, so we need one more point than cells along each axis:
+    this.columns = width / cellSize + 2;
+    this.rows = height / cellSize + 2;
+    this.inverseCellSize = 1.0f / cellSize;
+
+    final int cells = this.columns * this.rows;
+    this.horizontalTable = new float[ cells * WindField.FrameCount ];
+    this.verticalTable = new float[ cells * WindField.FrameCount ];
+
+    // Fill the keyframes with smoothed noise:
+    final Random random = new Random( seed );
+    final float[ ] white = new float[ cells ];
+    final float[ ] noise = new float[ cells ];
+    for ( int frame = 0; frame != WindField.FrameCount; ++frame )
+    {
+      final int offset = frame * cells;
+
+      this.fillNoise( random, white, noise );
+      for ( int i = 0; i != cells; ++i )
+        this.horizontalTable[ offset + i ] = meanSpeed + noise[ i ] * gustSpeed;
+
+      this.fillNoise( random, white, noise );
+      for ( int i = 0; i != cells; ++i )
+        this.verticalTable[ offset + i ] = noise[ i ] * gustSpeed * WindField.VerticalGustScale;
+    }
+
+    // Round the tables into fixed-point once:
+    this.fixedInverseCellSize = FixedPoint.div( FixedPoint.One, FixedPoint.fromInt( cellSize ) );
+    this.fixedHorizontalTable = WindField.toFixed( this.horizontalTable );
+    this.fixedVerticalTable = WindField.toFixed( this.verticalTable );
+
+    // Start at the first keyframe:
+    this.update( 0.0f );
+  }
+
+  /**
+   * Instantiates a new wind field blowing the same gusts as another, starting at the first keyframe.  The tables are
+   * never written once generated, so they're shared rather than copied.
+   *
+   * @param gusts - Wind field to share the gusts of.
+   */
+  public WindField( final WindField gusts )
+  {
+    assert gusts != null : "Cannot share the gusts of a null wind field!";
+
+    this.columns = gusts.columns;
+    this.rows = gusts.rows;
+    this.inverseCellSize = gusts.inverseCellSize;
+    this.horizontalTable = gusts.horizontalTable;
+    this.verticalTable = gusts.verticalTable;
+    this.fixedInverseCellSize = gusts.fixedInverseCellSize;
+    this.fixedHorizontalTable = gusts.fixedHorizontalTable;
+    this.fixedVerticalTable = gusts.fixedVerticalTable;
+
+    // Start at the first keyframe:
+    this.update( 0.0f );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Advances the gusts in the wind field.
+   *
+   * @param delta - Delta of the last frame, in milliseconds.
+   */
+  public void update( final float delta )
+  {
+    // Advance and wrap the time around the gust cycle:
+    final float period = WindField.FrameCount * WindField.FrameDuration;
+    this.time = ( this.time + delta / 1000.0f ) % period;
+
+    // Find the two keyframes surrounding the current time:
+    final float position = this.time / WindField.FrameDuration;
+    final int current = Math.min( ( int )position, WindField.FrameCount - 1 );
+    final int cells   = this.columns * this.rows;
+    this.currentFrame = current * cells;
+    this.nextFrame    = ( ( current + 1 ) % WindField.FrameCount ) * cells;
+    this.weight       = position - current;
+    this.fixedWeight  = FixedPoint.fromFloat( this.weight );
+  }
+
+  /**
+   * Gets the position within the gust cycle.
+   *
+   * @return Gust time, in seconds.
+   */
+  public float getTime( )
+  {
+    return this.time;
+  }
+
+  /**
+   * Jumps to a position within the gust cycle, such as one returned by {@link #getTime()}.
+   *
+   * @param time - Gust time, in seconds.
+   */
+  public void setTime( final float time )
+  {
+    this.time = time;
+    this.update( 0.0f );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Samples the horizontal wind at a position.
+   *
+   * @param x - X position, in pixels.
+   * @param y - Y position, in pixels.
+   * @return Horizontal wind, in units per second^2.
+   */
+  public float sampleHorizontal( final float x, final float y )
+  {
+    return this.sample( this.horizontalTable, x, y );
+  }
+
+  /**
+   * Samples the vertical wind at a position.
+   *
+   * @param x - X position, in pixels.
+   * @param y - Y position, in pixels.
+   * @return Vertical wind, in units per second^2.
+   */
+  public float sampleVertical( final float x, final float y )
+  {
+    return this.sample( this.verticalTable, x, y );
+  }
+
+  /**
+   * Samples the horizontal wind at a fixed-point position, in fixed-point.
+   *
+   * @param x - X position, in pixels.
+   * @param y - Y position, in pixels.
+   * @return Horizontal wind, in units per second^2.
+   */
+  public long sampleHorizontal( final long x, final long y )
+  {
+    return this.sample( this.fixedHorizontalTable, x, y );
+  }
+
+  /**
+   * Samples the vertical wind at a fixed-point position, in fixed-point.
+   *
+   * @param x - X position, in pixels.
+   * @param y - Y position, in pixels.
+   * @return Vertical wind, in units per second^2.
+   */
+  public long sampleVertical( final long x, final long y )
+  {
+    return this.sample( this.fixedVerticalTable, x, y );
+  }
+
+  /**
+   * Samples the wind for a batch of positions.  Intended for particle systems and other large groups of bodies
+   * which keep their positions in flat arrays.
+   *
+   * @param xs - X positions.
+   * @param ys - Y positions.
+   * @param horizontal - Receives the horizontal wind for each position.
+   * @param vertical - Receives the vertical wind for each position.
+   * @param count - Number of positions to sample.
+   */
+  public void sample( final float[ ] xs, final float[ ] ys, final float[ ] horizontal, final float[ ] vertical, final int count )
+  {
+    assert xs.length >= count && ys.length >= count : "Not enough positions to sample!";
+    assert horizontal.length >= count && vertical.length >= count : "Not enough room for the samples!";
+
+    for ( int i = 0; i != count; ++i )
+    {
+      horizontal[ i ] = this.sample( this.horizontalTable, xs[ i ], ys[ i ] );
+      vertical[ i ]   = this.sample( this.verticalTable, xs[ i ], ys[ i ] );
+    }
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Bilinearly interpolates a table at a position, at the current time.  Positions outside of the grid are clamped to
+   * the edges.
+   *
+   * @param table - Table to sample, laid out as [frame][row][column].
+   * @param x - X position, in pixels.
+   * @param y - Y position, in pixels.
+   * @return Interpolated value.
+   */
+  private float sample( final float[ ] table, final float x, final float y )
+  {
+    final float gx = Math.min( Math.max( x * this.inverseCellSize, 0.0f ), this.columns - 1.0f );
+    final float gy = Math.min( Math.max( y * this.inverseCellSize, 0.0f ), this.rows - 1.0f );
+
+    // Clamp the cell so that the far edge still has a neighbour to interpolate against:
+    final int column = Math.min( ( int )gx, this.columns - 2 );
+    final int row    = Math.min( ( int )gy, this.rows - 2 );
+    final float fx = gx - column;
+    final float fy = gy - row;
+
+    final int i = row * this.columns + column;
+    final float topLeft     = this.blend( table, i );
+    final float topRight    = this.blend( table, i + 1 );
+    final float bottomLeft  = this.blend( table, i + this.columns );
+    final float bottomRight = this.blend( table, i + this.columns + 1 );
+
+    final float top    = topLeft    + ( topRight    - topLeft )    * fx;
+    final float bottom = bottomLeft + ( bottomRight - bottomLeft ) * fx;
+    return top + ( bottom - top ) * fy;
+  }
+
+  /**
+   * Blends a grid point between the keyframes around the current time.
+   *
+   * @param table - Table to blend, laid out as [frame][row][column].
+   * @param i - Index of the grid point within a keyframe.
+   * @return Value at the current time.
+   */
+  private float blend( final float[ ] table, final int i )
+  {
+    final float a = table[ this.currentFrame + i ];
+    return a + ( table[ this.nextFrame + i ] - a ) * this.weight;
+  }
+
+  /**
+   * Bilinearly interpolates a fixed-point table at a fixed-point position, at the current time.  Positions outside of
+   * the grid are clamped to the edges.
+   *
+   * @param table - Table to sample, laid out as [frame][row][column].
+   * @param x - X position, in pixels.
+   * @param y - Y position, in pixels.
+   * @return Interpolated value.
+   */
+  private long sample( final int[ ] table, final long x, final long y )
+  {
+    final long gx = Math.min( Math.max( FixedPoint.mul( x, this.fixedInverseCellSize ), 0L ), FixedPoint.fromInt( this.columns - 1 ) );
+    final long gy = Math.min( Math.max( FixedPoint.mul( y, this.fixedInverseCellSize ), 0L ), FixedPoint.fromInt( this.rows - 1 ) );
+
+    // Clamp the cell so that the far edge still has a neighbour to interpolate against:
+    final int column = Math.min( ( int )( gx >> FixedPoint.FractionBits ), this.columns - 2 );
+    final int row    = Math.min( ( int )( gy >> FixedPoint.FractionBits ), this.rows - 2 );
+    final long fx = gx - FixedPoint.fromInt( column );
+    final long fy = gy - FixedPoint.fromInt( row );
+
+    final int i = row * this.columns + column;
+    final long topLeft     = this.blend( table, i );
+    final long topRight    = this.blend( table, i + 1 );
+    final long bottomLeft  = this.blend( table, i + this.columns );
+    final long bottomRight = this.blend( table, i + this.columns + 1 );
+
+    final long top    = topLeft    + FixedPoint.mul( topRight    - topLeft,    fx );
+    final long bottom = bottomLeft + FixedPoint.mul( bottomRight - bottomLeft, fx );
+    return top + FixedPoint.mul( bottom - top, fy );
+  }
+
+  /**
+   * Blends a fixed-point grid point between the keyframes around the current time.
+   *
+   * @param table - Table to blend, laid out as [frame][row][column].
+   * @param i - Index of the grid point within a keyframe.
+   * @return Value at the current time.
+   */
+  private long blend( final int[ ] table, final int i )
+  {
+    final long a = table[ this.currentFrame + i ];
+    return a + FixedPoint.mul( table[ this.nextFrame + i ] - a, this.fixedWeight );
+  }
+
+  /**
+   * Rounds a table into fixed-point.
+   *
+   * @param table - Float table.
+   * @return Fixed-point table.
+   */
+  private static int[ ] toFixed( final float[ ] table )
+  {
+    final int[ ] fixed = new int[ table.length ];
+    for ( int i = 0; i != table.length; ++i )
+      fixed[ i ] = ( int )FixedPoint.fromFloat( table[ i ] );
+    return fixed;
+  }
+
+  /**
+   * Fills a grid with smoothed noise in the range [-1, 1].
+   *
+   * @param random - Random source.
+   * @param white - Scratch grid for the white noise.
+   * @param noise - Grid to fill, laid out as [row][column].
+   */
+  private void fillNoise( final Random random, final float[ ] white, final float[ ] noise )
+  {
+    // Fill with white noise:
+    for ( int i = 0; i != noise.length; ++i )
+      white[ i ] = random.nextFloat( ) * 2.0f - 1.0f;
+
+    // Smooth each point with its neighbours so that gusts are spread over several cells:
+    for ( int row = 0; row != this.rows; ++row )
+    {
+      for ( int column = 0; column != this.columns; ++column )
+      {
+        float sum = 0.0f;
+        int count = 0;
+        for ( int r = Math.max( row - 1, 0 ); r <= Math.min( row + 1, this.rows - 1 ); ++r )
+        {
+          for ( int c = Math.max( column - 1, 0 ); c <= Math.min( column + 1, this.columns - 1 ); ++c )
+          {
+            sum += white[ r * this.columns + c ];
+            ++count;
+          }
+        }
+
+        // Averaging narrows the range, so stretch it back out:
+        noise[ row * this.columns + column ] = Math.min( Math.max( 2.0f * sum / count, -1.0f ), 1.0f );
+      }
+    }
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
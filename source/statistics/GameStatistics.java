@@ -0,0 +1,195 @@
+package com.bryanchacosky.core.statistics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.bryanchacosky.core.events.GameEvent;
+import com.bryanchacosky.core.simulation.Round;
+import com.bryanchacosky.core.simulation.RoundState;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Statistics aggregated over every round played: how fast the jumper lands relative to
+ * {@link Round#MaximumSafeVelocity}, how long the parachute stays open, how close the scores come to the best
+ * achievable, and how often the jumper splats at each wind speed.  Distributions are kept in {@link Histogram}s and
+ * the splat rate in a fixed number of wind speed buckets, so recording a round is constant time and the memory used
+ * never grows.  Statistics can be {@link #add(GameStatistics) merged}, to total up several sessions.
+ *
+ * @author Bryan Chacosky
+ */
+public class GameStatistics
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Number of wind speed buckets the splat rate is kept in. */
+  public static final int WindBuckets = 5;
+
+  /** Highest landing velocity tracked, in percent of {@link Round#MaximumSafeVelocity}. */
+  public static final long MaximumVelocityPercent = 1000;
+
+  /** Longest parachute time tracked, in milliseconds. */
+  public static final long MaximumParachuteTime = 60000;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Landing velocities, in percent of {@link Round#MaximumSafeVelocity}. */
+  private final Histogram landingVelocities = new Histogram( GameStatistics.MaximumVelocityPercent );
+
+  /** Time the parachute was open on landing, in milliseconds. */
+  private final Histogram parachuteTimes = new Histogram( GameStatistics.MaximumParachuteTime );
+
+  /** Scores, in percent of the best achievable score of the round. */
+  private final Histogram scorePercents = new Histogram( 100 );
+
+  /** Rounds played in each wind speed bucket. */
+  private final AtomicLongArray rounds = new AtomicLongArray( GameStatistics.WindBuckets );
+
+  /** Splats in each wind speed bucket. */
+  private final AtomicLongArray splats = new AtomicLongArray( GameStatistics.WindBuckets );
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Records a completed round.
+   *
+   * @param event - Transition completing the round.
+   * @param windspeed - Wind speed of the round.
+   */
+  public void recordRound( final GameEvent event, final float windspeed )
+  {
+    final int bucket = GameStatistics.windBucket( windspeed );
+    this.rounds.incrementAndGet( bucket );
+    if ( RoundState.CompleteSplat.equals( event.getState( ) ) == true )
+      this.splats.incrementAndGet( bucket );
+
+    if ( event.isLanding( ) == true )
+    {
+      this.landingVelocities.record( Math.round( event.getSnapshot( ).getLandingVelocity( ) * 100.0 / Round.MaximumSafeVelocity ) );
+      if ( event.getSnapshot( ).isParachuteOpen( ) == true )
+        this.parachuteTimes.record( event.getSnapshot( ).getParachuteTime( ) );
+    }
+  }
+
+  /**
+   * Records a score.
+   *
+   * @param percent - Score, in percent of the best achievable score of the round.
+   */
+  public void recordScore( final int percent )
+  {
+    this.scorePercents.record( percent );
+  }
+
+  /**
+   * Adds the statistics of another session to these.
+   *
+   * @param statistics - Statistics to add.
+   */
+  public void add( final GameStatistics statistics )
+  {
+    this.landingVelocities.add( statistics.landingVelocities );
+    this.parachuteTimes.add( statistics.parachuteTimes );
+    this.scorePercents.add( statistics.scorePercents );
+    for ( int i = 0; i != GameStatistics.WindBuckets; ++i )
+    {
+      this.rounds.addAndGet( i, statistics.rounds.get( i ) );
+      this.splats.addAndGet( i, statistics.splats.get( i ) );
+    }
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Gets the landing velocities, in percent of {@link Round#MaximumSafeVelocity}.
+   *
+   * @return Landing velocity histogram.
+   */
+  public Histogram getLandingVelocities( )
+  {
+    return this.landingVelocities;
+  }
+
+  /**
+   * Gets the time the parachute was open on landing.
+   *
+   * @return Parachute time histogram, in milliseconds.
+   */
+  public Histogram getParachuteTimes( )
+  {
+    return this.parachuteTimes;
+  }
+
+  /**
+   * Gets the scores, in percent of the best achievable score of each round.
+   *
+   * @return Score histogram.
+   */
+  public Histogram getScorePercents( )
+  {
+    return this.scorePercents;
+  }
+
+  /**
+   * Gets the number of rounds played.
+   *
+   * @return Round count.
+   */
+  public long getRoundCount( )
+  {
+    long count = 0;
+    for ( int i = 0; i != GameStatistics.WindBuckets; ++i )
+      count += this.rounds.get( i );
+    return count;
+  }
+
+  /**
+   * Gets the number of rounds played in a wind speed bucket.
+   *
+   * @param bucket - Wind speed bucket.
+   * @return Round count.
+   */
+  public long getRoundCount( final int bucket )
+  {
+    return this.rounds.get( bucket );
+  }
+
+  /**
+   * Gets the number of splats in a wind speed bucket.
+   *
+   * @param bucket - Wind speed bucket.
+   * @return Splat count.
+   */
+  public long getSplatCount( final int bucket )
+  {
+    return this.splats.get( bucket );
+  }
+
+  /**
+   * Gets the lowest wind speed of a bucket.
+   *
+   * @param bucket - Wind speed bucket.
+   * @return Wind speed.
+   */
+  public static float getWindBucketMinimum( final int bucket )
+  {
+    return Round.WindSpeedMin + bucket * ( Round.WindSpeedMax - Round.WindSpeedMin ) / GameStatistics.WindBuckets;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Gets the bucket of a wind speed.
+   *
+   * @param windspeed - Wind speed.
+   * @return Wind speed bucket.
+   */
+  private static int windBucket( final float windspeed )
+  {
+    final int bucket = ( int )( ( windspeed - Round.WindSpeedMin ) * GameStatistics.WindBuckets / ( Round.WindSpeedMax - Round.WindSpeedMin ) );
+    return Math.max( 0, Math.min( GameStatistics.WindBuckets - 1, bucket ) );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
@@ -0,0 +1,188 @@
+package com.bryanchacosky.core.statistics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Constant-memory histogram of whole number values, in the style of HdrHistogram.  Values are counted in log-linear
+ * buckets: every power of two range is split into the same number of sub-buckets, so each value is counted to within
+ * a fixed relative precision of {@value #Precision} significant bits (within 2%), whatever its magnitude.
+ * Recording a value is a couple of bit operations and an atomic increment, and the memory used depends only on the
+ * highest value tracked, never on the number of values recorded.
+ *
+ * Histograms with the same highest value can be {@link #add(Histogram) merged}, so that the histograms of several
+ * sessions can be totalled up.  Values may be recorded from any thread, including while the histogram is being read
+ * or merged; a reader then sees some of the values recorded meanwhile.
+ *
+ * @author Bryan Chacosky
+ */
+public class Histogram
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Significant bits kept of each value. */
+  public static final int Precision = 7;
+
+  /** Number of sub-buckets of each bucket. */
+  private static final int SubBucketCount = 1 << Histogram.Precision;
+
+  /** Number of sub-buckets of each bucket which don't overlap the previous bucket. */
+  private static final int SubBucketHalfCount = Histogram.SubBucketCount / 2;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Highest value tracked; higher values are counted as this value. */
+  private final long highestValue;
+
+  /** Count of each sub-bucket. */
+  private final AtomicLongArray counts;
+
+  /** Number of values recorded. */
+  private final AtomicLong totalCount = new AtomicLong( );
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a new, empty histogram.
+   *
+   * @param highestValue - Highest value tracked; higher values are counted as this value.
+   */
+  public Histogram( final long highestValue )
+  {
+    assert highestValue > 0 : "Cannot track a histogram without a positive highest value!";
+
+    this.highestValue = highestValue;
+    this.counts = new AtomicLongArray( ( Histogram.bucketIndex( highestValue ) + 1 ) * Histogram.SubBucketHalfCount + Histogram.SubBucketHalfCount );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Records a value.  Negative values are counted as 0.
+   *
+   * @param value - Value.
+   */
+  public void record( final long value )
+  {
+    this.counts.incrementAndGet( Histogram.countsIndex( Math.max( 0, Math.min( value, this.highestValue ) ) ) );
+    this.totalCount.incrementAndGet( );
+  }
+
+  /**
+   * Adds the values of another histogram to this one.
+   *
+   * @param histogram - Histogram with the same highest value.
+   */
+  public void add( final Histogram histogram )
+  {
+    assert histogram.highestValue == this.highestValue : "Cannot merge histograms tracking different values!";
+
+    long added = 0;
+    for ( int i = 0; i != this.counts.length( ); ++i )
+    {
+      final long count = histogram.counts.get( i );
+      if ( count != 0 )
+      {
+        this.counts.addAndGet( i, count );
+        added += count;
+      }
+    }
+
+    this.totalCount.addAndGet( added );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Gets the number of values recorded.
+   *
+   * @return Value count.
+   */
+  public long getCount( )
+  {
+    return this.totalCount.get( );
+  }
+
+  /**
+   * Gets the value at a quantile: the highest value equivalent to the smallest value which that fraction of the
+   * values recorded are no greater than.
+   *
+   * @param quantile - Quantile, from 0 to 1.
+   * @return Value at the quantile, or 0 if no values were recorded.
+   */
+  public long getValueAtQuantile( final double quantile )
+  {
+    final long total = this.totalCount.get( );
+    if ( total == 0 )
+      return 0;
+
+    final long target = Math.max( 1, ( long )Math.ceil( Math.min( 1.0, Math.max( 0.0, quantile ) ) * total ) );
+    long seen = 0;
+    for ( int i = 0; i != this.counts.length( ); ++i )
+    {
+      seen += this.counts.get( i );
+      if ( seen >= target )
+        return Math.min( this.highestValue, Histogram.highestEquivalentValue( i ) );
+    }
+
+    return this.highestValue;
+  }
+
+  /**
+   * Gets the highest value tracked.
+   *
+   * @return Highest value.
+   */
+  public long getHighestValue( )
+  {
+    return this.highestValue;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Gets the bucket of a value: the power of two range it falls in, with every value below
+   * {@link #SubBucketCount} in the first.
+   *
+   * @param value - Non-negative value.
+   * @return Bucket index.
+   */
+  private static int bucketIndex( final long value )
+  {
+    return 64 - Long.numberOfLeadingZeros( value | ( Histogram.SubBucketCount - 1 ) ) - Histogram.Precision;
+  }
+
+  /**
+   * Gets the sub-bucket a value is counted in.
+   *
+   * @param value - Non-negative value.
+   * @return Index into the counts.
+   */
+  private static int countsIndex( final long value )
+  {
+    final int bucket = Histogram.bucketIndex( value );
+    return bucket * Histogram.SubBucketHalfCount + ( int )( value >>> bucket );
+  }
+
+  /**
+   * Gets the highest value counted in a sub-bucket.
+   *
+   * @param index - Index into the counts.
+   * @return Highest value.
+   */
+  private static long highestEquivalentValue( final int index )
+  {
+    if ( index < Histogram.SubBucketCount )
+      return index;
+
+    final int bucket = ( index - Histogram.SubBucketCount ) / Histogram.SubBucketHalfCount + 1;
+    final long subBucket = index - bucket * Histogram.SubBucketHalfCount;
+    return ( ( subBucket + 1 ) << bucket ) - 1;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
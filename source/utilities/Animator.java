@@ -5,24 +5,25 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Timer;
-import java.util.TimerTask;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import playn.core.Image;
 import playn.core.ImageLayer;
 import playn.core.Layer;
 
+import com.bryanchacosky.core.Session;
 import com.bryanchacosky.core.SkyDiver;
+import com.bryanchacosky.core.graphics.layer.BatchedGroupLayer;
 
 //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
 /**
- * Abstract class containing static methods to assist with animation.
+ * Animates the layers of a session.  Every animation is a timer on the session's timing wheel, so a session runs all of
+ * its animations on the game thread, on the game clock: they pause, slow down and speed up with the game.
  *
  * @author Bryan Chacosky
  */
-public abstract class Animator
+public class Animator
 {
   //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
@@ -44,6 +45,35 @@ public abstract class Animator
 
   //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+  /** Number of animating layers across every session. */
+  private static final AtomicInteger TotalAnimationCount = new AtomicInteger( 0 );
+
+  /** Number of scrolling layers across every session. */
+  private static final AtomicInteger TotalScrollingCount = new AtomicInteger( 0 );
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Session whose layers are animated. */
+  private final Session session;
+
+  /** Timing wheel running the animation timers. */
+  private final TimingWheel timers;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a new animator.
+   *
+   * @param session - Session whose layers are animated.
+   */
+  public Animator( final Session session )
+  {
+    this.session = session;
+    this.timers = session.getTimers( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
   /**
    * Linearly interpolates a layer from its current position to the new desired position (x,y) over
    * a fixed duration.
@@ -53,9 +83,9 @@ public abstract class Animator
    * @param y - Final y position.
    * @param duration - Duration of the interpolation, in milliseconds.
    */
-  public static void lerp( final Layer layer, final float x, final float y, final long duration )
+  public void lerp( final Layer layer, final float x, final float y, final long duration )
   {
-    Animator.lerp( layer, x, y, duration, null );
+    this.lerp( layer, x, y, duration, null );
   }
 
   /**
@@ -68,7 +98,7 @@ public abstract class Animator
    * @param duration - Duration of the interpolation, in milliseconds.
    * @param callback - Callback when the interpolation is complete.
    */
-  public static void lerp( final Layer layer, final float x, final float y, final long duration, final Callback callback )
+  public void lerp( final Layer layer, final float x, final float y, final long duration, final Callback callback )
   {
     assert layer != null : "Cannot interpolate a null layer!";
     assert duration >= 0 : "Cannot have a negative duration!";
@@ -78,21 +108,20 @@ public abstract class Animator
     final float dy = ( ( y - layer.transform( ).ty( ) ) / duration ) * SkyDiver.UpdateRate;
 
     // Schedule a timer to update the position incrementally each update:
-    final Timer updateTimer = new Timer( );
-    updateTimer.scheduleAtFixedRate( new TimerTask( )
+    final TimingWheel.Timer updateTimer = this.timers.scheduleAtFixedRate( new TimingWheel.Callback( )
     {
       @Override
-      public void run( )
+      public void onTimer( final TimingWheel.Timer timer )
       {
         layer.setTranslation( layer.transform( ).tx( ) + dx, layer.transform( ).ty( ) + dy );
       }
     }, 0, SkyDiver.UpdateRate );
 
-    // Schedule a timer to execute after the total duration:
-    new Timer( ).schedule( new TimerTask( )
+    // Schedule a timer to run after the total duration:
+    this.timers.schedule( new TimingWheel.Callback( )
     {
       @Override
-      public void run( )
+      public void onTimer( final TimingWheel.Timer timer )
       {
         // Cancel the updates:
         updateTimer.cancel( );
@@ -110,7 +139,7 @@ public abstract class Animator
   //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
   /** Maps a layer -> timer controlling scrolling. */
-  private static Map< Layer.HasSize, Timer > ScrollingTimerMap = new HashMap< Layer.HasSize, Timer >( );
+  private final Map< Layer.HasSize, TimingWheel.Timer > scrollingTimerMap = new HashMap< Layer.HasSize, TimingWheel.Timer >( );
 
   /**
    * Begins scrolling the layer across the screen from left-to-right and wrapping when applicable.
@@ -118,9 +147,9 @@ public abstract class Animator
    * @param layer - Layer.
    * @param duration - Duration the layer should take to traverse one screen width, in milliseconds.
    */
-  public static void setScrolling( final Layer.HasSize layer, final long duration )
+  public void setScrolling( final Layer.HasSize layer, final long duration )
   {
-    Animator.setScrolling( layer, duration, null );
+    this.setScrolling( layer, duration, null );
   }
 
   /**
@@ -130,29 +159,29 @@ public abstract class Animator
    * @param duration - Duration the layer should take to traverse one screen width, in milliseconds.
    * @param callback - Callback is called when the layer moves offscreen and wraps.
    */
-  public static void setScrolling( final Layer.HasSize layer, final long duration, final Callback callback )
+  public void setScrolling( final Layer.HasSize layer, final long duration, final Callback callback )
   {
     assert layer != null : "Cannot scroll a null layer!";
     assert duration >= 0 : "Cannot have a negative duration!";
 
     // Clear existing scrolling:
-    Animator.clearScrolling( layer );
+    this.clearScrolling( layer );
 
     // Calculate the update rate based off the distance, duration, and update rate:
-    final float dx = ( SkyDiver.WindowWidth / Float.valueOf( duration ) ) * SkyDiver.UpdateRate;
+    final int windowWidth = this.session.getWindowWidth( );
+    final float dx = ( windowWidth / Float.valueOf( duration ) ) * SkyDiver.UpdateRate;
 
     // Schedule a timer to update the layer:
-    final Timer timer = new Timer( );
-    timer.scheduleAtFixedRate( new TimerTask( )
+    final TimingWheel.Timer scrollingTimer = this.timers.scheduleAtFixedRate( new TimingWheel.Callback( )
     {
       @Override
-      public void run( )
+      public void onTimer( final TimingWheel.Timer timer )
       {
         // Update the translation:
         layer.setTranslation( layer.transform( ).tx( ) + dx, layer.transform( ).ty( ) );
 
         // If the layer is offscreen to the right, then place it back on the left offscreen:
-        if ( layer.transform( ).tx( ) > SkyDiver.WindowWidth )
+        if ( layer.transform( ).tx( ) > windowWidth )
         {
           // Translate the layer back to the left side of the screen:
           layer.setTranslation( -layer.width( ), layer.transform( ).ty( ) );
@@ -163,7 +192,8 @@ public abstract class Animator
         }
       }
     }, 0, SkyDiver.UpdateRate );
-    Animator.ScrollingTimerMap.put( layer, timer );
+    this.scrollingTimerMap.put( layer, scrollingTimer );
+    Animator.TotalScrollingCount.incrementAndGet( );
   }
 
   /**
@@ -171,19 +201,40 @@ public abstract class Animator
    *
    * @param layer - The layer.
    */
-  public static void clearScrolling( final Layer.HasSize layer )
+  public void clearScrolling( final Layer.HasSize layer )
   {
-    if ( Animator.ScrollingTimerMap.containsKey( layer ) == true )
+    if ( this.scrollingTimerMap.containsKey( layer ) == true )
     {
-      Animator.ScrollingTimerMap.get( layer ).cancel( );
-      Animator.ScrollingTimerMap.remove( layer );
+      this.scrollingTimerMap.get( layer ).cancel( );
+      this.scrollingTimerMap.remove( layer );
+      Animator.TotalScrollingCount.decrementAndGet( );
     }
   }
 
+  /**
+   * Gets the number of scrolling layers.
+   *
+   * @return Number of layers with scrolling.
+   */
+  public int getScrollingCount( )
+  {
+    return this.scrollingTimerMap.size( );
+  }
+
+  /**
+   * Gets the number of scrolling layers across every session.
+   *
+   * @return Number of layers with scrolling.
+   */
+  public static int getTotalScrollingCount( )
+  {
+    return Animator.TotalScrollingCount.get( );
+  }
+
   //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
   /** Maps an image layer -> list of animation timers associated with the layer. */
-  private static Map< ImageLayer, List< Timer > > AnimationTimerMap = new HashMap< ImageLayer, List< Timer > >( );
+  private final Map< ImageLayer, List< TimingWheel.Timer > > animationTimerMap = new HashMap< ImageLayer, List< TimingWheel.Timer > >( );
 
   /**
    * Sets an animation on an image layer that will loop indefinitely.
@@ -192,9 +243,9 @@ public abstract class Animator
    * @param durationPerFrame - Duration of each frame in the animation, in milliseconds.
    * @param images - List of images to display in the animation.
    */
-  public static void setAnimation( final ImageLayer layer, final long durationPerFrame, final Image ... images )
+  public void setAnimation( final ImageLayer layer, final long durationPerFrame, final Image ... images )
   {
-    Animator.setAnimation( layer, durationPerFrame, Arrays.asList( images ) );
+    this.setAnimation( layer, durationPerFrame, Arrays.asList( images ) );
   }
 
   /**
@@ -204,9 +255,9 @@ public abstract class Animator
    * @param durationPerFrame - Duration of each frame in the animation, in milliseconds.
    * @param images - List of images to display in the animation.
    */
-  public static void setAnimation( final ImageLayer layer, final long durationPerFrame, final List< Image > images )
+  public void setAnimation( final ImageLayer layer, final long durationPerFrame, final List< Image > images )
   {
-    Animator.setAnimation( layer, durationPerFrame, images, Animator.LoopsInfinite, null );
+    this.setAnimation( layer, durationPerFrame, images, Animator.LoopsInfinite, null );
   }
 
   /**
@@ -218,31 +269,36 @@ public abstract class Animator
    * @param loops - Numer of times the animation should loop.  Use {@link #LoopsInfinite} for infinite loops.
    * @param callback - Animation callback when the loops are complete.
    */
-  public static void setAnimation( final ImageLayer layer, final long durationPerFrame, final List< Image > images, final int loops, final Callback callback )
+  public void setAnimation( final ImageLayer layer, final long durationPerFrame, final List< Image > images, final int loops, final Callback callback )
   {
     assert layer != null : "Cannot set an animation on a null layer!";
     assert images.isEmpty( ) == false : "Cannot set an animation with 0 images!";
     assert durationPerFrame > 0 : "Cannot set a negative or zero duration per frame!";
 
     // Clear an existing animation:
-    Animator.clearAnimation( layer );
+    this.clearAnimation( layer );
 
     // Create an atomic integer to keep track of the current frame:
     final AtomicInteger index = new AtomicInteger( 0 );
 
     // Schedule a timer to change frames each duration:
-    final Timer timer = new Timer( );
-    timer.scheduleAtFixedRate( new TimerTask( )
+    final TimingWheel.Timer frameTimer = this.timers.scheduleAtFixedRate( new TimingWheel.Callback( )
     {
       @Override
-      public void run( )
+      public void onTimer( final TimingWheel.Timer timer )
       {
         // Update the image and layer size:
         try
         {
+          // Only resize when the frame's size differs, since PlayN boxes the size on every call to check it; a batched
+          // parent is told of the new image so that the layer moves to the batch of its texture:
           final Image image = images.get( index.get( ) );
-          layer.setImage( image );
-          layer.setSize( image.width( ), image.height( ) );
+          if ( layer.parent( ) instanceof BatchedGroupLayer )
+            ( ( BatchedGroupLayer )layer.parent( ) ).setImage( layer, image );
+          else
+            layer.setImage( image );
+          if ( layer.width( ) != image.width( ) || layer.height( ) != image.height( ) )
+            layer.setSize( image.width( ), image.height( ) );
         }
         catch ( final NullPointerException exception )
         {
@@ -259,8 +315,9 @@ public abstract class Animator
     }, 0, durationPerFrame );
 
     // Register the timer:
-    Animator.AnimationTimerMap.put( layer, new LinkedList< Timer >( ) );
-    Animator.AnimationTimerMap.get( layer ).add( timer );
+    this.animationTimerMap.put( layer, new LinkedList< TimingWheel.Timer >( ) );
+    this.animationTimerMap.get( layer ).add( frameTimer );
+    Animator.TotalAnimationCount.incrementAndGet( );
 
     // Check if we have a specified number of loops:
     if ( Animator.LoopsInfinite != loops )
@@ -268,14 +325,13 @@ public abstract class Animator
       assert loops >= 0 : "Loops must be infinite or a non-zero, positive value!";
 
       // Schedule a timer to cancel the animation:
-      final Timer loopTimer = new Timer( );
-      loopTimer.schedule( new TimerTask( )
+      final TimingWheel.Timer loopTimer = this.timers.schedule( new TimingWheel.Callback( )
       {
         @Override
-        public void run( )
+        public void onTimer( final TimingWheel.Timer timer )
         {
           // Clear the animations:
-          Animator.clearAnimation( layer );
+          Animator.this.clearAnimation( layer );
 
           // Callback, if applicable:
           if ( null != callback )
@@ -284,7 +340,7 @@ public abstract class Animator
       }, durationPerFrame * images.size( ) * loops );
 
       // Register the timer:
-      Animator.AnimationTimerMap.get( layer ).add( loopTimer );
+      this.animationTimerMap.get( layer ).add( loopTimer );
     }
   }
 
@@ -293,19 +349,61 @@ public abstract class Animator
    *
    * @param layer - Animating layer.
    */
-  public static void clearAnimation( final ImageLayer layer )
+  public void clearAnimation( final ImageLayer layer )
   {
-    if ( Animator.AnimationTimerMap.containsKey( layer ) == true )
+    if ( this.animationTimerMap.containsKey( layer ) == true )
     {
       // Cancel the existing timers:
-      for ( final Timer timer : Animator.AnimationTimerMap.get( layer ) )
+      for ( final TimingWheel.Timer timer : this.animationTimerMap.get( layer ) )
         timer.cancel( );
 
       // Remove the key/value:
-      Animator.AnimationTimerMap.remove( layer );
+      this.animationTimerMap.remove( layer );
+      Animator.TotalAnimationCount.decrementAndGet( );
     }
   }
 
+  /**
+   * Gets the number of animating layers.
+   *
+   * @return Number of layers with an animation.
+   */
+  public int getAnimationCount( )
+  {
+    return this.animationTimerMap.size( );
+  }
+
+  /**
+   * Gets the number of animating layers across every session.
+   *
+   * @return Number of layers with an animation.
+   */
+  public static int getTotalAnimationCount( )
+  {
+    return Animator.TotalAnimationCount.get( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Removes every animation and scrolling of the session's layers, taking them off the totals across every session.
+   */
+  public void clear( )
+  {
+    for ( final List< TimingWheel.Timer > timers : this.animationTimerMap.values( ) )
+    {
+      for ( final TimingWheel.Timer timer : timers )
+        timer.cancel( );
+    }
+    Animator.TotalAnimationCount.addAndGet( -this.animationTimerMap.size( ) );
+    this.animationTimerMap.clear( );
+
+    for ( final TimingWheel.Timer timer : this.scrollingTimerMap.values( ) )
+      timer.cancel( );
+    Animator.TotalScrollingCount.addAndGet( -this.scrollingTimerMap.size( ) );
+    this.scrollingTimerMap.clear( );
+  }
+
   //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 }
 
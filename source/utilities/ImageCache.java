@@ -0,0 +1,141 @@
+package com.bryanchacosky.core.utilities;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import playn.core.Image;
+
+import com.bryanchacosky.core.Session;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Loads images once and shares them for the lifespan of a session.  Every controller used to request its images from
+ * {@link playn.core.Assets} again each time it was created, so a new round re-loaded the helicopter, jumper, parachute
+ * and dirt images.  Hits and misses are also totalled across every session for {@link Metrics}.
+ *
+ * @author Bryan Chacosky
+ */
+public class ImageCache
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Number of requests served from a cache, across every session. */
+  private static final LongAdder Hits = new LongAdder( );
+
+  /** Number of requests which had to load the image, across every session. */
+  private static final LongAdder Misses = new LongAdder( );
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Session loading the images. */
+  private final Session session;
+
+  /** Maps an asset path -> loaded image. */
+  private final Map< String, Image > imageMap = new ConcurrentHashMap< String, Image >( );
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a new image cache.
+   *
+   * @param session - Session loading the images.
+   */
+  public ImageCache( final Session session )
+  {
+    this.session = session;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Gets an image, loading it on first use.
+   *
+   * @param path - Asset path of the image.
+   * @return Image.
+   */
+  public Image getImage( final String path )
+  {
+    assert path != null : "Cannot load an image from a null path!";
+
+    Image image = this.imageMap.get( path );
+    if ( null != image )
+    {
+      ImageCache.Hits.increment( );
+      return image;
+    }
+
+    ImageCache.Misses.increment( );
+    image = this.session.assets( ).getImage( path );
+    this.imageMap.put( path, image );
+    return image;
+  }
+
+  /**
+   * Starts loading images on the session's worker threads, so that they're decoded by the time they're asked for.  An
+   * image asked for before it has loaded is loaded straight away, as if it hadn't been preloaded.
+   *
+   * @param paths - Asset paths of the images.
+   */
+  public void preload( final String... paths )
+  {
+    for ( final String path : paths )
+    {
+      if ( this.imageMap.containsKey( path ) == true )
+        continue;
+
+      this.session.getJobs( ).submit( new JobScheduler.Task< Image >( )
+      {
+        @Override
+        public Image call( )
+        {
+          return ImageCache.this.session.assets( ).getImage( path );
+        }
+
+        @Override
+        public void onCompletion( final Image image )
+        {
+          if ( null == ImageCache.this.imageMap.putIfAbsent( path, image ) )
+            ImageCache.Misses.increment( );
+        }
+      });
+    }
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Gets the number of requests served from a cache, across every session.
+   *
+   * @return Cache hits.
+   */
+  public static long getHitCount( )
+  {
+    return ImageCache.Hits.sum( );
+  }
+
+  /**
+   * Gets the number of requests which had to load the image, across every session.
+   *
+   * @return Cache misses.
+   */
+  public static long getMissCount( )
+  {
+    return ImageCache.Misses.sum( );
+  }
+
+  /**
+   * Gets the number of cached images.
+   *
+   * @return Image count.
+   */
+  public int size( )
+  {
+    return this.imageMap.size( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
@@ -0,0 +1,268 @@
+package com.bryanchacosky.core.utilities;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import playn.core.Log;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Runs a session's expensive one-off work, such as rasterizing text or decoding images, without causing a frame to
+ * hitch.  Work comes in two sizes:
+ *
+ * <ul>
+ * <li>A {@link Job} runs on the game thread a slice at a time.  Every frame, {@link #runFrame()} runs the queued jobs
+ * round-robin until {@value #DefaultFrameBudget} microseconds have been spent, and leaves the rest for the next frame.</li>
+ * <li>A {@link Task} is too large to slice, so it runs on a worker thread; its result is handed back to the game thread
+ * as a job, so {@link Task#onCompletion(Object)} runs at the start of a following frame and may touch the layers.</li>
+ * </ul>
+ *
+ * Anything running off the game thread, such as a network thread, can also {@link #post(Runnable)} work to it.  The frame
+ * budget is read from the <code>skydiver.jobs.budget</code> system property, in microseconds.
+ *
+ * @author Bryan Chacosky
+ */
+public class JobScheduler
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Time spent on jobs each frame by default, in microseconds. */
+  public static final long DefaultFrameBudget = Long.getLong( "skydiver.jobs.budget", 2000 );
+
+  /** Number of worker threads, leaving a core for the game thread. */
+  public static final int WorkerCount = Math.max( 1, Runtime.getRuntime( ).availableProcessors( ) - 1 );
+
+  /** Time an idle worker thread waits for work before exiting, in milliseconds. */
+  private static final long WorkerKeepAlive = 5000;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Work run on the game thread a slice at a time.
+   */
+  public static interface Job
+  {
+    /**
+     * Runs the next slice of the job.  A slice should take a small fraction of the frame budget.
+     *
+     * @return True once the job is done, false to run another slice later.
+     */
+    public boolean run( );
+  };
+
+  /**
+   * Work run on a worker thread, whose result is handed back to the game thread.
+   *
+   * @param <T> - Type of the result.
+   */
+  public static interface Task< T >
+  {
+    /**
+     * Computes the result.  Called on a worker thread, so it must not touch the layers.
+     *
+     * @return Result.
+     * @throws Exception If the result can't be computed; the failure is logged and the task dropped.
+     */
+    public T call( ) throws Exception;
+
+    /**
+     * Called on the game thread at the start of a frame after the result is computed.
+     *
+     * @param result - Result.
+     */
+    public void onCompletion( final T result );
+  };
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Log to report failures to. */
+  private final Log log;
+
+  /** Time spent on jobs each frame, in nanoseconds. */
+  private final long frameBudget;
+
+  /** Jobs waiting to run on the game thread, including the completions of the tasks. */
+  private final Queue< Job > jobs = new ConcurrentLinkedQueue< Job >( );
+
+  /** Runs the tasks. */
+  private final ThreadPoolExecutor workers;
+
+  /** Number of tasks submitted whose result hasn't been handed back yet. */
+  private final AtomicInteger runningTasks = new AtomicInteger( 0 );
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a new scheduler with the {@link #DefaultFrameBudget default} frame budget.
+   *
+   * @param log - Log to report failures to.
+   */
+  public JobScheduler( final Log log )
+  {
+    this( log, JobScheduler.DefaultFrameBudget );
+  }
+
+  /**
+   * Instantiates a new scheduler.
+   *
+   * @param log - Log to report failures to.
+   * @param frameBudget - Time spent on jobs each frame, in microseconds.
+   */
+  public JobScheduler( final Log log, final long frameBudget )
+  {
+    this.log = log;
+    this.frameBudget = TimeUnit.MICROSECONDS.toNanos( frameBudget );
+    this.workers = new ThreadPoolExecutor( JobScheduler.WorkerCount, JobScheduler.WorkerCount, JobScheduler.WorkerKeepAlive, TimeUnit.MILLISECONDS, new LinkedBlockingQueue< Runnable >( ), new ThreadFactory( )
+    {
+      @Override
+      public Thread newThread( final Runnable runnable )
+      {
+        final Thread thread = new Thread( runnable, "SkyDiver worker" );
+        thread.setDaemon( true );
+        thread.setPriority( Thread.NORM_PRIORITY - 1 );
+        return thread;
+      }
+    });
+    this.workers.allowCoreThreadTimeOut( true );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Queues a job to run on the game thread.  May be called from any thread.
+   *
+   * @param job - Job.
+   */
+  public void schedule( final Job job )
+  {
+    assert job != null : "Cannot schedule a null job!";
+    this.jobs.add( job );
+  }
+
+  /**
+   * Queues work to run once on the game thread.  May be called from any thread.
+   *
+   * @param runnable - Work.
+   */
+  public void post( final Runnable runnable )
+  {
+    assert runnable != null : "Cannot post null work!";
+    this.jobs.add( new Job( )
+    {
+      @Override
+      public boolean run( )
+      {
+        runnable.run( );
+        return true;
+      }
+    });
+  }
+
+  /**
+   * Queues a task to run on a worker thread.  May be called from any thread.
+   *
+   * @param <T> - Type of the result.
+   * @param task - Task.
+   */
+  public < T > void submit( final Task< T > task )
+  {
+    assert task != null : "Cannot submit a null task!";
+    this.runningTasks.incrementAndGet( );
+    this.workers.execute( new Runnable( )
+    {
+      @Override
+      public void run( )
+      {
+        try
+        {
+          final T result = task.call( );
+          JobScheduler.this.post( new Runnable( )
+          {
+            @Override
+            public void run( )
+            {
+              task.onCompletion( result );
+            }
+          });
+        }
+        catch ( final Exception exception )
+        {
+          JobScheduler.this.log.warn( "Background task failed: " + exception );
+        }
+        finally
+        {
+          JobScheduler.this.runningTasks.decrementAndGet( );
+        }
+      }
+    });
+  }
+
+  /**
+   * Runs the queued jobs until the frame budget is spent.  At least one slice runs every frame, so jobs always make
+   * progress however small the budget.  Called by the game once per frame, on the game thread.
+   */
+  public void runFrame( )
+  {
+    final long deadline = System.nanoTime( ) + this.frameBudget;
+    do
+    {
+      final Job job = this.jobs.poll( );
+      if ( null == job )
+        break;
+
+      try
+      {
+        if ( job.run( ) == false )
+          this.jobs.add( job );
+      }
+      catch ( final RuntimeException exception )
+      {
+        this.log.warn( "Job failed: " + exception );
+      }
+    }
+    while ( System.nanoTime( ) < deadline );
+  }
+
+  /**
+   * Drops the queued jobs and stops the worker threads.
+   */
+  public void shutdown( )
+  {
+    this.workers.shutdownNow( );
+    this.jobs.clear( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Returns true if no job is waiting to run on the game thread.  Tasks still running on a worker thread aren't
+   * counted until they complete.
+   *
+   * @return True if no job is queued, otherwise false.
+   */
+  public boolean isIdle( )
+  {
+    return this.jobs.isEmpty( );
+  }
+
+  /**
+   * Gets the number of tasks still running on a worker thread, or waiting for one.  Once a task has been counted out,
+   * its completion is queued to run on the game thread.
+   *
+   * @return Running task count.
+   */
+  public int getRunningTaskCount( )
+  {
+    return this.runningTasks.get( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
@@ -0,0 +1,304 @@
+package com.bryanchacosky.core.utilities;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import playn.core.Log;
+
+import com.bryanchacosky.core.SkyDiver;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Always-on engine metrics, published as a JMX MBean so that kiosk operators can watch the game remotely with any JMX
+ * console.  The game threads record into striped {@link LongAdder} counters, so recording never contends with a
+ * remote reader (or with other sessions), and the rest of the metrics are read from the engine only when queried.
+ * The metrics total up every session in the VM.
+ *
+ * @author Bryan Chacosky
+ */
+public class Metrics implements MetricsMBean
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Name the metrics are registered under. */
+  public static final String MBeanName = "com.bryanchacosky.skydiver:type=Metrics";
+
+  /** Upper bounds of the frame time buckets, in milliseconds. */
+  private static final long[ ] FrameTimeBounds = { 5, 10, 17, 25, 33, 50, 100, 250 };
+
+  /** Upper bounds of the update jitter buckets, in milliseconds. */
+  private static final long[ ] UpdateJitterBounds = { 1, 2, 5, 10, 25, 50, 100 };
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Frame time histogram, one bucket per bound plus one for everything slower. */
+  private static final LongAdder[ ] FrameTimeBuckets = Metrics.createBuckets( Metrics.FrameTimeBounds.length + 1 );
+
+  /** Total frame time, in nanoseconds. */
+  private static final LongAdder FrameTime = new LongAdder( );
+
+  /** Longest frame time, in nanoseconds. */
+  private static final LongAccumulator MaxFrameTime = new LongAccumulator( Math::max, 0 );
+
+  /** Update jitter histogram, one bucket per bound plus one for everything larger. */
+  private static final LongAdder[ ] UpdateJitterBuckets = Metrics.createBuckets( Metrics.UpdateJitterBounds.length + 1 );
+
+  /** Total update jitter, in nanoseconds. */
+  private static final LongAdder UpdateJitter = new LongAdder( );
+
+  /** Largest update jitter, in nanoseconds. */
+  private static final LongAccumulator MaxUpdateJitter = new LongAccumulator( Math::max, 0 );
+
+  /** Number of rounds played to completion. */
+  private static final LongAdder RoundsPlayed = new LongAdder( );
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Registers the metrics with the platform MBean server, unless another session already has.  Platforms without JMX
+   * simply go without the metrics.
+   *
+   * @param log - Log to report a failure to.
+   */
+  public static void register( final Log log )
+  {
+    try
+    {
+      final MBeanServer server = ManagementFactory.getPlatformMBeanServer( );
+      final ObjectName name = new ObjectName( Metrics.MBeanName );
+      if ( server.isRegistered( name ) == false )
+        server.registerMBean( new Metrics( ), name );
+    }
+    catch ( final JMException | SecurityException exception )
+    {
+      log.warn( "Unable to register the metrics MBean: " + exception );
+    }
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Records a frame.  Call once per paint, with the time since the previous paint of the same session.
+   *
+   * @param duration - Frame time, in nanoseconds.
+   */
+  public static void frame( final long duration )
+  {
+    Metrics.FrameTimeBuckets[ Metrics.bucket( Metrics.FrameTimeBounds, duration ) ].increment( );
+    Metrics.FrameTime.add( duration );
+    Metrics.MaxFrameTime.accumulate( duration );
+  }
+
+  /**
+   * Records an update, measuring how far the time since the previous update strays from {@link SkyDiver#UpdateRate}.
+   * Call once per update, with the time since the previous update of the same session.
+   *
+   * @param interval - Time since the previous update, in nanoseconds.
+   */
+  public static void update( final long interval )
+  {
+    final long jitter = Math.abs( interval - SkyDiver.UpdateRate * 1000000L );
+    Metrics.UpdateJitterBuckets[ Metrics.bucket( Metrics.UpdateJitterBounds, jitter ) ].increment( );
+    Metrics.UpdateJitter.add( jitter );
+    Metrics.MaxUpdateJitter.accumulate( jitter );
+  }
+
+  /**
+   * Records a round played to completion.
+   */
+  public static void roundPlayed( )
+  {
+    Metrics.RoundsPlayed.increment( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public long[ ] getFrameTimeBucketBounds( )
+  {
+    return Metrics.FrameTimeBounds.clone( );
+  }
+
+  @Override
+  public long[ ] getFrameTimeHistogram( )
+  {
+    return Metrics.sum( Metrics.FrameTimeBuckets );
+  }
+
+  @Override
+  public long getFrameCount( )
+  {
+    return Metrics.total( Metrics.FrameTimeBuckets );
+  }
+
+  @Override
+  public double getMeanFrameTime( )
+  {
+    final long count = this.getFrameCount( );
+    return count == 0 ? 0.0 : Metrics.FrameTime.sum( ) / 1.0e6 / count;
+  }
+
+  @Override
+  public double getMaxFrameTime( )
+  {
+    return Metrics.MaxFrameTime.get( ) / 1.0e6;
+  }
+
+  @Override
+  public long[ ] getUpdateJitterBucketBounds( )
+  {
+    return Metrics.UpdateJitterBounds.clone( );
+  }
+
+  @Override
+  public long[ ] getUpdateJitterHistogram( )
+  {
+    return Metrics.sum( Metrics.UpdateJitterBuckets );
+  }
+
+  @Override
+  public double getMeanUpdateJitter( )
+  {
+    final long count = Metrics.total( Metrics.UpdateJitterBuckets );
+    return count == 0 ? 0.0 : Metrics.UpdateJitter.sum( ) / 1.0e6 / count;
+  }
+
+  @Override
+  public double getMaxUpdateJitter( )
+  {
+    return Metrics.MaxUpdateJitter.get( ) / 1.0e6;
+  }
+
+  @Override
+  public int getActiveAnimations( )
+  {
+    return Animator.getTotalAnimationCount( );
+  }
+
+  @Override
+  public int getActiveScrolling( )
+  {
+    return Animator.getTotalScrollingCount( );
+  }
+
+  @Override
+  public long getLiveParticles( )
+  {
+    return ParticleSystem.getLiveParticleCount( );
+  }
+
+  @Override
+  public long getAssetCacheHits( )
+  {
+    return ImageCache.getHitCount( );
+  }
+
+  @Override
+  public long getAssetCacheMisses( )
+  {
+    return ImageCache.getMissCount( );
+  }
+
+  @Override
+  public double getAssetCacheHitRate( )
+  {
+    final long hits = ImageCache.getHitCount( );
+    final long requests = hits + ImageCache.getMissCount( );
+    return requests == 0 ? 0.0 : hits / ( double )requests;
+  }
+
+  @Override
+  public long getRoundsPlayed( )
+  {
+    return Metrics.RoundsPlayed.sum( );
+  }
+
+  @Override
+  public long getDroppedTelemetryEvents( )
+  {
+    return Telemetry.getDroppedCount( );
+  }
+
+  @Override
+  public void reset( )
+  {
+    for ( final LongAdder bucket : Metrics.FrameTimeBuckets )
+      bucket.reset( );
+    for ( final LongAdder bucket : Metrics.UpdateJitterBuckets )
+      bucket.reset( );
+
+    Metrics.FrameTime.reset( );
+    Metrics.MaxFrameTime.reset( );
+    Metrics.UpdateJitter.reset( );
+    Metrics.MaxUpdateJitter.reset( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Finds the histogram bucket of a duration.
+   *
+   * @param bounds - Upper bounds of the buckets, in milliseconds.
+   * @param duration - Duration, in nanoseconds.
+   * @return Bucket index.
+   */
+  private static int bucket( final long[ ] bounds, final long duration )
+  {
+    int bucket = 0;
+    while ( bucket != bounds.length && duration > bounds[ bucket ] * 1000000L )
+      ++bucket;
+    return bucket;
+  }
+
+  /**
+   * Creates the counters of a histogram.
+   *
+   * @param count - Number of buckets.
+   * @return Bucket counters.
+   */
+  private static LongAdder[ ] createBuckets( final int count )
+  {
+    final LongAdder[ ] buckets = new LongAdder[ count ];
+    for ( int i = 0; i != count; ++i )
+      buckets[ i ] = new LongAdder( );
+    return buckets;
+  }
+
+  /**
+   * Reads the counters of a histogram.
+   *
+   * @param buckets - Bucket counters.
+   * @return Bucket counts.
+   */
+  private static long[ ] sum( final LongAdder[ ] buckets )
+  {
+    final long[ ] counts = new long[ buckets.length ];
+    for ( int i = 0; i != buckets.length; ++i )
+      counts[ i ] = buckets[ i ].sum( );
+    return counts;
+  }
+
+  /**
+   * Totals the counters of a histogram.
+   *
+   * @param buckets - Bucket counters.
+   * @return Total count.
+   */
+  private static long total( final LongAdder[ ] buckets )
+  {
+    long total = 0;
+    for ( final LongAdder bucket : buckets )
+      total += bucket.sum( );
+    return total;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
@@ -0,0 +1,137 @@
+package com.bryanchacosky.core.utilities;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Management interface of {@link Metrics}, published over JMX so that the game can be monitored remotely.
+ *
+ * @author Bryan Chacosky
+ */
+public interface MetricsMBean
+{
+  /**
+   * Gets the upper bounds of the frame time histogram buckets.  The last bucket counts everything slower.
+   *
+   * @return Bucket bounds, in milliseconds.
+   */
+  public long[ ] getFrameTimeBucketBounds( );
+
+  /**
+   * Gets the frame time histogram.
+   *
+   * @return Number of frames in each bucket.
+   */
+  public long[ ] getFrameTimeHistogram( );
+
+  /**
+   * Gets the number of frames painted.
+   *
+   * @return Frame count.
+   */
+  public long getFrameCount( );
+
+  /**
+   * Gets the mean frame time.
+   *
+   * @return Mean frame time, in milliseconds.
+   */
+  public double getMeanFrameTime( );
+
+  /**
+   * Gets the longest frame time.
+   *
+   * @return Longest frame time, in milliseconds.
+   */
+  public double getMaxFrameTime( );
+
+  /**
+   * Gets the upper bounds of the update jitter histogram buckets.  The last bucket counts everything larger.
+   *
+   * @return Bucket bounds, in milliseconds.
+   */
+  public long[ ] getUpdateJitterBucketBounds( );
+
+  /**
+   * Gets the histogram of how far the time between updates strays from the update rate.
+   *
+   * @return Number of updates in each bucket.
+   */
+  public long[ ] getUpdateJitterHistogram( );
+
+  /**
+   * Gets the mean update jitter.
+   *
+   * @return Mean jitter, in milliseconds.
+   */
+  public double getMeanUpdateJitter( );
+
+  /**
+   * Gets the largest update jitter.
+   *
+   * @return Largest jitter, in milliseconds.
+   */
+  public double getMaxUpdateJitter( );
+
+  /**
+   * Gets the number of layers with a frame animation.
+   *
+   * @return Active animations.
+   */
+  public int getActiveAnimations( );
+
+  /**
+   * Gets the number of scrolling layers.
+   *
+   * @return Active scrolling layers.
+   */
+  public int getActiveScrolling( );
+
+  /**
+   * Gets the number of particles in flight.
+   *
+   * @return Live particles.
+   */
+  public long getLiveParticles( );
+
+  /**
+   * Gets the number of image requests served from the image cache.
+   *
+   * @return Cache hits.
+   */
+  public long getAssetCacheHits( );
+
+  /**
+   * Gets the number of image requests which had to load the image.
+   *
+   * @return Cache misses.
+   */
+  public long getAssetCacheMisses( );
+
+  /**
+   * Gets the fraction of image requests served from the image cache.
+   *
+   * @return Hit rate, between 0 and 1.
+   */
+  public double getAssetCacheHitRate( );
+
+  /**
+   * Gets the number of rounds played to completion.
+   *
+   * @return Rounds played.
+   */
+  public long getRoundsPlayed( );
+
+  /**
+   * Gets the number of telemetry events dropped because the telemetry writer fell behind.
+   *
+   * @return Dropped events.
+   */
+  public long getDroppedTelemetryEvents( );
+
+  /**
+   * Clears the frame and update statistics.
+   */
+  public void reset( );
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
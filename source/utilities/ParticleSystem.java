@@ -1,13 +1,14 @@
 package com.bryanchacosky.core.utilities;
 
-import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
 
 import playn.core.GroupLayer;
 import playn.core.ImmediateLayer.Renderer;
 import playn.core.Layer;
-import playn.core.PlayN;
 import playn.core.Surface;
 
+import com.bryanchacosky.core.Session;
+
 //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
 /**
@@ -19,6 +20,38 @@ public abstract class ParticleSystem
 {
   //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+  /** Number of particles still in flight across every particle system. */
+  private static final LongAdder LiveParticles = new LongAdder( );
+
+  /**
+   * Gets the number of particles still in flight across every particle system.
+   *
+   * @return Live particle count.
+   */
+  public static long getLiveParticleCount( )
+  {
+    return ParticleSystem.LiveParticles.sum( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Session the particles are fired in. */
+  private final Session session;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a new particle system.
+   *
+   * @param session - Session the particles are fired in.
+   */
+  protected ParticleSystem( final Session session )
+  {
+    this.session = session;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
   /**
    * Attaches the particle system to the layer and fires the particles.
    *
@@ -32,13 +65,14 @@ public abstract class ParticleSystem
       final Layer particle = this.createParticle( );
       particle.setTranslation( x, y );
       layer.add( particle );
+      ParticleSystem.LiveParticles.increment( );
 
       // Pick a randomized direction to shoot the particle into:
-      final double angle  = new Random( ).nextDouble( ) * ( 2.0 * Math.PI );
-      final double length = new Random( ).nextInt( 50 ) + 25;
+      final double angle  = this.session.getRandom( ).nextDouble( ) * ( 2.0 * Math.PI );
+      final double length = this.session.getRandom( ).nextInt( 50 ) + 25;
 
       // Shoot the particle in the direction:
-      Animator.lerp( particle, ( float )( x + Math.cos( angle ) * length ), ( float )( y + Math.sin( angle ) * length ), this.getParticleDuration( ), new Animator.Callback( )
+      this.session.getAnimator( ).lerp( particle, ( float )( x + Math.cos( angle ) * length ), ( float )( y + Math.sin( angle ) * length ), this.getParticleDuration( ), new Animator.Callback( )
       {
         @Override
         public void onAnimationComplete( )
@@ -50,6 +84,7 @@ public abstract class ParticleSystem
            * exceptions.  Making invisible isn't the best solution but it's more reliable.
            */
           particle.setVisible( false );
+          ParticleSystem.LiveParticles.decrement( );
         }
       });
     }
@@ -102,7 +137,7 @@ public abstract class ParticleSystem
     final int size  = this.getParticleSize( );
     final int color = this.getParticleColor( );
 
-    return PlayN.graphics( ).createImmediateLayer( size, size, new Renderer( )
+    return this.session.graphics( ).createImmediateLayer( size, size, new Renderer( )
     {
       @Override
       public void render( final Surface surface )
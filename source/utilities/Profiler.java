@@ -0,0 +1,361 @@
+package com.bryanchacosky.core.utilities;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import playn.core.GroupLayer;
+import playn.core.Layer;
+
+import com.bryanchacosky.core.Session;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Measures where the frame time of a session goes.  Layer updates and paints are routed
+ * through {@link #update(com.bryanchacosky.core.graphics.Layer, float)} and
+ * {@link #paint(com.bryanchacosky.core.graphics.Layer, float)}, which only read the clock while the profiler is enabled,
+ * so a disabled profiler costs a single branch per call.  Timings are inclusive: a controller's update includes the
+ * updates of the layers it drives.
+ *
+ * Enable the profiler with the <code>skydiver.profiler</code> system property, or toggle it in game.
+ *
+ * @author Bryan Chacosky
+ */
+public class Profiler
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Number of frame times kept for the percentiles. */
+  public static final int FrameHistory = 240;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Accumulated timings of a single layer type over the current report window.
+   */
+  private static class Section
+  {
+    /** Name of the layer type. */
+    private final String name;
+
+    /** Total update time, in nanoseconds. */
+    private long updateTime = 0;
+
+    /** Number of updates. */
+    private int updateCount = 0;
+
+    /** Total paint time, in nanoseconds. */
+    private long paintTime = 0;
+
+    /** Number of paints. */
+    private int paintCount = 0;
+
+    /**
+     * Instantiates a new section.
+     *
+     * @param name - Name of the layer type.
+     */
+    public Section( final String name )
+    {
+      this.name = name;
+    }
+  };
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Garbage collectors of the VM. */
+  private static final List< GarbageCollectorMXBean > Collectors = ManagementFactory.getGarbageCollectorMXBeans( );
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Session being profiled. */
+  private final Session session;
+
+  /** True while the profiler is measuring. */
+  private boolean enabled = Boolean.getBoolean( "skydiver.profiler" );
+
+  /** Recent frame times, in nanoseconds, as a ring buffer. */
+  private final long[ ] frameTimes = new long[ Profiler.FrameHistory ];
+
+  /** Scratch copy of the frame times, sorted for the percentiles. */
+  private final long[ ] sortedFrameTimes = new long[ Profiler.FrameHistory ];
+
+  /** Number of frames recorded into the ring buffer, which may exceed its length. */
+  private int frameCount = 0;
+
+  /** Number of frames since the last report. */
+  private int windowFrameCount = 0;
+
+  /** Time of the last frame, in nanoseconds, or 0 before the first frame. */
+  private long lastFrameTime = 0;
+
+  /** Time of the last report, in nanoseconds. */
+  private long lastReportTime = System.nanoTime( );
+
+  /** Maps a layer type -> section, in order of first appearance. */
+  private final Map< Class< ? >, Section > sectionMap = new IdentityHashMap< Class< ? >, Section >( );
+
+  /** Sections in order of first appearance. */
+  private final List< Section > sections = new LinkedList< Section >( );
+
+  /** Total garbage collections at the last report. */
+  private long lastCollectionCount = Profiler.getCollectionCount( );
+
+  /** Total garbage collection time at the last report, in milliseconds. */
+  private long lastCollectionTime = Profiler.getCollectionTime( );
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a new profiler.
+   *
+   * @param session - Session being profiled.
+   */
+  public Profiler( final Session session )
+  {
+    this.session = session;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Returns true while the profiler is measuring.
+   *
+   * @return True if the profiler is enabled, otherwise false.
+   */
+  public boolean isEnabled( )
+  {
+    return this.enabled;
+  }
+
+  /**
+   * Enables or disables the profiler.  Enabling the profiler starts measuring from scratch.
+   *
+   * @param enabled - True to enable the profiler.
+   */
+  public void setEnabled( final boolean enabled )
+  {
+    if ( enabled == true && this.enabled == false )
+    {
+      this.frameCount = 0;
+      this.windowFrameCount = 0;
+      this.lastFrameTime = 0;
+      this.lastReportTime = System.nanoTime( );
+      this.lastCollectionCount = Profiler.getCollectionCount( );
+      this.lastCollectionTime = Profiler.getCollectionTime( );
+      this.sectionMap.clear( );
+      this.sections.clear( );
+    }
+
+    this.enabled = enabled;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Marks the start of a frame.  Call once per paint.
+   */
+  public void frame( )
+  {
+    if ( this.enabled == false )
+      return;
+
+    final long now = System.nanoTime( );
+    if ( this.lastFrameTime != 0 )
+    {
+      this.frameTimes[ this.frameCount % Profiler.FrameHistory ] = now - this.lastFrameTime;
+      ++this.frameCount;
+    }
+
+    this.lastFrameTime = now;
+    ++this.windowFrameCount;
+  }
+
+  /**
+   * Updates a layer, measuring the time taken if the profiler is enabled.
+   *
+   * @param layer - Layer to update.
+   * @param delta - Delta of the last frame.
+   */
+  public void update( final com.bryanchacosky.core.graphics.Layer layer, final float delta )
+  {
+    if ( this.enabled == false )
+    {
+      layer.update( delta );
+      return;
+    }
+
+    final long start = System.nanoTime( );
+    layer.update( delta );
+    final long duration = System.nanoTime( ) - start;
+
+    final Section section = this.getSection( layer );
+    section.updateTime += duration;
+    ++section.updateCount;
+  }
+
+  /**
+   * Paints a layer, measuring the time taken if the profiler is enabled.
+   *
+   * @param layer - Layer to paint.
+   * @param alpha - Renderable alpha.
+   */
+  public void paint( final com.bryanchacosky.core.graphics.Layer layer, final float alpha )
+  {
+    if ( this.enabled == false )
+    {
+      layer.paint( alpha );
+      return;
+    }
+
+    final long start = System.nanoTime( );
+    layer.paint( alpha );
+    final long duration = System.nanoTime( ) - start;
+
+    final Section section = this.getSection( layer );
+    section.paintTime += duration;
+    ++section.paintCount;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Writes a report of the frame rate, frame times, per-layer costs, live layers, animations and garbage collection
+   * since the last report, and starts a new report window.
+   *
+   * @param lines - Receives the report, one line per entry.
+   */
+  public void report( final List< String > lines )
+  {
+    final long now = System.nanoTime( );
+    final double window = ( now - this.lastReportTime ) / 1.0e9;
+
+    // Frame rate and frame time percentiles:
+    final int frames = Math.min( this.frameCount, Profiler.FrameHistory );
+    System.arraycopy( this.frameTimes, 0, this.sortedFrameTimes, 0, frames );
+    Arrays.sort( this.sortedFrameTimes, 0, frames );
+    lines.add( String.format( "FPS %.1f", window > 0.0 ? this.windowFrameCount / window : 0.0 ) );
+    lines.add( String.format( "Frame p50 %.1f  p90 %.1f  p99 %.1f  max %.1f ms",
+                              this.percentile( frames, 0.50 ), this.percentile( frames, 0.90 ),
+                              this.percentile( frames, 0.99 ), this.percentile( frames, 1.00 ) ) );
+
+    // Scene and scheduler sizes:
+    final Animator animator = this.session.getAnimator( );
+    lines.add( "Layers " + Profiler.countLayers( this.session.graphics( ).rootLayer( ) ) + "  Animations " + animator.getAnimationCount( ) + "  Scrolling " + animator.getScrollingCount( ) + "  Timers " + this.session.getTimers( ).size( ) );
+
+    // Garbage collection since the last report:
+    final long collectionCount = Profiler.getCollectionCount( );
+    final long collectionTime = Profiler.getCollectionTime( );
+    lines.add( "GC " + ( collectionCount - this.lastCollectionCount ) + " pauses, " + ( collectionTime - this.lastCollectionTime ) + " ms" );
+    this.lastCollectionCount = collectionCount;
+    this.lastCollectionTime = collectionTime;
+
+    // Average cost per call of each layer type:
+    for ( final Section section : this.sections )
+    {
+      lines.add( String.format( "%-16s upd %.3f  paint %.3f ms", section.name,
+                                section.updateCount == 0 ? 0.0 : section.updateTime / 1.0e6 / section.updateCount,
+                                section.paintCount == 0 ? 0.0 : section.paintTime / 1.0e6 / section.paintCount ) );
+
+      section.updateTime = 0;
+      section.updateCount = 0;
+      section.paintTime = 0;
+      section.paintCount = 0;
+    }
+
+    this.windowFrameCount = 0;
+    this.lastReportTime = now;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Gets the section of a layer's type, creating it on first use.
+   *
+   * @param layer - Layer.
+   * @return Section.
+   */
+  private Section getSection( final Object layer )
+  {
+    Section section = this.sectionMap.get( layer.getClass( ) );
+    if ( null == section )
+    {
+      section = new Section( layer.getClass( ).getSimpleName( ) );
+      this.sectionMap.put( layer.getClass( ), section );
+      this.sections.add( section );
+    }
+
+    return section;
+  }
+
+  /**
+   * Returns a percentile of the sorted frame times.
+   *
+   * @param frames - Number of sorted frame times.
+   * @param fraction - Percentile, between 0 and 1.
+   * @return Frame time, in milliseconds.
+   */
+  private double percentile( final int frames, final double fraction )
+  {
+    if ( frames == 0 )
+      return 0.0;
+
+    final int index = Math.min( frames - 1, ( int )Math.ceil( fraction * frames ) - 1 );
+    return this.sortedFrameTimes[ Math.max( 0, index ) ] / 1.0e6;
+  }
+
+  /**
+   * Counts a layer and all of its descendants.
+   *
+   * @param layer - Layer.
+   * @return Number of layers.
+   */
+  private static int countLayers( final Layer layer )
+  {
+    int count = 1;
+
+    if ( layer instanceof GroupLayer )
+    {
+      final GroupLayer group = ( GroupLayer )layer;
+      for ( int i = 0; i != group.size( ); ++i )
+        count += Profiler.countLayers( group.get( i ) );
+    }
+
+    return count;
+  }
+
+  /**
+   * Returns the total number of garbage collections so far.
+   *
+   * @return Collection count.
+   */
+  private static long getCollectionCount( )
+  {
+    long count = 0;
+    for ( final GarbageCollectorMXBean collector : Profiler.Collectors )
+      count += Math.max( 0, collector.getCollectionCount( ) );
+    return count;
+  }
+
+  /**
+   * Returns the total time spent in garbage collection so far.
+   *
+   * @return Collection time, in milliseconds.
+   */
+  private static long getCollectionTime( )
+  {
+    long time = 0;
+    for ( final GarbageCollectorMXBean collector : Profiler.Collectors )
+      time += Math.max( 0, collector.getCollectionTime( ) );
+    return time;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
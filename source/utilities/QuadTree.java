@@ -0,0 +1,333 @@
+package com.bryanchacosky.core.utilities;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Region quadtree of rectangles, for finding the rectangle under a point without testing every rectangle.  Each
+ * rectangle lives in the smallest node which fully contains it, so a point query only tests the rectangles along a
+ * single path from the root, which is O(log n) for rectangles spread across the tree.
+ *
+ * Where rectangles overlap, the one put into the tree first keeps the lowest order and the most recently added one
+ * wins, matching the way later layers are drawn over earlier ones.
+ *
+ * @param <T> Type of the values stored with the rectangles.
+ * @author Bryan Chacosky
+ */
+public class QuadTree< T >
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Rectangles a node holds before it splits. */
+  public static final int MaxItems = 8;
+
+  /** Deepest a node can be. */
+  public static final int MaxDepth = 8;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Rectangle stored in the tree.
+   */
+  private static final class Item< T >
+  {
+    /** Value stored with the rectangle. */
+    final T value;
+
+    /** Order the value was first put into the tree; higher orders win. */
+    final long order;
+
+    /** Left edge. */
+    float left;
+
+    /** Top edge. */
+    float top;
+
+    /** Right edge. */
+    float right;
+
+    /** Bottom edge. */
+    float bottom;
+
+    /** Node holding the rectangle. */
+    Node< T > node;
+
+    /**
+     * Instantiates a new item.
+     *
+     * @param value - Value stored with the rectangle.
+     * @param order - Order the value was first put into the tree.
+     */
+    Item( final T value, final long order )
+    {
+      this.value = value;
+      this.order = order;
+    }
+
+    /**
+     * Checks if the rectangle contains a point.
+     *
+     * @param x - X-coordinate.
+     * @param y - Y-coordinate.
+     * @return True if the point is inside the rectangle.
+     */
+    boolean contains( final float x, final float y )
+    {
+      return x >= this.left && x < this.right && y >= this.top && y < this.bottom;
+    }
+  };
+
+  /**
+   * Node of the tree, covering a quarter of its parent.
+   */
+  private static final class Node< T >
+  {
+    /** Left edge of the node. */
+    final float left;
+
+    /** Top edge of the node. */
+    final float top;
+
+    /** Right edge of the node. */
+    final float right;
+
+    /** Bottom edge of the node. */
+    final float bottom;
+
+    /** Depth of the node; the root is at depth 0. */
+    final int depth;
+
+    /** Rectangles held by the node. */
+    final List< Item< T > > items = new ArrayList< Item< T > >( );
+
+    /** Child nodes, in the order top-left, top-right, bottom-left, bottom-right, or null before the node splits. */
+    Node< T >[ ] children = null;
+
+    /**
+     * Instantiates a new node.
+     *
+     * @param left - Left edge of the node.
+     * @param top - Top edge of the node.
+     * @param right - Right edge of the node.
+     * @param bottom - Bottom edge of the node.
+     * @param depth - Depth of the node.
+     */
+    Node( final float left, final float top, final float right, final float bottom, final int depth )
+    {
+      this.left = left;
+      this.top = top;
+      this.right = right;
+      this.bottom = bottom;
+      this.depth = depth;
+    }
+
+    /**
+     * Finds the child which fully contains a rectangle.
+     *
+     * @param item - Rectangle.
+     * @return Child index, or -1 if the rectangle straddles the children.
+     */
+    int childFor( final Item< T > item )
+    {
+      final float centerX = ( this.left + this.right ) / 2;
+      final float centerY = ( this.top + this.bottom ) / 2;
+
+      final int column;
+      if ( item.right <= centerX && item.left >= this.left )        column = 0;
+      else if ( item.left >= centerX && item.right <= this.right )  column = 1;
+      else                                                          return -1;
+
+      final int row;
+      if ( item.bottom <= centerY && item.top >= this.top )         row = 0;
+      else if ( item.top >= centerY && item.bottom <= this.bottom ) row = 1;
+      else                                                          return -1;
+
+      return row * 2 + column;
+    }
+  };
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Root node. */
+  private final Node< T > root;
+
+  /** Maps a value -> its rectangle. */
+  private final Map< T, Item< T > > itemMap = new IdentityHashMap< T, Item< T > >( );
+
+  /** Order given to the next new value. */
+  private long nextOrder = 0;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Instantiates a new quadtree.  Rectangles may fall outside of the area, they are just held by the root.
+   *
+   * @param left - Left edge of the indexed area.
+   * @param top - Top edge of the indexed area.
+   * @param right - Right edge of the indexed area.
+   * @param bottom - Bottom edge of the indexed area.
+   */
+  public QuadTree( final float left, final float top, final float right, final float bottom )
+  {
+    this.root = new Node< T >( left, top, right, bottom, 0 );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Puts a rectangle into the tree, or moves the rectangle of a value already in the tree.
+   *
+   * @param value - Value stored with the rectangle.
+   * @param left - Left edge.
+   * @param top - Top edge.
+   * @param right - Right edge.
+   * @param bottom - Bottom edge.
+   */
+  public void put( final T value, final float left, final float top, final float right, final float bottom )
+  {
+    assert value != null : "Cannot put a null value into the tree!";
+
+    Item< T > item = this.itemMap.get( value );
+    if ( null == item )
+    {
+      item = new Item< T >( value, this.nextOrder++ );
+      this.itemMap.put( value, item );
+    }
+    else
+    {
+      item.node.items.remove( item );
+    }
+
+    item.left = left;
+    item.top = top;
+    item.right = right;
+    item.bottom = bottom;
+    this.insert( this.root, item );
+  }
+
+  /**
+   * Removes the rectangle of a value.
+   *
+   * @param value - Value.
+   * @return True if the value was in the tree.
+   */
+  public boolean remove( final T value )
+  {
+    final Item< T > item = this.itemMap.remove( value );
+    if ( null == item )
+      return false;
+
+    item.node.items.remove( item );
+    return true;
+  }
+
+  /**
+   * Checks if a value is in the tree.
+   *
+   * @param value - Value.
+   * @return True if the value is in the tree.
+   */
+  public boolean contains( final T value )
+  {
+    return this.itemMap.containsKey( value );
+  }
+
+  /**
+   * Gets the number of rectangles in the tree.
+   *
+   * @return Rectangle count.
+   */
+  public int size( )
+  {
+    return this.itemMap.size( );
+  }
+
+  /**
+   * Finds the value of the most recently added rectangle containing a point.
+   *
+   * @param x - X-coordinate.
+   * @param y - Y-coordinate.
+   * @return Value, or null if no rectangle contains the point.
+   */
+  public T find( final float x, final float y )
+  {
+    Item< T > best = null;
+    Node< T > node = this.root;
+
+    while ( null != node )
+    {
+      for ( final Item< T > item : node.items )
+      {
+        if ( item.contains( x, y ) == true && ( null == best || item.order > best.order ) )
+          best = item;
+      }
+
+      // Descend into the quadrant holding the point:
+      if ( null == node.children || x < node.left || x >= node.right || y < node.top || y >= node.bottom )
+        break;
+
+      final float centerX = ( node.left + node.right ) / 2;
+      final float centerY = ( node.top + node.bottom ) / 2;
+      node = node.children[ ( y < centerY ? 0 : 2 ) + ( x < centerX ? 0 : 1 ) ];
+    }
+
+    return null == best ? null : best.value;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Inserts a rectangle into the smallest node below a node which fully contains it.
+   *
+   * @param node - Node to start from.
+   * @param item - Rectangle.
+   */
+  private void insert( Node< T > node, final Item< T > item )
+  {
+    while ( null != node.children )
+    {
+      final int child = node.childFor( item );
+      if ( child < 0 )
+        break;
+      node = node.children[ child ];
+    }
+
+    item.node = node;
+    node.items.add( item );
+
+    if ( null == node.children && node.items.size( ) > QuadTree.MaxItems && node.depth < QuadTree.MaxDepth )
+      this.split( node );
+  }
+
+  /**
+   * Splits a node into four children, pushing down the rectangles which fit in a child.
+   *
+   * @param node - Node.
+   */
+  @SuppressWarnings( { "unchecked", "rawtypes" } )
+  private void split( final Node< T > node )
+  {
+    final float centerX = ( node.left + node.right ) / 2;
+    final float centerY = ( node.top + node.bottom ) / 2;
+    node.children = new Node[ ]
+    {
+      new Node< T >( node.left, node.top, centerX, centerY, node.depth + 1 ),
+      new Node< T >( centerX, node.top, node.right, centerY, node.depth + 1 ),
+      new Node< T >( node.left, centerY, centerX, node.bottom, node.depth + 1 ),
+      new Node< T >( centerX, centerY, node.right, node.bottom, node.depth + 1 )
+    };
+
+    final List< Item< T > > items = new ArrayList< Item< T > >( node.items );
+    node.items.clear( );
+    for ( final Item< T > item : items )
+      this.insert( node, item );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
@@ -0,0 +1,435 @@
+package com.bryanchacosky.core.utilities;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import playn.core.Log;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Event log of the game, written to rotating binary files in the background so that recording an event never blocks
+ * or allocates on a game thread.  Events are copied into a preallocated ring buffer shared by every session: a
+ * recording thread claims the next slot with a compare-and-set, fills in the slot and publishes it.  A single writer
+ * thread collects every published event in order, batches them into one buffer and writes the batch with a single
+ * {@link FileChannel} write.  If the writer falls a full ring behind, new events are dropped and counted rather than
+ * waiting for room.
+ *
+ * Files are written to the directory named by the <code>skydiver.telemetry</code> system property, or
+ * <code>skydiver-telemetry</code> in the temporary directory, and a new file is started every {@value #MaxFileSize}
+ * bytes.  The last {@value #MaxFiles} files in the directory are kept, whichever runs wrote them.  Each file starts with a 16 byte header (magic, version, event size and a reserved word),
+ * followed by {@value #EventSize} byte big-endian events:
+ *
+ * <pre>
+ * long   time        milliseconds since the epoch
+ * int    event       ordinal of the {@link TelemetryEvent}
+ * int    session     id of the session
+ * long   value       whole number value
+ * double measure     measurement
+ * </pre>
+ *
+ * @author Bryan Chacosky
+ */
+public class Telemetry
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Directory the files are written to. */
+  public static final String Directory = System.getProperty( "skydiver.telemetry", Paths.get( System.getProperty( "java.io.tmpdir" ), "skydiver-telemetry" ).toString( ) );
+
+  /** Number of events the ring buffer holds; a power of two. */
+  public static final int Capacity = 8192;
+
+  /** Size of an event in the files, in bytes. */
+  public static final int EventSize = 32;
+
+  /** Size at which a new file is started, in bytes. */
+  public static final long MaxFileSize = 16 * 1024 * 1024;
+
+  /** Number of files kept in the directory. */
+  public static final int MaxFiles = 8;
+
+  /** Time the writer waits for more events once the ring buffer is empty, in milliseconds.  The writer is woken
+   * early once the ring buffer is half full. */
+  public static final long WriteInterval = 100;
+
+  /** Prefix of the file names. */
+  private static final String FilePrefix = "skydiver-telemetry-";
+
+  /** Suffix of the file names. */
+  private static final String FileSuffix = ".bin";
+
+  /** Identifies a telemetry file = "SKYT". */
+  private static final int Magic = 0x534B5954;
+
+  /** Version of the file layout. */
+  private static final int Version = 1;
+
+  /** Size of the file header. */
+  private static final int HeaderSize = 16;
+
+  /** Longs held by each slot of the ring buffer. */
+  private static final int SlotLongs = 4;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Fields of the events in the ring buffer. */
+  private static final long[ ] Slots = new long[ Telemetry.Capacity * Telemetry.SlotLongs ];
+
+  /** Sequence number of the event published in each slot, or -1 before the slot is first used. */
+  private static final AtomicLongArray Published = Telemetry.createPublished( );
+
+  /** Sequence number of the next event to record. */
+  private static final AtomicLong Head = new AtomicLong( 0 );
+
+  /** Sequence number of the next event to write; every slot before it is free. */
+  private static final AtomicLong Tail = new AtomicLong( 0 );
+
+  /** Number of events dropped because the ring buffer was full. */
+  private static final LongAdder Dropped = new LongAdder( );
+
+  /** Writer, or null before {@link #register(Log)}. */
+  private static volatile Writer writer = null;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Background thread writing the events to the files.
+   */
+  private static final class Writer extends Thread
+  {
+    /** Log to report failures to. */
+    private final Log log;
+
+    /** Batch of events being written. */
+    private final ByteBuffer batch = ByteBuffer.allocateDirect( Telemetry.Capacity * Telemetry.EventSize );
+
+    /** Prefix of the file names, unique to the run. */
+    private final String prefix = Telemetry.FilePrefix + System.currentTimeMillis( ) + "-";
+
+    /** Current file, or null before the first batch. */
+    private FileChannel channel = null;
+
+    /** Number of the current file. */
+    private int fileNumber = 0;
+
+    /** Set to write the remaining events and stop. */
+    private volatile boolean stopping = false;
+
+    /**
+     * Instantiates a new writer.
+     *
+     * @param log - Log to report failures to.
+     */
+    Writer( final Log log )
+    {
+      super( "SkyDiver telemetry" );
+      super.setDaemon( true );
+      this.log = log;
+    }
+
+    /**
+     * Writes the remaining events and waits for the writer to stop.
+     */
+    void shutdown( )
+    {
+      this.stopping = true;
+      LockSupport.unpark( this );
+
+      try
+      {
+        this.join( 1000 );
+      }
+      catch ( final InterruptedException exception )
+      {
+        Thread.currentThread( ).interrupt( );
+      }
+    }
+
+    @Override
+    public void run( )
+    {
+      try
+      {
+        Files.createDirectories( Paths.get( Telemetry.Directory ) );
+
+        while ( true )
+        {
+          // Collect every event published so far, in order:
+          final long tail = Telemetry.Tail.get( );
+          int count = 0;
+          this.batch.clear( );
+          while ( count != Telemetry.Capacity && Telemetry.Published.get( Telemetry.index( tail + count ) ) == tail + count )
+          {
+            final int offset = Telemetry.index( tail + count ) * Telemetry.SlotLongs;
+            this.batch.putLong( Telemetry.Slots[ offset ] );
+            this.batch.putLong( Telemetry.Slots[ offset + 1 ] );
+            this.batch.putLong( Telemetry.Slots[ offset + 2 ] );
+            this.batch.putLong( Telemetry.Slots[ offset + 3 ] );
+            ++count;
+          }
+
+          if ( count == 0 )
+          {
+            if ( this.stopping == true )
+              break;
+
+            LockSupport.parkNanos( this, TimeUnit.MILLISECONDS.toNanos( Telemetry.WriteInterval ) );
+            continue;
+          }
+
+          // Free the slots, then write the batch:
+          Telemetry.Tail.set( tail + count );
+          this.batch.flip( );
+          this.write( this.batch );
+        }
+
+        if ( null != this.channel )
+          this.channel.close( );
+      }
+      catch ( final IOException exception )
+      {
+        this.log.warn( "Unable to write the telemetry: " + exception );
+      }
+    }
+
+    /**
+     * Writes a batch to the current file, starting a new file if the batch doesn't fit.
+     *
+     * @param batch - Batch of events.
+     * @throws IOException If the batch can't be written.
+     */
+    private void write( final ByteBuffer batch ) throws IOException
+    {
+      if ( null == this.channel || this.channel.position( ) + batch.remaining( ) > Telemetry.MaxFileSize )
+        this.rotate( );
+
+      while ( batch.hasRemaining( ) == true )
+        this.channel.write( batch );
+    }
+
+    /**
+     * Starts a new file, deleting the oldest files in the directory once there are too many.
+     *
+     * @throws IOException If the file can't be created.
+     */
+    private void rotate( ) throws IOException
+    {
+      if ( null != this.channel )
+        this.channel.close( );
+
+      ++this.fileNumber;
+      this.channel = FileChannel.open( this.path( this.fileNumber ), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE );
+
+      final ByteBuffer header = ByteBuffer.allocate( Telemetry.HeaderSize );
+      header.putInt( Telemetry.Magic ).putInt( Telemetry.Version ).putInt( Telemetry.EventSize ).putInt( 0 );
+      header.flip( );
+      while ( header.hasRemaining( ) == true )
+        this.channel.write( header );
+
+      this.prune( );
+    }
+
+    /**
+     * Deletes the oldest files in the directory, of this run or earlier ones, beyond the {@value Telemetry#MaxFiles}
+     * newest.
+     *
+     * @throws IOException If the directory can't be listed.
+     */
+    private void prune( ) throws IOException
+    {
+      final List< Path > files = new ArrayList< Path >( );
+      try ( final DirectoryStream< Path > stream = Files.newDirectoryStream( Paths.get( Telemetry.Directory ), Telemetry.FilePrefix + "*" + Telemetry.FileSuffix ) )
+      {
+        for ( final Path file : stream )
+        {
+          if ( null != Telemetry.parseFileName( file ) )
+            files.add( file );
+        }
+      }
+
+      if ( files.size( ) <= Telemetry.MaxFiles )
+        return;
+
+      // Oldest first, by the run's start time and then the file number:
+      Collections.sort( files, new Comparator< Path >( )
+      {
+        @Override
+        public int compare( final Path first, final Path second )
+        {
+          final long[ ] a = Telemetry.parseFileName( first );
+          final long[ ] b = Telemetry.parseFileName( second );
+          return a[ 0 ] != b[ 0 ] ? Long.compare( a[ 0 ], b[ 0 ] ) : Long.compare( a[ 1 ], b[ 1 ] );
+        }
+      });
+
+      for ( int i = 0; i != files.size( ) - Telemetry.MaxFiles; ++i )
+        Files.deleteIfExists( files.get( i ) );
+    }
+
+    /**
+     * Gets the path of a file.
+     *
+     * @param number - Number of the file.
+     * @return Path.
+     */
+    private Path path( final int number )
+    {
+      return Paths.get( Telemetry.Directory, this.prefix + number + Telemetry.FileSuffix );
+    }
+  };
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Parses the name of a telemetry file.
+   *
+   * @param file - Path of the file.
+   * @return Start time of the run which wrote the file and the number of the file, or null if the name isn't one the
+   *         writer creates.
+   */
+  private static long[ ] parseFileName( final Path file )
+  {
+    final String name = file.getFileName( ).toString( );
+    if ( name.startsWith( Telemetry.FilePrefix ) == false || name.endsWith( Telemetry.FileSuffix ) == false )
+      return null;
+
+    final String[ ] parts = name.substring( Telemetry.FilePrefix.length( ), name.length( ) - Telemetry.FileSuffix.length( ) ).split( "-" );
+    if ( parts.length != 2 )
+      return null;
+
+    try
+    {
+      return new long[ ] { Long.parseLong( parts[ 0 ] ), Long.parseLong( parts[ 1 ] ) };
+    }
+    catch ( final NumberFormatException exception )
+    {
+      return null;
+    }
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Starts the writer, unless another session already has.  The remaining events are written when the VM exits.
+   * Events recorded before then wait in the ring buffer.
+   *
+   * @param log - Log to report failures to.
+   */
+  public static synchronized void register( final Log log )
+  {
+    if ( null != Telemetry.writer )
+      return;
+
+    final Writer writer = new Writer( log );
+    Runtime.getRuntime( ).addShutdownHook( new Thread( "SkyDiver telemetry shutdown" )
+    {
+      @Override
+      public void run( )
+      {
+        writer.shutdown( );
+      }
+    });
+
+    Telemetry.writer = writer;
+    writer.start( );
+  }
+
+  /**
+   * Records an event.  Never blocks or allocates; the event is dropped if the ring buffer is full.
+   *
+   * @param event - Event.
+   * @param session - Id of the session.
+   * @param value - Whole number value, see {@link TelemetryEvent}.
+   * @param measure - Measurement, see {@link TelemetryEvent}.
+   */
+  public static void record( final TelemetryEvent event, final int session, final long value, final double measure )
+  {
+    final long time = System.currentTimeMillis( );
+
+    // Claim a slot, unless the writer is a full ring behind:
+    long sequence;
+    do
+    {
+      sequence = Telemetry.Head.get( );
+      if ( sequence - Telemetry.Tail.get( ) >= Telemetry.Capacity )
+      {
+        Telemetry.Dropped.increment( );
+        return;
+      }
+    }
+    while ( Telemetry.Head.compareAndSet( sequence, sequence + 1 ) == false );
+
+    // Fill in the slot, then publish it to the writer:
+    final int index = Telemetry.index( sequence );
+    final int offset = index * Telemetry.SlotLongs;
+    Telemetry.Slots[ offset ] = time;
+    Telemetry.Slots[ offset + 1 ] = ( ( long )event.ordinal( ) << 32 ) | ( session & 0xFFFFFFFFL );
+    Telemetry.Slots[ offset + 2 ] = value;
+    Telemetry.Slots[ offset + 3 ] = Double.doubleToRawLongBits( measure );
+    Telemetry.Published.lazySet( index, sequence );
+
+    // Wake the writer early if the events are piling up:
+    if ( sequence - Telemetry.Tail.get( ) == Telemetry.Capacity / 2 )
+    {
+      final Writer writer = Telemetry.writer;
+      if ( null != writer )
+        LockSupport.unpark( writer );
+    }
+  }
+
+  /**
+   * Gets the number of events dropped because the writer fell behind.
+   *
+   * @return Dropped event count.
+   */
+  public static long getDroppedCount( )
+  {
+    return Telemetry.Dropped.sum( );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Gets the slot of an event.
+   *
+   * @param sequence - Sequence number of the event.
+   * @return Slot index.
+   */
+  private static int index( final long sequence )
+  {
+    return ( int )( sequence & ( Telemetry.Capacity - 1 ) );
+  }
+
+  /**
+   * Creates the published sequence numbers, with every slot unused.
+   *
+   * @return Published sequence numbers.
+   */
+  private static AtomicLongArray createPublished( )
+  {
+    final AtomicLongArray published = new AtomicLongArray( Telemetry.Capacity );
+    for ( int i = 0; i != Telemetry.Capacity; ++i )
+      published.set( i, -1 );
+    return published;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.bryanchacosky.core.utilities;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Enumeration of the events recorded by {@link Telemetry}.  Each event carries a whole number value and a measurement,
+ * whose meaning depends on the event.
+ *
+ * @author Bryan Chacosky
+ */
+public enum TelemetryEvent
+{
+  /** Session started.  Value is the window width, measurement the window height. */
+  SessionStart,
+
+  /** Round started.  Value is the round seed. */
+  RoundStart,
+
+  /** Jumper left the helicopter.  Value is the round time, in milliseconds. */
+  Jump,
+
+  /** Parachute opened.  Value is the round time, in milliseconds. */
+  Deploy,
+
+  /** Jumper reached the ground.  Value is the round time in milliseconds, measurement the landing velocity. */
+  Landing,
+
+  /** Jumper landed too fast.  Value is the round seed, measurement the landing velocity. */
+  Splat,
+
+  /** Round scored.  Value is the score, measurement the percentage of the best achievable score. */
+  Score;
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file
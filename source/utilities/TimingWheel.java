@@ -0,0 +1,349 @@
+package com.bryanchacosky.core.utilities;
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Runs a session's delayed and repeating callbacks on the game clock.  The clock is advanced by the game's updates
+ * rather than the wall clock, scaled by a {@link #setTimeScale(float) time scale}, so the callbacks pause with the game,
+ * run in slow motion while debugging, or fast-forward through a headless run; and they run on the game thread, where
+ * they're free to touch the layers.
+ *
+ * Timers are kept in a hierarchical timing wheel of {@value #LevelCount} levels of {@value #SlotCount} slots.  The
+ * first level holds the timers due within {@value #SlotCount} milliseconds, a slot to the millisecond; each level
+ * after it covers {@value #SlotCount} times the span of the one before, and its slots are moved down a level as the
+ * clock reaches them.  Scheduling and cancelling a timer is a constant time list insertion or removal, however many
+ * timers are waiting.
+ *
+ * The default time scale is read from the <code>skydiver.timescale</code> system property.
+ *
+ * @author Bryan Chacosky
+ */
+public class TimingWheel
+{
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Time scale of a new wheel. */
+  public static final float DefaultTimeScale = Float.parseFloat( System.getProperty( "skydiver.timescale", "1.0" ) );
+
+  /** Number of bits indexing the slots of a level. */
+  private static final int SlotBits = 6;
+
+  /** Number of slots in each level. */
+  public static final int SlotCount = 1 << TimingWheel.SlotBits;
+
+  /** Number of levels. */
+  public static final int LevelCount = 4;
+
+  /** Longest delay which fits the wheel, in milliseconds; longer delays are moved down the top level until they do. */
+  private static final long MaximumDelay = ( 1L << ( TimingWheel.SlotBits * TimingWheel.LevelCount ) ) - 1;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Timer callback.
+   */
+  public static interface Callback
+  {
+    /**
+     * This method is called when the timer is due.
+     *
+     * @param timer - Timer, which a repeating callback can cancel.
+     */
+    public void onTimer( final Timer timer );
+  };
+
+  /**
+   * Timer scheduled on a wheel.
+   */
+  public static final class Timer
+  {
+    /** Callback. */
+    private final Callback callback;
+
+    /** Time between repeats, in milliseconds, or 0 to run once. */
+    private final long period;
+
+    /** Game time the timer is due, in milliseconds. */
+    private long deadline;
+
+    /** Wheel the timer is scheduled on, or null once it has run or been cancelled. */
+    private TimingWheel wheel = null;
+
+    /** Level of the slot holding the timer. */
+    private int level;
+
+    /** Index of the slot holding the timer. */
+    private int slot;
+
+    /** Previous timer in the slot. */
+    private Timer previous = null;
+
+    /** Next timer in the slot. */
+    private Timer next = null;
+
+    /**
+     * Instantiates a new timer.
+     *
+     * @param callback - Callback.
+     * @param deadline - Game time the timer is due.
+     * @param period - Time between repeats, or 0 to run once.
+     */
+    private Timer( final Callback callback, final long deadline, final long period )
+    {
+      this.callback = callback;
+      this.deadline = deadline;
+      this.period = period;
+    }
+
+    /**
+     * Cancels the timer.  Does nothing if it has already run or been cancelled.
+     */
+    public void cancel( )
+    {
+      if ( null != this.wheel )
+        this.wheel.remove( this );
+    }
+
+    /**
+     * Returns true until the timer has run for the last time or been cancelled.
+     *
+     * @return True if the timer is scheduled, otherwise false.
+     */
+    public boolean isScheduled( )
+    {
+      return null != this.wheel;
+    }
+  };
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** First timer in each slot, by level and slot. */
+  private final Timer[ ][ ] slots = new Timer[ TimingWheel.LevelCount ][ TimingWheel.SlotCount ];
+
+  /** Game time, in milliseconds. */
+  private double time = 0.0;
+
+  /** Last millisecond of game time whose timers have run. */
+  private long tick = 0;
+
+  /** Multiplies the time the clock is advanced by. */
+  private float timeScale = TimingWheel.DefaultTimeScale;
+
+  /** Number of timers scheduled. */
+  private int size = 0;
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Schedules a callback to run once.
+   *
+   * @param callback - Callback.
+   * @param delay - Game time until the callback runs, in milliseconds.  It runs no sooner than the next millisecond.
+   * @return Timer, which can be cancelled.
+   */
+  public Timer schedule( final Callback callback, final long delay )
+  {
+    return this.add( callback, delay, 0 );
+  }
+
+  /**
+   * Schedules a callback to repeat at a fixed rate until it's cancelled.  Should the clock jump ahead, such as when
+   * fast-forwarding, the callback runs once for every period it passed.
+   *
+   * @param callback - Callback.
+   * @param delay - Game time until the first run, in milliseconds.  It runs no sooner than the next millisecond.
+   * @param period - Game time between runs, in milliseconds.
+   * @return Timer, which can be cancelled.
+   */
+  public Timer scheduleAtFixedRate( final Callback callback, final long delay, final long period )
+  {
+    assert period > 0 : "Cannot repeat a timer without a positive period!";
+    return this.add( callback, delay, period );
+  }
+
+  /**
+   * Advances the game clock, running every timer which becomes due in order.
+   *
+   * @param delta - Time passed, in milliseconds, before it's scaled.
+   */
+  public void advance( final float delta )
+  {
+    this.time += delta * this.timeScale;
+    final long target = ( long )this.time;
+    while ( this.tick < target )
+    {
+      ++this.tick;
+
+      // Move the timers due in the slots reached down a level, from the top level down:
+      if ( ( this.tick & ( TimingWheel.SlotCount - 1 ) ) == 0 )
+        this.cascade( 1 );
+
+      // Run the timers due this millisecond:
+      final int slot = ( int )( this.tick & ( TimingWheel.SlotCount - 1 ) );
+      Timer timer;
+      while ( ( timer = this.slots[ 0 ][ slot ] ) != null )
+      {
+        this.remove( timer );
+        if ( timer.period > 0 )
+        {
+          timer.deadline += timer.period;
+          this.insert( timer );
+        }
+
+        timer.callback.onTimer( timer );
+      }
+    }
+  }
+
+  /**
+   * Cancels every timer.
+   */
+  public void clear( )
+  {
+    for ( int level = 0; level != TimingWheel.LevelCount; ++level )
+    {
+      for ( int slot = 0; slot != TimingWheel.SlotCount; ++slot )
+      {
+        while ( null != this.slots[ level ][ slot ] )
+          this.remove( this.slots[ level ][ slot ] );
+      }
+    }
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Creates and schedules a timer.
+   *
+   * @param callback - Callback.
+   * @param delay - Game time until the first run.
+   * @param period - Time between repeats, or 0 to run once.
+   * @return Timer.
+   */
+  private Timer add( final Callback callback, final long delay, final long period )
+  {
+    assert callback != null : "Cannot schedule a null callback!";
+    assert delay >= 0 : "Cannot schedule a timer in the past!";
+
+    final Timer timer = new Timer( callback, this.tick + Math.max( 1, delay ), period );
+    this.insert( timer );
+    return timer;
+  }
+
+  /**
+   * Links a timer into the slot of its deadline: the first level whose span reaches it.
+   *
+   * @param timer - Timer.
+   */
+  private void insert( final Timer timer )
+  {
+    final long delay = Math.min( timer.deadline - this.tick, TimingWheel.MaximumDelay );
+    final long due = this.tick + delay;
+
+    int level = 0;
+    while ( level != TimingWheel.LevelCount - 1 && delay >= 1L << ( TimingWheel.SlotBits * ( level + 1 ) ) )
+      ++level;
+
+    timer.wheel = this;
+    timer.level = level;
+    timer.slot = ( int )( ( due >> ( TimingWheel.SlotBits * level ) ) & ( TimingWheel.SlotCount - 1 ) );
+    timer.previous = null;
+    timer.next = this.slots[ level ][ timer.slot ];
+    if ( null != timer.next )
+      timer.next.previous = timer;
+    this.slots[ level ][ timer.slot ] = timer;
+    ++this.size;
+  }
+
+  /**
+   * Unlinks a timer from its slot.
+   *
+   * @param timer - Timer.
+   */
+  private void remove( final Timer timer )
+  {
+    if ( null == timer.previous )
+      this.slots[ timer.level ][ timer.slot ] = timer.next;
+    else
+      timer.previous.next = timer.next;
+    if ( null != timer.next )
+      timer.next.previous = timer.previous;
+
+    timer.wheel = null;
+    timer.previous = null;
+    timer.next = null;
+    --this.size;
+  }
+
+  /**
+   * Moves the timers in the slot the clock has reached on a level down to the levels below, once the levels above have
+   * done the same.
+   *
+   * @param level - Level.
+   */
+  private void cascade( final int level )
+  {
+    final int shift = TimingWheel.SlotBits * level;
+    final int slot = ( int )( ( this.tick >> shift ) & ( TimingWheel.SlotCount - 1 ) );
+    if ( slot == 0 && level != TimingWheel.LevelCount - 1 )
+      this.cascade( level + 1 );
+
+    // Take the whole slot first, since a timer too far off for the wheel goes back into the top level:
+    Timer timer = this.slots[ level ][ slot ];
+    this.slots[ level ][ slot ] = null;
+    while ( null != timer )
+    {
+      final Timer next = timer.next;
+      --this.size;
+      this.insert( timer );
+      timer = next;
+    }
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Gets the game time.
+   *
+   * @return Time, in milliseconds.
+   */
+  public double getTime( )
+  {
+    return this.time;
+  }
+
+  /**
+   * Gets the time scale.
+   *
+   * @return Time scale.
+   */
+  public float getTimeScale( )
+  {
+    return this.timeScale;
+  }
+
+  /**
+   * Sets the time scale: 1 runs at real time, 0 pauses, below 1 is slow motion and above 1 fast-forwards.
+   *
+   * @param timeScale - Time scale.
+   */
+  public void setTimeScale( final float timeScale )
+  {
+    assert timeScale >= 0.0f : "Cannot run the clock backwards!";
+    this.timeScale = timeScale;
+  }
+
+  /**
+   * Gets the number of timers scheduled.
+   *
+   * @return Timer count.
+   */
+  public int size( )
+  {
+    return this.size;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+}
+
+//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
\ No newline at end of file